@@ -0,0 +1,93 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import info.openrocket.core.aerodynamics.AerodynamicCoefficientCache;
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.aerodynamics.BarrowmanCalculator;
+import info.openrocket.core.aerodynamics.FlightConditions;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+
+/**
+ * Benchmarks {@link BarrowmanCalculator#getAerodynamicForces}, the aerodynamic evaluation
+ * performed four times per RK4 step.  Each invocation evaluates the forces along a
+ * synthetic 10 s flight, so the Mach number and angle of attack change between calls
+ * like they do in a simulation, and the coefficient cache starts empty for every flight.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AerodynamicsBenchmark {
+
+	/** Number of evaluations along the flight, one per 0.01 s */
+	private static final int STEPS = 1000;
+
+	@Param({ "ESTES_ALPHA_III", "FALCON_9_HEAVY" })
+	public BenchmarkSetup.Design design;
+
+	@Param({ "false", "true" })
+	public boolean coefficientCache;
+
+	private FlightConfiguration configuration;
+	private FlightConditions conditions;
+	private BarrowmanCalculator calculator;
+	private AerodynamicCoefficientCache cache;
+	private final double[] mach = new double[STEPS];
+	private final double[] aoa = new double[STEPS];
+	private final WarningSet warnings = new WarningSet();
+
+	@Setup
+	public void setup() {
+		BenchmarkSetup.initialize();
+		Rocket rocket = design.create();
+		configuration = rocket.getSelectedConfiguration();
+		conditions = new FlightConditions(configuration);
+		conditions.setTheta(Math.toRadians(45));
+		conditions.setRollRate(0.5);
+		calculator = new BarrowmanCalculator();
+		if (coefficientCache) {
+			cache = new AerodynamicCoefficientCache();
+		}
+
+		// Boost to Mach 0.6, coast to apogee and descend slowly, with a decaying
+		// weathercocking oscillation of the angle of attack
+		for (int i = 0; i < STEPS; i++) {
+			double t = i * 0.01;
+			if (t < 1.5) {
+				mach[i] = 0.6 * t / 1.5;
+			} else if (t < 6) {
+				mach[i] = 0.6 * (6 - t) / 4.5;
+			} else {
+				mach[i] = 0.05 * Math.min(1, (t - 6) / 0.5);
+			}
+			aoa[i] = Math.toRadians(2 + 1.5 * Math.exp(-t / 3) * Math.sin(2 * Math.PI * t / 0.4));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public void aerodynamicForces(Blackhole blackhole) {
+		if (cache != null) {
+			calculator.setCoefficientCache(cache.newInstance());
+		}
+		for (int i = 0; i < STEPS; i++) {
+			conditions.setMach(mach[i]);
+			conditions.setAOA(aoa[i]);
+			AerodynamicForces forces = calculator.getAerodynamicForces(configuration, conditions, warnings);
+			blackhole.consume(forces);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package info.openrocket.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import info.openrocket.core.ServicesForTesting;
+import info.openrocket.core.plugin.PluginModule;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.startup.Application;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Shared setup of the benchmarks.
+ */
+final class BenchmarkSetup {
+
+	/** The directory of the example designs bundled with OpenRocket */
+	static final String EXAMPLES = "datafiles/examples/";
+
+	private static boolean initialized = false;
+
+	private BenchmarkSetup() {
+	}
+
+	/**
+	 * Initialize the application services.  Safe to call from every benchmark setup.
+	 */
+	static synchronized void initialize() {
+		if (initialized) {
+			return;
+		}
+		Injector injector = Guice.createInjector(new ServicesForTesting(), new PluginModule());
+		Application.setInjector(injector);
+		initialized = true;
+	}
+
+	/**
+	 * The designs of {@link TestRockets} used by the benchmarks.
+	 */
+	enum Design {
+		ESTES_ALPHA_III {
+			@Override
+			Rocket create() {
+				return TestRockets.makeEstesAlphaIII();
+			}
+		},
+		BETA {
+			@Override
+			Rocket create() {
+				return TestRockets.makeBeta();
+			}
+		},
+		FALCON_9_HEAVY {
+			@Override
+			Rocket create() {
+				return TestRockets.makeFalcon9Heavy();
+			}
+		};
+
+		abstract Rocket create();
+	}
+
+	/**
+	 * Read a bundled example design.
+	 */
+	static byte[] readExample(String name) throws IOException {
+		try (InputStream in = BenchmarkSetup.class.getClassLoader().getResourceAsStream(EXAMPLES + name)) {
+			if (in == null) {
+				throw new IOException("Example design not found: " + name);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			in.transferTo(out);
+			return out.toByteArray();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package info.openrocket.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.file.GeneralRocketLoader;
+import info.openrocket.core.file.RocketLoadException;
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
+
+/**
+ * Benchmarks loading and saving the example designs bundled with OpenRocket.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FileBenchmark {
+
+	@Param({ "A simple model rocket.ork", "Clustered motors.ork", "Parallel booster staging.ork" })
+	public String example;
+
+	private byte[] data;
+	private OpenRocketDocument document;
+	private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+	@Setup
+	public void setup() throws IOException, RocketLoadException {
+		BenchmarkSetup.initialize();
+		data = BenchmarkSetup.readExample(example);
+		document = load();
+	}
+
+	@Benchmark
+	public OpenRocketDocument load() throws RocketLoadException {
+		return new GeneralRocketLoader(new File(example)).load(new ByteArrayInputStream(data), example);
+	}
+
+	@Benchmark
+	public int save() throws IOException {
+		output.reset();
+		StorageOptions options = new StorageOptions();
+		new OpenRocketSaver().save(output, document, options, new WarningSet(), new ErrorSet());
+		return output.size();
+	}
+}
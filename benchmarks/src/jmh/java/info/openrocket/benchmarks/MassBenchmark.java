@@ -0,0 +1,52 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.masscalc.MassCalculator;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+
+/**
+ * Benchmarks the mass property calculations of {@link MassCalculator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MassBenchmark {
+
+	@Param({ "ESTES_ALPHA_III", "FALCON_9_HEAVY" })
+	public BenchmarkSetup.Design design;
+
+	private FlightConfiguration configuration;
+	private final MassCalculator calculator = new MassCalculator();
+
+	@Setup
+	public void setup() {
+		BenchmarkSetup.initialize();
+		configuration = design.create().getSelectedConfiguration();
+	}
+
+	@Benchmark
+	public RigidBody launchMass() {
+		return MassCalculator.calculateLaunch(configuration);
+	}
+
+	@Benchmark
+	public RigidBody structureMass() {
+		return MassCalculator.calculateStructure(configuration);
+	}
+
+	@Benchmark
+	public RigidBody cachedStructureMass() {
+		return calculator.getCachedStructure(configuration);
+	}
+}
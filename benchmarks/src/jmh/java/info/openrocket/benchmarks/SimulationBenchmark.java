@@ -0,0 +1,103 @@
+package info.openrocket.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.RK4SimulationStepper;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Benchmarks complete simulations of the Estes Alpha III and RK4 integration steps
+ * taken from its powered flight.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+public class SimulationBenchmark {
+
+	/** Simulation time at which the flight state used by the step benchmark is captured */
+	private static final double CAPTURE_TIME = 1.0;
+
+	/** Number of steps taken from the captured state per invocation */
+	private static final int STEPS_PER_INVOCATION = 64;
+
+	private Rocket rocket;
+	private SimulationStatus captured;
+	private RK4SimulationStepper stepper;
+	private SimulationStatus status;
+
+	@Setup(Level.Trial)
+	public void setup() throws SimulationException {
+		BenchmarkSetup.initialize();
+		rocket = TestRockets.makeEstesAlphaIII();
+
+		Simulation simulation = createSimulation();
+		simulation.simulate(new AbstractSimulationListener() {
+			@Override
+			public void postStep(SimulationStatus s) {
+				if (captured == null && s.getSimulationTime() >= CAPTURE_TIME) {
+					captured = new SimulationStatus(s);
+				}
+			}
+		});
+		if (captured == null) {
+			throw new IllegalStateException("Simulation ended before " + CAPTURE_TIME + " s");
+		}
+	}
+
+	private Simulation createSimulation() {
+		Simulation simulation = new Simulation(rocket);
+		simulation.getOptions().setISAAtmosphere(true);
+		simulation.getOptions().setTimeStep(0.05);
+		simulation.getOptions().setRandomSeed(42);
+		simulation.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		return simulation;
+	}
+
+	private void resetStatus() {
+		SimulationStatus copy = new SimulationStatus(captured);
+		// A fresh branch keeps the recorded data from growing without bound
+		copy.setFlightDataBranch(new FlightDataBranch("Benchmark", FlightDataType.TYPE_TIME));
+		stepper = new RK4SimulationStepper();
+		status = stepper.initialize(copy);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Simulation simulate() throws SimulationException {
+		Simulation simulation = createSimulation();
+		simulation.simulate();
+		return simulation;
+	}
+
+	/**
+	 * Take a batch of steps from the captured state.  The steps are too short to be timed
+	 * one per invocation, so restoring the state is included in the measured time, spread
+	 * over the steps of the batch.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(STEPS_PER_INVOCATION)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public SimulationStatus rk4Step() throws SimulationException {
+		resetStatus();
+		for (int i = 0; i < STEPS_PER_INVOCATION; i++) {
+			stepper.step(status, 0.01);
+		}
+		return status;
+	}
+}
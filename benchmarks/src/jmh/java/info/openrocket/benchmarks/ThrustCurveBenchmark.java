@@ -0,0 +1,73 @@
+package info.openrocket.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.MotorConfiguration;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.util.TestRockets;
+
+/**
+ * Benchmarks the thrust and mass lookups of a {@link ThrustCurveMotor} at times spread
+ * over the burn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThrustCurveBenchmark {
+
+	private static final int TIME_COUNT = 1024;
+
+	private ThrustCurveMotor motor;
+	private final double[] times = new double[TIME_COUNT];
+	private int index = 0;
+
+	@Setup
+	public void setup() {
+		BenchmarkSetup.initialize();
+		FlightConfiguration configuration = TestRockets.makeEstesAlphaIII()
+				.getFlightConfiguration(TestRockets.TEST_FCID_0);
+		for (MotorConfiguration mc : configuration.getActiveMotors()) {
+			Motor m = mc.getMotor();
+			if (m instanceof ThrustCurveMotor) {
+				motor = (ThrustCurveMotor) m;
+				break;
+			}
+		}
+		if (motor == null) {
+			throw new IllegalStateException("Test design has no thrust curve motor");
+		}
+
+		// Times from before ignition to after burnout, in a fixed pseudo-random order
+		double burnTime = motor.getBurnTimeEstimate();
+		Random random = new Random(0);
+		for (int i = 0; i < TIME_COUNT; i++) {
+			times[i] = (random.nextDouble() * 1.2 - 0.1) * burnTime;
+		}
+	}
+
+	private double nextTime() {
+		index = (index + 1) & (TIME_COUNT - 1);
+		return times[index];
+	}
+
+	@Benchmark
+	public double thrust() {
+		return motor.getThrust(nextTime());
+	}
+
+	@Benchmark
+	public double totalMass() {
+		return motor.getTotalMass(nextTime());
+	}
+}
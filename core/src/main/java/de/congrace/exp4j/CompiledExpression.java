@@ -0,0 +1,291 @@
+package de.congrace.exp4j;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An expression compiled once into a program that is evaluated on primitive values.
+ * <p>
+ * The variables referenced by the expression are assigned to slots in the order of
+ * {@link #getVariableNames()}.  The expression is evaluated against an array of the slot
+ * values, using a stack array supplied by the caller, so that no {@link Variable} objects
+ * are created.  Only custom functions are still called with {@link Variable} arguments,
+ * and an invalid result of a custom function is taken as NaN.  Array valued variables are
+ * not supported.
+ * <p>
+ * Unless disabled by the system property {@value ExpressionLinker#ENABLED_PROPERTY}, the
+ * program is also linked into a tree of method handles, which the JVM compiles like an
+ * ordinary method.  Programs that cannot be linked are evaluated by the interpreter.
+ * <p>
+ * A compiled expression is immutable, and may be evaluated concurrently by several
+ * threads as long as each uses its own stack array.
+ */
+public final class CompiledExpression {
+
+	static final int CONSTANT = 0;
+	static final int VARIABLE = 1;
+	static final int ADD = 2;
+	static final int SUBTRACT = 3;
+	static final int MULTIPLY = 4;
+	static final int DIVIDE = 5;
+	static final int MODULO = 6;
+	static final int POWER = 7;
+	static final int NEGATE = 8;
+	static final int FUNCTION = 9;
+	static final int CUSTOM_FUNCTION = 10;
+
+	/** Pairs of an instruction and its operand */
+	private final int[] code;
+	private final double[] constants;
+	private final FunctionToken[] functions;
+	private final CustomFunction[] customFunctions;
+	private final String[] variableNames;
+	private final int stackSize;
+	/** The linked program of type (double[])double, or null to interpret the program */
+	private final MethodHandle linked;
+
+	private CompiledExpression(int[] code, double[] constants, FunctionToken[] functions,
+			CustomFunction[] customFunctions, String[] variableNames, int stackSize) {
+		this.code = code;
+		this.constants = constants;
+		this.functions = functions;
+		this.customFunctions = customFunctions;
+		this.variableNames = variableNames;
+		this.stackSize = stackSize;
+		this.linked = ExpressionLinker.link(code, constants, functions, customFunctions);
+	}
+
+	/**
+	 * Compile the tokens of a postfix expression.
+	 *
+	 * @throws UnparsableExpressionException	if the tokens do not form a valid expression.
+	 */
+	static CompiledExpression compile(Token[] tokens) throws UnparsableExpressionException {
+		int[] code = new int[2 * tokens.length];
+		List<Double> constants = new ArrayList<Double>();
+		List<FunctionToken> functions = new ArrayList<FunctionToken>();
+		List<CustomFunction> customFunctions = new ArrayList<CustomFunction>();
+		Map<String, Integer> slots = new LinkedHashMap<String, Integer>();
+
+		int depth = 0;
+		int maxDepth = 0;
+		for (int i = 0; i < tokens.length; i++) {
+			Token token = tokens[i];
+			int instruction;
+			int operand = 0;
+			int operands;
+			if (token instanceof NumberToken) {
+				instruction = CONSTANT;
+				operand = constants.size();
+				constants.add(Double.parseDouble(token.getValue()));
+				operands = 0;
+			} else if (token instanceof VariableToken) {
+				instruction = VARIABLE;
+				Integer slot = slots.get(token.getValue());
+				if (slot == null) {
+					slot = slots.size();
+					slots.put(token.getValue(), slot);
+				}
+				operand = slot;
+				operands = 0;
+			} else if (token instanceof OperatorToken) {
+				OperatorToken operator = (OperatorToken) token;
+				switch (operator.getOperation()) {
+				case ADDITION:
+					instruction = ADD;
+					break;
+				case SUBTRACTION:
+					instruction = SUBTRACT;
+					break;
+				case MULTIPLICATION:
+					instruction = MULTIPLY;
+					break;
+				case DIVISION:
+					instruction = DIVIDE;
+					break;
+				case MODULO:
+					instruction = MODULO;
+					break;
+				case EXPONENTIATION:
+					instruction = POWER;
+					break;
+				case UNARY_MINUS:
+					instruction = NEGATE;
+					break;
+				default:
+					// Unary plus does not change the value
+					if (depth < 1) {
+						throw new UnparsableExpressionException("Missing operand for '" + token.getValue() + "'");
+					}
+					code[2 * i] = -1;
+					continue;
+				}
+				operands = operator.getOperandCount();
+			} else if (token instanceof FunctionToken) {
+				instruction = FUNCTION;
+				operand = functions.size();
+				functions.add((FunctionToken) token);
+				operands = 1;
+			} else if (token instanceof CustomFunction) {
+				instruction = CUSTOM_FUNCTION;
+				operand = customFunctions.size();
+				customFunctions.add((CustomFunction) token);
+				operands = ((CustomFunction) token).getArgumentCount();
+			} else {
+				throw new UnparsableExpressionException("Unexpected '" + token.getValue() + "' in expression");
+			}
+
+			if (depth < operands) {
+				throw new UnparsableExpressionException("Missing operand for '" + token.getValue() + "'");
+			}
+			depth = depth - operands + 1;
+			maxDepth = Math.max(maxDepth, depth);
+			code[2 * i] = instruction;
+			code[2 * i + 1] = operand;
+		}
+		if (depth != 1) {
+			throw new UnparsableExpressionException("Expression does not have a single value");
+		}
+
+		// Remove the skipped instructions
+		int length = 0;
+		for (int i = 0; i < code.length; i += 2) {
+			if (code[i] >= 0) {
+				code[length++] = code[i];
+				code[length++] = code[i + 1];
+			}
+		}
+		int[] trimmed = new int[length];
+		System.arraycopy(code, 0, trimmed, 0, length);
+
+		double[] constantValues = new double[constants.size()];
+		for (int i = 0; i < constantValues.length; i++) {
+			constantValues[i] = constants.get(i);
+		}
+
+		return new CompiledExpression(trimmed, constantValues,
+				functions.toArray(new FunctionToken[0]),
+				customFunctions.toArray(new CustomFunction[0]),
+				slots.keySet().toArray(new String[0]), maxDepth);
+	}
+
+	/**
+	 * Return the names of the variables referenced by the expression, in the order of
+	 * their slots.
+	 */
+	public String[] getVariableNames() {
+		return variableNames.clone();
+	}
+
+	/**
+	 * Return the length of the stack array needed for evaluation.
+	 */
+	public int getStackSize() {
+		return stackSize;
+	}
+
+	/**
+	 * Return whether the program is linked into method handles, rather than interpreted.
+	 */
+	public boolean isLinked() {
+		return linked != null;
+	}
+
+	/**
+	 * Evaluate the expression.
+	 *
+	 * @param variables		the values of the variables, in the order of
+	 * 						{@link #getVariableNames()}.
+	 * @param stack			an array of at least {@link #getStackSize()} elements used
+	 * 						during evaluation.  It is not used if the program is linked.
+	 * @return				the value of the expression.
+	 */
+	public double evaluate(double[] variables, double[] stack) {
+		if (linked != null) {
+			try {
+				return (double) linked.invokeExact(variables);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		return interpret(variables, stack);
+	}
+
+	/**
+	 * Evaluate the expression with the interpreter, even if the program is linked.
+	 *
+	 * @param variables		the values of the variables, in the order of
+	 * 						{@link #getVariableNames()}.
+	 * @param stack			an array of at least {@link #getStackSize()} elements used
+	 * 						during evaluation.
+	 * @return				the value of the expression.
+	 */
+	public double interpret(double[] variables, double[] stack) {
+		int top = -1;
+		for (int pc = 0; pc < code.length; pc += 2) {
+			switch (code[pc]) {
+			case CONSTANT:
+				stack[++top] = constants[code[pc + 1]];
+				break;
+			case VARIABLE:
+				stack[++top] = variables[code[pc + 1]];
+				break;
+			case ADD:
+				top--;
+				stack[top] = stack[top] + stack[top + 1];
+				break;
+			case SUBTRACT:
+				top--;
+				stack[top] = stack[top] - stack[top + 1];
+				break;
+			case MULTIPLY:
+				top--;
+				stack[top] = stack[top] * stack[top + 1];
+				break;
+			case DIVIDE:
+				top--;
+				stack[top] = stack[top] / stack[top + 1];
+				break;
+			case MODULO:
+				top--;
+				stack[top] = stack[top] % stack[top + 1];
+				break;
+			case POWER:
+				top--;
+				stack[top] = Math.pow(stack[top], stack[top + 1]);
+				break;
+			case NEGATE:
+				stack[top] = -stack[top];
+				break;
+			case FUNCTION:
+				stack[top] = functions[code[pc + 1]].applyFunction(stack[top]);
+				break;
+			case CUSTOM_FUNCTION:
+				CustomFunction function = customFunctions[code[pc + 1]];
+				top -= function.getArgumentCount() - 1;
+				stack[top] = applyCustomFunction(function, stack, top);
+				break;
+			}
+		}
+		return stack[0];
+	}
+
+	/*
+	 * Apply a custom function to the values starting at an offset of an array.  An invalid
+	 * result is taken as NaN.
+	 */
+	static double applyCustomFunction(CustomFunction function, double[] values, int offset) {
+		int argc = function.getArgumentCount();
+		List<Variable> args = new ArrayList<Variable>(argc);
+		for (int i = 0; i < argc; i++) {
+			args.add(new Variable(function.getValue(), values[offset + i]));
+		}
+		Variable result = function.applyFunction(args);
+		return (result.getPrimary() == Variable.Primary.PLACEHOLDER) ? Double.NaN : result.getDoubleValue();
+	}
+}
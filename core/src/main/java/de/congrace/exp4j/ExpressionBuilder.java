@@ -2,7 +2,11 @@ package de.congrace.exp4j;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * This is Builder implementation for the exp4j API used to create a Calculable
@@ -12,6 +16,21 @@ import java.util.Set;
  * 
  */
 public class ExpressionBuilder {
+	/** Number of compiled expressions kept in the cache */
+	private static final int COMPILED_CACHE_SIZE = 256;
+
+	/*
+	 * Compiled expressions by the expression text and the custom functions available,
+	 * least recently used first
+	 */
+	private static final Map<List<Object>, CompiledExpression> compiledCache =
+			new LinkedHashMap<List<Object>, CompiledExpression>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<List<Object>, CompiledExpression> eldest) {
+					return size() > COMPILED_CACHE_SIZE;
+				}
+			};
+
 	private VariableSet variables = new VariableSet();
 	private final Set<CustomFunction> customFunctions = new HashSet<CustomFunction>();
 
@@ -39,17 +58,7 @@ public class ExpressionBuilder {
 	 *             if the expression could not be parsed
 	 */
 	public Calculable build() throws UnknownFunctionException, UnparsableExpressionException {
-		if (expression.indexOf('=') == -1 && !variables.isEmpty()) {
-
-			// User supplied an expression without leading "f(...)="
-			// so we just append the user function to a proper "f()="
-			// for PostfixExpression.fromInfix()
-			StringBuilder function = new StringBuilder("f(");
-			for (String name : variables.getVariableNames()) {
-				function.append(name).append(',');
-			}
-			expression = function.deleteCharAt(function.length() - 1).toString() + ")=" + expression;
-		}
+		addFunctionHeader();
 		// create the PostfixExpression and return it as a Calculable
 		PostfixExpression delegate = PostfixExpression.fromInfix(expression, customFunctions);
 		for (Variable var : variables ) {			
@@ -63,6 +72,56 @@ public class ExpressionBuilder {
 		return delegate;
 	}
 
+	/**
+	 * build the expression and compile it for repeated evaluation with primitive
+	 * variable values.  Compiled expressions are cached by the expression text, the
+	 * variable names and the custom functions, so compiling the same expression again returns the
+	 * same instance.
+	 * 
+	 * @return the {@link CompiledExpression}
+	 * @throws UnknownFunctionException
+	 *             when an unrecognized function name is used in the expression
+	 * @throws UnparsableExpressionException
+	 *             if the expression could not be parsed or compiled
+	 */
+	public CompiledExpression compile() throws UnknownFunctionException, UnparsableExpressionException {
+		// The variables are listed in no particular order, so the key uses a sorted list
+		Set<String> names = new TreeSet<String>();
+		for (Variable var : variables) {
+			names.add(var.getName());
+		}
+		List<Object> key = List.of(expression, names, new HashSet<CustomFunction>(customFunctions));
+		synchronized (compiledCache) {
+			CompiledExpression compiled = compiledCache.get(key);
+			if (compiled != null) {
+				return compiled;
+			}
+		}
+		PostfixExpression delegate = (PostfixExpression) build();
+		CompiledExpression compiled = CompiledExpression.compile(delegate.getTokens());
+		synchronized (compiledCache) {
+			compiledCache.put(key, compiled);
+		}
+		return compiled;
+	}
+
+	/*
+	 * Prefix an expression without a leading "f(...)=" with one declaring the variables
+	 */
+	private void addFunctionHeader() {
+		if (expression.indexOf('=') == -1 && !variables.isEmpty()) {
+
+			// User supplied an expression without leading "f(...)="
+			// so we just append the user function to a proper "f()="
+			// for PostfixExpression.fromInfix()
+			StringBuilder function = new StringBuilder("f(");
+			for (String name : variables.getVariableNames()) {
+				function.append(name).append(',');
+			}
+			expression = function.deleteCharAt(function.length() - 1).toString() + ")=" + expression;
+		}
+	}
+
 	/**
 	 * add a custom function instance for the evaluator to recognize
 	 * 
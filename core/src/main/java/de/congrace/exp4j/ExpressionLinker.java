@@ -0,0 +1,173 @@
+package de.congrace.exp4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Links the program of a {@link CompiledExpression} into a tree of method handles, which
+ * the JVM compiles to native code like an ordinary method.
+ * <p>
+ * The linked handle has the type {@code (double[])double} and takes the values of the
+ * variable slots.  Programs longer than {@link #MAX_INSTRUCTIONS} instructions are not
+ * linked, and are evaluated by the interpreter of {@link CompiledExpression}.
+ */
+final class ExpressionLinker {
+
+	/** Longest program that is linked into method handles */
+	static final int MAX_INSTRUCTIONS = 256;
+
+	/** System property that disables linking when set to "false" */
+	static final String ENABLED_PROPERTY = "exp4j.link";
+
+	private static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+
+	private static final MethodType TYPE = MethodType.methodType(double.class, double[].class);
+
+	private static final MethodHandle ELEMENT;
+	private static final MethodHandle ADD;
+	private static final MethodHandle SUBTRACT;
+	private static final MethodHandle MULTIPLY;
+	private static final MethodHandle DIVIDE;
+	private static final MethodHandle MODULO;
+	private static final MethodHandle POWER;
+	private static final MethodHandle NEGATE;
+	private static final MethodHandle FUNCTION;
+	private static final MethodHandle CUSTOM_FUNCTION;
+
+	static {
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		MethodType binary = MethodType.methodType(double.class, double.class, double.class);
+		try {
+			ELEMENT = MethodHandles.arrayElementGetter(double[].class);
+			ADD = lookup.findStatic(ExpressionLinker.class, "add", binary);
+			SUBTRACT = lookup.findStatic(ExpressionLinker.class, "subtract", binary);
+			MULTIPLY = lookup.findStatic(ExpressionLinker.class, "multiply", binary);
+			DIVIDE = lookup.findStatic(ExpressionLinker.class, "divide", binary);
+			MODULO = lookup.findStatic(ExpressionLinker.class, "modulo", binary);
+			POWER = lookup.findStatic(Math.class, "pow", binary);
+			NEGATE = lookup.findStatic(ExpressionLinker.class, "negate",
+					MethodType.methodType(double.class, double.class));
+			FUNCTION = lookup.findVirtual(FunctionToken.class, "applyFunction",
+					MethodType.methodType(double.class, double.class));
+			CUSTOM_FUNCTION = lookup.findStatic(ExpressionLinker.class, "applyCustomFunction",
+					MethodType.methodType(double.class, CustomFunction.class, double[].class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private ExpressionLinker() {
+	}
+
+	/**
+	 * Link a program of {@link CompiledExpression}.
+	 *
+	 * @return	a method handle of type {@code (double[])double} evaluating the program,
+	 * 			or <code>null</code> if the program is not linked.
+	 */
+	static MethodHandle link(int[] code, double[] constants, FunctionToken[] functions,
+			CustomFunction[] customFunctions) {
+		if (!ENABLED || code.length / 2 > MAX_INSTRUCTIONS) {
+			return null;
+		}
+
+		List<MethodHandle> stack = new ArrayList<MethodHandle>();
+		for (int pc = 0; pc < code.length; pc += 2) {
+			int operand = code[pc + 1];
+			switch (code[pc]) {
+			case CompiledExpression.CONSTANT:
+				stack.add(MethodHandles.dropArguments(
+						MethodHandles.constant(double.class, constants[operand]), 0, double[].class));
+				break;
+			case CompiledExpression.VARIABLE:
+				stack.add(MethodHandles.insertArguments(ELEMENT, 1, operand));
+				break;
+			case CompiledExpression.ADD:
+				binary(stack, ADD);
+				break;
+			case CompiledExpression.SUBTRACT:
+				binary(stack, SUBTRACT);
+				break;
+			case CompiledExpression.MULTIPLY:
+				binary(stack, MULTIPLY);
+				break;
+			case CompiledExpression.DIVIDE:
+				binary(stack, DIVIDE);
+				break;
+			case CompiledExpression.MODULO:
+				binary(stack, MODULO);
+				break;
+			case CompiledExpression.POWER:
+				binary(stack, POWER);
+				break;
+			case CompiledExpression.NEGATE:
+				unary(stack, NEGATE);
+				break;
+			case CompiledExpression.FUNCTION:
+				unary(stack, FUNCTION.bindTo(functions[operand]));
+				break;
+			case CompiledExpression.CUSTOM_FUNCTION:
+				CustomFunction function = customFunctions[operand];
+				int argc = function.getArgumentCount();
+				MethodHandle target = CUSTOM_FUNCTION.bindTo(function).asCollector(double[].class, argc);
+				List<MethodHandle> args = stack.subList(stack.size() - argc, stack.size());
+				target = MethodHandles.filterArguments(target, 0, args.toArray(new MethodHandle[0]));
+				args.clear();
+				stack.add(MethodHandles.permuteArguments(target, TYPE, new int[argc]));
+				break;
+			default:
+				return null;
+			}
+		}
+		return stack.get(0);
+	}
+
+	/*
+	 * Replace the two topmost handles of the stack by an operation applied to their results.
+	 */
+	private static void binary(List<MethodHandle> stack, MethodHandle operation) {
+		MethodHandle right = stack.remove(stack.size() - 1);
+		MethodHandle left = stack.remove(stack.size() - 1);
+		MethodHandle target = MethodHandles.filterArguments(operation, 0, left, right);
+		stack.add(MethodHandles.permuteArguments(target, TYPE, 0, 0));
+	}
+
+	/*
+	 * Replace the topmost handle of the stack by an operation applied to its result.
+	 */
+	private static void unary(List<MethodHandle> stack, MethodHandle operation) {
+		MethodHandle arg = stack.remove(stack.size() - 1);
+		stack.add(MethodHandles.filterArguments(operation, 0, arg));
+	}
+
+	private static double add(double a, double b) {
+		return a + b;
+	}
+
+	private static double subtract(double a, double b) {
+		return a - b;
+	}
+
+	private static double multiply(double a, double b) {
+		return a * b;
+	}
+
+	private static double divide(double a, double b) {
+		return a / b;
+	}
+
+	private static double modulo(double a, double b) {
+		return a % b;
+	}
+
+	private static double negate(double a) {
+		return -a;
+	}
+
+	private static double applyCustomFunction(CustomFunction function, double[] values) {
+		return CompiledExpression.applyCustomFunction(function, values, 0);
+	}
+}
@@ -31,6 +31,9 @@ public abstract class AbstractAerodynamicCalculator implements AerodynamicCalcul
 	private int rocketAeroModID = -1;
 	private int rocketTreeModID = -1;
 
+	/** The optional cache of total aerodynamic forces, or null if not used */
+	private AerodynamicCoefficientCache coefficientCache = null;
+
 	//////////////// Aerodynamic calculators ////////////////
 
 	@Override
@@ -42,10 +45,54 @@ public abstract class AbstractAerodynamicCalculator implements AerodynamicCalcul
 			FlightConditions conditions,
 			WarningSet warnings);
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If a coefficient cache has been set, the forces are looked up from the cache and
+	 * computed by {@link #calculateAerodynamicForces(FlightConfiguration, FlightConditions, WarningSet)}
+	 * only when not found.
+	 */
 	@Override
-	public abstract AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
+	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
+			FlightConditions conditions, WarningSet warnings) {
+		checkCache(configuration);
+		if (coefficientCache == null) {
+			return calculateAerodynamicForces(configuration, conditions, warnings);
+		}
+		return coefficientCache.getAerodynamicForces(this, configuration, conditions, warnings);
+	}
+
+	/**
+	 * Calculate the aerodynamic forces acting upon the rocket exactly, without consulting
+	 * the coefficient cache.
+	 * 
+	 * @param configuration the rocket configuration.
+	 * @param conditions    the flight conditions.
+	 * @param warnings      the set in which to place warnings, or
+	 *                      <code>null</code>.
+	 * @return the aerodynamic forces acting upon the rocket.
+	 */
+	protected abstract AerodynamicForces calculateAerodynamicForces(FlightConfiguration configuration,
 			FlightConditions conditions, WarningSet warnings);
 
+	/**
+	 * Return the cache of total aerodynamic forces, or <code>null</code> if caching is disabled.
+	 */
+	public AerodynamicCoefficientCache getCoefficientCache() {
+		return coefficientCache;
+	}
+
+	/**
+	 * Set the cache of total aerodynamic forces used by
+	 * {@link #getAerodynamicForces(FlightConfiguration, FlightConditions, WarningSet)}.
+	 * Caching is disabled by default.
+	 * 
+	 * @param coefficientCache the cache to use, or <code>null</code> to always compute the exact forces.
+	 */
+	public void setCoefficientCache(AerodynamicCoefficientCache coefficientCache) {
+		this.coefficientCache = coefficientCache;
+	}
+
 	/*
 	 * The worst theta angle is stored in conditions.
 	 */
@@ -107,7 +154,9 @@ public abstract class AbstractAerodynamicCalculator implements AerodynamicCalcul
 	 * its execution.
 	 */
 	protected void voidAerodynamicCache() {
-		// No-op
+		if (coefficientCache != null) {
+			coefficientCache.clear();
+		}
 	}
 
 }
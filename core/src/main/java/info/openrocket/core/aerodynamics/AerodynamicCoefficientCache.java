@@ -0,0 +1,285 @@
+package info.openrocket.core.aerodynamics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+
+/**
+ * An optional cache of the total aerodynamic forces computed by an {@link AbstractAerodynamicCalculator}.
+ * <p>
+ * The flight conditions are quantized into buckets of Mach number, angle of attack, lateral wind
+ * direction, roll, pitch and yaw rates, Reynolds number and pitch center.  The first result
+ * computed in a bucket is returned for all later lookups falling into the same bucket, so the
+ * cached values differ from the exact ones by at most the variation of the coefficients within
+ * a bucket.  This error is measured by recomputing every <code>validationInterval</code>th hit
+ * exactly and comparing it with the cached value; the largest observed differences are available
+ * from {@link #getMaxAxialError()}, {@link #getMaxNormalError()} and {@link #getMaxMomentError()}.
+ * <p>
+ * The cache is cleared when the calculator voids its aerodynamic cache, and when it is used
+ * with a different flight configuration or the configuration is modified, e.g. when a stage
+ * is separated.  The least recently used entries are dropped once the cache is full.
+ * <p>
+ * The warnings produced when an entry was computed are stored with it and added to the
+ * warning set of every lookup that hits the entry.
+ * <p>
+ * Like the calculators, instances are not thread-safe; use {@link #newInstance()} to create
+ * an empty cache with the same resolution for another calculator.
+ */
+public class AerodynamicCoefficientCache {
+
+	public static final double DEFAULT_MACH_STEP = 0.002;
+	public static final double DEFAULT_ANGLE_STEP = Math.toRadians(0.1);
+	public static final double DEFAULT_RATE_STEP = 0.01;
+	public static final double DEFAULT_REYNOLDS_STEP = 0.002;
+	public static final double DEFAULT_LENGTH_STEP = 0.0005;
+	public static final int DEFAULT_MAX_ENTRIES = 4096;
+	public static final int DEFAULT_VALIDATION_INTERVAL = 64;
+
+	private final double machStep;
+	private final double angleStep;
+	private final double rateStep;
+	private final double reynoldsStep;
+	private final double lengthStep;
+	private final int maxEntries;
+	private final int validationInterval;
+
+	private final Map<Key, Entry> entries;
+
+	private FlightConfiguration configuration = null;
+	private int configurationModID = -1;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long validations = 0;
+	private double maxAxialError = 0;
+	private double maxNormalError = 0;
+	private double maxMomentError = 0;
+
+	/**
+	 * Construct a cache with the default resolution.
+	 */
+	public AerodynamicCoefficientCache() {
+		this(DEFAULT_MACH_STEP, DEFAULT_ANGLE_STEP, DEFAULT_RATE_STEP, DEFAULT_REYNOLDS_STEP,
+				DEFAULT_LENGTH_STEP, DEFAULT_MAX_ENTRIES, DEFAULT_VALIDATION_INTERVAL);
+	}
+
+	/**
+	 * Construct a cache with the specified resolution.
+	 *
+	 * @param machStep				the bucket width of the Mach number.
+	 * @param angleStep				the bucket width of the angle of attack and wind direction, in radians.
+	 * @param rateStep				the bucket width of the roll, pitch and yaw rates, in radians per second.
+	 * @param reynoldsStep			the bucket width of the natural logarithm of the Reynolds number.
+	 * @param lengthStep			the bucket width of the pitch center position, in meters.
+	 * @param maxEntries			the maximum number of cached entries.
+	 * @param validationInterval	every this many hits are recomputed to measure the error,
+	 * 								or zero to disable validation.
+	 */
+	public AerodynamicCoefficientCache(double machStep, double angleStep, double rateStep, double reynoldsStep,
+			double lengthStep, int maxEntries, int validationInterval) {
+		if (!(machStep > 0) || !(angleStep > 0) || !(rateStep > 0) || !(reynoldsStep > 0) || !(lengthStep > 0)) {
+			throw new IllegalArgumentException("Bucket widths must be positive");
+		}
+		if (maxEntries < 1 || validationInterval < 0) {
+			throw new IllegalArgumentException("maxEntries=" + maxEntries + " validationInterval=" + validationInterval);
+		}
+		this.machStep = machStep;
+		this.angleStep = angleStep;
+		this.rateStep = rateStep;
+		this.reynoldsStep = reynoldsStep;
+		this.lengthStep = lengthStep;
+		this.maxEntries = maxEntries;
+		this.validationInterval = validationInterval;
+		this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > AerodynamicCoefficientCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Return a new, empty cache with the same resolution as this one.
+	 */
+	public AerodynamicCoefficientCache newInstance() {
+		return new AerodynamicCoefficientCache(machStep, angleStep, rateStep, reynoldsStep, lengthStep,
+				maxEntries, validationInterval);
+	}
+
+	/**
+	 * Return the total aerodynamic forces for the conditions, from the cache if possible.
+	 * The returned object is never shared with the cache and may be modified by the caller.
+	 */
+	AerodynamicForces getAerodynamicForces(AbstractAerodynamicCalculator calculator,
+			FlightConfiguration configuration, FlightConditions conditions, WarningSet warnings) {
+		if (this.configuration != configuration || this.configurationModID != configuration.getModID()) {
+			entries.clear();
+			this.configuration = configuration;
+			this.configurationModID = configuration.getModID();
+		}
+
+		Key key = new Key(conditions);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			misses++;
+			WarningSet entryWarnings = new WarningSet();
+			AerodynamicForces forces = calculator.calculateAerodynamicForces(configuration, conditions, entryWarnings);
+			entries.put(key, new Entry(forces.clone(), entryWarnings));
+			if (warnings != null) {
+				warnings.addAll(entryWarnings);
+			}
+			return forces;
+		}
+
+		hits++;
+		if (warnings != null) {
+			warnings.addAll(entry.warnings);
+		}
+		if (validationInterval > 0 && hits % validationInterval == 0) {
+			validations++;
+			AerodynamicForces exact = calculator.calculateAerodynamicForces(configuration, conditions, null);
+			recordError(entry.forces, exact);
+			return exact;
+		}
+		return entry.forces.clone();
+	}
+
+	private void recordError(AerodynamicForces cached, AerodynamicForces exact) {
+		maxAxialError = max(maxAxialError, cached.getCDaxial() - exact.getCDaxial());
+		maxAxialError = max(maxAxialError, cached.getCD() - exact.getCD());
+		maxNormalError = max(maxNormalError, cached.getCN() - exact.getCN());
+		maxNormalError = max(maxNormalError, cached.getCside() - exact.getCside());
+		maxMomentError = max(maxMomentError, cached.getCm() - exact.getCm());
+		maxMomentError = max(maxMomentError, cached.getCyaw() - exact.getCyaw());
+		maxMomentError = max(maxMomentError, cached.getCroll() - exact.getCroll());
+	}
+
+	private static double max(double current, double difference) {
+		// NaN differences occur when both values are NaN and are ignored
+		double d = Math.abs(difference);
+		return (d > current) ? d : current;
+	}
+
+	/**
+	 * Remove all cached entries.  The hit statistics and error bounds are retained.
+	 */
+	public void clear() {
+		entries.clear();
+		configuration = null;
+		configurationModID = -1;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Return the number of hits that were recomputed exactly to measure the error.
+	 */
+	public long getValidations() {
+		return validations;
+	}
+
+	/**
+	 * Return the largest observed absolute difference of the total and axial drag
+	 * coefficients between a cached and an exact result.
+	 */
+	public double getMaxAxialError() {
+		return maxAxialError;
+	}
+
+	/**
+	 * Return the largest observed absolute difference of the normal and side force
+	 * coefficients between a cached and an exact result.
+	 */
+	public double getMaxNormalError() {
+		return maxNormalError;
+	}
+
+	/**
+	 * Return the largest observed absolute difference of the pitch, yaw and roll moment
+	 * coefficients between a cached and an exact result.
+	 */
+	public double getMaxMomentError() {
+		return maxMomentError;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("AerodynamicCoefficientCache[size=%d,hits=%d,misses=%d,validations=%d,"
+				+ "maxAxialError=%.3g,maxNormalError=%.3g,maxMomentError=%.3g]",
+				entries.size(), hits, misses, validations, maxAxialError, maxNormalError, maxMomentError);
+	}
+
+	private static final class Entry {
+		private final AerodynamicForces forces;
+		private final WarningSet warnings;
+
+		Entry(AerodynamicForces forces, WarningSet warnings) {
+			this.forces = forces;
+			this.warnings = warnings;
+		}
+	}
+
+	/**
+	 * The bucket indices of a set of flight conditions.
+	 */
+	private final class Key {
+		private final long mach;
+		private final long aoa;
+		private final long theta;
+		private final long rollRate;
+		private final long pitchRate;
+		private final long yawRate;
+		private final long reynolds;
+		private final long pitchCenter;
+
+		Key(FlightConditions conditions) {
+			mach = Math.round(conditions.getMach() / machStep);
+			aoa = Math.round(conditions.getAOA() / angleStep);
+			theta = Math.round(conditions.getTheta() / angleStep);
+			rollRate = Math.round(conditions.getRollRate() / rateStep);
+			pitchRate = Math.round(conditions.getPitchRate() / rateStep);
+			yawRate = Math.round(conditions.getYawRate() / rateStep);
+			// The Reynolds number is proportional to velocity / kinematic viscosity for a given configuration
+			reynolds = Math.round(Math.log(conditions.getVelocity() /
+					conditions.getAtmosphericConditions().getKinematicViscosity()) / reynoldsStep);
+			pitchCenter = Math.round(conditions.getPitchCenter().x / lengthStep);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return mach == other.mach && aoa == other.aoa && theta == other.theta &&
+					rollRate == other.rollRate && pitchRate == other.pitchRate && yawRate == other.yawRate &&
+					reynolds == other.reynolds && pitchCenter == other.pitchCenter;
+		}
+
+		@Override
+		public int hashCode() {
+			long h = mach;
+			h = 31 * h + aoa;
+			h = 31 * h + theta;
+			h = 31 * h + rollRate;
+			h = 31 * h + pitchRate;
+			h = 31 * h + yawRate;
+			h = 31 * h + reynolds;
+			h = 31 * h + pitchCenter;
+			return Long.hashCode(h);
+		}
+	}
+}
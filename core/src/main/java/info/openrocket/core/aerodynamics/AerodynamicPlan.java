@@ -0,0 +1,181 @@
+package info.openrocket.core.aerodynamics;
+
+import static info.openrocket.core.util.MathUtil.pow2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.aerodynamics.barrowman.FinSetCalc;
+import info.openrocket.core.aerodynamics.barrowman.RocketComponentCalc;
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.ComponentAssembly;
+import info.openrocket.core.rocketcomponent.ExternalComponent;
+import info.openrocket.core.rocketcomponent.FinSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.InstanceContext;
+import info.openrocket.core.rocketcomponent.RocketComponent;
+import info.openrocket.core.rocketcomponent.SymmetricComponent;
+import info.openrocket.core.rocketcomponent.position.AxialMethod;
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * The parts of a Barrowman calculation that depend only on the geometry of a flight configuration,
+ * resolved once so that each evaluation only needs to iterate over the active components.
+ * <p>
+ * A plan is valid for the modification ID of the configuration it was built for and must be
+ * discarded when the rocket changes.  The components are stored in the iteration order of the
+ * active instance map, so sums are accumulated in the same order as when iterating the map.
+ */
+final class AerodynamicPlan {
+
+	/**
+	 * The per-component data of a plan.
+	 */
+	static final class Entry {
+		final RocketComponent component;
+		final RocketComponentCalc calc;
+		final List<InstanceContext> instances;
+		final int instanceCount;
+
+		/** Whether friction and pressure drag are computed for this component */
+		final boolean drag;
+		final boolean symmetric;
+		/** The roughness-limited friction coefficient without the Mach correction */
+		final double roughnessLimited;
+		/** The area producing stagnation drag, or NaN if none */
+		final double stagnationArea;
+		/** The area producing base drag, or NaN if none */
+		final double baseArea;
+		/** Whether base drag is computed for this component */
+		final boolean base;
+		/** The overridden drag coefficient of all instances, or NaN if not overridden */
+		final double overrideCD;
+
+		Entry(FlightConfiguration configuration, RocketComponent c, RocketComponentCalc calc,
+				List<InstanceContext> instances) {
+			this.component = c;
+			this.calc = calc;
+			this.instances = instances;
+			this.instanceCount = instances.size();
+
+			boolean overridden = c.isCDOverridden() || c.isCDOverriddenByAncestor();
+			this.drag = c.isAerodynamic() && !overridden;
+			this.symmetric = c instanceof SymmetricComponent;
+			this.base = symmetric && !overridden;
+
+			if (drag) {
+				double roughness = ((ExternalComponent) c).getFinish().getRoughnessSize();
+				roughnessLimited = 0.032 * Math.pow(roughness / configuration.getLengthAerodynamic(), 0.2);
+			} else {
+				roughnessLimited = Double.NaN;
+			}
+
+			double stagnation = Double.NaN;
+			double baseA = Double.NaN;
+			if (symmetric) {
+				SymmetricComponent s = (SymmetricComponent) c;
+				double foreRadius = s.getForeRadius();
+				double aftRadius = s.getAftRadius();
+				// If length is zero, the component is a disk, i.e. a zero-length tube, so match
+				// the fore and aft diameter
+				if (s.getLength() == 0) {
+					foreRadius = aftRadius = Math.max(foreRadius, aftRadius);
+				}
+
+				double radius = 0;
+				final SymmetricComponent prevComponent = s.getPreviousSymmetricComponent();
+				if (prevComponent != null && configuration.isComponentActive(prevComponent))
+					radius = prevComponent.getAftRadius();
+				if (radius < foreRadius) {
+					stagnation = Math.PI * (pow2(foreRadius) - pow2(radius));
+				}
+
+				double nextRadius = 0.0;
+				final SymmetricComponent nextComponent = s.getNextSymmetricComponent();
+				if ((nextComponent != null) && configuration.isComponentActive(nextComponent)) {
+					nextRadius = nextComponent.getForeRadius();
+				}
+				if (nextRadius < aftRadius) {
+					baseA = Math.PI * (pow2(aftRadius) - pow2(nextRadius));
+				}
+			}
+			this.stagnationArea = stagnation;
+			this.baseArea = baseA;
+
+			if ((c.isAerodynamic() || c instanceof ComponentAssembly) &&
+					c.isCDOverridden() && !c.isCDOverriddenByAncestor()) {
+				this.overrideCD = instanceCount * c.getOverrideCD();
+			} else {
+				this.overrideCD = Double.NaN;
+			}
+		}
+	}
+
+	private final FlightConfiguration configuration;
+	private final int configurationModID;
+
+	final Entry[] entries;
+	final WarningSet geometryWarnings;
+	final double lengthAerodynamic;
+	final boolean perfectFinish;
+	/** The fineness ratio correction of the body friction drag */
+	final double bodyFrictionCorrection;
+
+	/** The constant factor of the damping multiplier of each fin set */
+	final double[] finDampingFactor;
+	/** The absolute position of the mid-chord of each fin set */
+	final double[] finMidchordX;
+
+	@SuppressWarnings("deprecation")
+	AerodynamicPlan(FlightConfiguration configuration, Map<RocketComponent, RocketComponentCalc> calcMap,
+			WarningSet geometryWarnings) {
+		this.configuration = configuration;
+		this.configurationModID = configuration.getModID();
+		this.geometryWarnings = geometryWarnings;
+		this.lengthAerodynamic = configuration.getLengthAerodynamic();
+		this.perfectFinish = configuration.getRocket().isPerfectFinish();
+
+		List<Entry> list = new ArrayList<>();
+		double maxR = 0, minX = Double.MAX_VALUE, maxX = 0;
+		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> e : configuration.getActiveInstances().entrySet()) {
+			RocketComponent c = e.getKey();
+			Entry entry = new Entry(configuration, c, calcMap.get(c), List.copyOf(e.getValue()));
+			list.add(entry);
+
+			if (entry.drag && entry.symmetric) {
+				SymmetricComponent s = (SymmetricComponent) c;
+				final double componentMinX = c.getAxialOffset(AxialMethod.ABSOLUTE);
+				minX = Math.min(minX, componentMinX);
+				maxX = Math.max(maxX, componentMinX + c.getLength());
+				maxR = Math.max(maxR, Math.max(s.getForeRadius(), s.getAftRadius()));
+			}
+		}
+		this.entries = list.toArray(new Entry[0]);
+
+		// fB may be POSITIVE_INFINITY, but that's ok for us
+		double fB = (maxX - minX + 0.0001) / maxR;
+		this.bodyFrictionCorrection = (1 + 1.0 / (2 * fB));
+
+		List<FinSet> fins = new ArrayList<>();
+		for (RocketComponent c : configuration.getActiveComponents()) {
+			if (c instanceof FinSet) {
+				fins.add((FinSet) c);
+			}
+		}
+		finDampingFactor = new double[fins.size()];
+		finMidchordX = new double[fins.size()];
+		for (int i = 0; i < fins.size(); i++) {
+			FinSet f = fins.get(i);
+			finDampingFactor[i] = 0.6 * Math.min(f.getFinCount(), 4) * f.getPlanformArea();
+			finMidchordX[i] = f.toAbsolute(new Coordinate(((FinSetCalc) calcMap.get(f)).getMidchordPos()))[0].x;
+		}
+	}
+
+	/**
+	 * Return whether this plan was built for the current state of a configuration.
+	 */
+	boolean isValid(FlightConfiguration configuration) {
+		return this.configuration == configuration && this.configurationModID == configuration.getModID();
+	}
+}
@@ -10,13 +10,8 @@ import info.openrocket.core.rocketcomponent.AxialStage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import info.openrocket.core.aerodynamics.barrowman.FinSetCalc;
 import info.openrocket.core.aerodynamics.barrowman.RocketComponentCalc;
-import info.openrocket.core.rocketcomponent.position.AxialMethod;
 import info.openrocket.core.rocketcomponent.ComponentAssembly;
-import info.openrocket.core.rocketcomponent.ExternalComponent;
-import info.openrocket.core.rocketcomponent.ExternalComponent.Finish;
-import info.openrocket.core.rocketcomponent.FinSet;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.InstanceContext;
 import info.openrocket.core.rocketcomponent.InstanceMap;
@@ -44,6 +39,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private static final String BARROWMAN_SUFFIX = "Calc";
 	
 	private Map<RocketComponent, RocketComponentCalc> calcMap = null;
+	private AerodynamicPlan plan = null;
 	
 	private double cacheDiameter = -1;
 	private double cacheLength = -1;
@@ -55,7 +51,11 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	
 	@Override
 	public BarrowmanCalculator newInstance() {
-		return new BarrowmanCalculator();
+		BarrowmanCalculator calc = new BarrowmanCalculator();
+		if (getCoefficientCache() != null) {
+			calc.setCoefficientCache(getCoefficientCache().newInstance());
+		}
+		return calc;
 	}
 	
 	
@@ -182,7 +182,7 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	}
 
 	@Override
-	public AerodynamicForces getAerodynamicForces(FlightConfiguration configuration,
+	protected AerodynamicForces calculateAerodynamicForces(FlightConfiguration configuration,
 			FlightConditions conditions, WarningSet warnings) {
 		checkCache(configuration);
 		
@@ -253,25 +253,17 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		if (conditions.getAOA() > 17.5 * Math.PI / 180)
 			warnings.add(new Warning.LargeAOA(conditions.getAOA()));
 
-		if (calcMap == null)
-			buildCalcMap(configuration);
-
-		checkGeometry(configuration, configuration.getRocket(), warnings);
-		
-		final InstanceMap imap = configuration.getActiveInstances();
+		final AerodynamicPlan plan = getPlan(configuration);
+		warnings.addAll(plan.geometryWarnings);
 
 		// across the _entire_ assembly -- like a rocket, or a stage
 		final AerodynamicForces assemblyForces = new AerodynamicForces().zero();
 
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> mapEntry : imap.entrySet()) {
-			final RocketComponent comp = mapEntry.getKey();
-			final List<InstanceContext> contextList = mapEntry.getValue();
-
-			RocketComponentCalc calcObj = calcMap.get(comp);
-			if (null != calcObj) {
+		for (AerodynamicPlan.Entry entry : plan.entries) {
+			if (null != entry.calc) {
 				// calculated across all component instances
-				final AerodynamicForces componentForces = calculateComponentNonAxialForces(conditions, comp, calcObj,
-						contextList, warnings);
+				final AerodynamicForces componentForces = calculateComponentNonAxialForces(conditions, entry.component,
+						entry.calc, entry.instances, warnings);
 
 				assemblyForces.merge(componentForces);
 			}
@@ -429,14 +421,13 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	private double calculateFrictionCD(FlightConfiguration configuration, FlightConditions conditions,
 			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet) {
 		
+		final AerodynamicPlan plan = getPlan(configuration);
+
 		double mach = conditions.getMach();
-		double Re = calculateReynoldsNumber(configuration, conditions);
+		double Re = calculateReynoldsNumber(plan, conditions);
 		double Cf = calculateFrictionCoefficient(configuration, mach, Re);
 		double roughnessCorrection = calculateRoughnessCorrection(mach);
 		
-		if (calcMap == null)
-			buildCalcMap(configuration);
-		
 		/*
 		 * Calculate the friction drag coefficient.
 		 * 
@@ -447,42 +438,25 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		
 		double otherFrictionCD = 0;
 		double bodyFrictionCD = 0;
-		double maxR = 0, minX = Double.MAX_VALUE, maxX = 0;
-		
-		double[] roughnessLimited = new double[Finish.values().length];
-		Arrays.fill(roughnessLimited, Double.NaN);
 
-		final InstanceMap imap = configuration.getActiveInstances();
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
-			final RocketComponent c = entry.getKey();
-
-			if (!c.isAerodynamic()) {
-				continue;
-			}
-			
-			if (c.isCDOverridden() ||
-					c.isCDOverriddenByAncestor()) {
+		for (AerodynamicPlan.Entry entry : plan.entries) {
+			if (!entry.drag) {
 				continue;
 			}
 
-			// Calculate the roughness-limited friction coefficient
-			Finish finish = ((ExternalComponent) c).getFinish();
-			if (Double.isNaN(roughnessLimited[finish.ordinal()])) {
-				roughnessLimited[finish.ordinal()] = 0.032
-						* Math.pow(finish.getRoughnessSize() / configuration.getLengthAerodynamic(), 0.2) *
-						roughnessCorrection;
-			}
+			// The roughness-limited friction coefficient
+			double roughnessLimited = entry.roughnessLimited * roughnessCorrection;
 			
 			/*
 			 * Actual Cf is maximum of Cf and the roughness-limited value.
 			 * For perfect finish require additionally that Re > 1e6
 			 */
 			double componentCf;
-			if (configuration.getRocket().isPerfectFinish()) {
+			if (plan.perfectFinish) {
 				
 				// For perfect finish require Re > 1e6
-				if ((Re > 1.0e6) && (roughnessLimited[finish.ordinal()] > Cf)) {
-					componentCf = roughnessLimited[finish.ordinal()];
+				if ((Re > 1.0e6) && (roughnessLimited > Cf)) {
+					componentCf = roughnessLimited;
 				} else {
 					componentCf = Cf;
 				}
@@ -490,39 +464,25 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			} else {
 				
 				// For fully turbulent use simple max
-				componentCf = Math.max(Cf, roughnessLimited[finish.ordinal()]);
+				componentCf = Math.max(Cf, roughnessLimited);
 				
 			}
 
-			double componentFrictionCD = calcMap.get(c).calculateFrictionCD(conditions, componentCf, warningSet);
-			int instanceCount = entry.getValue().size();
+			double componentFrictionCD = entry.calc.calculateFrictionCD(conditions, componentCf, warningSet);
 			
-			if (c instanceof SymmetricComponent) {
-				SymmetricComponent s = (SymmetricComponent) c;
-
-				bodyFrictionCD += instanceCount * componentFrictionCD;
-				
-				final double componentMinX = c.getAxialOffset(AxialMethod.ABSOLUTE);
-				minX = Math.min(minX, componentMinX);
-
-				final double componentMaxX = componentMinX + c.getLength();
-				maxX = Math.max(maxX, componentMaxX);
-
-				final double componentMaxR = Math.max(s.getForeRadius(), s.getAftRadius());
-				maxR = Math.max(maxR, componentMaxR);
-
+			if (entry.symmetric) {
+				bodyFrictionCD += entry.instanceCount * componentFrictionCD;
 			} else {
-				otherFrictionCD += instanceCount * componentFrictionCD;
+				otherFrictionCD += entry.instanceCount * componentFrictionCD;
 			}
 
 			if (forceMap != null) {
-				forceMap.get(c).setFrictionCD(componentFrictionCD);
+				forceMap.get(entry.component).setFrictionCD(componentFrictionCD);
 			}
 		}
 		
-		// fB may be POSITIVE_INFINITY, but that's ok for us
-		double fB = (maxX - minX + 0.0001) / maxR;
-		double correction = (1 + 1.0 / (2 * fB));
+		// Body fineness ratio correction
+		double correction = plan.bodyFrictionCorrection;
 		
 		// Correct body data in map
 		if (forceMap != null) {
@@ -540,12 +500,12 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 	/**
 	 * Calculation of Reynolds Number
 	 * 
-	 * @param configuration Rocket configuration
+	 * @param plan          Aerodynamic plan of the rocket configuration
 	 * @param conditions    Flight conditions taken into account
 	 * @return Reynolds Number
 	 */
-	private double calculateReynoldsNumber(FlightConfiguration configuration, FlightConditions conditions) {
-		return conditions.getVelocity() * configuration.getLengthAerodynamic() /
+	private double calculateReynoldsNumber(AerodynamicPlan plan, FlightConditions conditions) {
+		return conditions.getVelocity() * plan.lengthAerodynamic /
 				conditions.getAtmosphericConditions().getKinematicViscosity();
 	}
 	
@@ -677,34 +637,25 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warningSet) {
 
 		double total, stagnation, base;
-		if (calcMap == null)
-			buildCalcMap(configuration);
+		final AerodynamicPlan plan = getPlan(configuration);
 		
 		stagnation = calculateStagnationCD(conditions.getMach());
 		base = calculateBaseCD(conditions.getMach());
 
 		total = 0;
-		final InstanceMap imap = configuration.getActiveInstances();
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
-			final RocketComponent c = entry.getKey();
-
-			if (!c.isAerodynamic()) {
-				continue;
-			}
-				
-			if (c.isCDOverridden() ||
-				c.isCDOverriddenByAncestor()) {
+		for (AerodynamicPlan.Entry entry : plan.entries) {
+			if (!entry.drag) {
 				continue;
 			}
 			
-			int instanceCount = entry.getValue().size();
+			int instanceCount = entry.instanceCount;
 
 			// Pressure drag of this component
-			double cd = calcMap.get(c).calculatePressureCD(conditions, stagnation, base,
+			double cd = entry.calc.calculatePressureCD(conditions, stagnation, base,
 					warningSet);
 
 			if (forceMap != null) {
-				forceMap.get(c).setPressureCD(cd);
+				forceMap.get(entry.component).setPressureCD(cd);
 			}
 				
 			total += cd * instanceCount;
@@ -712,28 +663,13 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			// Stagnation drag caused by difference in radius between this component
 			// and previous component (increasing radii. Decreasing radii handled in
 			// base drag calculation
-			if (c instanceof SymmetricComponent) {
-				SymmetricComponent s = (SymmetricComponent) c;
-				double foreRadius = s.getForeRadius();
-				double aftRadius = s.getAftRadius();
-				// If length is zero, the component is a disk, i.e. a zero-length tube, so match
-				// the fore and aft diameter
-				if (s.getLength() == 0) {
-					foreRadius = Math.max(foreRadius, aftRadius);
-				}
-				double radius = 0;
-				final SymmetricComponent prevComponent = s.getPreviousSymmetricComponent();
-				if (prevComponent != null && configuration.isComponentActive(prevComponent))
-					radius = prevComponent.getAftRadius();
+			if (!Double.isNaN(entry.stagnationArea)) {
+				cd = stagnation * entry.stagnationArea / conditions.getRefArea();
+				total += instanceCount * cd;
 					
-				if (radius < foreRadius) {
-					double area = Math.PI * (pow2(foreRadius) - pow2(radius));
-					cd = stagnation * area / conditions.getRefArea();
-					total += instanceCount * cd;
-						
-					if (forceMap != null) {
-						forceMap.get(c).setPressureCD(forceMap.get(c).getPressureCD() + cd);
-					}
+				if (forceMap != null) {
+					AerodynamicForces f = forceMap.get(entry.component);
+					f.setPressureCD(f.getPressureCD() + cd);
 				}
 			}
 		}
@@ -755,57 +691,22 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			Map<RocketComponent, AerodynamicForces> forceMap, WarningSet warnings) {
 
 		double base, total;
-		
-		if (calcMap == null)
-			buildCalcMap(configuration);
+		final AerodynamicPlan plan = getPlan(configuration);
 		
 		base = calculateBaseCD(conditions.getMach());
 		total = 0;
 		
-		final InstanceMap imap = configuration.getActiveInstances();
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
-			final RocketComponent c = entry.getKey();
-
-			if (!(c instanceof SymmetricComponent)) {
+		for (AerodynamicPlan.Entry entry : plan.entries) {
+			// base drag where the fore radius of the next component is less than the
+			// aft radius of this one
+			if (!entry.base || Double.isNaN(entry.baseArea)) {
 				continue;
 			}
 
-			
-			if (c.isCDOverridden() ||
-					c.isCDOverriddenByAncestor()) {
-				continue;
-			}
-			
-			SymmetricComponent s = (SymmetricComponent) c;
-			double foreRadius = s.getForeRadius();
-			double aftRadius = s.getAftRadius();
-			// If length is zero, the component is a disk, i.e. a zero-length tube, so match
-			// the fore and aft diameter
-			if (s.getLength() == 0) {
-				final double componentMaxR = Math.max(foreRadius, aftRadius);
-				foreRadius = aftRadius = componentMaxR;
-			}
-
-			int instanceCount = entry.getValue().size();
-
-			// get forward radius of next component
-			final SymmetricComponent nextComponent = s.getNextSymmetricComponent();
-			double nextRadius;
-			if ((nextComponent != null) && configuration.isComponentActive(nextComponent)) {
-				nextRadius = nextComponent.getForeRadius();
-			} else {
-				nextRadius = 0.0;
-			}
-
-			// if fore radius of next component is less than my aft radius, set my
-			// base CD
-			if (nextRadius < aftRadius) {
-				double area = Math.PI * (pow2(aftRadius) - pow2(nextRadius));
-				double cd = base * area / conditions.getRefArea();
-				total += instanceCount * cd;
-				if (forceMap != null) {
-					forceMap.get(s).setBaseCD(cd);
-				}
+			double cd = base * entry.baseArea / conditions.getRefArea();
+			total += entry.instanceCount * cd;
+			if (forceMap != null) {
+				forceMap.get(entry.component).setBaseCD(cd);
 			}
 		}
 		
@@ -902,27 +803,16 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 			Map<RocketComponent, AerodynamicForces> assemblyMap,
 			WarningSet warningSet) {
 
-		if (calcMap == null)
-			buildCalcMap(configuration);
+		final AerodynamicPlan plan = getPlan(configuration);
 
 		double total = 0;
-		final InstanceMap imap = configuration.getActiveInstances();
-		for (Map.Entry<RocketComponent, ArrayList<InstanceContext>> entry : imap.entrySet()) {
-			final RocketComponent c = entry.getKey();
-			int instanceCount = entry.getValue().size();
-
-			if (!c.isAerodynamic() &&
-					!(c instanceof ComponentAssembly)) {
-				continue;
-			}
-
-			if (c.isCDOverridden() &&
-					!c.isCDOverriddenByAncestor()) {
-				double cd = instanceCount * c.getOverrideCD();
-				Map<RocketComponent, AerodynamicForces> forceMap = (c instanceof ComponentAssembly) ? assemblyMap
-						: eachMap;
+		for (AerodynamicPlan.Entry entry : plan.entries) {
+			if (!Double.isNaN(entry.overrideCD)) {
+				double cd = entry.overrideCD;
+				Map<RocketComponent, AerodynamicForces> forceMap = (entry.component instanceof ComponentAssembly)
+						? assemblyMap : eachMap;
 				if (forceMap != null) {
-					forceMap.get(c).setOverrideCD(cd);
+					forceMap.get(entry.component).setOverrideCD(cd);
 				}
 				total += cd;
 			}
@@ -985,16 +875,11 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		mul *= (MathUtil.pow4(cgx) + MathUtil.pow4(cacheLength - cgx));
 		
 		// Fins
-		// TODO: LOW: This could be optimized a lot...
-		for (RocketComponent c : configuration.getActiveComponents()) {
-			if (c instanceof FinSet) {
-				FinSet f = (FinSet) c;
-				mul += 0.6 * Math.min(f.getFinCount(), 4) * f.getPlanformArea() *
-						MathUtil.pow3(Math.abs(f.toAbsolute(new Coordinate(
-								((FinSetCalc) calcMap.get(f)).getMidchordPos()))[0].x
-								- cgx)) /
-						(conditions.getRefArea() * conditions.getRefLength());
-			}
+		final AerodynamicPlan plan = getPlan(configuration);
+		for (int i = 0; i < plan.finDampingFactor.length; i++) {
+			mul += plan.finDampingFactor[i] *
+					MathUtil.pow3(Math.abs(plan.finMidchordX[i] - cgx)) /
+					(conditions.getRefArea() * conditions.getRefLength());
 		}
 		
 		return mul;
@@ -1009,11 +894,28 @@ public class BarrowmanCalculator extends AbstractAerodynamicCalculator {
 		super.voidAerodynamicCache();
 		
 		calcMap = null;
+		plan = null;
 		cacheDiameter = -1;
 		cacheLength = -1;
 	}
 	
 	
+	/**
+	 * Return the aerodynamic plan of a configuration, building it if the configuration
+	 * has changed since the plan was built.
+	 */
+	private AerodynamicPlan getPlan(FlightConfiguration configuration) {
+		if (plan == null || !plan.isValid(configuration)) {
+			if (calcMap == null) {
+				buildCalcMap(configuration);
+			}
+			WarningSet geometryWarnings = new WarningSet();
+			checkGeometry(configuration, configuration.getRocket(), geometryWarnings);
+			plan = new AerodynamicPlan(configuration, calcMap, geometryWarnings);
+		}
+		return plan;
+	}
+
 	private void buildCalcMap(FlightConfiguration configuration) {
 		calcMap = new HashMap<>();
 
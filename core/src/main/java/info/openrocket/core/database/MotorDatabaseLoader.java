@@ -8,17 +8,27 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import info.openrocket.core.l10n.Translator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.arch.SystemInfo;
 import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
 import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
+import info.openrocket.core.motor.BinaryMotorFile;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.startup.Application;
 import info.openrocket.core.util.BugException;
@@ -41,6 +51,8 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	private static final String THRUSTCURVE_DIRECTORY = "datafiles/thrustcurves/";
 	private static final long STARTUP_DELAY = 0;
+	private static final String CACHE_FILE = "motorcache.dat";
+	private static final int MAX_LOADER_THREADS = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
 	
 	private final ThrustCurveMotorSetDatabase database = new ThrustCurveMotorSetDatabase();
 	private int motorCount = 0;
@@ -62,40 +74,107 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 
 	/**
 	 * Loads the user defined motors
-	 * the directories are defined in the preferences
+	 * the directories are defined in the preferences.  The files are parsed
+	 * concurrently, or read from the motor cache if they have not changed, and
+	 * the motors are added to the database in the order of the files.
 	 */
 	private void loadUserDefinedMotors() {
-		GeneralMotorLoader loader = new GeneralMotorLoader();
-		SimpleFileFilter fileFilter = new SimpleFileFilter("", loader.getSupportedExtensions());
+		SimpleFileFilter fileFilter = new SimpleFileFilter("", new GeneralMotorLoader().getSupportedExtensions());
 		log.info("Starting reading user-defined motors");
+		List<File> files = new ArrayList<>();
 		for (File file : (Application.getPreferences()).getUserThrustCurveFiles()) {
 			if (file.isFile()) {
-				loadFile(loader, file);
+				files.add(file);
 			} else if (file.isDirectory()) {
-				loadDirectory(loader, fileFilter, file);
+				listDirectory(fileFilter, file, files);
 			} else {
 				log.warn("User-defined motor file " + file + " is neither file nor directory");
 			}
 		}
+		if (files.isEmpty()) {
+			log.info("No user-defined motor files found");
+			return;
+		}
+
+		MotorFileCache cache = new MotorFileCache(new File(SystemInfo.getUserApplicationDirectory(), CACHE_FILE));
+		cache.load();
+
+		ExecutorService executor = createExecutor(Math.min(files.size(), MAX_LOADER_THREADS));
+		try {
+			List<Future<List<ThrustCurveMotor>>> results = new ArrayList<>();
+			for (File file : files) {
+				results.add(executor.submit(() -> loadFile(cache, file)));
+			}
+			for (int i = 0; i < files.size(); i++) {
+				try {
+					List<ThrustCurveMotor> motors = results.get(i).get();
+					if (motors != null) {
+						addMotors(motors);
+					}
+				} catch (ExecutionException e) {
+					log.warn("Exception while loading file " + files.get(i) + ": " + e.getCause(), e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			log.warn("Interrupted while reading user-defined motors");
+			Thread.currentThread().interrupt();
+			return;
+		} finally {
+			executor.shutdownNow();
+		}
+
+		cache.save();
 		log.info("Ending reading user-defined motors, motorCount=" + motorCount);
 	}
 
 
 	/**
 	 * Loads the default, with established serialized manufacturing and data
-	 * uses directory "datafiles/thrustcurves" for data  
+	 * uses directory "datafiles/thrustcurves" for data.  Binary motor files are
+	 * preferred; the Java-serialized files are only read if no binary file is found.
 	 */
 	private void loadSerializedMotorDatabase() {
 		log.info("Starting reading serialized motor database");
-		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
-		while (iterator.hasNext()) {
-			Pair<File, InputStream> f = iterator.next();
-			loadSerialized(f);
+		FileIterator iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY,
+				new SimpleFileFilter("", false, BinaryMotorFile.EXTENSION));
+		if (iterator != null && iterator.hasNext()) {
+			while (iterator.hasNext()) {
+				Pair<File, InputStream> f = iterator.next();
+				loadBinary(f);
+			}
+		} else {
+			iterator = DirectoryIterator.findDirectory(THRUSTCURVE_DIRECTORY, new SimpleFileFilter("", false, "ser"));
+			while (iterator.hasNext()) {
+				Pair<File, InputStream> f = iterator.next();
+				loadSerialized(f);
+			}
 		}
 		log.info("Ending reading serialized motor database, motorCount=" + motorCount);
 	}
 	
 	
+	/**
+	 * loads a binary motor file from a stream, or by memory-mapping the file if it
+	 * is a regular file.  The curves of the motors are decoded on first use.
+	 * 
+	 * @param f	the pair of a File and the input stream
+	 */
+	private void loadBinary(Pair<File, InputStream> f) {
+		try (InputStream is = f.getV()) {
+			log.debug("Reading binary motors from file " + f.getU().getPath());
+			List<ThrustCurveMotor> motors;
+			if (f.getU().isFile()) {
+				motors = BinaryMotorFile.read(f.getU());
+			} else {
+				motors = BinaryMotorFile.read(is);
+			}
+			addMotors(motors);
+		} catch (Exception ex) {
+			throw new BugException(ex);
+		}
+	}
+	
+	
 	/**
 	 * loads a serailized motor data from an stream
 	 * 
@@ -114,84 +193,96 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 	}
 	
 	/**
-	 * loads a single motor file into the database using a simple file handler object
+	 * loads the motors of a single motor file, from the cache if the file has not changed
 	 * 
-	 * @param loader	the motor loading handler object
+	 * @param cache		the motor file cache
 	 * @param file		the File to the file itself
+	 * @return			the motors of the file, or <code>null</code> if it could not be loaded
 	 */
-	private void loadFile(GeneralMotorLoader loader, File file) {
-		try {
-			log.debug("Loading motors from file " + file);
-			loadFile(
-					loader,
-					new Pair<>(
-							file,
-							new BufferedInputStream(new FileInputStream(file))));
-		} catch (Exception e) {
-			log.warn("Exception while reading " + file + ": " + e, e);
+	private List<ThrustCurveMotor> loadFile(MotorFileCache cache, File file) {
+		List<ThrustCurveMotor> motors = cache.get(file);
+		if (motors != null) {
+			log.debug("Using cached motors of file " + file);
+			return motors;
+		}
+
+		log.debug("Loading motors from file " + file);
+		try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
+			List<ThrustCurveMotor.Builder> builders = new GeneralMotorLoader().load(is, file.getName());
+			motors = new ArrayList<>(builders.size());
+			for (ThrustCurveMotor.Builder b : builders) {
+				motors.add(b.build());
+			}
+		} catch (IllegalArgumentException | IOException e) {
+			showLoadError(file, e);
+			return null;
 		}
+		cache.put(file, motors);
+		return motors;
 	}
-	
+
 	/**
-	 * loads a single motor file into the database using inputStream instead of file object
+	 * shows a warning dialog about a motor file that could not be loaded
 	 * 
-	 * @param loader	an object to handle the loading
-	 * @param f			the pair of File name and its input stream
+	 * @param file	the file that could not be loaded
+	 * @param e		the cause of the failure
 	 */
-	private void loadFile(GeneralMotorLoader loader, Pair<File, InputStream> f) {
-		try {
-			try {
-				List<ThrustCurveMotor.Builder> motors = loader.load(f.getV(), f.getU().getName());
-				addMotorsFromBuilders(motors);
-			}
-			catch (IllegalArgumentException | IOException e) {
-				Translator trans = Application.getTranslator();
-				String fullPath = f.getU().getPath();
-				String message = "<html><body><p style='width: 400px;'><i>" + e.getMessage() +
-						"</i>.<br><br>" + MessageFormat.format( trans.get("MotorDbLoaderDlg.message1"), fullPath) +
-						"<br>" + trans.get("MotorDbLoaderDlg.message2") + "</p></body></html>";
-				SwingUtilities.invokeLater(new Runnable() {
-					@Override
-					public void run() {
-						JOptionPane pane = new JOptionPane(message, JOptionPane.WARNING_MESSAGE);
-						JDialog dialog = pane.createDialog(null, trans.get("MotorDbLoaderDlg.title"));
-						dialog.setModalityType(Dialog.ModalityType.MODELESS);
-						dialog.setAlwaysOnTop(true);
-						dialog.setVisible(true);
-					}
-				});
-			}
-			f.getV().close();
-		} catch (Exception e) {
-			log.warn("Exception while loading file " + f.getU() + ": " + e, e);
-			try {
-				f.getV().close();
-			} catch (IOException e1) {
+	private void showLoadError(File file, Exception e) {
+		Translator trans = Application.getTranslator();
+		String fullPath = file.getPath();
+		String message = "<html><body><p style='width: 400px;'><i>" + e.getMessage() +
+				"</i>.<br><br>" + MessageFormat.format( trans.get("MotorDbLoaderDlg.message1"), fullPath) +
+				"<br>" + trans.get("MotorDbLoaderDlg.message2") + "</p></body></html>";
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				JOptionPane pane = new JOptionPane(message, JOptionPane.WARNING_MESSAGE);
+				JDialog dialog = pane.createDialog(null, trans.get("MotorDbLoaderDlg.title"));
+				dialog.setModalityType(Dialog.ModalityType.MODELESS);
+				dialog.setAlwaysOnTop(true);
+				dialog.setVisible(true);
 			}
-		}
+		});
 	}
 	
 	/**
-	 * loads an entire directory of motor files
+	 * lists the motor files of a directory and its subdirectories, sorted by name
+	 * within each directory.  The entries are selected like {@link DirectoryIterator} does,
+	 * so files and directories whose name starts with a dot are skipped.
 	 * 
-	 * @param loader 		a motor loading handler object
 	 * @param fileFilter	the supported extensions of files
-	 * @param file			the directory file object
+	 * @param dir			the directory file object
+	 * @param files			the list the files are added to
 	 */
-	private void loadDirectory(GeneralMotorLoader loader, SimpleFileFilter fileFilter, File file) {
-		FileIterator iterator;
-		try {
-			iterator = new DirectoryIterator(file, fileFilter, true);
-		} catch (Exception e) {
-			log.warn("Unable to read directory " + file + ": " + e, e);
+	private void listDirectory(SimpleFileFilter fileFilter, File dir, List<File> files) {
+		File[] entries = DirectoryIterator.listFiles(dir, fileFilter, true);
+		if (entries == null) {
+			log.warn("Unable to read directory " + dir);
 			return;
 		}
-		while (iterator.hasNext()) {
-			loadFile(loader, iterator.next());
+		Arrays.sort(entries);
+		for (File file : entries) {
+			if (file.isDirectory()) {
+				listDirectory(fileFilter, file, files);
+			} else {
+				files.add(file);
+			}
 		}
 	}
 
+	private static ExecutorService createExecutor(int threadCount) {
+		return Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
 
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "MotorLoader-" + count.incrementAndGet());
+				t.setDaemon(true);
+				t.setPriority(Thread.MIN_PRIORITY);
+				return t;
+			}
+		});
+	}
 	
 	
 	/**
@@ -205,18 +296,6 @@ public class MotorDatabaseLoader extends AsynchronousDatabaseLoader {
 		}
 	}
 	
-	/**
-	 * builds the motors while building them
-	 * 
-	 * @param motorBuilders List of motor builders to be used for adding motor into the database
-	 */
-	private synchronized void addMotorsFromBuilders(List<ThrustCurveMotor.Builder> motorBuilders) {
-		for (ThrustCurveMotor.Builder m : motorBuilders) {
-			motorCount++;
-			database.addMotor(m.build());
-		}
-	}
-	
 	/**
 	 * Returns the loaded database.  If the database has not fully loaded,
 	 * this blocks until it is.
@@ -0,0 +1,179 @@
+package info.openrocket.core.database;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.motor.BinaryMotorFile;
+import info.openrocket.core.motor.ThrustCurveMotor;
+
+/**
+ * A persistent cache of the motors parsed from user-defined motor files.  An entry is
+ * valid as long as the path, size and modification time of the file are unchanged.
+ * <p>
+ * The cache file contains an index of the cached files followed by the motors of all
+ * files in the binary motor format:
+ * <pre>
+ * int magic, int version, int entryCount,
+ * entryCount times { UTF path, long size, long lastModified, int motorCount },
+ * binary motor file with the motors of the entries in order
+ * </pre>
+ * Only the entries that were used or added since loading are saved, so the entries of
+ * files that no longer exist are dropped.  The methods are thread-safe.
+ */
+class MotorFileCache {
+	private static final Logger log = LoggerFactory.getLogger(MotorFileCache.class);
+
+	/** "ORMC" */
+	private static final int MAGIC = 0x4F524D43;
+	private static final int VERSION = 1;
+
+	private final File cacheFile;
+
+	private final Map<String, Entry> loaded = new LinkedHashMap<String, Entry>();
+	private final Map<String, Entry> used = new LinkedHashMap<String, Entry>();
+	private boolean modified = false;
+
+	/**
+	 * @param cacheFile	the file the cache is stored in.
+	 */
+	public MotorFileCache(File cacheFile) {
+		this.cacheFile = cacheFile;
+	}
+
+	/**
+	 * Load the cache file.  If the file does not exist or cannot be read the cache
+	 * starts out empty.
+	 */
+	public synchronized void load() {
+		loaded.clear();
+		used.clear();
+		modified = false;
+		if (!cacheFile.isFile()) {
+			return;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				log.info("Ignoring motor cache " + cacheFile + " of unknown format");
+				return;
+			}
+			int count = in.readInt();
+			List<Entry> entries = new ArrayList<Entry>();
+			for (int i = 0; i < count; i++) {
+				entries.add(new Entry(in.readUTF(), in.readLong(), in.readLong(), in.readInt()));
+			}
+
+			List<ThrustCurveMotor> motors = BinaryMotorFile.read(in);
+			int index = 0;
+			for (Entry e : entries) {
+				if (e.motorCount < 0 || index + e.motorCount > motors.size()) {
+					throw new IOException("Motor count mismatch");
+				}
+				e.motors = new ArrayList<ThrustCurveMotor>(motors.subList(index, index + e.motorCount));
+				index += e.motorCount;
+				loaded.put(e.path, e);
+			}
+			log.debug("Loaded " + loaded.size() + " entries from motor cache " + cacheFile);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to read motor cache " + cacheFile + ": " + e, e);
+			loaded.clear();
+		}
+	}
+
+	/**
+	 * Return the cached motors of a file, or <code>null</code> if the file is not cached
+	 * or has changed since it was cached.
+	 */
+	public synchronized List<ThrustCurveMotor> get(File file) {
+		String path = file.getAbsolutePath();
+		Entry e = loaded.get(path);
+		if (e == null || e.size != file.length() || e.lastModified != file.lastModified()) {
+			return null;
+		}
+		used.put(path, e);
+		return e.motors;
+	}
+
+	/**
+	 * Store the motors parsed from a file.
+	 */
+	public synchronized void put(File file, List<ThrustCurveMotor> motors) {
+		String path = file.getAbsolutePath();
+		Entry e = new Entry(path, file.length(), file.lastModified(), motors.size());
+		e.motors = new ArrayList<ThrustCurveMotor>(motors);
+		used.put(path, e);
+		modified = true;
+	}
+
+	/**
+	 * Save the used entries to the cache file, if they differ from the loaded ones.
+	 * Errors are logged and otherwise ignored.
+	 */
+	public synchronized void save() {
+		if (!modified && used.size() == loaded.size()) {
+			return;
+		}
+
+		File dir = cacheFile.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+			log.warn("Unable to create directory for motor cache " + cacheFile);
+			return;
+		}
+
+		File tmp = new File(cacheFile.getPath() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(used.size());
+				List<ThrustCurveMotor> motors = new ArrayList<ThrustCurveMotor>();
+				for (Entry e : used.values()) {
+					out.writeUTF(e.path);
+					out.writeLong(e.size);
+					out.writeLong(e.lastModified);
+					out.writeInt(e.motorCount);
+					motors.addAll(e.motors);
+				}
+				BinaryMotorFile.write(motors, out);
+			}
+			Files.move(tmp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			loaded.clear();
+			loaded.putAll(used);
+			modified = false;
+			log.debug("Saved " + used.size() + " entries to motor cache " + cacheFile);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to write motor cache " + cacheFile + ": " + e, e);
+			tmp.delete();
+		}
+	}
+
+	private static class Entry {
+		private final String path;
+		private final long size;
+		private final long lastModified;
+		private final int motorCount;
+		private List<ThrustCurveMotor> motors;
+
+		private Entry(String path, long size, long lastModified, int motorCount) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+			this.motorCount = motorCount;
+		}
+	}
+}
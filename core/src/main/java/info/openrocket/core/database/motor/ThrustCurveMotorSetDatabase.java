@@ -1,69 +1,74 @@
 package info.openrocket.core.database.motor;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.motor.Manufacturer;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.ThrustCurveMotor;
 
 /**
  * A database containing ThrustCurveMotorSet objects and allowing adding a motor
  * to the database.
+ * <p>
+ * The motor sets are indexed by digest, manufacturer, designation, diameter and length,
+ * so that finding motors and adding motors do not need to scan the whole database.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	private static final Logger log = LoggerFactory.getLogger(ThrustCurveMotorSetDatabase.class);
 
+	/** Maximum difference of diameter and length for a motor to match the search criteria */
+	private static final double SIZE_TOLERANCE = 0.005;
+	/** Margin of the range queries, covering the size differences of motors within one set */
+	private static final double RANGE_MARGIN = 1e-6;
+
 	private final List<ThrustCurveMotorSet> motorSets = new ArrayList<ThrustCurveMotorSet>();
 
+	// Indexes of the motor sets.  Sets are never removed from the database, so the position
+	// of a set is fixed once it has been added.
+	private final Map<ThrustCurveMotorSet, Integer> positions = new IdentityHashMap<ThrustCurveMotorSet, Integer>();
+	private final Map<String, List<ThrustCurveMotorSet>> digestIndex = new HashMap<String, List<ThrustCurveMotorSet>>();
+	private final Map<Manufacturer, List<ThrustCurveMotorSet>> manufacturerIndex = new LinkedHashMap<Manufacturer, List<ThrustCurveMotorSet>>();
+	private final Map<String, List<ThrustCurveMotorSet>> designationIndex = new HashMap<String, List<ThrustCurveMotorSet>>();
+	private final TreeMap<Double, List<ThrustCurveMotorSet>> diameterIndex = new TreeMap<Double, List<ThrustCurveMotorSet>>();
+	private final TreeMap<Double, List<ThrustCurveMotorSet>> lengthIndex = new TreeMap<Double, List<ThrustCurveMotorSet>>();
+
+	private final Comparator<ThrustCurveMotorSet> databaseOrder = Comparator.comparingInt(positions::get);
+
 	@Override
 	public List<ThrustCurveMotor> findMotors(String digest, Motor.Type type, String manufacturer, String designation,
 			double diameter, double length) {
 		ArrayList<ThrustCurveMotor> fullMatches = new ArrayList<ThrustCurveMotor>();
 		ArrayList<ThrustCurveMotor> digestMatches = new ArrayList<ThrustCurveMotor>();
-		ArrayList<ThrustCurveMotor> descriptionMatches = new ArrayList<ThrustCurveMotor>();
 
 		// Apply filters to see if we can find any motors that match the given criteria.
-		// We'll return
-		// the most restrictive nonempty list we find, or empty list if no matches at
-		// all
-		for (ThrustCurveMotorSet set : motorSets) {
-			for (ThrustCurveMotor m : set.getMotors()) {
-				boolean matchDescription = true;
-				boolean matchDigest = true;
-
-				// unlike the description, digest must be present in search criteria to get a
-				// match
-				if (digest == null || digest != m.getDigest())
-					matchDigest = false;
-
-				// match description
-				if (type != null && type != set.getType())
-					matchDescription = false;
-				else if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
-					matchDescription = false;
-				else if (designation != null &&
-						!m.getDesignation().toUpperCase().contains(designation.toUpperCase()) &&
-						!designation.toUpperCase().contains(m.getCommonName().toUpperCase()))
-					matchDescription = false;
-				else if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > 0.005))
-					matchDescription = false;
-				else if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > 0.005))
-					matchDescription = false;
-
-				if (matchDigest)
-					digestMatches.add(m);
-
-				if (matchDescription)
-					descriptionMatches.add(m);
+		// We'll return the most restrictive nonempty list we find, or empty list if no
+		// matches at all
 
-				if (matchDigest && matchDescription)
-					fullMatches.add(m);
+		// unlike the description, digest must be present in search criteria to get a
+		// match
+		if (digest != null) {
+			for (ThrustCurveMotorSet set : inDatabaseOrder(digestIndex.get(digest))) {
+				for (ThrustCurveMotor m : set.getMotors()) {
+					if (digest.equals(m.getDigest())) {
+						digestMatches.add(m);
+						if (matchesDescription(set, m, type, manufacturer, designation, diameter, length))
+							fullMatches.add(m);
+					}
+				}
 			}
 		}
 
@@ -73,8 +78,93 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 		if (!digestMatches.isEmpty())
 			return digestMatches;
 
+		ArrayList<ThrustCurveMotor> descriptionMatches = new ArrayList<ThrustCurveMotor>();
+		for (ThrustCurveMotorSet set : findCandidates(manufacturer, diameter, length)) {
+			for (ThrustCurveMotor m : set.getMotors()) {
+				if (matchesDescription(set, m, type, manufacturer, designation, diameter, length))
+					descriptionMatches.add(m);
+			}
+		}
 		return descriptionMatches;
+	}
 
+	private static boolean matchesDescription(ThrustCurveMotorSet set, ThrustCurveMotor m, Motor.Type type,
+			String manufacturer, String designation, double diameter, double length) {
+		if (type != null && type != set.getType())
+			return false;
+		if (manufacturer != null && !m.getManufacturer().matches(manufacturer))
+			return false;
+		if (designation != null &&
+				!m.getDesignation().toUpperCase().contains(designation.toUpperCase()) &&
+				!designation.toUpperCase().contains(m.getCommonName().toUpperCase()))
+			return false;
+		if (!Double.isNaN(diameter) && (Math.abs(diameter - m.getDiameter()) > SIZE_TOLERANCE))
+			return false;
+		if (!Double.isNaN(length) && (Math.abs(length - m.getLength()) > SIZE_TOLERANCE))
+			return false;
+		return true;
+	}
+
+	/**
+	 * Return the motor sets that may contain motors matching the manufacturer, diameter
+	 * and length, in database order.  The designation is matched by substring and cannot
+	 * be used to narrow down the search.
+	 */
+	private List<ThrustCurveMotorSet> findCandidates(String manufacturer, double diameter, double length) {
+		List<ThrustCurveMotorSet> candidates = motorSets;
+
+		if (manufacturer != null) {
+			List<ThrustCurveMotorSet> sets = new ArrayList<ThrustCurveMotorSet>();
+			for (Map.Entry<Manufacturer, List<ThrustCurveMotorSet>> e : manufacturerIndex.entrySet()) {
+				if (e.getKey().matches(manufacturer)) {
+					sets.addAll(e.getValue());
+				}
+			}
+			candidates = sets;
+		}
+		if (!Double.isNaN(diameter)) {
+			List<ThrustCurveMotorSet> sets = findInRange(diameterIndex, diameter);
+			if (sets.size() < candidates.size()) {
+				candidates = sets;
+			}
+		}
+		if (!Double.isNaN(length)) {
+			List<ThrustCurveMotorSet> sets = findInRange(lengthIndex, length);
+			if (sets.size() < candidates.size()) {
+				candidates = sets;
+			}
+		}
+
+		if (candidates == motorSets) {
+			return motorSets;
+		}
+		return inDatabaseOrder(candidates);
+	}
+
+	/**
+	 * Return the sets of a range index whose value is within the search tolerance of
+	 * the given value.  Sets with an undefined value match any search, as in a linear scan.
+	 */
+	private static List<ThrustCurveMotorSet> findInRange(TreeMap<Double, List<ThrustCurveMotorSet>> index, double value) {
+		List<ThrustCurveMotorSet> sets = new ArrayList<ThrustCurveMotorSet>();
+		for (List<ThrustCurveMotorSet> list : index.subMap(value - SIZE_TOLERANCE - RANGE_MARGIN, true,
+				value + SIZE_TOLERANCE + RANGE_MARGIN, true).values()) {
+			sets.addAll(list);
+		}
+		List<ThrustCurveMotorSet> undefined = index.get(Double.NaN);
+		if (undefined != null) {
+			sets.addAll(undefined);
+		}
+		return sets;
+	}
+
+	private List<ThrustCurveMotorSet> inDatabaseOrder(Collection<ThrustCurveMotorSet> sets) {
+		if (sets == null) {
+			return Collections.emptyList();
+		}
+		List<ThrustCurveMotorSet> list = new ArrayList<ThrustCurveMotorSet>(sets);
+		list.sort(databaseOrder);
+		return list;
 	}
 
 	/**
@@ -93,19 +183,74 @@ public class ThrustCurveMotorSetDatabase implements MotorDatabase {
 	 * @param motor the motor to add
 	 */
 	public void addMotor(ThrustCurveMotor motor) {
+		// Only sets with the same designation and common name can match the motor.
 		// Iterate from last to first, as this is most likely to hit early when loading
 		// files
-		for (int i = motorSets.size() - 1; i >= 0; i--) {
-			ThrustCurveMotorSet set = motorSets.get(i);
-			if (set.matches(motor)) {
-				set.addMotor(motor);
-				return;
+		String key = designationKey(motor);
+		List<ThrustCurveMotorSet> sets = designationIndex.get(key);
+		if (sets != null) {
+			for (int i = sets.size() - 1; i >= 0; i--) {
+				ThrustCurveMotorSet set = sets.get(i);
+				if (set.matches(motor)) {
+					set.addMotor(motor);
+					indexDigest(set, motor);
+					return;
+				}
 			}
 		}
 
 		ThrustCurveMotorSet newSet = new ThrustCurveMotorSet();
 		newSet.addMotor(motor);
+		positions.put(newSet, motorSets.size());
 		motorSets.add(newSet);
+
+		addToIndex(designationIndex, key, newSet);
+		addToIndex(manufacturerIndex, motor.getManufacturer(), newSet);
+		addToIndex(diameterIndex, motor.getDiameter(), newSet);
+		addToIndex(lengthIndex, motor.getLength(), newSet);
+		indexDigest(newSet, motor);
+	}
+
+	private void indexDigest(ThrustCurveMotorSet set, ThrustCurveMotor motor) {
+		String digest = motor.getDigest();
+		if (digest == null) {
+			return;
+		}
+		List<ThrustCurveMotorSet> sets = digestIndex.get(digest);
+		if (sets == null) {
+			sets = new ArrayList<ThrustCurveMotorSet>(1);
+			digestIndex.put(digest, sets);
+		} else if (sets.contains(set)) {
+			return;
+		}
+		sets.add(set);
+	}
+
+	private static <K> void addToIndex(Map<K, List<ThrustCurveMotorSet>> index, K key, ThrustCurveMotorSet set) {
+		List<ThrustCurveMotorSet> sets = index.get(key);
+		if (sets == null) {
+			sets = new ArrayList<ThrustCurveMotorSet>(1);
+			index.put(key, sets);
+		}
+		sets.add(set);
+	}
+
+	/**
+	 * Return a key that is equal for two motors exactly when their designations and
+	 * common names are equal ignoring case, as required by
+	 * {@link ThrustCurveMotorSet#matches(ThrustCurveMotor)}.
+	 */
+	private static String designationKey(ThrustCurveMotor motor) {
+		return caseKey(motor.getDesignation()) + '\u0000' + caseKey(motor.getCommonName());
+	}
+
+	private static String caseKey(String str) {
+		char[] chars = str.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			// Same folding as String.equalsIgnoreCase
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
 	}
 
 }
@@ -84,6 +84,9 @@ public class Simulation implements ChangeSource, Cloneable {
 	private SimulationOptions options = new SimulationOptions();
 	
 	private ArrayList<SimulationExtension> simulationExtensions = new ArrayList<SimulationExtension>();
+
+	/** Whether the rocket is copied for simulation, not stored */
+	private boolean simulateRocketCopy = true;
 	
 	
 	private final Class<? extends SimulationEngine> simulationEngineClass = BasicEventSimulationEngine.class;
@@ -163,6 +166,15 @@ public class Simulation implements ChangeSource, Cloneable {
 		this.simulationExtensions.addAll(extensions);
 	}
 
+	/**
+	 * Return the document this simulation belongs to, or <code>null</code> if none.
+	 *
+	 * @return the document of this simulation.
+	 */
+	public OpenRocketDocument getDocument() {
+		return document;
+	}
+
 	public FlightConfiguration getActiveConfiguration() {
 		mutex.verify();
 		return rocket.getFlightConfiguration(this.configId);
@@ -259,6 +271,28 @@ public class Simulation implements ChangeSource, Cloneable {
 	}
 	
 	
+	/**
+	 * Return whether the rocket is copied when simulating.
+	 */
+	public boolean isSimulateRocketCopy() {
+		mutex.verify();
+		return simulateRocketCopy;
+	}
+
+	/**
+	 * Set whether the rocket is copied when simulating.  By default a copy of the rocket
+	 * is simulated, so that the rocket may be modified while the simulation runs.  For a
+	 * simulation of a private rocket copy that is not modified or used by other threads
+	 * during the simulation, disabling this saves copying the rocket.
+	 *
+	 * @param simulateRocketCopy	whether to simulate a copy of the rocket.
+	 */
+	public void setSimulateRocketCopy(boolean simulateRocketCopy) {
+		mutex.verify();
+		this.simulateRocketCopy = simulateRocketCopy;
+	}
+
+
 	/**
 	 * Get the list of simulation extensions.  The returned list is the one used by
 	 * this object; changes to it will reflect changes in the simulation.
@@ -419,6 +453,7 @@ public class Simulation implements ChangeSource, Cloneable {
 
 			SimulationConditions simulationConditions = options.toSimulationConditions();
 			simulationConditions.setSimulation(this);
+			simulationConditions.setCopyRocket(simulateRocketCopy);
 			
 			for (SimulationExtension extension : simulationExtensions) {
 				extension.initialize(simulationConditions);
@@ -0,0 +1,190 @@
+package info.openrocket.core.document.attachments;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import info.openrocket.core.util.DecalNotFoundException;
+import info.openrocket.core.util.FileUtils;
+
+/**
+ * A zip container whose entries are read by the {@link ZipFileAttachment}s of a document.
+ * <p>
+ * If the container is a local file, entries are looked up in the central directory of a
+ * {@link ZipFile} instead of scanning the whole container.  The file is opened only while an
+ * entry is read, so it can be replaced or deleted at any other time.  Containers at other URLs,
+ * such as example files inside a jar, are scanned sequentially.
+ * <p>
+ * The contents of recently read entries of all archives are kept in a cache of at most
+ * {@link #CACHE_SIZE} bytes per process, so the memory used does not grow with the number of
+ * open documents.  The cached entries of an archive are discarded if its file changes on disk.
+ * An archive may be used concurrently by several threads.
+ */
+public final class ZipArchive {
+
+	/** Maximum total size of the cached entry contents of all archives, in bytes */
+	public static final long CACHE_SIZE = 64L * 1024 * 1024;
+
+	// Entry contents by archive and name, least recently used first; guards the fields below
+	private static final LinkedHashMap<CacheKey, byte[]> cache = new LinkedHashMap<CacheKey, byte[]>(16, 0.75f, true);
+	private static long cachedBytes = 0;
+
+	private final URL location;
+	private final File file;
+
+	// Guarded by the cache
+	private int generation = 0;
+	private boolean stamped = false;
+	private long lastModified;
+	private long length;
+
+	public ZipArchive(URL location) {
+		this.location = location;
+		this.file = toFile(location);
+	}
+
+	/**
+	 * Return the location of the container.
+	 */
+	public URL getLocation() {
+		return location;
+	}
+
+	/**
+	 * Return the contents of an entry.  The returned array is shared and must not be modified.
+	 *
+	 * @param name	the name of the entry.
+	 * @return		the contents of the entry.
+	 * @throws DecalNotFoundException	if the container has no entry with the name.
+	 * @throws IOException				if the container cannot be read.
+	 */
+	public byte[] read(String name) throws DecalNotFoundException, IOException {
+		byte[] bytes;
+		int readGeneration;
+		synchronized (cache) {
+			if (file != null) {
+				checkStamp();
+			}
+			bytes = cache.get(new CacheKey(this, name));
+			readGeneration = generation;
+		}
+		if (bytes != null) {
+			return bytes;
+		}
+
+		bytes = (file != null) ? readIndexed(name) : readSequential(name);
+
+		synchronized (cache) {
+			// Entries read before the file changed are not cached
+			CacheKey key = new CacheKey(this, name);
+			if (readGeneration == generation && bytes.length <= CACHE_SIZE && !cache.containsKey(key)) {
+				cache.put(key, bytes);
+				cachedBytes += bytes.length;
+				Iterator<byte[]> iterator = cache.values().iterator();
+				while (cachedBytes > CACHE_SIZE) {
+					cachedBytes -= iterator.next().length;
+					iterator.remove();
+				}
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * Discard the cached entry contents of this archive.
+	 */
+	public void clearCache() {
+		synchronized (cache) {
+			Iterator<Map.Entry<CacheKey, byte[]>> iterator = cache.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<CacheKey, byte[]> entry = iterator.next();
+				if (entry.getKey().archive == this) {
+					cachedBytes -= entry.getValue().length;
+					iterator.remove();
+				}
+			}
+			generation++;
+		}
+	}
+
+	/*
+	 * Discard the cached entries if the file has changed since they were read.  Called
+	 * while synchronized on the cache.
+	 */
+	private void checkStamp() {
+		long modified = file.lastModified();
+		long size = file.length();
+		if (stamped && modified == lastModified && size == length) {
+			return;
+		}
+		if (stamped) {
+			clearCache();
+		}
+		lastModified = modified;
+		length = size;
+		stamped = true;
+	}
+
+	/*
+	 * Read an entry through the central directory of the zip file.  The file is closed
+	 * before returning.
+	 */
+	private byte[] readIndexed(String name) throws DecalNotFoundException, IOException {
+		try (ZipFile zipFile = new ZipFile(file)) {
+			ZipEntry entry = zipFile.getEntry(name);
+			if (entry == null) {
+				throw new DecalNotFoundException(name, null);
+			}
+			try (InputStream is = zipFile.getInputStream(entry)) {
+				return FileUtils.readBytes(is);
+			}
+		}
+	}
+
+	/*
+	 * Scan the container for an entry.
+	 */
+	private byte[] readSequential(String name) throws DecalNotFoundException, IOException {
+		ZipInputStream zis = new ZipInputStream(location.openStream());
+		try {
+			ZipEntry entry = zis.getNextEntry();
+			while (entry != null) {
+				if (entry.getName().equals(name)) {
+					return FileUtils.readBytes(zis);
+				}
+				entry = zis.getNextEntry();
+			}
+			throw new DecalNotFoundException(name, null);
+		} finally {
+			zis.close();
+		}
+	}
+
+	/*
+	 * Return the local file of a URL, or null if it is not a file URL.
+	 */
+	private static File toFile(URL url) {
+		if (url == null || !"file".equalsIgnoreCase(url.getProtocol())) {
+			return null;
+		}
+		try {
+			return new File(url.toURI()).getAbsoluteFile();
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/*
+	 * An entry of an archive.  Archives do not override equals, so they are compared by identity.
+	 */
+	private record CacheKey(ZipArchive archive, String name) {
+	}
+}
@@ -1,6 +1,7 @@
 package info.openrocket.core.file;
 
 import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.file.openrocket.importt.FlightDataSpool;
 
 public class DocumentLoadingContext {
 
@@ -8,6 +9,8 @@ public class DocumentLoadingContext {
 	private MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory = new FileSystemAttachmentFactory();
 	private OpenRocketDocument document;
+	private boolean lazyFlightData = false;
+	private FlightDataSpool flightDataSpool;
 
 	public int getFileVersion() {
 		return fileVersion;
@@ -41,4 +44,27 @@ public class DocumentLoadingContext {
 		this.attachmentFactory = attachmentFactory;
 	}
 
+	/**
+	 * Return whether stored flight data should be parsed only when it is first used.
+	 */
+	public boolean isLazyFlightData() {
+		return lazyFlightData;
+	}
+
+	public void setLazyFlightData(boolean lazyFlightData) {
+		this.lazyFlightData = lazyFlightData;
+	}
+
+	/**
+	 * Return the spool holding the lazily loaded flight data, or <code>null</code> if
+	 * the flight data is loaded immediately.
+	 */
+	public FlightDataSpool getFlightDataSpool() {
+		return flightDataSpool;
+	}
+
+	public void setFlightDataSpool(FlightDataSpool flightDataSpool) {
+		this.flightDataSpool = flightDataSpool;
+	}
+
 }
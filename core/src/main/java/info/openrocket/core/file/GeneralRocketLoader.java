@@ -51,6 +51,7 @@ public class GeneralRocketLoader {
 
 	private final MotorFinder motorFinder;
 	private AttachmentFactory attachmentFactory;
+	private boolean lazyFlightData = false;
 	private final OpenRocketDocument doc = OpenRocketDocumentFactory.createEmptyRocket();
 
 	public GeneralRocketLoader(File file) {
@@ -107,6 +108,15 @@ public class GeneralRocketLoader {
 		return warnings;
 	}
 
+	/**
+	 * Set whether stored simulation data is parsed only when it is first used, which
+	 * makes loading documents with large amounts of simulation data faster.  The
+	 * default is <code>false</code>.
+	 */
+	public void setLazyFlightData(boolean lazyFlightData) {
+		this.lazyFlightData = lazyFlightData;
+	}
+
 	/**
 	 * This method determines the type file contained in the stream then calls the
 	 * appropriate loading mechanism.
@@ -249,6 +259,7 @@ public class GeneralRocketLoader {
 		context.setOpenRocketDocument(doc);
 		context.setMotorFinder(motorFinder);
 		context.setAttachmentFactory(attachmentFactory);
+		context.setLazyFlightData(lazyFlightData);
 		loader.load(context, source, fileName);
 		warnings.addAll(loader.getWarnings());
 	}
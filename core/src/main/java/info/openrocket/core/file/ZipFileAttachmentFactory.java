@@ -3,19 +3,24 @@ package info.openrocket.core.file;
 import java.net.URL;
 
 import info.openrocket.core.document.Attachment;
+import info.openrocket.core.document.attachments.ZipArchive;
 import info.openrocket.core.document.attachments.ZipFileAttachment;
 
 public class ZipFileAttachmentFactory implements AttachmentFactory {
 
-	private final URL zipFile;
+	// Shared by the attachments of the document, which share its cache of entry contents.
+	// The container is opened again for every entry that is not cached: keeping it open for
+	// the lifetime of the document would prevent saving over it on Windows, where an open
+	// file cannot be replaced by a rename.
+	private final ZipArchive archive;
 
 	public ZipFileAttachmentFactory(URL zipFile) {
 		super();
-		this.zipFile = zipFile;
+		this.archive = new ZipArchive(zipFile);
 	}
 
 	@Override
 	public Attachment getAttachment(String name) {
-		return new ZipFileAttachment(name, zipFile);
+		return new ZipFileAttachment(name, archive);
 	}
 }
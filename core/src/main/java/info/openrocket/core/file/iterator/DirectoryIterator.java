@@ -45,13 +45,27 @@ public class DirectoryIterator extends FileIterator {
 		this.filter = filter;
 		this.recursive = recursive;
 
-		this.files = directory.listFiles(new DirSelectionFileFilter(filter, recursive));
+		this.files = listFiles(directory, filter, recursive);
 		if (this.files == null) {
 			throw new IOException("not a directory or IOException occurred when listing files " +
 					"from " + directory);
 		}
 	}
 
+	/**
+	 * List the entries of a directory that the iterator visits: the files accepted by the
+	 * filter and, for a recursive search, the subdirectories.  Files and directories whose
+	 * name starts with a dot are skipped.
+	 * 
+	 * @param directory the directory to list.
+	 * @param filter    the filter for selecting files.
+	 * @param recursive true to include the subdirectories.
+	 * @return the entries, or <code>null</code> if the directory cannot be read.
+	 */
+	public static File[] listFiles(File directory, FileFilter filter, boolean recursive) {
+		return directory.listFiles(new DirSelectionFileFilter(filter, recursive));
+	}
+
 	@Override
 	protected Pair<File, InputStream> findNext() {
 
@@ -152,7 +166,7 @@ public class DirectoryIterator extends FileIterator {
 	/**
 	 * A FileFilter wrapper that accepts or discards directories.
 	 */
-	private class DirSelectionFileFilter implements FileFilter {
+	private static class DirSelectionFileFilter implements FileFilter {
 
 		private final boolean acceptDirs;
 		private final FileFilter parentFilter;
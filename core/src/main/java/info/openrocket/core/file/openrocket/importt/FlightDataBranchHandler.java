@@ -1,5 +1,6 @@
 package info.openrocket.core.file.openrocket.importt;
 
+import java.io.IOException;
 import java.util.HashMap;
 
 import info.openrocket.core.logging.SimulationAbort;
@@ -22,12 +23,15 @@ import info.openrocket.core.unit.UnitGroup;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.SAXException;
 
 class FlightDataBranchHandler extends AbstractElementHandler {
-	@SuppressWarnings("unused")
 	private final DocumentLoadingContext context;
 	private final FlightDataType[] types;
 	private final FlightDataBranch branch;
+	private final FlightDataSpool spool;
+	private final long spoolStart;
+	private int pointCount = 0;
 	
 	private static final Logger log = LoggerFactory.getLogger(FlightDataBranchHandler.class);
 	private final SingleSimulationHandler simHandler;
@@ -48,6 +52,9 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// TODO: LOW: May throw an IllegalArgumentException
 		branch = new FlightDataBranch(name, types);
+
+		spool = context.getFlightDataSpool();
+		spoolStart = (spool != null) ? spool.getPosition() : 0;
 	}
 	
 	/**
@@ -105,10 +112,29 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		return FlightDataType.getType(name, "Unknown", UnitGroup.UNITS_NONE);
 	}
 	
-	public FlightDataBranch getBranch() {
+	/**
+	 * Return the branch.  With a flight data spool, the data points are loaded into the
+	 * branch when it is first used.
+	 */
+	public FlightDataBranch getBranch() throws SAXException {
+		if (spool != null && pointCount > 0) {
+			try {
+				spool.flush();
+			} catch (IOException e) {
+				throw new SAXException("Unable to store flight data", e);
+			}
+			branch.setDataLoader(spool.createLoader(spoolStart, spool.getPosition(), types.length));
+		}
 		branch.immute();
 		return branch;
 	}
+
+	/**
+	 * Return the number of valid data points read, without loading them into the branch.
+	 */
+	public int getPointCount() {
+		return pointCount;
+	}
 	
 	@Override
 	public ElementHandler openElement(String element, HashMap<String, String> attributes,
@@ -126,7 +152,7 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 	
 	@Override
 	public void closeElement(String element, HashMap<String, String> attributes,
-			String content, WarningSet warnings) {
+			String content, WarningSet warnings) throws SAXException {
 		
 		if (element.equals("event")) {
 			double time;
@@ -173,6 +199,23 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		
 		// element == "datapoint"
 		
+		// Store the point to be parsed when the branch is used
+		if (spool != null) {
+			if (countValues(content) != types.length) {
+				warnings.add("Data point did not contain correct amount of values, ignoring point.");
+				return;
+			}
+			try {
+				if (!spool.append(content, types.length)) {
+					warnings.add("Data point format error, ignoring point.");
+					return;
+				}
+			} catch (IOException e) {
+				throw new SAXException("Unable to store flight data", e);
+			}
+			pointCount++;
+			return;
+		}
 		
 		// Check line format
 		String[] split = content.split(",");
@@ -193,9 +236,25 @@ class FlightDataBranchHandler extends AbstractElementHandler {
 		}
 		
 		// Add point to branch
-		branch.addPoint();
-		for (int i = 0; i < types.length; i++) {
-			branch.setValue(types[i], values[i]);
+		branch.addPoint(values);
+		pointCount++;
+	}
+	
+	/**
+	 * Count the values of a data point as {@link String#split(String)} does, ignoring
+	 * trailing empty values.
+	 */
+	private static int countValues(String content) {
+		int end = content.length();
+		while (end > 0 && content.charAt(end - 1) == ',') {
+			end--;
+		}
+		int count = 1;
+		for (int i = 0; i < end; i++) {
+			if (content.charAt(i) == ',') {
+				count++;
+			}
 		}
+		return count;
 	}
 }
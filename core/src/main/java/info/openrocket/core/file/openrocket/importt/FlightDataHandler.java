@@ -14,6 +14,8 @@ import info.openrocket.core.file.simplesax.PlainTextHandler;
 import info.openrocket.core.simulation.FlightData;
 import info.openrocket.core.simulation.FlightDataBranch;
 
+import org.xml.sax.SAXException;
+
 class FlightDataHandler extends AbstractElementHandler {
 	private final DocumentLoadingContext context;
 	
@@ -76,11 +78,11 @@ class FlightDataHandler extends AbstractElementHandler {
 	
 	@Override
 	public void closeElement(String element, HashMap<String, String> attributes,
-			String content, WarningSet warnings) {
+			String content, WarningSet warnings) throws SAXException {
 		
 		if (element.equals("databranch")) {
 			FlightDataBranch branch = dataHandler.getBranch();
-			if (branch.getLength() > 0) {
+			if (dataHandler.getPointCount() > 0) {
 				branches.add(branch);
 			}
 		} else if (element.equals("warning")) {
@@ -95,7 +97,9 @@ class FlightDataHandler extends AbstractElementHandler {
 	public void endHandler(String element, HashMap<String, String> attributes,
 			String content, WarningSet warnings) {
 
-		if (branches.size() > 0) {
+		// Lazily loaded branches are only loaded if the summary values are not stored
+		boolean lazy = context.getFlightDataSpool() != null && attributes.get("maxaltitude") != null;
+		if (branches.size() > 0 && !lazy) {
 			data = new FlightData(branches.toArray(new FlightDataBranch[0]));
 		} else {
 			double maxAltitude = Double.NaN;
@@ -152,6 +156,9 @@ class FlightDataHandler extends AbstractElementHandler {
 
 			data = new FlightData(maxAltitude, maxVelocity, maxAcceleration, maxMach,
 					timeToApogee, flightTime, groundHitVelocity, launchRodVelocity, deploymentVelocity, optimumDelay);
+			for (FlightDataBranch branch : branches) {
+				data.addBranch(branch);
+			}
 		}
 		
 		data.getWarningSet().addAll(warningSet);
@@ -0,0 +1,323 @@
+package info.openrocket.core.file.openrocket.importt;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+
+/**
+ * A temporary file holding the stored flight data points of a document while it is loaded,
+ * so that the data of each branch is parsed only when it is first used.
+ * <p>
+ * The content of each <code>datapoint</code> element is checked and appended to the file as a
+ * line of text, so that invalid points are reported while the document is loaded.  The
+ * branches read back their range of lines and parse the values with a scanner that does not
+ * allocate objects for ordinary decimal numbers.  The file is deleted once the spool and all
+ * branches loading from it are no longer reachable, or at the latest when the JVM exits.
+ */
+public class FlightDataSpool {
+	private static final Logger log = LoggerFactory.getLogger(FlightDataSpool.class);
+
+	private static final Cleaner CLEANER = Cleaner.create();
+
+	private static final int BUFFER_SIZE = 65536;
+
+	/** Largest mantissa and powers of ten that are exact doubles */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private final File file;
+	private final OutputStream out;
+	private long position = 0;
+
+	// Buffers for checking the appended data points
+	private byte[] line = new byte[256];
+	private double[] row = new double[0];
+
+	/**
+	 * Create a spool backed by a new temporary file.
+	 *
+	 * @throws IOException	if the temporary file cannot be created.
+	 */
+	public static FlightDataSpool create() throws IOException {
+		File file = File.createTempFile("openrocket-flightdata", ".tmp");
+		file.deleteOnExit();
+		return new FlightDataSpool(file);
+	}
+
+	private FlightDataSpool(File file) throws IOException {
+		this.file = file;
+		this.out = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+		CLEANER.register(this, new Cleanup(file, out));
+	}
+
+	/**
+	 * Return the position at which the next data point is appended.
+	 */
+	long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Append the text of a data point if it is valid.  Trailing empty values are ignored, as
+	 * when the point is parsed directly.  Characters outside of US-ASCII make the point
+	 * invalid.
+	 *
+	 * @param content	the text of the data point.
+	 * @param columns	the number of values in each data point.
+	 * @return			<code>false</code> if the point has the wrong number of values or an
+	 * 					invalid value, in which case it is not stored.
+	 */
+	boolean append(String content, int columns) throws IOException {
+		int n = content.length();
+		while (n > 0 && content.charAt(n - 1) == ',') {
+			n--;
+		}
+		if (line.length < n + 1) {
+			line = new byte[Math.max(n + 1, 2 * line.length)];
+		}
+		for (int i = 0; i < n; i++) {
+			char c = content.charAt(i);
+			line[i] = (byte) ((c < 128 && c != '\n') ? c : '?');
+		}
+		if (row.length != columns) {
+			row = new double[columns];
+		}
+		if (!parseRow(line, 0, n, row)) {
+			return false;
+		}
+		line[n] = '\n';
+		out.write(line, 0, n + 1);
+		position += n + 1;
+		return true;
+	}
+
+	/**
+	 * Write the data points appended so far to the file, so that they can be read.
+	 */
+	void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Close the file for writing once the document has been loaded.  Errors are logged
+	 * and otherwise ignored.
+	 */
+	public void finish() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			log.warn("Unable to close flight data spool " + file, e);
+		}
+	}
+
+	/**
+	 * Create a loader of the data points stored between two positions of the file.
+	 *
+	 * @param start		the position of the first data point.
+	 * @param end		the position after the last data point.
+	 * @param columns	the number of values in each data point.
+	 */
+	FlightDataBranch.DataLoader createLoader(final long start, final long end, final int columns) {
+		return rows -> {
+			double[] row = new double[columns];
+			byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(end - start, 1))];
+			int invalid = 0;
+
+			try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+				raf.seek(start);
+				long remaining = end - start;
+				int filled = 0;
+				while (remaining > 0 || filled > 0) {
+					int count = (int) Math.min(buffer.length - filled, remaining);
+					raf.readFully(buffer, filled, count);
+					remaining -= count;
+					filled += count;
+
+					// Parse the complete lines in the buffer
+					int lineStart = 0;
+					for (int i = 0; i < filled; i++) {
+						if (buffer[i] == '\n') {
+							if (parseRow(buffer, lineStart, i, row)) {
+								rows.accept(row);
+							} else {
+								invalid++;
+							}
+							lineStart = i + 1;
+						}
+					}
+
+					// Keep the incomplete last line, enlarging the buffer for very long lines
+					filled -= lineStart;
+					System.arraycopy(buffer, lineStart, buffer, 0, filled);
+					if (filled == buffer.length) {
+						buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+					}
+					if (remaining == 0 && filled > 0) {
+						log.warn("Flight data spool " + file + " ends with an incomplete data point");
+						break;
+					}
+				}
+			} catch (IOException e) {
+				log.warn("Unable to read flight data from " + file + ", data is incomplete", e);
+			}
+
+			if (invalid > 0) {
+				log.warn("Ignored " + invalid + " invalid flight data points");
+			}
+		};
+	}
+
+	/**
+	 * Parse the comma-separated values of a data point.
+	 *
+	 * @return	<code>false</code> if the point has the wrong number of values or
+	 * 			an invalid value.
+	 */
+	private static boolean parseRow(byte[] b, int from, int to, double[] row) {
+		int field = 0;
+		int fieldStart = from;
+		for (int i = from; i <= to; i++) {
+			if (i == to || b[i] == ',') {
+				if (field >= row.length) {
+					return false;
+				}
+				try {
+					row[field++] = parseDouble(b, fieldStart, i);
+				} catch (NumberFormatException e) {
+					return false;
+				}
+				fieldStart = i + 1;
+			}
+		}
+		return field == row.length;
+	}
+
+	/**
+	 * Parse a value in the format of {@link DocumentConfig#stringToDouble(String)}.  Plain
+	 * decimal numbers whose value is exactly computed from an integer mantissa and a power
+	 * of ten are parsed directly, other values through a string.
+	 */
+	static double parseDouble(byte[] b, int from, int to) throws NumberFormatException {
+		if (to - from == 3 && matches(b, from, "nan")) {
+			return Double.NaN;
+		}
+		if (to - from == 3 && matches(b, from, "inf")) {
+			return Double.POSITIVE_INFINITY;
+		}
+		if (to - from == 4 && b[from] == '-' && matches(b, from + 1, "inf")) {
+			return Double.NEGATIVE_INFINITY;
+		}
+
+		int i = from;
+		boolean negative = false;
+		if (i < to && (b[i] == '-' || b[i] == '+')) {
+			negative = (b[i] == '-');
+			i++;
+		}
+
+		long mantissa = 0;
+		int significant = 0;
+		int exponent = 0;
+		int digits = 0;
+		boolean simple = true;
+
+		for (; i < to && b[i] >= '0' && b[i] <= '9'; i++, digits++) {
+			simple &= significant < 18;
+			if (mantissa != 0 || b[i] != '0') {
+				mantissa = mantissa * 10 + (b[i] - '0');
+				significant++;
+			}
+		}
+		if (i < to && b[i] == '.') {
+			i++;
+			for (; i < to && b[i] >= '0' && b[i] <= '9'; i++, digits++) {
+				simple &= significant < 18;
+				if (mantissa != 0 || b[i] != '0') {
+					mantissa = mantissa * 10 + (b[i] - '0');
+					significant++;
+				}
+				exponent--;
+			}
+		}
+		if (digits > 0 && i < to && (b[i] == 'e' || b[i] == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < to && (b[i] == '-' || b[i] == '+')) {
+				negativeExponent = (b[i] == '-');
+				i++;
+			}
+			int e = 0;
+			int exponentDigits = 0;
+			for (; i < to && b[i] >= '0' && b[i] <= '9'; i++, exponentDigits++) {
+				if (e < 10000) {
+					e = e * 10 + (b[i] - '0');
+				}
+			}
+			if (exponentDigits == 0) {
+				simple = false;
+			}
+			exponent += negativeExponent ? -e : e;
+		}
+
+		if (simple && digits > 0 && i == to && mantissa < MAX_EXACT_MANTISSA) {
+			double value;
+			if (mantissa == 0) {
+				value = 0;
+			} else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+				value = mantissa * POWERS_OF_TEN[exponent];
+			} else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+				value = mantissa / POWERS_OF_TEN[-exponent];
+			} else {
+				return DocumentConfig.stringToDouble(new String(b, from, to - from, StandardCharsets.US_ASCII));
+			}
+			return negative ? -value : value;
+		}
+		return DocumentConfig.stringToDouble(new String(b, from, to - from, StandardCharsets.US_ASCII));
+	}
+
+	private static boolean matches(byte[] b, int from, String lowerCase) {
+		for (int i = 0; i < lowerCase.length(); i++) {
+			if (Character.toLowerCase((char) b[from + i]) != lowerCase.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Closes and deletes the file once the spool is unreachable.  Must not refer to the spool.
+	 */
+	private static class Cleanup implements Runnable {
+		private final File file;
+		private final OutputStream out;
+
+		private Cleanup(File file, OutputStream out) {
+			this.file = file;
+			this.out = out;
+		}
+
+		@Override
+		public void run() {
+			try {
+				out.close();
+			} catch (IOException ignore) {
+			}
+			if (!file.delete()) {
+				log.debug("Unable to delete flight data spool " + file);
+			}
+		}
+	}
+}
@@ -2,7 +2,7 @@ package info.openrocket.core.file.openrocket.importt;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.List;
+import java.util.Arrays;
 
 import info.openrocket.core.rocketcomponent.ComponentChangeEvent;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
@@ -47,11 +47,27 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 
 		OpenRocketDocument doc = context.getOpenRocketDocument();
 
+		// Spool the flight data to be parsed when it is first used
+		FlightDataSpool spool = null;
+		if (context.isLazyFlightData()) {
+			try {
+				spool = FlightDataSpool.create();
+			} catch (IOException e) {
+				log.warn("Unable to create flight data spool, loading flight data immediately", e);
+			}
+		}
+		context.setFlightDataSpool(spool);
+
 		try {
 			SimpleSAX.readXML(xmlSource, handler, warnings);
 		} catch (SAXException e) {
 			log.warn("Malformed XML in input");
 			throw new RocketLoadException("Malformed XML in input.", e);
+		} finally {
+			if (spool != null) {
+				spool.finish();
+			}
+			context.setFlightDataSpool(null);
 		}
 
 		// load the stage activeness
@@ -75,8 +91,7 @@ public class OpenRocketLoader extends AbstractRocketLoader {
 			FlightDataBranch branch = s.getSimulatedData().getBranch(0);
 			if (branch == null)
 				continue;
-			List<Double> list = branch.get(FlightDataType.TYPE_TIME);
-			if (list == null)
+			if (!Arrays.asList(branch.getTypes()).contains(FlightDataType.TYPE_TIME))
 				continue;
 
 			doc.getDefaultStorageOptions().setSaveSimulationData(true);
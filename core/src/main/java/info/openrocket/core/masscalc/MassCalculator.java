@@ -1,11 +1,13 @@
 package info.openrocket.core.masscalc;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.simulation.MotorClusterState;
 import info.openrocket.core.simulation.SimulationStatus;
@@ -19,10 +21,11 @@ public class MassCalculator implements Monitorable {
 	 * Cached data. All CG data is in absolute coordinates. All moments of inertia
 	 * are relative to their respective CG.
 	 */
-	// private HashMap< Integer, MassData> stageMassCache = new HashMap<Integer,
-	// MassData >();
-	// private MassData rocketSpentMassCache;
-	// private MassData motorMassCache;
+	// structure mass data of each set of active stages, valid for the rocket and modIDs below
+	private final Map<BitSet, RigidBody> structureCache = new HashMap<>();
+	private Rocket cacheRocket = null;
+	private int cacheMassModID = -1;
+	private int cacheTreeModID = -1;
 
 	private final int modId = 0;
 
@@ -98,6 +101,44 @@ public class MassCalculator implements Monitorable {
 		return calculate(MassCalculation.Type.MOTOR, status);
 	}
 
+	/**
+	 * Calculates mass data of the rocket's structure, like {@link #calculateStructure(FlightConfiguration)},
+	 * but returns cached data if the structure of the same set of active stages has already been
+	 * calculated.  The structure mass does not change during a simulation, so this avoids walking
+	 * the component tree on every time step.  The cache is discarded when the mass or tree
+	 * modification ID of the rocket changes.
+	 * <p>
+	 * Unlike the static methods, this method uses the state of this calculator and must not be
+	 * called concurrently on the same instance.
+	 * 
+	 * @param config the rocket configuration to calculate for
+	 * @return the MassData struct of the rocket's structure
+	 */
+	public RigidBody getCachedStructure(final FlightConfiguration config) {
+		final Rocket rocket = config.getRocket();
+		if (rocket != cacheRocket || rocket.getMassModID() != cacheMassModID ||
+				rocket.getTreeModID() != cacheTreeModID) {
+			structureCache.clear();
+			cacheRocket = rocket;
+			cacheMassModID = rocket.getMassModID();
+			cacheTreeModID = rocket.getTreeModID();
+		}
+
+		final BitSet activeStages = new BitSet();
+		for (int i = 0; i < rocket.getStageCount(); i++) {
+			if (config.isStageActive(i)) {
+				activeStages.set(i);
+			}
+		}
+
+		RigidBody structure = structureCache.get(activeStages);
+		if (structure == null) {
+			structure = calculateStructure(config);
+			structureCache.put(activeStages, structure);
+		}
+		return structure;
+	}
+
 	////////////////// Mass property Wrappers ///////////////////
 	// all mass calculation calls should probably call through one of these two
 	////////////////// wrappers.
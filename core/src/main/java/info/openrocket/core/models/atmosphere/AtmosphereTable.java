@@ -0,0 +1,89 @@
+package info.openrocket.core.models.atmosphere;
+
+import static info.openrocket.core.models.atmosphere.AtmosphericConditions.R;
+
+/**
+ * An immutable table of atmospheric temperature and pressure at evenly spaced altitudes.
+ * Values between the levels are linearly interpolated.  Altitudes below zero return the
+ * values of the first level and altitudes above the table return the values of the last
+ * level.
+ * <p>
+ * The table is fully built when constructed and never modified afterwards, so a single
+ * instance may be shared by any number of threads.  The primitive lookup methods do not
+ * allocate.
+ */
+public final class AtmosphereTable {
+
+	private final double delta;
+	private final double[] temperature;
+	private final double[] pressure;
+
+	/**
+	 * Build a table by sampling the exact conditions of a model.
+	 *
+	 * @param model		the model to sample.
+	 * @param delta		the altitude difference between levels.
+	 * @param maxAltitude	the highest altitude to sample.
+	 */
+	AtmosphereTable(InterpolatingAtmosphericModel model, double delta, double maxAltitude) {
+		int n = (int) (maxAltitude / delta) + 1;
+		this.delta = delta;
+		this.temperature = new double[n];
+		this.pressure = new double[n];
+		for (int i = 0; i < n; i++) {
+			AtmosphericConditions c = model.getExactConditions(i * delta);
+			temperature[i] = c.getTemperature();
+			pressure[i] = c.getPressure();
+		}
+	}
+
+	/**
+	 * Return the number of levels in the table.
+	 */
+	public int getLevelCount() {
+		return temperature.length;
+	}
+
+	/**
+	 * Return the interpolated temperature at an altitude, in Kelvins.
+	 */
+	public double getTemperature(double altitude) {
+		return interpolate(temperature, altitude);
+	}
+
+	/**
+	 * Return the interpolated pressure at an altitude, in Pascals.
+	 */
+	public double getPressure(double altitude) {
+		return interpolate(pressure, altitude);
+	}
+
+	/**
+	 * Return the density of dry air at an altitude, computed from the interpolated
+	 * temperature and pressure as by {@link AtmosphericConditions#getDensity()}.
+	 */
+	public double getDensity(double altitude) {
+		return getPressure(altitude) / (R * getTemperature(altitude));
+	}
+
+	/**
+	 * Return the conditions at an altitude as a new object, which the caller may modify.
+	 */
+	public AtmosphericConditions getConditions(double altitude) {
+		return new AtmosphericConditions(getTemperature(altitude), getPressure(altitude));
+	}
+
+	private double interpolate(double[] values, double altitude) {
+		if (altitude <= 0) {
+			return values[0];
+		}
+		int last = values.length - 1;
+		if (altitude >= delta * last) {
+			return values[last];
+		}
+
+		int n = (int) (altitude / delta);
+		double d = (altitude - n * delta) / delta;
+		return values[n] * (1 - d) + values[n + 1] * d;
+	}
+}
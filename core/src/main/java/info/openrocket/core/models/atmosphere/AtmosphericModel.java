@@ -6,4 +6,26 @@ public interface AtmosphericModel extends Monitorable {
 
 	public AtmosphericConditions getConditions(double altitude);
 
+	/**
+	 * Return the temperature at an altitude, in Kelvins.  Implementations backed by a
+	 * pre-computed table override this to avoid creating a conditions object.
+	 */
+	public default double getTemperature(double altitude) {
+		return getConditions(altitude).getTemperature();
+	}
+
+	/**
+	 * Return the pressure at an altitude, in Pascals.
+	 */
+	public default double getPressure(double altitude) {
+		return getConditions(altitude).getPressure();
+	}
+
+	/**
+	 * Return the density of dry air at an altitude.
+	 */
+	public default double getDensity(double altitude) {
+		return getConditions(altitude).getDensity();
+	}
+
 }
@@ -1,6 +1,10 @@
 package info.openrocket.core.models.atmosphere;
 
 import static info.openrocket.core.models.atmosphere.AtmosphericConditions.R;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import info.openrocket.core.util.MathUtil;
 
 /**
@@ -14,6 +18,9 @@ import info.openrocket.core.util.MathUtil;
  * values
  * are calculated based on these.
  * <p>
+ * The interpolation table is built when the model is constructed and shared between
+ * all models with the same base altitude, temperature and pressure.
+ * <p>
  * TODO: LOW: Values at altitudes over 32km differ from standard results by ~5%.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
@@ -25,6 +32,10 @@ public class ExtendedISAModel extends InterpolatingAtmosphericModel {
 
 	private static final double G = 9.80665;
 
+	/** Maximum number of cached tables before the cache is cleared. */
+	private static final int MAX_CACHED_TABLES = 64;
+	private static final Map<TableKey, AtmosphereTable> tableCache = new ConcurrentHashMap<>();
+
 	private final double[] layer = { 0, 11000, 20000, 32000, 47000, 51000, 71000, 84852 };
 	private final double[] baseTemperature = {
 			288.15, 216.65, 216.65, 228.65, 270.65, 270.65, 214.65, 186.95
@@ -74,6 +85,22 @@ public class ExtendedISAModel extends InterpolatingAtmosphericModel {
 		for (int i = 1; i < basePressure.length; i++) {
 			basePressure[i] = getExactConditions(layer[i] - 1).getPressure();
 		}
+
+		getTable();
+	}
+
+	@Override
+	protected AtmosphereTable createTable() {
+		TableKey key = new TableKey(layer[0], baseTemperature[0], basePressure[0]);
+		AtmosphereTable table = tableCache.get(key);
+		if (table == null) {
+			if (tableCache.size() >= MAX_CACHED_TABLES) {
+				tableCache.clear();
+			}
+			table = super.createTable();
+			tableCache.put(key, table);
+		}
+		return table;
 	}
 
 	@Override
@@ -126,4 +153,39 @@ public class ExtendedISAModel extends InterpolatingAtmosphericModel {
 		return 0;
 	}
 
+	/**
+	 * The parameters that define the interpolation table of a model.
+	 */
+	private static final class TableKey {
+		private final double altitude;
+		private final double temperature;
+		private final double pressure;
+
+		TableKey(double altitude, double temperature, double pressure) {
+			this.altitude = altitude;
+			this.temperature = temperature;
+			this.pressure = pressure;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o)
+				return true;
+			if (!(o instanceof TableKey))
+				return false;
+			TableKey other = (TableKey) o;
+			return Double.compare(altitude, other.altitude) == 0 &&
+					Double.compare(temperature, other.temperature) == 0 &&
+					Double.compare(pressure, other.pressure) == 0;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = Double.hashCode(altitude);
+			result = 31 * result + Double.hashCode(temperature);
+			result = 31 * result + Double.hashCode(pressure);
+			return result;
+		}
+	}
+
 }
@@ -4,6 +4,9 @@ package info.openrocket.core.models.atmosphere;
  * An abstract atmospheric model that pre-computes the conditions on a number of
  * layers
  * and later linearly interpolates the values from between these layers.
+ * <p>
+ * The layers are held in an immutable {@link AtmosphereTable}, which is published
+ * safely once built, so a model may be shared between simulation threads.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
@@ -11,51 +14,47 @@ public abstract class InterpolatingAtmosphericModel implements AtmosphericModel
 	/** Layer thickness of interpolated altitude. */
 	private static final double DELTA = 500;
 
-	private AtmosphericConditions[] levels = null;
+	private volatile AtmosphereTable table = null;
 
 	@Override
 	public AtmosphericConditions getConditions(double altitude) {
-		if (levels == null)
-			computeLayers();
+		return getTable().getConditions(altitude);
+	}
 
-		if (altitude <= 0) {
-			// TODO: LOW: levels[0] returned null in some cases, see GitHub issue #952 for
-			// more information
-			if (levels[0] == null) {
-				computeLayers();
-			}
-			return levels[0];
-		}
-		if (altitude >= DELTA * (levels.length - 1)) {
-			// TODO: LOW: levels[levels.length - 1] returned null in some cases, see GitHub
-			// issue #952 for more information
-			if (levels[levels.length - 1] == null) {
-				computeLayers();
-			}
-			return levels[levels.length - 1];
-		}
+	@Override
+	public double getTemperature(double altitude) {
+		return getTable().getTemperature(altitude);
+	}
 
-		int n = (int) (altitude / DELTA);
-		double d = (altitude - n * DELTA) / DELTA;
-		AtmosphericConditions c = new AtmosphericConditions();
-		// TODO: LOW: levels[n] returned null in some cases, see GitHub issue #2180 for
-		// more information
-		if (levels[n] == null) {
-			computeLayers();
-		}
-		c.setTemperature(levels[n].getTemperature() * (1 - d) + levels[n + 1].getTemperature() * d);
-		c.setPressure(levels[n].getPressure() * (1 - d) + levels[n + 1].getPressure() * d);
+	@Override
+	public double getPressure(double altitude) {
+		return getTable().getPressure(altitude);
+	}
 
-		return c;
+	@Override
+	public double getDensity(double altitude) {
+		return getTable().getDensity(altitude);
 	}
 
-	private void computeLayers() {
-		double max = getMaxAltitude();
-		int n = (int) (max / DELTA) + 1;
-		levels = new AtmosphericConditions[n];
-		for (int i = 0; i < n; i++) {
-			levels[i] = getExactConditions(i * DELTA);
+	/**
+	 * Return the table of pre-computed layers, building it on first use.  Concurrent first
+	 * calls may each build a table, but the tables are identical and any of them may be kept.
+	 */
+	public AtmosphereTable getTable() {
+		AtmosphereTable t = table;
+		if (t == null) {
+			t = createTable();
+			table = t;
 		}
+		return t;
+	}
+
+	/**
+	 * Create the table of pre-computed layers.  Subclasses may override this to share
+	 * tables between models with the same parameters.
+	 */
+	protected AtmosphereTable createTable() {
+		return new AtmosphereTable(this, DELTA, getMaxAltitude());
 	}
 
 	protected abstract double getMaxAltitude();
@@ -0,0 +1,344 @@
+package info.openrocket.core.motor;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * Reads and writes the compact binary motor database format.
+ * <p>
+ * The format is designed to be read without decoding the whole file: a fixed-size header
+ * is followed by a string table, an index of fixed-size motor records and a data section
+ * with the delays and curve of each motor stored as packed doubles.  All values are
+ * big-endian.
+ * <pre>
+ * header:   int magic, int version, int motorCount, int stringCount,
+ *           int stringTableOffset, int indexOffset, int dataOffset, int reserved
+ * strings:  int[stringCount + 1] byte offsets relative to the end of the offset array,
+ *           followed by the UTF-8 encoded strings
+ * index:    motorCount records of {@value #RECORD_SIZE} bytes, see {@link #readMotor}
+ * data:     per motor double[delayCount] delays, then double[sampleCount] each of
+ *           time, thrust, CG x, CG y, CG z and mass
+ * </pre>
+ * Motors read from the format decode their curve on first use, so reading a database only
+ * decodes the string table and the index.  The curve data is read directly from the buffer,
+ * which may be a memory-mapped file.
+ */
+public final class BinaryMotorFile {
+
+	/** The file name extension of binary motor files */
+	public static final String EXTENSION = "motordb";
+
+	/** "ORMD" */
+	private static final int MAGIC = 0x4F524D44;
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 32;
+	private static final int RECORD_SIZE = 9 * 4 + 4 * 4 + 7 * 8;
+
+	private static final int FLAG_AVAILABLE = 1;
+
+	private BinaryMotorFile() {
+	}
+
+
+	/**
+	 * Write motors to an output stream in the binary format.  The stream is not closed.
+	 *
+	 * @param motors	the motors to write.
+	 * @param output	the stream to write to.
+	 * @throws IOException	if an I/O error occurs.
+	 */
+	public static void write(Collection<ThrustCurveMotor> motors, OutputStream output) throws IOException {
+		List<String> strings = new ArrayList<String>();
+		Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+		int[][] refs = new int[motors.size()][];
+		int n = 0;
+		for (ThrustCurveMotor m : motors) {
+			String[] values = {
+					m.getManufacturer().getDisplayName(), m.getCode(), m.getCommonName(), m.getDesignation(),
+					m.getDescription(), m.getDigest(), m.getCaseInfo(), m.getPropellantInfo(),
+					m.getMotorType().name()
+			};
+			int[] r = new int[values.length];
+			for (int i = 0; i < values.length; i++) {
+				String value = (values[i] != null) ? values[i] : "";
+				Integer index = stringIndex.get(value);
+				if (index == null) {
+					index = strings.size();
+					strings.add(value);
+					stringIndex.put(value, index);
+				}
+				r[i] = index;
+			}
+			refs[n++] = r;
+		}
+
+		byte[][] encoded = new byte[strings.size()][];
+		int stringBytes = 0;
+		for (int i = 0; i < encoded.length; i++) {
+			encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+			stringBytes += encoded[i].length;
+		}
+
+		int stringTableOffset = HEADER_SIZE;
+		int indexOffset = stringTableOffset + 4 * (strings.size() + 1) + stringBytes;
+		int dataOffset = indexOffset + RECORD_SIZE * motors.size();
+
+		DataOutputStream out = new DataOutputStream(output);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(motors.size());
+		out.writeInt(strings.size());
+		out.writeInt(stringTableOffset);
+		out.writeInt(indexOffset);
+		out.writeInt(dataOffset);
+		out.writeInt(0);
+
+		int offset = 0;
+		for (byte[] b : encoded) {
+			out.writeInt(offset);
+			offset += b.length;
+		}
+		out.writeInt(offset);
+		for (byte[] b : encoded) {
+			out.write(b);
+		}
+
+		int position = dataOffset;
+		n = 0;
+		for (ThrustCurveMotor m : motors) {
+			for (int r : refs[n++]) {
+				out.writeInt(r);
+			}
+			int delayCount = m.getStandardDelays().length;
+			int sampleCount = m.getSampleSize();
+			out.writeInt(m.isAvailable() ? FLAG_AVAILABLE : 0);
+			out.writeInt(delayCount);
+			out.writeInt(sampleCount);
+			out.writeInt(position);
+			out.writeDouble(m.getDiameter());
+			out.writeDouble(m.getLength());
+			out.writeDouble(m.getInitialMass());
+			out.writeDouble(m.getMaxThrustEstimate());
+			out.writeDouble(m.getBurnTimeEstimate());
+			out.writeDouble(m.getAverageThrustEstimate());
+			out.writeDouble(m.getTotalImpulseEstimate());
+			position += 8 * (delayCount + 6 * sampleCount);
+		}
+
+		for (ThrustCurveMotor m : motors) {
+			for (double d : m.getStandardDelays()) {
+				out.writeDouble(d);
+			}
+			for (double t : m.getTimePoints()) {
+				out.writeDouble(t);
+			}
+			for (double t : m.getThrustPoints()) {
+				out.writeDouble(t);
+			}
+			Coordinate[] cg = m.getCGPoints();
+			for (Coordinate c : cg) {
+				out.writeDouble(c.x);
+			}
+			for (Coordinate c : cg) {
+				out.writeDouble(c.y);
+			}
+			for (Coordinate c : cg) {
+				out.writeDouble(c.z);
+			}
+			for (Coordinate c : cg) {
+				out.writeDouble(c.weight);
+			}
+		}
+		out.flush();
+	}
+
+
+	/**
+	 * Read the motors of a binary motor file, memory-mapping the file.
+	 *
+	 * @param file	the file to read.
+	 * @return		the motors, whose curves are decoded on first use.
+	 * @throws IOException	if an I/O error occurs or the file is not a valid binary motor file.
+	 */
+	public static List<ThrustCurveMotor> read(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			FileChannel channel = raf.getChannel();
+			// The mapping remains valid after the channel is closed
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Read the motors of a binary motor file from a stream.  The stream is read fully
+	 * but not closed.
+	 *
+	 * @param input	the stream to read.
+	 * @return		the motors, whose curves are decoded on first use.
+	 * @throws IOException	if an I/O error occurs or the data is not a valid binary motor file.
+	 */
+	public static List<ThrustCurveMotor> read(InputStream input) throws IOException {
+		return read(ByteBuffer.wrap(input.readAllBytes()));
+	}
+
+	/**
+	 * Read the motors of a binary motor file from a buffer.  The motors keep a reference
+	 * to the buffer until their curves have been decoded, so the buffer must not be modified.
+	 *
+	 * @param buffer	the buffer containing the file, starting at position zero.
+	 * @return			the motors, whose curves are decoded on first use.
+	 * @throws IOException	if the data is not a valid binary motor file.
+	 */
+	public static List<ThrustCurveMotor> read(ByteBuffer buffer) throws IOException {
+		ByteBuffer data = buffer.asReadOnlyBuffer();
+		if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+			throw new IOException("Not a binary motor file");
+		}
+		int version = data.getInt(4);
+		if (version != VERSION) {
+			throw new IOException("Unsupported binary motor file version " + version);
+		}
+		int motorCount = data.getInt(8);
+		int stringCount = data.getInt(12);
+		int stringTableOffset = data.getInt(16);
+		int indexOffset = data.getInt(20);
+		if (motorCount < 0 || stringCount < 0 ||
+				(long) indexOffset + (long) motorCount * RECORD_SIZE > data.limit()) {
+			throw new IOException("Corrupt binary motor file");
+		}
+
+		String[] strings = readStrings(data, stringTableOffset, stringCount);
+
+		List<ThrustCurveMotor> motors = new ArrayList<ThrustCurveMotor>(motorCount);
+		for (int i = 0; i < motorCount; i++) {
+			motors.add(readMotor(data, indexOffset + i * RECORD_SIZE, strings));
+		}
+		return motors;
+	}
+
+	private static String[] readStrings(ByteBuffer data, int offset, int count) throws IOException {
+		int bytesOffset = offset + 4 * (count + 1);
+		String[] strings = new String[count];
+		byte[] bytes = new byte[0];
+		for (int i = 0; i < count; i++) {
+			int start = data.getInt(offset + 4 * i);
+			int end = data.getInt(offset + 4 * (i + 1));
+			int length = end - start;
+			if (length < 0 || bytesOffset + end > data.limit()) {
+				throw new IOException("Corrupt binary motor file string table");
+			}
+			if (bytes.length < length) {
+				bytes = new byte[length];
+			}
+			data.get(bytesOffset + start, bytes, 0, length);
+			strings[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+		}
+		return strings;
+	}
+
+	/**
+	 * Read a motor record.  A record consists of the string indices of the manufacturer,
+	 * code, common name, designation, description, digest, case info, propellant info and
+	 * motor type; the flags, delay count, sample count and data offset; and the diameter,
+	 * length, initial mass, maximum thrust, burn time, average thrust and total impulse.
+	 */
+	private static ThrustCurveMotor readMotor(ByteBuffer data, int offset, String[] strings) throws IOException {
+		ThrustCurveMotor.Builder builder = new ThrustCurveMotor.Builder();
+		try {
+			builder.setManufacturer(Manufacturer.getManufacturer(strings[data.getInt(offset)]));
+			builder.setCode(strings[data.getInt(offset + 4)]);
+			builder.setCommonName(strings[data.getInt(offset + 8)]);
+			builder.setDesignation(strings[data.getInt(offset + 12)]);
+			builder.setDescription(strings[data.getInt(offset + 16)]);
+			builder.setDigest(strings[data.getInt(offset + 20)]);
+			builder.setCaseInfo(strings[data.getInt(offset + 24)]);
+			builder.setPropellantInfo(strings[data.getInt(offset + 28)]);
+			builder.setMotorType(Motor.Type.valueOf(strings[data.getInt(offset + 32)]));
+		} catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new IOException("Corrupt binary motor file record at " + offset, e);
+		}
+
+		int flags = data.getInt(offset + 36);
+		int delayCount = data.getInt(offset + 40);
+		int sampleCount = data.getInt(offset + 44);
+		int dataOffset = data.getInt(offset + 48);
+		if (delayCount < 0 || sampleCount < 2 || dataOffset < 0 ||
+				(long) dataOffset + 8L * (delayCount + 6L * sampleCount) > data.limit()) {
+			throw new IOException("Corrupt binary motor file record at " + offset);
+		}
+
+		builder.setAvailability((flags & FLAG_AVAILABLE) != 0);
+		builder.setDiameter(data.getDouble(offset + 52));
+		builder.setLength(data.getDouble(offset + 60));
+		builder.setInitialMass(data.getDouble(offset + 68));
+
+		double[] delays = new double[delayCount];
+		for (int i = 0; i < delayCount; i++) {
+			delays[i] = data.getDouble(dataOffset + 8 * i);
+		}
+		builder.setStandardDelays(delays);
+
+		Curve curve = new Curve(data, dataOffset + 8 * delayCount, sampleCount);
+		return builder.buildLazy(curve, data.getDouble(offset + 76), data.getDouble(offset + 84),
+				data.getDouble(offset + 92), data.getDouble(offset + 100));
+	}
+
+
+	/**
+	 * The location of the curve of a motor within a binary motor file.
+	 */
+	static final class Curve {
+		private final ByteBuffer data;
+		private final int offset;
+		private final int count;
+
+		private Curve(ByteBuffer data, int offset, int count) {
+			this.data = data;
+			this.offset = offset;
+			this.count = count;
+		}
+
+		double[] readTime() {
+			return readArray(0);
+		}
+
+		double[] readThrust() {
+			return readArray(1);
+		}
+
+		Coordinate[] readCG() {
+			double[] x = readArray(2);
+			double[] y = readArray(3);
+			double[] z = readArray(4);
+			double[] mass = readArray(5);
+			Coordinate[] cg = new Coordinate[count];
+			for (int i = 0; i < count; i++) {
+				cg[i] = new Coordinate(x[i], y[i], z[i], mass[i]);
+			}
+			return cg;
+		}
+
+		private double[] readArray(int column) {
+			double[] values = new double[count];
+			int start = offset + 8 * count * column;
+			for (int i = 0; i < count; i++) {
+				values[i] = data.getDouble(start + 8 * i);
+			}
+			return values;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package info.openrocket.core.motor;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.text.Collator;
 import java.util.Arrays;
@@ -61,6 +63,15 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	private double unitRotationalInertia;
 	private double unitLongitudinalInertia;
 
+	/**
+	 * The curve of a motor read from a binary motor file that has not been decoded yet,
+	 * or <code>null</code> once the time, thrust and CG arrays are available.
+	 */
+	private transient volatile BinaryMotorFile.Curve pendingCurve;
+
+	/** Lookup table of the time points, built on first use */
+	private transient volatile TimeIndex timeIndex;
+
 	public static class Builder {
 
 		ThrustCurveMotor motor = new ThrustCurveMotor();
@@ -262,6 +273,45 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 			return motor;
 		}
 
+		/**
+		 * Build a motor whose curve is decoded from a binary motor file on first use.  The
+		 * statistics are those computed when the motor was written, and the data is not
+		 * validated again.
+		 */
+		ThrustCurveMotor buildLazy(BinaryMotorFile.Curve curve, double maxThrust, double burnTimeEstimate,
+				double averageThrust, double totalImpulse) {
+			motor.pendingCurve = curve;
+			motor.maxThrust = maxThrust;
+			motor.burnTimeEstimate = burnTimeEstimate;
+			motor.averageThrust = averageThrust;
+			motor.totalImpulse = totalImpulse;
+			motor.unitRotationalInertia = Inertia.filledCylinderRotational(motor.diameter / 2);
+			motor.unitLongitudinalInertia = Inertia.filledCylinderLongitudinal(motor.diameter / 2, motor.length);
+			return motor;
+		}
+
+	}
+
+	/**
+	 * Decode the curve data if the motor was read lazily from a binary motor file.
+	 */
+	private void loadCurve() {
+		if (pendingCurve != null) {
+			synchronized (this) {
+				BinaryMotorFile.Curve curve = pendingCurve;
+				if (curve != null) {
+					time = curve.readTime();
+					thrust = curve.readThrust();
+					cg = curve.readCG();
+					pendingCurve = null;
+				}
+			}
+		}
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		loadCurve();
+		out.defaultWriteObject();
 	}
 
 	/**
@@ -279,6 +329,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return an array of time points where the thrust is sampled
 	 */
 	public double[] getTimePoints() {
+		loadCurve();
 		return time.clone();
 	}
 
@@ -295,6 +346,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return a pseudo index to this motor's data.
 	 */
 	protected double getPseudoIndex(final double motorTime) {
+		loadCurve();
 		if ((time.length == 0) || (0 > motorTime)) {
 			return Double.NaN;
 		}
@@ -305,6 +357,20 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	private int getIndex(final double motorTime) {
+		// Motors are shared by concurrent simulations, so lookups only read the shared table
+		TimeIndex index = timeIndex;
+		if (index == null) {
+			index = new TimeIndex(time);
+			timeIndex = index;
+		}
+		final int result = index.getIndex(time, motorTime);
+		if (result >= 0) {
+			return result;
+		}
+		return scanIndex(motorTime);
+	}
+
+	private int scanIndex(final double motorTime) {
 		int lowerBoundIndex = 0;
 		int upperBoundIndex = 0;
 		while ((upperBoundIndex < time.length) && (motorTime >= time[upperBoundIndex])) {
@@ -315,6 +381,76 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return lowerBoundIndex;
 	}
 
+	/**
+	 * A uniform-time table of the time point indices, for finding the time point at or
+	 * before a motor time in constant time.  The result equals a linear scan of the time
+	 * points exactly, so using the table does not change the interpolated values.
+	 */
+	private static final class TimeIndex {
+		/** Number of table buckets per time point */
+		private static final int BUCKETS_PER_POINT = 2;
+
+		private final double start;
+		private final double end;
+		private final double scale;
+		/** For each bucket, the last time point at or before the start of the bucket */
+		private final int[] buckets;
+
+		private TimeIndex(final double[] time) {
+			final int n = time.length;
+			boolean increasing = n >= 2;
+			for (int i = 0; increasing && i < n - 1; i++) {
+				increasing = time[i] < time[i + 1];
+			}
+			if (!increasing) {
+				// The index is only defined for validated curves, use a linear scan otherwise
+				start = end = scale = Double.NaN;
+				buckets = null;
+				return;
+			}
+
+			start = time[0];
+			end = time[n - 1];
+			buckets = new int[BUCKETS_PER_POINT * n];
+			scale = buckets.length / (end - start);
+			int index = 0;
+			for (int b = 0; b < buckets.length; b++) {
+				final double bucketStart = start + b / scale;
+				while (index + 1 < n && time[index + 1] <= bucketStart) {
+					index++;
+				}
+				buckets[b] = index;
+			}
+		}
+
+		/**
+		 * Return the index of the last time point at or before the motor time, 0 if there
+		 * is none, or -1 if the table is not available.
+		 */
+		private int getIndex(final double[] time, final double motorTime) {
+			if (buckets == null) {
+				return -1;
+			}
+			if (!(motorTime >= start)) {
+				return 0;
+			}
+			if (motorTime >= end) {
+				return time.length - 1;
+			}
+
+			final int bucket = Math.min((int) ((motorTime - start) * scale), buckets.length - 1);
+			int index = buckets[bucket];
+			// Correct for rounding of the bucket boundaries
+			while (index > 0 && time[index] > motorTime) {
+				index--;
+			}
+			while (index + 1 < time.length && time[index + 1] <= motorTime) {
+				index++;
+			}
+			return index;
+		}
+	}
+
 	private double getIndexFraction(final double motorTime, final int index) {
 		final double SNAP_DISTANCE = 0.0001;
 
@@ -345,6 +481,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	@Override
 	public double getAverageThrust(final double startTime, final double endTime) {
+		loadCurve();
 
 		int timeIndex = 0;
 
@@ -401,7 +538,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	@Override
 	public double getCMx(final double motorTime) {
 		double pseudoIndex = getPseudoIndex(motorTime);
-		return this.interpolateCenterOfMassAtIndex(pseudoIndex).x;
+		return this.interpolateCenterOfMassValueAtIndex(pseudoIndex, false);
 	}
 
 	public String getCaseInfo() {
@@ -434,6 +571,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return an array of thrust samples
 	 */
 	public double[] getThrustPoints() {
+		loadCurve();
 		return thrust.clone();
 	}
 
@@ -446,6 +584,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	// }
 
 	public Coordinate[] getCGPoints() {
+		loadCurve();
 		return cg;
 	}
 
@@ -543,26 +682,31 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 
 	@Override
 	public double getLaunchCGx() {
+		loadCurve();
 		return cg[0].x;// cgx[0];
 	}
 
 	@Override
 	public double getBurnoutCGx() {
+		loadCurve();
 		return cg[cg.length - 1].x;// cgx[ cg.length - 1];
 	}
 
 	@Override
 	public double getLaunchMass() {
+		loadCurve();
 		return cg[0].weight;// mass[0];
 	}
 
 	@Override
 	public double getBurnoutMass() {
+		loadCurve();
 		return cg[cg.length - 1].weight; // mass[mass.length - 1];
 	}
 
 	@Override
 	public double getBurnTime() {
+		loadCurve();
 		return time[time.length - 1];
 	}
 
@@ -607,7 +751,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	@Override
 	public double getTotalMass(final double motorTime) {
 		final double pseudoIndex = getPseudoIndex(motorTime);
-		return interpolateCenterOfMassAtIndex(pseudoIndex).weight;
+		return interpolateCenterOfMassValueAtIndex(pseudoIndex, true);
 	}
 
 	public double getPropellantMass() {
@@ -617,11 +761,12 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	@Override
 	public double getPropellantMass(final Double motorTime) {
 		final double pseudoIndex = getPseudoIndex(motorTime);
-		final double totalMass = interpolateCenterOfMassAtIndex(pseudoIndex).weight;
+		final double totalMass = interpolateCenterOfMassValueAtIndex(pseudoIndex, true);
 		return totalMass - this.getBurnoutMass();
 	}
 
 	protected Coordinate interpolateCenterOfMassAtIndex(final double pseudoIndex) {
+		loadCurve();
 		final double SNAP_TOLERANCE = 0.0001;
 
 		final double upperFrac = pseudoIndex % 1;
@@ -643,7 +788,37 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 		return lowerValue.add(upperValue);
 	}
 
+	/**
+	 * Return the CG x position or the mass of interpolateCenterOfMassAtIndex(pseudoIndex),
+	 * without allocating intermediate coordinates.
+	 */
+	private double interpolateCenterOfMassValueAtIndex(final double pseudoIndex, final boolean mass) {
+		loadCurve();
+		final double SNAP_TOLERANCE = 0.0001;
+
+		final double upperFrac = pseudoIndex % 1;
+		final double lowerFrac = 1 - upperFrac;
+		final int lowerIndex = (int) pseudoIndex;
+		final int upperIndex = lowerIndex + 1;
+
+		// if the pseudo index is close to an integer:
+		if (SNAP_TOLERANCE > (1 - lowerFrac)) {
+			return mass ? cg[lowerIndex].weight : cg[lowerIndex].x;
+		} else if (SNAP_TOLERANCE > upperFrac) {
+			return mass ? cg[upperIndex].weight : cg[upperIndex].x;
+		}
+
+		// same operations as the Coordinate interpolation
+		final Coordinate lowerValue = cg[lowerIndex];
+		final Coordinate upperValue = cg[upperIndex];
+		if (mass) {
+			return lowerValue.weight * lowerFrac + upperValue.weight * upperFrac;
+		}
+		return lowerValue.x * lowerFrac + upperValue.x * upperFrac;
+	}
+
 	public int getDataSize() {
+		loadCurve();
 		return this.time.length;
 	}
 
@@ -673,6 +848,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	}
 
 	public double getCutOffTime() {
+		loadCurve();
 		return time[time.length - 1];
 	}
 
@@ -811,6 +987,7 @@ public class ThrustCurveMotor implements Motor, Comparable<ThrustCurveMotor>, Se
 	 * @return return the size of the data arrays
 	 */
 	public int getSampleSize() {
+		loadCurve();
 		return time.length;
 	}
 
@@ -2,14 +2,15 @@ package info.openrocket.core.optimization.general;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -23,21 +24,25 @@ import info.openrocket.core.util.BugException;
  * function values beforehand. If values are not required after all, the
  * computation can be aborted assuming the function evaluation supports it.
  * <p>
- * Note that while this class handles threads and abstracts background
- * execution,
- * the public methods themselves are NOT thread-safe and should be called from
- * only one thread at a time.
+ * Function values are stored to the cache as soon as each evaluation finishes, so
+ * that the caller can react to the first results of a batch of points with
+ * {@link #waitForAny(Collection)}.  The public methods are thread-safe.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
 public class ParallelExecutorCache implements ParallelFunctionCache {
 
-	private final Map<Point, Double> functionCache = new HashMap<Point, Double>();
-	private final Map<Point, Future<Double>> futureMap = new HashMap<Point, Future<Double>>();
+	private final Map<Point, Double> functionCache = new ConcurrentHashMap<Point, Double>();
+	private final Map<Point, Future<Double>> futureMap = new ConcurrentHashMap<Point, Future<Double>>();
 
 	private final ExecutorService executor;
 
-	private Function function;
+	private volatile Function function;
+	/** Incremented when the cache is cleared, so that stale evaluations are not stored */
+	private volatile int generation = 0;
+
+	/** Notified whenever an evaluation finishes */
+	private final Object completionLock = new Object();
 
 	/**
 	 * Construct a cache that uses the same number of computational threads as there
@@ -86,7 +91,7 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 	}
 
 	@Override
-	public void compute(Point point) {
+	public synchronized void compute(Point point) {
 
 		if (isOutsideRange(point)) {
 			// Point is outside of range
@@ -104,9 +109,9 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		}
 
 		// Submit point for evaluation
-		FunctionCallable callable = new FunctionCallable(function, point);
-		Future<Double> future = executor.submit(callable);
-		futureMap.put(point, future);
+		FunctionTask task = new FunctionTask(new FunctionCallable(function, point), point, generation);
+		futureMap.put(point, task);
+		executor.execute(task);
 	}
 
 	@Override
@@ -134,6 +139,7 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		try {
 			double value = future.get();
 			functionCache.put(point, value);
+			futureMap.remove(point, future);
 		} catch (ExecutionException e) {
 			Throwable cause = e.getCause();
 			if (cause instanceof InterruptedException) {
@@ -150,6 +156,43 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		}
 	}
 
+	@Override
+	public Point waitForAny(Collection<Point> points) throws InterruptedException, OptimizationException {
+		if (points.isEmpty()) {
+			throw new IllegalArgumentException("No points to wait for");
+		}
+		while (true) {
+			synchronized (completionLock) {
+				Point done = findDone(points);
+				if (done != null) {
+					waitFor(done);
+					return done;
+				}
+				completionLock.wait();
+			}
+		}
+	}
+
+	/**
+	 * Return a point of the collection whose value is available or whose evaluation
+	 * has ended, or <code>null</code> if none.
+	 */
+	private Point findDone(Collection<Point> points) {
+		for (Point p : points) {
+			if (isOutsideRange(p) || functionCache.containsKey(p)) {
+				return p;
+			}
+			Future<Double> future = futureMap.get(p);
+			if (future == null) {
+				throw new IllegalStateException("waitForAny called for " + p + " but it is not being computed");
+			}
+			if (future.isDone()) {
+				return p;
+			}
+		}
+		return null;
+	}
+
 	@Override
 	public List<Point> abort(Collection<Point> points) {
 		List<Point> computed = new ArrayList<Point>(Math.min(points.size(), 10));
@@ -164,7 +207,7 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 	}
 
 	@Override
-	public boolean abort(Point point) {
+	public synchronized boolean abort(Point point) {
 		if (isOutsideRange(point)) {
 			return false;
 		}
@@ -195,7 +238,7 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 	}
 
 	@Override
-	public void abortAll() {
+	public synchronized void abortAll() {
 		Iterator<Point> iterator = futureMap.keySet().iterator();
 		while (iterator.hasNext()) {
 			Point point = iterator.next();
@@ -237,13 +280,14 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 	}
 
 	@Override
-	public void setFunction(Function function) {
+	public synchronized void setFunction(Function function) {
 		this.function = function;
 		clearCache();
 	}
 
 	@Override
-	public void clearCache() {
+	public synchronized void clearCache() {
+		generation++;
 		List<Point> list = new ArrayList<Point>(futureMap.keySet());
 		abort(list);
 		functionCache.clear();
@@ -268,6 +312,40 @@ public class ParallelExecutorCache implements ParallelFunctionCache {
 		return false;
 	}
 
+	/**
+	 * A task that stores the function value to the cache as soon as the evaluation
+	 * finishes and wakes up the threads waiting for any result.
+	 */
+	private class FunctionTask extends FutureTask<Double> {
+		private final Point point;
+		private final int taskGeneration;
+
+		public FunctionTask(Callable<Double> callable, Point point, int generation) {
+			super(callable);
+			this.point = point;
+			this.taskGeneration = generation;
+		}
+
+		@Override
+		protected void done() {
+			if (!isCancelled()) {
+				try {
+					Double value = get();
+					synchronized (ParallelExecutorCache.this) {
+						if (taskGeneration == generation) {
+							functionCache.put(point, value);
+						}
+					}
+				} catch (InterruptedException | ExecutionException e) {
+					// Reported by waitFor
+				}
+			}
+			synchronized (completionLock) {
+				completionLock.notifyAll();
+			}
+		}
+	}
+
 	/**
 	 * A Callable that evaluates a function at a specific point and returns the
 	 * result.
@@ -54,6 +54,21 @@ public interface ParallelFunctionCache extends FunctionCache {
 	 */
 	public void waitFor(Point point) throws InterruptedException, OptimizationException;
 
+	/**
+	 * Wait for any of a collection of points to be computed.  After calling this
+	 * method the function value of the returned point is available by calling
+	 * {@link #getValue(Point)}.
+	 * 
+	 * @param points the points to wait for, all of which must have been scheduled.
+	 * @return the point that was computed first, or any point that had already
+	 *         been computed.
+	 * @throws InterruptedException  if this thread or the computing thread was
+	 *                               interrupted while waiting.
+	 * @throws OptimizationException if an error preventing continuing the
+	 *                               optimization occurs.
+	 */
+	public Point waitForAny(Collection<Point> points) throws InterruptedException, OptimizationException;
+
 	/**
 	 * Abort the computation of the specified points. If computation has ended,
 	 * the result is stored in the function cache anyway.
@@ -0,0 +1,429 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.optimization.general.FunctionCache;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.Statistics;
+
+/**
+ * An implementation of the covariance matrix adaptation evolution strategy (CMA-ES)
+ * by Hansen and Ostermeier, following "The CMA Evolution Strategy: A Tutorial" by Hansen.
+ * <p>
+ * Every generation samples a population of points from a multivariate normal
+ * distribution, which are all evaluated in parallel by the function cache.  The mean,
+ * step size and covariance matrix of the distribution are then adapted towards the
+ * best points of the generation.
+ * <p>
+ * The optimization domain is the unit hypercube.  Sampled points outside of the domain
+ * are moved onto its boundary before they are evaluated, and the moved points are used
+ * for adapting the distribution.
+ * <p>
+ * The step size passed to the optimization controller after each generation is the
+ * standard deviation of the distribution along its longest axis.  The optimization can
+ * be aborted by interrupting the current thread.
+ */
+public class CMAESOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(CMAESOptimizer.class);
+
+	/** Step size below which the distribution is considered to have converged */
+	private static final double MIN_STEP_SIZE = 1e-12;
+
+	private ParallelFunctionCache functionExecutor;
+
+	private int populationSize = 0;
+	private double initialStepSize = 0.3;
+	private Random random = new Random();
+
+	private Point optimum = null;
+	private double optimumValue = Double.NaN;
+
+	private int generationCount = 0;
+	private int evaluationCount = 0;
+	private int improvementCount = 0;
+
+	/**
+	 * Construct an optimizer with no function executor.
+	 */
+	public CMAESOptimizer() {
+		// No-op
+	}
+
+	/**
+	 * Construct an optimizer.
+	 *
+	 * @param functionExecutor the function executor.
+	 */
+	public CMAESOptimizer(ParallelFunctionCache functionExecutor) {
+		this.functionExecutor = functionExecutor;
+	}
+
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int n = initial.dim();
+
+		// Strategy parameters
+		final int lambda = getPopulationSize(n);
+		final int mu = lambda / 2;
+		final double[] weights = new double[mu];
+		double sum = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] = Math.log(mu + 0.5) - Math.log(i + 1);
+			sum += weights[i];
+		}
+		double sum2 = 0;
+		for (int i = 0; i < mu; i++) {
+			weights[i] /= sum;
+			sum2 += weights[i] * weights[i];
+		}
+		final double mueff = 1 / sum2;
+
+		final double cc = (4 + mueff / n) / (n + 4 + 2 * mueff / n);
+		final double cs = (mueff + 2) / (n + mueff + 5);
+		final double c1 = 2 / ((n + 1.3) * (n + 1.3) + mueff);
+		final double cmu = Math.min(1 - c1, 2 * (mueff - 2 + 1 / mueff) / ((n + 2) * (n + 2) + mueff));
+		final double damps = 1 + 2 * Math.max(0, Math.sqrt((mueff - 1) / (n + 1)) - 1) + cs;
+		final double chiN = Math.sqrt(n) * (1 - 1.0 / (4 * n) + 1.0 / (21.0 * n * n));
+
+		// Dynamic state
+		double[] mean = new double[n];
+		for (int i = 0; i < n; i++) {
+			mean[i] = clamp(initial.get(i));
+		}
+		double sigma = initialStepSize;
+		int generation = 0;
+		double[] pc = new double[n];
+		double[] ps = new double[n];
+		double[][] C = new double[n][n];
+		double[][] B = new double[n][n];
+		double[] D = new double[n];
+		for (int i = 0; i < n; i++) {
+			C[i][i] = 1;
+			B[i][i] = 1;
+			D[i] = 1;
+		}
+
+		log.info("Starting optimization at " + initial + " with population size " + lambda);
+
+		optimum = new Point(mean);
+		functionExecutor.compute(optimum);
+		List<Point> population = new ArrayList<Point>(lambda);
+		try {
+			functionExecutor.waitFor(optimum);
+			optimumValue = functionExecutor.getValue(optimum);
+
+			final double[] z = new double[n];
+			final double[] y = new double[n];
+			final double[][] steps = new double[lambda][n];
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+				generation++;
+				generationCount++;
+
+				// Sample and evaluate the generation
+				population.clear();
+				for (int k = 0; k < lambda; k++) {
+					for (int i = 0; i < n; i++) {
+						z[i] = D[i] * random.nextGaussian();
+					}
+					double[] x = new double[n];
+					for (int i = 0; i < n; i++) {
+						double v = 0;
+						for (int j = 0; j < n; j++) {
+							v += B[i][j] * z[j];
+						}
+						x[i] = clamp(mean[i] + sigma * v);
+					}
+					population.add(new Point(x));
+				}
+				// Clamping to the domain may sample the same point several times
+				Set<Point> distinct = new LinkedHashSet<Point>(population);
+				functionExecutor.compute(distinct);
+				functionExecutor.waitFor(distinct);
+				evaluationCount += lambda;
+				Collections.sort(population, new FunctionCacheComparator(functionExecutor));
+
+				Point oldOptimum = optimum;
+				double oldOptimumValue = optimumValue;
+				double bestValue = functionExecutor.getValue(population.get(0));
+				if (bestValue < optimumValue) {
+					optimum = population.get(0);
+					optimumValue = bestValue;
+					improvementCount++;
+				}
+
+				// Update the mean, using the clamped points as the selected steps
+				double[] oldMean = mean.clone();
+				Arrays.fill(mean, 0);
+				for (int k = 0; k < lambda; k++) {
+					Point p = population.get(k);
+					for (int i = 0; i < n; i++) {
+						steps[k][i] = (p.get(i) - oldMean[i]) / sigma;
+						if (k < mu) {
+							mean[i] += weights[k] * p.get(i);
+						}
+					}
+				}
+
+				// Update the evolution paths
+				for (int i = 0; i < n; i++) {
+					y[i] = (mean[i] - oldMean[i]) / sigma;
+				}
+				double[] invSqrtCy = multiplyInvSqrt(B, D, y);
+				double psNorm = 0;
+				for (int i = 0; i < n; i++) {
+					ps[i] = (1 - cs) * ps[i] + Math.sqrt(cs * (2 - cs) * mueff) * invSqrtCy[i];
+					psNorm += ps[i] * ps[i];
+				}
+				psNorm = Math.sqrt(psNorm);
+				boolean hsig = psNorm / Math.sqrt(1 - Math.pow(1 - cs, 2 * generation)) / chiN < 1.4 + 2.0 / (n + 1);
+				for (int i = 0; i < n; i++) {
+					pc[i] = (1 - cc) * pc[i] + (hsig ? Math.sqrt(cc * (2 - cc) * mueff) * y[i] : 0);
+				}
+
+				// Update the covariance matrix with the rank-one and rank-mu updates
+				double oldScale = 1 - c1 - cmu + (hsig ? 0 : c1 * cc * (2 - cc));
+				for (int i = 0; i < n; i++) {
+					for (int j = 0; j <= i; j++) {
+						double v = oldScale * C[i][j] + c1 * pc[i] * pc[j];
+						for (int k = 0; k < mu; k++) {
+							v += cmu * weights[k] * steps[k][i] * steps[k][j];
+						}
+						C[i][j] = v;
+						C[j][i] = v;
+					}
+				}
+
+				// Update the step size and decompose the covariance matrix
+				sigma *= Math.exp((cs / damps) * (psNorm / chiN - 1));
+				eigen(C, B, D);
+
+				double maxD = 0;
+				for (int i = 0; i < n; i++) {
+					maxD = Math.max(maxD, D[i]);
+				}
+				double stepSize = sigma * maxD;
+				log.debug("Generation " + generation + " best value " + bestValue + " step size " + stepSize);
+
+				continueOptimization = control.stepTaken(oldOptimum, oldOptimumValue, optimum, optimumValue, stepSize);
+				if (!(stepSize > MIN_STEP_SIZE)) {
+					log.info("Distribution has converged, step size " + stepSize);
+					continueOptimization = false;
+				}
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+			functionExecutor.abort(new LinkedHashSet<Point>(population));
+		}
+
+		log.info("Finishing optimization at point " + optimum + " value = " + optimumValue);
+		log.info("Optimization statistics: " + getStatistics());
+	}
+
+	/**
+	 * Compute C^(-1/2) y for C = B diag(D^2) B^T.
+	 */
+	private static double[] multiplyInvSqrt(double[][] B, double[] D, double[] y) {
+		int n = y.length;
+		double[] tmp = new double[n];
+		for (int j = 0; j < n; j++) {
+			double v = 0;
+			for (int i = 0; i < n; i++) {
+				v += B[i][j] * y[i];
+			}
+			tmp[j] = v / D[j];
+		}
+		double[] result = new double[n];
+		for (int i = 0; i < n; i++) {
+			double v = 0;
+			for (int j = 0; j < n; j++) {
+				v += B[i][j] * tmp[j];
+			}
+			result[i] = v;
+		}
+		return result;
+	}
+
+	/**
+	 * Decompose the symmetric matrix C = B diag(D^2) B^T using the cyclic Jacobi method.
+	 * The columns of B are the eigenvectors and D the square roots of the eigenvalues.
+	 */
+	private static void eigen(double[][] C, double[][] B, double[] D) {
+		int n = D.length;
+		double[][] a = new double[n][];
+		for (int i = 0; i < n; i++) {
+			a[i] = C[i].clone();
+			Arrays.fill(B[i], 0);
+			B[i][i] = 1;
+		}
+
+		for (int sweep = 0; sweep < 50; sweep++) {
+			double off = 0;
+			for (int p = 0; p < n; p++) {
+				for (int q = p + 1; q < n; q++) {
+					off += a[p][q] * a[p][q];
+				}
+			}
+			if (off < 1e-30) {
+				break;
+			}
+
+			for (int p = 0; p < n; p++) {
+				for (int q = p + 1; q < n; q++) {
+					if (a[p][q] == 0) {
+						continue;
+					}
+					double theta = (a[q][q] - a[p][p]) / (2 * a[p][q]);
+					double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+					if (theta == 0) {
+						t = 1;
+					}
+					double c = 1 / Math.sqrt(t * t + 1);
+					double s = t * c;
+					for (int k = 0; k < n; k++) {
+						double akp = a[k][p];
+						double akq = a[k][q];
+						a[k][p] = c * akp - s * akq;
+						a[k][q] = s * akp + c * akq;
+					}
+					for (int k = 0; k < n; k++) {
+						double apk = a[p][k];
+						double aqk = a[q][k];
+						a[p][k] = c * apk - s * aqk;
+						a[q][k] = s * apk + c * aqk;
+					}
+					for (int k = 0; k < n; k++) {
+						double bkp = B[k][p];
+						double bkq = B[k][q];
+						B[k][p] = c * bkp - s * bkq;
+						B[k][q] = s * bkp + c * bkq;
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < n; i++) {
+			// Guard against numerical loss of positive definiteness
+			D[i] = Math.sqrt(Math.max(a[i][i], 1e-300));
+		}
+	}
+
+	private static double clamp(double x) {
+		if (x < 0) {
+			return 0;
+		} else if (x > 1) {
+			return 1;
+		}
+		return x;
+	}
+
+	private int getPopulationSize(int n) {
+		if (populationSize > 0) {
+			return populationSize;
+		}
+		return 4 + (int) (3 * Math.log(n));
+	}
+
+	/**
+	 * Return the number of points evaluated per generation, or zero if the default of
+	 * 4 + 3 ln(n) for an n-dimensional problem is used.
+	 */
+	public int getPopulationSize() {
+		return populationSize;
+	}
+
+	/**
+	 * Set the number of points evaluated per generation.  Larger populations search
+	 * more globally and make use of more evaluation threads.
+	 *
+	 * @param populationSize the population size, at least 2, or zero for the default.
+	 */
+	public void setPopulationSize(int populationSize) {
+		if (populationSize < 0 || populationSize == 1) {
+			throw new IllegalArgumentException("Invalid population size " + populationSize);
+		}
+		this.populationSize = populationSize;
+	}
+
+	public double getInitialStepSize() {
+		return initialStepSize;
+	}
+
+	/**
+	 * Set the initial standard deviation of the sampled points.
+	 *
+	 * @param initialStepSize the initial step size, relative to the unit hypercube.
+	 */
+	public void setInitialStepSize(double initialStepSize) {
+		if (!(initialStepSize > 0)) {
+			throw new IllegalArgumentException("Invalid initial step size " + initialStepSize);
+		}
+		this.initialStepSize = initialStepSize;
+	}
+
+	/**
+	 * Set the random number generator used for sampling the points.
+	 */
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	@Override
+	public Point getOptimumPoint() {
+		if (optimum == null) {
+			throw new IllegalStateException("Optimization has not been called");
+		}
+		return optimum;
+	}
+
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "CMAESOptimizer[generationCount=" + generationCount +
+				", evaluationCount=" + evaluationCount +
+				", improvementCount=" + improvementCount + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		generationCount = 0;
+		evaluationCount = 0;
+		improvementCount = 0;
+	}
+
+}
@@ -75,6 +75,7 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 			List<Point> reflection = new ArrayList<Point>(simplex.size());
 			List<Point> expansion = new ArrayList<Point>(simplex.size());
 			List<Point> coordinateSearch = new ArrayList<Point>(simplex.size());
+			List<Point> contraction = new ArrayList<Point>(simplex.size());
 			Point current;
 			double currentValue;
 			boolean continueOptimization = true;
@@ -111,11 +112,16 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 				if (useExpansion)
 					functionExecutor.compute(expansion);
 
+				/*
+				 * Speculatively queue the contracted simplex, which is required if the reflection
+				 * fails.  This keeps the threads busy while the slowest reflected points are computed.
+				 */
+				createContraction(simplex, contraction);
+				functionExecutor.compute(contraction);
+
 				// Check reflection acceptance
 				log.debug("Computing reflection");
-				functionExecutor.waitFor(reflection);
-
-				if (accept(reflection, currentValue)) {
+				if (waitForReflection(reflection, contraction, currentValue)) {
 
 					log.debug("Reflection was successful, aborting coordinate search, " +
 							(useExpansion ? "computing" : "skipping") + " expansion");
@@ -235,6 +241,39 @@ public class MultidirectionalSearchOptimizer implements FunctionOptimizer, Stati
 		}
 	}
 
+	/**
+	 * Wait for the reflected points to be computed, and return whether any of them is
+	 * better than the current point.  The speculative contraction is aborted as soon as
+	 * a reflected point is known to be accepted.
+	 */
+	private boolean waitForReflection(List<Point> reflection, List<Point> contraction, double currentValue)
+			throws InterruptedException, OptimizationException {
+		List<Point> pending = new ArrayList<Point>(reflection);
+		boolean accepted = false;
+		while (!pending.isEmpty()) {
+			Point p = functionExecutor.waitForAny(pending);
+			pending.remove(p);
+			if (!accepted && functionExecutor.getValue(p) < currentValue) {
+				log.debug("Reflected point " + p + " accepted, aborting contraction");
+				accepted = true;
+				List<Point> toAbort = new ArrayList<Point>(contraction);
+				toAbort.removeAll(reflection);
+				functionExecutor.abort(toAbort);
+			}
+		}
+		return accepted;
+	}
+
+	private void createContraction(List<Point> base, List<Point> contraction) {
+		Point current = base.get(0);
+		contraction.clear();
+
+		/* Same as halveStep */
+		for (int i = 1; i < base.size(); i++) {
+			contraction.add(base.get(i).add(current).mul(0.5));
+		}
+	}
+
 	private void createExpansion(List<Point> base, List<Point> expansion) {
 		Point current = base.get(0);
 		expansion.clear();
@@ -0,0 +1,362 @@
+package info.openrocket.core.optimization.general.multidim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.optimization.general.FunctionCache;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.OptimizationController;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.ParallelFunctionCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.util.Statistics;
+
+/**
+ * A parallel variant of the Nelder-Mead simplex method by Lee and Wiswall.
+ * <p>
+ * Every step updates the <i>p</i> worst vertices of the simplex independently,
+ * using the centroid of the remaining vertices.  The reflected points of all updated
+ * vertices are evaluated in parallel, followed by the expanded or contracted points
+ * in parallel.  If no vertex is improved, the simplex is shrunk towards the best vertex.
+ * With <i>p</i> = 1 this is the ordinary Nelder-Mead method.
+ * <p>
+ * Updating many vertices with the same centroid tends to flatten the simplex.  When
+ * the simplex becomes degenerate, it is rebuilt along the coordinate axes around
+ * the best vertex, keeping its size.
+ * <p>
+ * The step size passed to the optimization controller is the largest distance from
+ * the best vertex to the other vertices.  The optimization can be aborted by
+ * interrupting the current thread.
+ */
+public class NelderMeadOptimizer implements FunctionOptimizer, Statistics {
+	private static final Logger log = LoggerFactory.getLogger(NelderMeadOptimizer.class);
+
+	private static final double REFLECTION = 1.0;
+	private static final double EXPANSION = 2.0;
+	private static final double CONTRACTION = 0.5;
+	private static final double SHRINK = 0.5;
+
+	/** Simplex size below which the simplex is considered to have converged */
+	private static final double MIN_STEP_SIZE = 1e-12;
+
+	/** Relative simplex volume below which the simplex is considered degenerate */
+	private static final double MIN_RELATIVE_VOLUME = 1e-5;
+
+	private final List<Point> simplex = new ArrayList<Point>();
+
+	private ParallelFunctionCache functionExecutor;
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private double initialStepSize = 0.25;
+
+	private int stepCount = 0;
+	private int reflectionAcceptance = 0;
+	private int expansionAcceptance = 0;
+	private int contractionAcceptance = 0;
+	private int shrinkFallback = 0;
+	private int rebuildCount = 0;
+
+	/**
+	 * Construct an optimizer with no function executor.
+	 */
+	public NelderMeadOptimizer() {
+		// No-op
+	}
+
+	/**
+	 * Construct an optimizer.
+	 *
+	 * @param functionExecutor the function executor.
+	 */
+	public NelderMeadOptimizer(ParallelFunctionCache functionExecutor) {
+		this.functionExecutor = functionExecutor;
+	}
+
+	@Override
+	public void optimize(Point initial, OptimizationController control) throws OptimizationException {
+		final int n = initial.dim();
+		final int p = Math.max(1, Math.min(parallelism, n));
+		FunctionCacheComparator comparator = new FunctionCacheComparator(functionExecutor);
+
+		simplex.clear();
+		simplex.add(initial);
+		createAxisSimplex(initialStepSize);
+		log.info("Starting optimization at " + initial + " updating " + p + " vertices per step");
+
+		List<Point> trial = new ArrayList<Point>(p);
+		try {
+			functionExecutor.compute(simplex);
+			functionExecutor.waitFor(simplex);
+			Collections.sort(simplex, comparator);
+
+			final Point[] reflection = new Point[p];
+			final Point[] secondary = new Point[p];
+			boolean continueOptimization = true;
+			while (continueOptimization) {
+				stepCount++;
+				log.debug("Starting optimization step with simplex " + simplex);
+
+				Point current = simplex.get(0);
+				double currentValue = functionExecutor.getValue(current);
+				double worstKeptValue = functionExecutor.getValue(simplex.get(n - p));
+
+				// Centroid of the vertices that are not updated
+				Point centroid = simplex.get(0);
+				for (int i = 1; i <= n - p; i++) {
+					centroid = centroid.add(simplex.get(i));
+				}
+				centroid = centroid.mul(1.0 / (n + 1 - p));
+
+				// Reflect the worst vertices in parallel
+				trial.clear();
+				for (int j = 0; j < p; j++) {
+					Point vertex = simplex.get(n + 1 - p + j);
+					reflection[j] = centroid.add(centroid.sub(vertex).mul(REFLECTION));
+					trial.add(reflection[j]);
+				}
+				functionExecutor.compute(trial);
+				functionExecutor.waitFor(trial);
+
+				// Choose and evaluate the expansion or contraction points in parallel
+				trial.clear();
+				for (int j = 0; j < p; j++) {
+					Point vertex = simplex.get(n + 1 - p + j);
+					double reflectedValue = functionExecutor.getValue(reflection[j]);
+					if (reflectedValue < currentValue) {
+						secondary[j] = centroid.add(reflection[j].sub(centroid).mul(EXPANSION));
+					} else if (reflectedValue < worstKeptValue) {
+						secondary[j] = null;
+					} else if (reflectedValue < functionExecutor.getValue(vertex)) {
+						secondary[j] = centroid.add(reflection[j].sub(centroid).mul(CONTRACTION));
+					} else {
+						secondary[j] = centroid.add(vertex.sub(centroid).mul(CONTRACTION));
+					}
+					if (secondary[j] != null) {
+						trial.add(secondary[j]);
+					}
+				}
+				functionExecutor.compute(trial);
+				functionExecutor.waitFor(trial);
+
+				// Replace the improved vertices
+				boolean improved = false;
+				for (int j = 0; j < p; j++) {
+					int index = n + 1 - p + j;
+					Point vertex = simplex.get(index);
+					double vertexValue = functionExecutor.getValue(vertex);
+					double reflectedValue = functionExecutor.getValue(reflection[j]);
+					Point replacement = null;
+					if (reflectedValue < currentValue) {
+						if (functionExecutor.getValue(secondary[j]) < reflectedValue) {
+							replacement = secondary[j];
+							expansionAcceptance++;
+						} else {
+							replacement = reflection[j];
+							reflectionAcceptance++;
+						}
+					} else if (secondary[j] == null) {
+						replacement = reflection[j];
+						reflectionAcceptance++;
+					} else if (functionExecutor.getValue(secondary[j]) < Math.min(vertexValue, reflectedValue)) {
+						replacement = secondary[j];
+						contractionAcceptance++;
+					}
+					if (replacement != null) {
+						simplex.set(index, replacement);
+						improved = true;
+					}
+				}
+
+				if (!improved) {
+					log.debug("No vertex was improved, shrinking simplex");
+					for (int i = 1; i <= n; i++) {
+						simplex.set(i, current.add(simplex.get(i).sub(current).mul(SHRINK)));
+					}
+					functionExecutor.compute(simplex);
+					functionExecutor.waitFor(simplex);
+					shrinkFallback++;
+				}
+				Collections.sort(simplex, comparator);
+
+				double stepSize = 0;
+				for (int i = 1; i <= n; i++) {
+					stepSize = Math.max(stepSize, simplex.get(i).sub(simplex.get(0)).length());
+				}
+				if (n > 1 && stepSize > MIN_STEP_SIZE && isDegenerate(stepSize)) {
+					log.debug("Simplex is degenerate, rebuilding around " + simplex.get(0));
+					createAxisSimplex(stepSize);
+					functionExecutor.compute(simplex);
+					functionExecutor.waitFor(simplex);
+					Collections.sort(simplex, comparator);
+					rebuildCount++;
+				}
+				log.debug("Ending optimization step with simplex " + simplex + " step size " + stepSize);
+
+				continueOptimization = control.stepTaken(current, currentValue, simplex.get(0),
+						functionExecutor.getValue(simplex.get(0)), stepSize);
+				if (!(stepSize > MIN_STEP_SIZE)) {
+					log.info("Simplex has converged, step size " + stepSize);
+					continueOptimization = false;
+				}
+
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+
+		} catch (InterruptedException e) {
+			log.info("Optimization was interrupted with InterruptedException");
+			// A trial point may equal a vertex, abort each point only once
+			Set<Point> pending = new LinkedHashSet<Point>(trial);
+			pending.addAll(simplex);
+			functionExecutor.abort(pending);
+		}
+
+		log.info("Finishing optimization at point " + simplex.get(0) + " value = " +
+				functionExecutor.getValue(simplex.get(0)));
+		log.info("Optimization statistics: " + getStatistics());
+	}
+
+	/**
+	 * Replace all but the first vertex of the simplex by steps along the coordinate axes,
+	 * stepping inwards from the boundary of the unit hypercube.
+	 */
+	private void createAxisSimplex(double step) {
+		Point base = simplex.get(0);
+		simplex.subList(1, simplex.size()).clear();
+		for (int i = 0; i < base.dim(); i++) {
+			double s = (base.get(i) + step <= 1.0) ? step : -step;
+			simplex.add(base.set(i, base.get(i) + s));
+		}
+	}
+
+	/**
+	 * Check whether the volume spanned by the simplex edges from the first vertex is
+	 * negligible compared to a cube of the given edge length.
+	 */
+	private boolean isDegenerate(double edgeLength) {
+		int n = simplex.size() - 1;
+		double[][] m = new double[n][n];
+		for (int i = 0; i < n; i++) {
+			Point edge = simplex.get(i + 1).sub(simplex.get(0));
+			for (int j = 0; j < n; j++) {
+				m[i][j] = edge.get(j) / edgeLength;
+			}
+		}
+
+		// Determinant by Gaussian elimination with partial pivoting
+		double det = 1;
+		for (int col = 0; col < n; col++) {
+			int pivot = col;
+			for (int row = col + 1; row < n; row++) {
+				if (Math.abs(m[row][col]) > Math.abs(m[pivot][col])) {
+					pivot = row;
+				}
+			}
+			if (m[pivot][col] == 0) {
+				return true;
+			}
+			double[] tmp = m[pivot];
+			m[pivot] = m[col];
+			m[col] = tmp;
+			det *= m[col][col];
+			for (int row = col + 1; row < n; row++) {
+				double f = m[row][col] / m[col][col];
+				for (int k = col; k < n; k++) {
+					m[row][k] -= f * m[col][k];
+				}
+			}
+		}
+		return Math.abs(det) < MIN_RELATIVE_VOLUME;
+	}
+
+	/**
+	 * Return the maximum number of vertices updated in parallel per step.
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Set the maximum number of vertices updated in parallel per step.  This should
+	 * typically equal the number of threads evaluating the function.  At most
+	 * n vertices are updated for an n-dimensional problem.
+	 *
+	 * @param parallelism the number of vertices, at least 1.
+	 */
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Invalid parallelism " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	public double getInitialStepSize() {
+		return initialStepSize;
+	}
+
+	/**
+	 * Set the edge length of the initial simplex.
+	 *
+	 * @param initialStepSize the initial step size, relative to the unit hypercube.
+	 */
+	public void setInitialStepSize(double initialStepSize) {
+		if (!(initialStepSize > 0)) {
+			throw new IllegalArgumentException("Invalid initial step size " + initialStepSize);
+		}
+		this.initialStepSize = initialStepSize;
+	}
+
+	@Override
+	public Point getOptimumPoint() {
+		if (simplex.size() == 0) {
+			throw new IllegalStateException("Optimization has not been called, simplex is empty");
+		}
+		return simplex.get(0);
+	}
+
+	@Override
+	public double getOptimumValue() {
+		return functionExecutor.getValue(getOptimumPoint());
+	}
+
+	@Override
+	public FunctionCache getFunctionCache() {
+		return functionExecutor;
+	}
+
+	@Override
+	public void setFunctionCache(FunctionCache functionCache) {
+		if (!(functionCache instanceof ParallelFunctionCache)) {
+			throw new IllegalArgumentException("Function cache needs to be a ParallelFunctionCache: " + functionCache);
+		}
+		this.functionExecutor = (ParallelFunctionCache) functionCache;
+	}
+
+	@Override
+	public String getStatistics() {
+		return "NelderMeadOptimizer[stepCount=" + stepCount +
+				", reflectionAcceptance=" + reflectionAcceptance +
+				", expansionAcceptance=" + expansionAcceptance +
+				", contractionAcceptance=" + contractionAcceptance +
+				", shrinkFallback=" + shrinkFallback +
+				", rebuildCount=" + rebuildCount + "]";
+	}
+
+	@Override
+	public void resetStatistics() {
+		stepCount = 0;
+		reflectionAcceptance = 0;
+		expansionAcceptance = 0;
+		contractionAcceptance = 0;
+		shrinkFallback = 0;
+		rebuildCount = 0;
+	}
+
+}
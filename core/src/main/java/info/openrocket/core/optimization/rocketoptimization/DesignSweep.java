@@ -0,0 +1,554 @@
+package info.openrocket.core.optimization.rocketoptimization;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.optimization.general.OptimizationException;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.parameters.SimulationBasedParameter;
+import info.openrocket.core.simulation.BatchSimulationRunner;
+import info.openrocket.core.util.BugException;
+
+/**
+ * Evaluates optimization parameters over a set of design points in parallel, writing
+ * the results to a CSV file as they are computed.
+ * <p>
+ * Each design point is a point in the scaled [0...1] space of the simulation modifiers,
+ * as used by {@link RocketOptimizationFunction}.  Full-factorial and Latin hypercube sets
+ * of points are created by {@link #fullFactorial(int...)} and
+ * {@link #latinHypercube(int, int, Random)}.  The simulation of each point is created and
+ * modified on the calling thread, and the parameters are computed on worker threads, so the
+ * parameters must be thread-safe.  {@link SimulationBasedParameter}s that need the same
+ * simulation are computed from a single run of it, so each point costs one simulation per
+ * distinct kind of simulation rather than one per parameter.
+ * <p>
+ * The result file starts with a comment line naming the columns, followed by one line per
+ * evaluated point in the order the points complete:
+ * <pre>
+ * # index,modifier values in SI units...,parameter values in SI units...,point coordinates...
+ * </pre>
+ * The modifier values are those read back from the modified simulation, which may differ
+ * from the requested values if a component limits them.  The scaled point coordinates
+ * identify the point exactly.  Each line is flushed when it is written.  A sweep that was
+ * interrupted can be resumed with the same points, in which case the points already in the
+ * file are skipped.
+ */
+public class DesignSweep {
+	private static final Logger log = LoggerFactory.getLogger(DesignSweep.class);
+
+	private static final String COMMENT = "#";
+	private static final String SEPARATOR = ",";
+	// Tolerance of the scaled point coordinates of resumed points
+	private static final double POINT_TOLERANCE = 1e-12;
+
+	private final Simulation baseSimulation;
+	private final OptimizableParameter[] parameters;
+	private final SimulationModifier[] modifiers;
+	// Indices of the parameters computed from the same simulation run
+	private final int[][] parameterGroups;
+
+	private final List<DesignSweepListener> listeners = new ArrayList<DesignSweepListener>();
+
+	private int threadCount = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Sole constructor.
+	 *
+	 * @param baseSimulation	the base simulation to modify.
+	 * @param parameters		the parameters to compute at each design point.
+	 * @param modifiers			the modifiers that modify the simulation, in the order of
+	 * 							the point coordinates.
+	 */
+	public DesignSweep(Simulation baseSimulation, List<OptimizableParameter> parameters,
+			SimulationModifier... modifiers) {
+		if (parameters.isEmpty()) {
+			throw new IllegalArgumentException("No OptimizableParameters specified");
+		}
+		if (modifiers.length == 0) {
+			throw new IllegalArgumentException("No SimulationModifiers specified");
+		}
+		this.baseSimulation = baseSimulation;
+		this.parameters = parameters.toArray(new OptimizableParameter[0]);
+		this.modifiers = modifiers.clone();
+		this.parameterGroups = groupParameters(this.parameters);
+	}
+
+	/**
+	 * Create a full-factorial set of design points.  Each dimension is divided into the
+	 * given number of evenly spaced levels including both ends of the range, or the middle
+	 * of the range for a single level.  The last dimension varies fastest.
+	 *
+	 * @param levels	the number of levels of each dimension.
+	 * @return			the design points.
+	 */
+	public static List<Point> fullFactorial(int... levels) {
+		if (levels.length == 0) {
+			throw new IllegalArgumentException("No dimensions specified");
+		}
+		long count = 1;
+		for (int l : levels) {
+			if (l < 1) {
+				throw new IllegalArgumentException("Invalid number of levels " + l);
+			}
+			count *= l;
+			if (count > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Too many design points");
+			}
+		}
+
+		List<Point> points = new ArrayList<Point>((int) count);
+		double[] p = new double[levels.length];
+		for (int index = 0; index < count; index++) {
+			int rest = index;
+			for (int i = levels.length - 1; i >= 0; i--) {
+				int level = rest % levels[i];
+				rest /= levels[i];
+				p[i] = (levels[i] == 1) ? 0.5 : (double) level / (levels[i] - 1);
+			}
+			points.add(new Point(p));
+		}
+		return points;
+	}
+
+	/**
+	 * Create a Latin hypercube set of design points.  Each dimension is divided into
+	 * <code>count</code> equal intervals, each of which contains exactly one point at a
+	 * random position.
+	 *
+	 * @param count			the number of points.
+	 * @param dimensions	the number of dimensions.
+	 * @param random		the random number generator.
+	 * @return				the design points.
+	 */
+	public static List<Point> latinHypercube(int count, int dimensions, Random random) {
+		if (count < 1 || dimensions < 1) {
+			throw new IllegalArgumentException("Invalid count " + count + " or dimensions " + dimensions);
+		}
+		double[][] values = new double[count][dimensions];
+		int[] permutation = new int[count];
+		for (int i = 0; i < dimensions; i++) {
+			for (int k = 0; k < count; k++) {
+				permutation[k] = k;
+			}
+			for (int k = count - 1; k > 0; k--) {
+				int j = random.nextInt(k + 1);
+				int tmp = permutation[k];
+				permutation[k] = permutation[j];
+				permutation[j] = tmp;
+			}
+			for (int k = 0; k < count; k++) {
+				values[k][i] = (permutation[k] + random.nextDouble()) / count;
+			}
+		}
+
+		List<Point> points = new ArrayList<Point>(count);
+		for (double[] v : values) {
+			points.add(new Point(v));
+		}
+		return points;
+	}
+
+	/**
+	 * Evaluate the parameters at the design points and write the results to a file.
+	 * <p>
+	 * If <code>resume</code> is true and the file exists, it must have been written by
+	 * a sweep with the same modifiers, parameters and points, and only the points not yet
+	 * in the file are evaluated.  An incomplete last line, left by an interrupted write,
+	 * is discarded.  A file that does not match the sweep is left unmodified.  Otherwise
+	 * the file is overwritten.
+	 * <p>
+	 * If the calling thread is interrupted the points still being evaluated are
+	 * cancelled and an <code>InterruptedException</code> is thrown.  The results written
+	 * until then remain in the file.
+	 *
+	 * @param points		the design points to evaluate.
+	 * @param resultFile	the file to write the results to.
+	 * @param resume		whether to continue an earlier sweep stored in the file.
+	 * @return				the number of points evaluated.
+	 * @throws IOException				if the result file cannot be read or written.
+	 * @throws InterruptedException		if the calling thread is interrupted.
+	 * @throws OptimizationException	if modifying the simulation fails.
+	 */
+	public int run(List<Point> points, File resultFile, boolean resume)
+			throws IOException, InterruptedException, OptimizationException {
+		for (Point p : points) {
+			if (p.dim() != modifiers.length) {
+				throw new IllegalArgumentException("Point has length " + p.dim() + " while sweep has " +
+						modifiers.length + " simulation modifiers");
+			}
+		}
+
+		final String header = getHeader();
+		BitSet completed = new BitSet(points.size());
+		boolean append = resume && resultFile.isFile() && readCompleted(resultFile, header, points, completed);
+		int remaining = points.size() - completed.cardinality();
+		log.info("Starting design sweep of " + points.size() + " points, " + remaining + " remaining, using " +
+				threadCount + " threads");
+
+		ExecutorService executor = createExecutor(threadCount);
+		CompletionService<Result> completionService = new ExecutorCompletionService<Result>(executor);
+		List<Future<Result>> pending = new ArrayList<Future<Result>>();
+		int evaluated = 0;
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+				new FileOutputStream(resultFile, append), StandardCharsets.UTF_8))) {
+			if (!append) {
+				writer.write(header);
+				writer.write('\n');
+				writer.flush();
+			}
+
+			for (int index = completed.nextClearBit(0); index < points.size(); index = completed.nextClearBit(index + 1)) {
+				while (pending.size() >= 2 * threadCount) {
+					deliver(completionService, pending, writer);
+					evaluated++;
+				}
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+				pending.add(completionService.submit(createTask(index, points.get(index))));
+			}
+			while (!pending.isEmpty()) {
+				deliver(completionService, pending, writer);
+				evaluated++;
+			}
+		} finally {
+			if (!pending.isEmpty()) {
+				log.info("Cancelling " + pending.size() + " pending design points");
+			}
+			for (Future<Result> future : pending) {
+				future.cancel(true);
+			}
+			executor.shutdownNow();
+		}
+
+		log.info("Finished design sweep, evaluated " + evaluated + " points");
+		return evaluated;
+	}
+
+	/**
+	 * Return the number of design points evaluated concurrently.
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * Set the number of design points evaluated concurrently.
+	 */
+	public void setThreadCount(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("threadCount must be positive, was " + threadCount);
+		}
+		this.threadCount = threadCount;
+	}
+
+	public void addDesignSweepListener(DesignSweepListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeDesignSweepListener(DesignSweepListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Create the task evaluating a design point.  The simulation is copied and modified on
+	 * the calling thread.  Parameters that are computed from the same kind of simulation
+	 * share a single simulation run.
+	 */
+	private Callable<Result> createTask(final int index, final Point point) throws OptimizationException {
+		final Simulation simulation = BatchSimulationRunner.copySimulation(baseSimulation);
+		// A single simulation of the private copy may use its rocket directly
+		simulation.setSimulateRocketCopy(parameterGroups.length > 1);
+
+		final double[] modifierValues = new double[modifiers.length];
+		for (int i = 0; i < modifiers.length; i++) {
+			modifiers[i].modify(simulation, point.get(i));
+			modifierValues[i] = modifiers[i].getCurrentSIValue(simulation);
+		}
+
+		return new Callable<Result>() {
+			@Override
+			public Result call() throws InterruptedException {
+				double[] parameterValues = new double[parameters.length];
+				for (int[] group : parameterGroups) {
+					try {
+						double[] values = computeValues(simulation, group);
+						for (int i = 0; i < group.length; i++) {
+							parameterValues[group[i]] = values[i];
+						}
+					} catch (OptimizationException e) {
+						log.warn("Unable to compute " + parameters[group[0]].getName() + " at design point " + index, e);
+						for (int i : group) {
+							parameterValues[i] = Double.NaN;
+						}
+					}
+				}
+				return new Result(index, point, modifierValues, parameterValues);
+			}
+		};
+	}
+
+	/*
+	 * Compute the values of a group of parameters.
+	 */
+	private double[] computeValues(Simulation simulation, int[] group) throws OptimizationException, InterruptedException {
+		if (group.length == 1) {
+			return new double[] { parameters[group[0]].computeValue(simulation) };
+		}
+		SimulationBasedParameter[] shared = new SimulationBasedParameter[group.length];
+		for (int i = 0; i < group.length; i++) {
+			shared[i] = (SimulationBasedParameter) parameters[group[i]];
+		}
+		return SimulationBasedParameter.computeValues(simulation, shared);
+	}
+
+	/*
+	 * Group the parameters that can be computed from a single simulation run.  Other
+	 * parameters form groups of their own.
+	 */
+	private static int[][] groupParameters(OptimizableParameter[] parameters) {
+		List<List<Integer>> groups = new ArrayList<List<Integer>>();
+		for (int i = 0; i < parameters.length; i++) {
+			List<Integer> found = null;
+			if (parameters[i] instanceof SimulationBasedParameter) {
+				SimulationBasedParameter p = (SimulationBasedParameter) parameters[i];
+				for (List<Integer> group : groups) {
+					OptimizableParameter first = parameters[group.get(0)];
+					if (first instanceof SimulationBasedParameter && ((SimulationBasedParameter) first).sharesSimulation(p)) {
+						found = group;
+						break;
+					}
+				}
+			}
+			if (found == null) {
+				found = new ArrayList<Integer>();
+				groups.add(found);
+			}
+			found.add(i);
+		}
+
+		int[][] result = new int[groups.size()][];
+		for (int g = 0; g < result.length; g++) {
+			List<Integer> group = groups.get(g);
+			result[g] = new int[group.size()];
+			for (int i = 0; i < result[g].length; i++) {
+				result[g][i] = group.get(i);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Wait for the next design point to complete, write it to the result file and notify
+	 * the listeners.
+	 */
+	private void deliver(CompletionService<Result> completionService, List<Future<Result>> pending,
+			Writer writer) throws InterruptedException, IOException {
+		Future<Result> future = completionService.take();
+		pending.remove(future);
+		Result result;
+		try {
+			result = future.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof InterruptedException) {
+				throw (InterruptedException) new InterruptedException("Design point was interrupted").initCause(e);
+			}
+			throw new BugException("Design point evaluation threw an exception", e.getCause());
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(result.index);
+		for (double v : result.modifierValues) {
+			sb.append(SEPARATOR).append(v);
+		}
+		for (double v : result.parameterValues) {
+			sb.append(SEPARATOR).append(v);
+		}
+		for (int i = 0; i < result.point.dim(); i++) {
+			sb.append(SEPARATOR).append(result.point.get(i));
+		}
+		sb.append('\n');
+		writer.write(sb.toString());
+		writer.flush();
+
+		for (DesignSweepListener l : listeners) {
+			l.pointEvaluated(result.index, result.point, result.modifierValues.clone(),
+					result.parameterValues.clone());
+		}
+	}
+
+	/**
+	 * Read the indices of the points already stored in a result file.  An incomplete last
+	 * line is removed from the file, after the header and all complete lines have been
+	 * checked against this sweep.
+	 *
+	 * @return	<code>false</code> if the file contains no results and should be rewritten.
+	 */
+	private boolean readCompleted(File file, String header, List<Point> points, BitSet completed) throws IOException {
+		long length;
+		long end;
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			length = raf.length();
+			end = length;
+			while (end > 0) {
+				raf.seek(end - 1);
+				if (raf.read() == '\n') {
+					break;
+				}
+				end--;
+			}
+		}
+		if (length == 0) {
+			return false;
+		}
+
+		int fieldCount = 1 + 2 * modifiers.length + parameters.length;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+				StandardCharsets.UTF_8))) {
+			if (!header.equals(reader.readLine())) {
+				throw new IOException("File " + file + " does not contain the results of this design sweep");
+			}
+			String line = reader.readLine();
+			while (line != null) {
+				String next = reader.readLine();
+				if (next == null && end < length) {
+					// Incomplete last line
+					break;
+				}
+				if (!line.isEmpty() && !line.startsWith(COMMENT)) {
+					completed.set(readIndex(file, line, fieldCount, points));
+				}
+				line = next;
+			}
+		}
+
+		if (end == 0) {
+			// Only a header without its line end
+			return false;
+		}
+		if (end < length) {
+			log.info("Discarding incomplete last line of design sweep file " + file);
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				raf.setLength(end);
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Return the point index of a result line, checking that its point coordinates are those
+	 * of the point with the index.
+	 */
+	private int readIndex(File file, String line, int fieldCount, List<Point> points) throws IOException {
+		String[] fields = line.split(SEPARATOR, -1);
+		if (fields.length != fieldCount) {
+			throw new IOException("Invalid line in design sweep file " + file + ": " + line);
+		}
+		int index;
+		double[] coordinates = new double[modifiers.length];
+		int first = 1 + modifiers.length + parameters.length;
+		try {
+			index = Integer.parseInt(fields[0]);
+			for (int i = 0; i < modifiers.length; i++) {
+				coordinates[i] = Double.parseDouble(fields[first + i]);
+			}
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid line in design sweep file " + file + ": " + line, e);
+		}
+		if (index < 0 || index >= points.size()) {
+			throw new IOException("Invalid line in design sweep file " + file + ": " + line);
+		}
+		if (!matchesPoint(coordinates, points.get(index))) {
+			throw new IOException("Design point " + index + " in file " + file +
+					" does not match the points of this design sweep");
+		}
+		return index;
+	}
+
+	/*
+	 * Return whether stored point coordinates are those of a design point.
+	 */
+	private static boolean matchesPoint(double[] coordinates, Point point) {
+		for (int i = 0; i < coordinates.length; i++) {
+			if (!(Math.abs(coordinates[i] - point.get(i)) <= POINT_TOLERANCE)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String getHeader() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(COMMENT).append(" index");
+		for (SimulationModifier m : modifiers) {
+			sb.append(SEPARATOR).append(quote(m.getName() + " (" + m.getUnitGroup().getSIUnit().getUnit() + ")"));
+		}
+		for (OptimizableParameter p : parameters) {
+			sb.append(SEPARATOR).append(quote(p.getName() + " (" + p.getUnitGroup().getSIUnit().getUnit() + ")"));
+		}
+		for (SimulationModifier m : modifiers) {
+			sb.append(SEPARATOR).append(quote(m.getName() + " (scaled)"));
+		}
+		return sb.toString();
+	}
+
+	private static String quote(String s) {
+		if (s.contains(SEPARATOR) || s.contains("\"") || s.contains("\n")) {
+			return "\"" + s.replace("\"", "\"\"").replace('\n', ' ') + "\"";
+		}
+		return s;
+	}
+
+	private static ExecutorService createExecutor(int threadCount) {
+		return Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, "DesignSweep-" + count.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			}
+		});
+	}
+
+	private static class Result {
+		private final int index;
+		private final Point point;
+		private final double[] modifierValues;
+		private final double[] parameterValues;
+
+		private Result(int index, Point point, double[] modifierValues, double[] parameterValues) {
+			this.index = index;
+			this.point = point;
+			this.modifierValues = modifierValues;
+			this.parameterValues = parameterValues;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package info.openrocket.core.optimization.rocketoptimization;
+
+import info.openrocket.core.optimization.general.Point;
+
+/**
+ * A listener for the progress of a {@link DesignSweep}.
+ * <p>
+ * The listener is called from the thread that runs the sweep, one point at a time,
+ * so implementations do not need to be thread-safe.
+ */
+public interface DesignSweepListener {
+
+	/**
+	 * Called after a design point has been evaluated and written to the result file.
+	 *
+	 * @param index				the index of the point in the sweep.
+	 * @param point				the scaled design point.
+	 * @param modifierValues	the values to which the simulation was modified in SI units,
+	 * 							in the order of the modifiers.
+	 * @param parameterValues	the computed parameter values in SI units, in the order of
+	 * 							the parameters, NaN if unavailable.
+	 */
+	public void pointEvaluated(int index, Point point, double[] modifierValues, double[] parameterValues);
+
+}
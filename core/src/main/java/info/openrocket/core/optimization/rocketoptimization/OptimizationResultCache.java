@@ -0,0 +1,187 @@
+package info.openrocket.core.optimization.rocketoptimization;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.arch.SystemInfo;
+import info.openrocket.core.optimization.general.Point;
+
+/**
+ * A persistent cache of optimization parameter values, shared between optimization runs.
+ * <p>
+ * The values are keyed by a function key identifying the base simulation, the optimized
+ * parameter and the simulation modifiers (see {@link RocketOptimizationFunction#getCacheKey()}),
+ * and by the evaluated point quantized to 2<sup>-32</sup>.  When the cache is full the
+ * least recently used values are evicted.
+ * <p>
+ * The cache file contains the entries from the least to the most recently used:
+ * <pre>
+ * int magic, int version, int entryCount, entryCount times { UTF key, double value }
+ * </pre>
+ * The methods are thread-safe.
+ */
+public class OptimizationResultCache {
+	private static final Logger log = LoggerFactory.getLogger(OptimizationResultCache.class);
+
+	/** "OROC" */
+	private static final int MAGIC = 0x4F524F43;
+	private static final int VERSION = 1;
+
+	/** Default maximum number of cached values */
+	public static final int DEFAULT_MAX_ENTRIES = 50000;
+
+	private static final String DEFAULT_CACHE_FILE = "optimizationcache.dat";
+	private static final double QUANTIZATION = 1L << 32;
+
+	private static OptimizationResultCache defaultCache = null;
+
+	private final File file;
+	private final Map<String, Double> entries;
+	private boolean modified = false;
+
+	/**
+	 * Return the cache stored in the user application directory.  The cache is loaded
+	 * on the first call.
+	 */
+	public static synchronized OptimizationResultCache getDefault() {
+		if (defaultCache == null) {
+			defaultCache = new OptimizationResultCache(
+					new File(SystemInfo.getUserApplicationDirectory(), DEFAULT_CACHE_FILE), DEFAULT_MAX_ENTRIES);
+			defaultCache.load();
+		}
+		return defaultCache;
+	}
+
+	/**
+	 * @param file			the file the cache is stored in, or <code>null</code> for a cache
+	 * 						that is not stored.
+	 * @param maxEntries	the maximum number of values to keep.
+	 */
+	public OptimizationResultCache(File file, final int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("maxEntries must be positive, was " + maxEntries);
+		}
+		this.file = file;
+		this.entries = new LinkedHashMap<String, Double>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Return the cached value of a function at a point, or <code>null</code> if not cached.
+	 */
+	public synchronized Double get(String functionKey, Point point) {
+		return entries.get(key(functionKey, point));
+	}
+
+	/**
+	 * Store the value of a function at a point.
+	 */
+	public synchronized void put(String functionKey, Point point, double value) {
+		entries.put(key(functionKey, point), value);
+		modified = true;
+	}
+
+	/**
+	 * Return the number of cached values.
+	 */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Remove all cached values.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		modified = true;
+	}
+
+	/**
+	 * Load the cache file, replacing the current values.  If the file does not exist
+	 * or cannot be read the cache is left empty.
+	 */
+	public synchronized void load() {
+		entries.clear();
+		modified = false;
+		if (file == null || !file.isFile()) {
+			return;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				log.info("Ignoring optimization cache " + file + " of unknown format");
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				entries.put(key, in.readDouble());
+			}
+			log.debug("Loaded " + entries.size() + " values from optimization cache " + file);
+		} catch (IOException e) {
+			log.warn("Unable to read optimization cache " + file + ": " + e, e);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Save the cache to its file if it has been modified.  Errors are logged and otherwise ignored.
+	 */
+	public synchronized void save() {
+		if (file == null || !modified) {
+			return;
+		}
+
+		File dir = file.getAbsoluteFile().getParentFile();
+		if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+			log.warn("Unable to create directory for optimization cache " + file);
+			return;
+		}
+
+		File tmp = new File(file.getPath() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<String, Double> e : entries.entrySet()) {
+					out.writeUTF(e.getKey());
+					out.writeDouble(e.getValue());
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			modified = false;
+			log.debug("Saved " + entries.size() + " values to optimization cache " + file);
+		} catch (IOException e) {
+			log.warn("Unable to write optimization cache " + file + ": " + e, e);
+			tmp.delete();
+		}
+	}
+
+	private static String key(String functionKey, Point point) {
+		StringBuilder sb = new StringBuilder(functionKey.length() + 10 * point.dim());
+		sb.append(functionKey);
+		for (int i = 0; i < point.dim(); i++) {
+			sb.append(i == 0 ? ':' : ',');
+			sb.append(Long.toHexString(Math.round(point.get(i) * QUANTIZATION)));
+		}
+		return sb.toString();
+	}
+}
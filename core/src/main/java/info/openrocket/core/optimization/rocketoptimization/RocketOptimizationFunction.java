@@ -1,5 +1,10 @@
 package info.openrocket.core.optimization.rocketoptimization;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -7,14 +12,23 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import info.openrocket.core.document.OpenRocketDocument;
+import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.document.Simulation;
+import info.openrocket.core.document.StorageOptions;
+import info.openrocket.core.file.openrocket.OpenRocketSaver;
+import info.openrocket.core.logging.ErrorSet;
+import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.optimization.general.Function;
 import info.openrocket.core.optimization.general.OptimizationException;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.goals.ValueSeekGoal;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.Pair;
+import info.openrocket.core.util.TextUtil;
 
 /**
  * A Function that optimizes a specific RocketOptimizationParameter to some goal
@@ -39,6 +53,9 @@ public class RocketOptimizationFunction implements Function {
 
 	private final List<RocketOptimizationListener> listeners = new ArrayList<>();
 
+	private volatile OptimizationResultCache resultCache = null;
+	private volatile String cacheKey = null;
+
 	/**
 	 * Sole constructor.
 	 * <p>
@@ -104,8 +121,19 @@ public class RocketOptimizationFunction implements Function {
 			return goalValue;
 		}
 
-		// Compute the optimization value
-		parameterValue = parameter.computeValue(simulation);
+		// Compute the optimization value, or use the value computed by an earlier optimization run
+		OptimizationResultCache cache = resultCache;
+		String key = cacheKey;
+		Double cached = (cache != null) ? cache.get(key, point) : null;
+		if (cached != null) {
+			log.debug("Using cached parameter value " + cached + " at point " + point);
+			parameterValue = cached;
+		} else {
+			parameterValue = parameter.computeValue(simulation);
+			if (cache != null) {
+				cache.put(key, point, parameterValue);
+			}
+		}
 		goalValue = goal.getMinimizationParameter(parameterValue);
 
 		if (Double.isNaN(goalValue)) {
@@ -123,14 +151,90 @@ public class RocketOptimizationFunction implements Function {
 	}
 
 	/**
-	 * Returns a new deep copy of the simulation and rocket.
+	 * Set the cache used to store the computed parameter values between optimization runs,
+	 * or <code>null</code> to compute all values.  Values computed by another function are
+	 * used if the function has the same cache key.
+	 * <p>
+	 * The cache key is computed when the cache is set.  This stores the whole design,
+	 * so the cache should be set from the optimization thread rather than the EDT.
+	 * 
+	 * @param cache the cache to use.
+	 */
+	public void setResultCache(OptimizationResultCache cache) {
+		if (cache != null && cacheKey == null) {
+			cacheKey = getCacheKey();
+		}
+		this.resultCache = cache;
+	}
+
+	public OptimizationResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/**
+	 * Return a key that identifies the parameter values computed by this function.  The key
+	 * is a hash of the base rocket and simulation as stored in a design file, the optimized
+	 * parameter and goal, and the simulation modifiers with their ranges, and is stable
+	 * between runs.
+	 * 
+	 * @return the cache key of this function.
+	 */
+	public String getCacheKey() {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 digest not supported by JRE", e);
+		}
+
+		// The rocket and simulation conditions, without simulation data
+		Rocket rocket = baseSimulation.getRocket().copyWithOriginalID();
+		OpenRocketDocument document = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		document.addSimulation(baseSimulation.duplicateSimulation(rocket));
+		ByteArrayOutputStream design = new ByteArrayOutputStream();
+		try {
+			new OpenRocketSaver().save(design, document, new StorageOptions(), new WarningSet(), new ErrorSet());
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to store rocket design", e);
+		}
+		digest.update(design.toByteArray());
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(parameter.getClass().getName()).append('\n');
+		sb.append(parameter.getName()).append('\n');
+		sb.append(goal.getClass().getName()).append('\n');
+		if (goal instanceof ValueSeekGoal) {
+			sb.append(((ValueSeekGoal) goal).getGoal()).append('\n');
+		}
+		for (SimulationModifier m : modifiers) {
+			sb.append(m.getClass().getName()).append('\n');
+			sb.append(m.getName()).append('\n');
+			Object related = m.getRelatedObject();
+			if (related instanceof RocketComponent) {
+				sb.append(((RocketComponent) related).getID());
+			} else {
+				sb.append(related);
+			}
+			sb.append('\n');
+			sb.append(m.getMinValue()).append(' ').append(m.getMaxValue()).append('\n');
+		}
+		digest.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+
+		return TextUtil.hexString(digest.digest());
+	}
+
+	/**
+	 * Returns a new deep copy of the simulation and rocket.  The rocket copy is private
+	 * to the evaluation, so the simulation engine does not need to copy it again.
 	 * <p>
 	 * Note: This method is package-private for unit testing purposes.
 	 *
 	 * @return a new deep copy of the simulation and rocket
 	 */
 	Simulation newSimulationInstance(Simulation simulation) {
-		return simulation.duplicateSimulation(simulation.getRocket().copyWithOriginalID());
+		Simulation copy = simulation.duplicateSimulation(simulation.getRocket().copyWithOriginalID());
+		copy.setSimulateRocketCopy(false);
+		return copy;
 	}
 
 	/**
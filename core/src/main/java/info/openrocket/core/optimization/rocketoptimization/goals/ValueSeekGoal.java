@@ -21,6 +21,13 @@ public class ValueSeekGoal implements OptimizationGoal {
 		this.goal = goal;
 	}
 
+	/**
+	 * @return the function value to optimize towards.
+	 */
+	public double getGoal() {
+		return goal;
+	}
+
 	@Override
 	public double getMinimizationParameter(double value) {
 		return Math.abs(value - goal);
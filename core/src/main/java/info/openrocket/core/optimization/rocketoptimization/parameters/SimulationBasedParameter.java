@@ -1,6 +1,8 @@
 package info.openrocket.core.optimization.rocketoptimization.parameters;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,20 +29,46 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 	
 	@Override
 	public double computeValue(Simulation simulation) throws OptimizationException, InterruptedException {
+		return computeValues(simulation, this)[0];
+	}
+	
+	/**
+	 * Compute the values of several parameters from a single simulation.  All parameters
+	 * must share the simulation of the first one, see {@link #sharesSimulation(SimulationBasedParameter)}.
+	 * 
+	 * @param simulation	the simulation.
+	 * @param parameters	the parameters to compute.
+	 * @return				the parameter values, NaN for all if the simulation fails.
+	 * @throws OptimizationException	if an error occurs preventing the optimization from continuing
+	 * @throws InterruptedException		if the simulation was interrupted
+	 */
+	public static double[] computeValues(Simulation simulation, SimulationBasedParameter... parameters)
+			throws OptimizationException, InterruptedException {
+		for (SimulationBasedParameter p : parameters) {
+			if (!parameters[0].sharesSimulation(p)) {
+				throw new IllegalArgumentException("Parameter " + p.getName() + " does not share the simulation of " +
+						parameters[0].getName());
+			}
+		}
+		
+		double[] values = new double[parameters.length];
 		try {
-			log.debug("Running simulation for " + getName());
+			log.debug("Running simulation for " + getNames(parameters));
 			
-			SimulationListener[] listeners = getSimulationListeners();
+			SimulationListener[] listeners = parameters[0].getSimulationListeners();
 			listeners = Arrays.copyOf(listeners, listeners.length + 1);
 			listeners[listeners.length - 1] = new InterruptListener();
 			simulation.simulate(listeners);
 			
-			double value = getResultValue(simulation.getSimulatedData());
-			log.debug("Parameter '" + getName() + " was " + value);
-			return value;
+			for (int i = 0; i < parameters.length; i++) {
+				values[i] = parameters[i].getResultValue(simulation.getSimulatedData());
+				log.debug("Parameter '" + parameters[i].getName() + " was " + values[i]);
+			}
+			return values;
 		} catch (SimulationCalculationException e) {
 			// Calculation errors result in illegal value
-			return Double.NaN;
+			Arrays.fill(values, Double.NaN);
+			return values;
 		} catch (SimulationCancelledException e) {
 			// Simulation cancellation stops the optimization
 			throw (InterruptedException) new InterruptedException("Optimization was interrupted").initCause(e);
@@ -50,6 +78,36 @@ public abstract class SimulationBasedParameter implements OptimizableParameter {
 		}
 	}
 	
+	/**
+	 * Return whether this parameter can be computed from the simulation run for another
+	 * parameter, which is the case if both use the same kinds of simulation listeners.
+	 * 
+	 * @param other		the other parameter.
+	 * @return			whether both parameters can be computed from a single simulation.
+	 */
+	public boolean sharesSimulation(SimulationBasedParameter other) {
+		return getListenerTypes().equals(other.getListenerTypes());
+	}
+	
+	private List<Class<?>> getListenerTypes() {
+		List<Class<?>> types = new ArrayList<Class<?>>();
+		for (SimulationListener l : getSimulationListeners()) {
+			types.add(l.getClass());
+		}
+		return types;
+	}
+	
+	private static String getNames(SimulationBasedParameter[] parameters) {
+		StringBuilder sb = new StringBuilder();
+		for (SimulationBasedParameter p : parameters) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(p.getName());
+		}
+		return sb.toString();
+	}
+	
 	
 	/**
 	 * Return the optimization parameter from the simulation flight data.
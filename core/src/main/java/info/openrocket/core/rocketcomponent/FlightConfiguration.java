@@ -128,6 +128,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 		for (StageFlags cur : stages.values()) {
 			cur.active = _active;
 		}
+		this.modID++;
 		updateMotors();
 		updateActiveInstances();
 	}
@@ -135,6 +136,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 	public void copyStages(FlightConfiguration other) {
 		for (StageFlags cur : other.stages.values())
 			stages.put(cur.stageNumber, new StageFlags(cur.stageNumber, cur.stageId, cur.active));
+		this.modID++;
 		updateMotors();
 		updateActiveInstances();
 	}
@@ -151,6 +153,7 @@ public class FlightConfiguration implements FlightConfigurableParameter<FlightCo
 				flags.active = otherFlags.active;
 			}
 		}
+		this.modID++;
 		updateMotors();
 		updateActiveInstances();
 	}
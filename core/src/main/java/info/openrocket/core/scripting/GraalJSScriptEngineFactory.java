@@ -8,6 +8,7 @@ import java.util.*;
 import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
 
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
 
 public class GraalJSScriptEngineFactory implements ScriptEngineFactory {
@@ -24,13 +25,30 @@ public class GraalJSScriptEngineFactory implements ScriptEngineFactory {
     private static final List mimeTypes;
     private static final List extensions;
 
+    /*
+     * The polyglot engine shared by all script engines, so that scripts evaluated from the
+     * same Source are parsed and compiled only once.  Each script engine still has its own
+     * context, which may only be used by one thread at a time.
+     */
+    private static Engine sharedEngine;
+
     public GraalJSScriptEngineFactory() {
     }
 
+    /**
+     * Return the polyglot engine shared by the script engines of this factory.
+     */
+    public static synchronized Engine getSharedEngine() {
+        if (sharedEngine == null) {
+            sharedEngine = Engine.create();
+        }
+        return sharedEngine;
+    }
+
     public ScriptEngine getScriptEngine() {
         // https://github.com/oracle/graaljs/blob/master/docs/user/RunOnJDK.md
         // https://github.com/oracle/graaljs/blob/master/docs/user/ScriptEngine.md#setting-options-via-bindings
-        ScriptEngine engine = GraalJSScriptEngine.create(null,
+        ScriptEngine engine = GraalJSScriptEngine.create(getSharedEngine(),
                 Context.newBuilder("js")
                         .allowHostAccess(HostAccess.ALL)
                         .allowHostClassLookup(s -> true)
@@ -7,6 +7,7 @@ import info.openrocket.core.aerodynamics.FlightConditions;
 import info.openrocket.core.masscalc.MassCalculator;
 import info.openrocket.core.masscalc.RigidBody;
 import info.openrocket.core.models.atmosphere.AtmosphericConditions;
+import info.openrocket.core.simulation.SimulationProfile.Phase;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
 import info.openrocket.core.util.BugException;
@@ -20,6 +21,9 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 
 	protected static final double MIN_TIME_STEP = 0.001;
 
+	/** Caches the structure mass, which does not change during a simulation */
+	private final MassCalculator massCalculator = new MassCalculator();
+
 	/**
 	 * Compute the atmospheric conditions, allowing listeners to override.
 	 * 
@@ -37,8 +41,10 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 		}
 
 		// Compute conditions
+		SimulationProfile.enter(status, Phase.ATMOSPHERE);
 		double altitude = status.getRocketPosition().z + status.getSimulationConditions().getLaunchSite().getAltitude();
 		conditions = status.getSimulationConditions().getAtmosphericModel().getConditions(altitude);
+		SimulationProfile.exit(status, Phase.ATMOSPHERE);
 
 		// Call post-listener
 		conditions = SimulationListenerHelper.firePostAtmosphericModel(status, conditions);
@@ -66,8 +72,10 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 		}
 
 		// Compute conditions
+		SimulationProfile.enter(status, Phase.WIND);
 		double altitude = status.getRocketPosition().z + status.getSimulationConditions().getLaunchSite().getAltitude();
 		wind = status.getSimulationConditions().getWindModel().getWindVelocity(status.getSimulationTime(), altitude);
+		SimulationProfile.exit(status, Phase.WIND);
 
 		// Call post-listener
 		wind = SimulationListenerHelper.firePostWindModel(status, wind);
@@ -94,7 +102,9 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 		}
 
 		// Compute conditions
+		SimulationProfile.enter(status, Phase.GRAVITY);
 		gravity = status.getSimulationConditions().getGravityModel().getGravity(status.getRocketWorldPosition());
+		SimulationProfile.exit(status, Phase.GRAVITY);
 
 		// Call post-listener
 		gravity = SimulationListenerHelper.firePostGravityModel(status, gravity);
@@ -120,7 +130,9 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return structureMass;
 		}
 
-		structureMass = MassCalculator.calculateStructure(status.getConfiguration());
+		SimulationProfile.enter(status, Phase.MASS);
+		structureMass = massCalculator.getCachedStructure(status.getConfiguration());
+		SimulationProfile.exit(status, Phase.MASS);
 
 		// Call post-listener
 		structureMass = SimulationListenerHelper.firePostMassCalculation(status, structureMass);
@@ -141,7 +153,9 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return motorMass;
 		}
 
+		SimulationProfile.enter(status, Phase.MASS);
 		motorMass = MassCalculator.calculateMotor(status);
+		SimulationProfile.exit(status, Phase.MASS);
 
 				
 		// Call post-listener
@@ -177,11 +191,13 @@ public abstract class AbstractSimulationStepper implements SimulationStepper {
 			return thrust;
 		}
 
+		SimulationProfile.enter(status, Phase.THRUST);
 		thrust = 0;
 		Collection<MotorClusterState> activeMotorList = status.getActiveMotors();
 		for (MotorClusterState currentMotorState : activeMotorList ) {
 			thrust += currentMotorState.getThrust( status.getSimulationTime() );
 		}
+		SimulationProfile.exit(status, Phase.THRUST);
 
 		// Post-listeners
 		thrust = SimulationListenerHelper.firePostThrustCalculation(status, thrust);
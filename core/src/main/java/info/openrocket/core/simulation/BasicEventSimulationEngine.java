@@ -21,6 +21,7 @@ import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.MotorMount;
 import info.openrocket.core.rocketcomponent.RecoveryDevice;
+import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.rocketcomponent.RocketComponent;
 import info.openrocket.core.rocketcomponent.StageSeparationConfiguration;
 import info.openrocket.core.simulation.exception.SimulationException;
@@ -71,7 +72,9 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 			// Set up rocket configuration
 			this.fcid = simulationConditions.getFlightConfigurationID();
 			FlightConfiguration origConfig = simulationConditions.getRocket().getFlightConfiguration(this.fcid);
-			FlightConfiguration simulationConfig = origConfig.clone(simulationConditions.getRocket().copyWithOriginalID());
+			Rocket simulationRocket = simulationConditions.isCopyRocket() ?
+					simulationConditions.getRocket().copyWithOriginalID() : simulationConditions.getRocket();
+			FlightConfiguration simulationConfig = origConfig.clone(simulationRocket);
 			simulationConfig.copyStages(origConfig); // Clone the stage activation configuration
 			
 			currentStatus = new SimulationStatus(simulationConfig, simulationConditions);
@@ -114,6 +117,9 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 			currentStatus.getEventQueue().add(new FlightEvent(FlightEvent.Type.LAUNCH, 0, simulationConditions.getRocket()));
 			toSimulate.push(currentStatus);
 		
+			if (simulationConditions.getProfile() != null) {
+				simulationConditions.getProfile().simulationStarted();
+			}
 			SimulationListenerHelper.fireStartSimulation(currentStatus);
 			do {
 				if (toSimulate.peek() == null) {
@@ -148,6 +154,9 @@ public class BasicEventSimulationEngine implements SimulationEngine {
 		} catch (SimulationException e) {
 			throw e;
 		} finally {
+			if (simulationConditions.getProfile() != null) {
+				simulationConditions.getProfile().simulationFinished();
+			}
 			flightData.calculateInterestingValues();
 		}
 	}
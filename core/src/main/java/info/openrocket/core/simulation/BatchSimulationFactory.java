@@ -0,0 +1,28 @@
+package info.openrocket.core.simulation;
+
+import java.util.List;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+
+/**
+ * Creates the simulations of a batch run on demand.
+ *
+ * @see BatchSimulationRunner#runSimulations(int, BatchSimulationFactory, BatchSimulationListener)
+ */
+public interface BatchSimulationFactory {
+
+	/**
+	 * Create the simulation for one run of the batch.  This is called on the thread that
+	 * started the batch.  The returned simulation is run on a worker thread as-is, so it must
+	 * not share its rocket with any object that is used concurrently; use
+	 * {@link BatchSimulationRunner#copySimulation(info.openrocket.core.document.Simulation)}
+	 * to create an independent copy.
+	 *
+	 * @param index		the index of the run within the batch.
+	 * @param listeners	a list to which additional simulation listeners for this run may be added.
+	 * @return			the simulation to run.
+	 */
+	public Simulation createSimulation(int index, List<SimulationListener> listeners);
+
+}
@@ -0,0 +1,19 @@
+package info.openrocket.core.simulation;
+
+/**
+ * A listener that receives the results of a {@link BatchSimulationRunner} as each
+ * simulation finishes.
+ * <p>
+ * The listener is always called from the thread that started the batch, one result
+ * at a time, so implementations do not need to be thread-safe.
+ */
+public interface BatchSimulationListener {
+
+	/**
+	 * Called when a simulation of the batch has finished, whether successfully or not.
+	 *
+	 * @param result	the result of the simulation.
+	 */
+	public void simulationFinished(BatchSimulationResult result);
+
+}
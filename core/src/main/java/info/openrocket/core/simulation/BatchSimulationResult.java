@@ -0,0 +1,83 @@
+package info.openrocket.core.simulation;
+
+import info.openrocket.core.document.Simulation;
+
+/**
+ * The outcome of a single simulation run by a {@link BatchSimulationRunner}.
+ * <p>
+ * The result refers to the private copy of the simulation that was run, never to
+ * the object given to the runner.  The copy is no longer used by the runner once the
+ * result has been delivered, so it may be accessed freely by the receiving thread.
+ */
+public class BatchSimulationResult {
+
+	private final int index;
+	private final Simulation simulation;
+	private final FlightData flightData;
+	private final Throwable error;
+	private final SimulationProfile profile;
+
+	BatchSimulationResult(int index, Simulation simulation, FlightData flightData, Throwable error,
+			SimulationProfile profile) {
+		this.index = index;
+		this.simulation = simulation;
+		this.flightData = flightData;
+		this.error = error;
+		this.profile = profile;
+	}
+
+	/**
+	 * Return the position of the simulated item in the collection given to the runner.
+	 * Results are delivered in completion order, so this is used to match a result
+	 * with its input.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Return the copy of the simulation that was run, or <code>null</code> if the run
+	 * was started from simulation conditions that were not associated with a simulation.
+	 * For runs started from a {@link Simulation} the copy also holds the simulated
+	 * data and warnings.
+	 */
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
+	/**
+	 * Return the flight data produced by the simulation.  This may contain partial data
+	 * if the simulation failed, or be <code>null</code> if it did not start at all.
+	 */
+	public FlightData getFlightData() {
+		return flightData;
+	}
+
+	/**
+	 * Return the error that terminated the simulation, or <code>null</code> if the
+	 * simulation completed normally.
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Return the time spent in the phases of the simulation, or <code>null</code> if
+	 * profiling was not enabled for the batch.
+	 */
+	public SimulationProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Return whether the simulation completed without throwing an exception.
+	 */
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchSimulationResult[index=" + index + ", successful=" + isSuccessful() + "]";
+	}
+}
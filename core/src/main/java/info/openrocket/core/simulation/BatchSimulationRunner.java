@@ -0,0 +1,367 @@
+package info.openrocket.core.simulation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.simulation.listeners.system.InterruptListener;
+import info.openrocket.core.simulation.listeners.system.SimulationProfiler;
+import info.openrocket.core.util.BugException;
+
+/**
+ * Runs a batch of simulations in parallel without a user interface.
+ * <p>
+ * Each simulation is run on a private copy of its rocket and simulation, which is made
+ * on the calling thread just before the simulation is submitted.  The objects given to
+ * the runner are therefore only accessed from the calling thread, as required by
+ * {@link Simulation}.  At most a fixed number of simulations are submitted or waiting
+ * to be delivered at any time, so that the copies of a large batch are not all held in
+ * memory at once.
+ * <p>
+ * Results are delivered to a {@link BatchSimulationListener} in the order the simulations
+ * finish.  The listener is called from the thread that started the batch, and the batch
+ * methods return once all results have been delivered.  If the calling thread is interrupted
+ * the simulations still running are cancelled and an <code>InterruptedException</code> is
+ * thrown.
+ * <p>
+ * When profiling is enabled, each simulation records the time spent in its phases to a
+ * {@link SimulationProfile} available from its result, and the profiles of a batch are
+ * combined into the profile returned by {@link #getProfile()}.
+ * <p>
+ * The batch methods of a single runner must not be called from several threads at once,
+ * but several runners may share an executor.
+ */
+public class BatchSimulationRunner {
+	private static final Logger log = LoggerFactory.getLogger(BatchSimulationRunner.class);
+
+	private final ExecutorService executor;
+	private final int maxPending;
+	private final boolean ownsExecutor;
+
+	private boolean profiling = false;
+	private SimulationProfile profile = null;
+
+	/**
+	 * Construct a runner that uses the same number of threads as there are processors available.
+	 */
+	public BatchSimulationRunner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Construct a runner that uses the specified number of threads.  The threads are marked
+	 * as daemon threads, and are stopped by {@link #shutdown()}.  At most twice as many
+	 * simulations as there are threads are pending at a time.
+	 *
+	 * @param threadCount	the number of simulations to run concurrently.
+	 */
+	public BatchSimulationRunner(int threadCount) {
+		this(createExecutor(threadCount), 2 * threadCount, true);
+	}
+
+	/**
+	 * Construct a runner that submits the simulations to the specified executor.  The executor
+	 * is not shut down by {@link #shutdown()}.
+	 *
+	 * @param executor		the executor to run the simulations in.
+	 * @param maxPending	the maximum number of simulations that are submitted but whose results
+	 * 						have not yet been delivered.
+	 */
+	public BatchSimulationRunner(ExecutorService executor, int maxPending) {
+		this(executor, maxPending, false);
+	}
+
+	private BatchSimulationRunner(ExecutorService executor, int maxPending, boolean ownsExecutor) {
+		if (maxPending < 1) {
+			throw new IllegalArgumentException("maxPending must be positive, was " + maxPending);
+		}
+		this.executor = executor;
+		this.maxPending = maxPending;
+		this.ownsExecutor = ownsExecutor;
+	}
+
+	/**
+	 * Return whether the simulations of subsequent batches are profiled.
+	 */
+	public boolean isProfiling() {
+		return profiling;
+	}
+
+	/**
+	 * Set whether the simulations of subsequent batches are profiled.  Profiling adds a small
+	 * overhead to each simulation step but does not affect the results.
+	 */
+	public void setProfiling(boolean profiling) {
+		this.profiling = profiling;
+	}
+
+	/**
+	 * Return the combined profile of the simulations of the most recent batch, or <code>null</code>
+	 * if profiling was not enabled for it.  If the batch was interrupted the profile contains the
+	 * simulations that were delivered before the interruption.
+	 */
+	public SimulationProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Simulate a batch of simulations.  The given simulations are not modified; the result
+	 * of each run is available from the copy returned by {@link BatchSimulationResult#getSimulation()}.
+	 *
+	 * @param simulations	the simulations to run.
+	 * @param listener		the listener to deliver the results to.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting for results.
+	 */
+	public void runSimulations(Collection<Simulation> simulations, BatchSimulationListener listener)
+			throws InterruptedException {
+		final Iterator<Simulation> iterator = simulations.iterator();
+		runSimulations(simulations.size(), new BatchSimulationFactory() {
+			@Override
+			public Simulation createSimulation(int index, List<SimulationListener> listeners) {
+				return copySimulation(iterator.next());
+			}
+		}, listener);
+	}
+
+	/**
+	 * Simulate a batch of simulations that are created on demand.  The factory is called on the
+	 * calling thread just before each simulation is submitted, so the number of simulations
+	 * held in memory stays bounded even for very large batches.
+	 *
+	 * @param count		the number of simulations to run.
+	 * @param factory	the factory creating the simulation for each run.
+	 * @param listener	the listener to deliver the results to.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting for results.
+	 */
+	public void runSimulations(int count, BatchSimulationFactory factory, BatchSimulationListener listener)
+			throws InterruptedException {
+		Batch batch = new Batch(listener);
+		try {
+			for (int index = 0; index < count; index++) {
+				List<SimulationListener> listeners = new ArrayList<SimulationListener>();
+				Simulation simulation = factory.createSimulation(index, listeners);
+				SimulationProfile simulationProfile = null;
+				if (profiling) {
+					SimulationProfiler profiler = new SimulationProfiler();
+					listeners.add(profiler);
+					simulationProfile = profiler.getProfile();
+				}
+				listeners.add(new InterruptListener());
+				batch.submit(new SimulationTask(index, simulation,
+						listeners.toArray(new SimulationListener[0]), simulationProfile));
+			}
+			batch.finish();
+		} finally {
+			batch.cancel();
+		}
+	}
+
+	/**
+	 * Simulate a batch of simulation conditions.  Each run uses a copy of the conditions, of the
+	 * simulation they refer to and of its rocket, and a new instance of the aerodynamic calculator.
+	 * The wind, atmosphere and gravity models are shared with the given conditions, so conditions
+	 * with stateful models, such as a wind model with turbulence, should not be given more than once.
+	 *
+	 * @param conditions	the simulation conditions to run.
+	 * @param listener		the listener to deliver the results to.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting for results.
+	 */
+	public void runConditions(Collection<SimulationConditions> conditions, BatchSimulationListener listener)
+			throws InterruptedException {
+		Batch batch = new Batch(listener);
+		try {
+			int index = 0;
+			for (SimulationConditions c : conditions) {
+				SimulationConditions copy = copyConditions(c);
+				if (profiling) {
+					copy.setProfile(new SimulationProfile());
+				}
+				batch.submit(new ConditionsTask(index++, copy));
+			}
+			batch.finish();
+		} finally {
+			batch.cancel();
+		}
+	}
+
+	/**
+	 * Stop the threads of this runner if it created its own executor.  Runners that were given
+	 * an executor leave it running.
+	 */
+	public void shutdown() {
+		if (ownsExecutor) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Return an independent copy of a simulation and its rocket.  The copy is detached from the
+	 * document of the original so that running it does not fire document events from worker threads.
+	 */
+	public static Simulation copySimulation(Simulation simulation) {
+		Simulation copy = simulation.duplicateSimulation(simulation.getRocket().copyWithOriginalID());
+		copy.removeChangeListener(simulation.getDocument());
+		return copy;
+	}
+
+	/**
+	 * Return a copy of simulation conditions that can be simulated concurrently with the original.
+	 */
+	static SimulationConditions copyConditions(SimulationConditions conditions) {
+		SimulationConditions copy = conditions.clone();
+		if (conditions.getSimulation() != null) {
+			copy.setSimulation(copySimulation(conditions.getSimulation()));
+		}
+		if (conditions.getAerodynamicCalculator() != null) {
+			copy.setAerodynamicCalculator(conditions.getAerodynamicCalculator().newInstance());
+		}
+		copy.getSimulationListenerList().add(new InterruptListener());
+		return copy;
+	}
+
+	private static ExecutorService createExecutor(int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("threadCount must be positive, was " + threadCount);
+		}
+		return new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "BatchSimulation-" + count.incrementAndGet());
+						t.setDaemon(true);
+						return t;
+					}
+				});
+	}
+
+	/**
+	 * The state of a single batch run.  Only accessed from the thread that started the batch.
+	 */
+	private class Batch {
+		private final CompletionService<BatchSimulationResult> completionService =
+				new ExecutorCompletionService<BatchSimulationResult>(executor);
+		private final Set<Future<BatchSimulationResult>> pending = new HashSet<Future<BatchSimulationResult>>();
+		private final BatchSimulationListener listener;
+
+		Batch(BatchSimulationListener listener) {
+			this.listener = listener;
+			profile = profiling ? new SimulationProfile() : null;
+		}
+
+		void submit(Callable<BatchSimulationResult> task) throws InterruptedException {
+			while (pending.size() >= maxPending) {
+				deliverNext();
+			}
+			pending.add(completionService.submit(task));
+		}
+
+		void finish() throws InterruptedException {
+			while (!pending.isEmpty()) {
+				deliverNext();
+			}
+		}
+
+		void cancel() {
+			if (!pending.isEmpty()) {
+				log.info("Cancelling " + pending.size() + " pending batch simulations");
+			}
+			for (Future<BatchSimulationResult> future : pending) {
+				future.cancel(true);
+			}
+			pending.clear();
+		}
+
+		private void deliverNext() throws InterruptedException {
+			Future<BatchSimulationResult> future = completionService.take();
+			pending.remove(future);
+			BatchSimulationResult result;
+			try {
+				result = future.get();
+			} catch (ExecutionException e) {
+				throw new BugException("Batch simulation task threw an exception", e.getCause());
+			}
+			if (profile != null && result.getProfile() != null) {
+				profile.add(result.getProfile());
+			}
+			listener.simulationFinished(result);
+		}
+	}
+
+	/**
+	 * Runs a copy of a Simulation.
+	 */
+	private static class SimulationTask implements Callable<BatchSimulationResult> {
+		private final int index;
+		private final Simulation simulation;
+		private final SimulationListener[] listeners;
+		private final SimulationProfile profile;
+
+		SimulationTask(int index, Simulation simulation, SimulationListener[] listeners, SimulationProfile profile) {
+			this.index = index;
+			this.simulation = simulation;
+			this.listeners = listeners;
+			this.profile = profile;
+		}
+
+		@Override
+		public BatchSimulationResult call() {
+			Throwable error = null;
+			try {
+				simulation.simulate(listeners);
+			} catch (Exception e) {
+				log.debug("Batch simulation " + index + " failed", e);
+				error = e;
+			}
+			return new BatchSimulationResult(index, simulation, simulation.getSimulatedData(), error, profile);
+		}
+	}
+
+	/**
+	 * Runs a copy of simulation conditions directly with the simulation engine.
+	 */
+	private static class ConditionsTask implements Callable<BatchSimulationResult> {
+		private final int index;
+		private final SimulationConditions conditions;
+
+		ConditionsTask(int index, SimulationConditions conditions) {
+			this.index = index;
+			this.conditions = conditions;
+		}
+
+		@Override
+		public BatchSimulationResult call() {
+			SimulationEngine engine = new BasicEventSimulationEngine();
+			Throwable error = null;
+			try {
+				engine.simulate(conditions);
+			} catch (Exception e) {
+				log.debug("Batch simulation " + index + " failed", e);
+				error = e;
+			}
+			return new BatchSimulationResult(index, conditions.getSimulation(), engine.getFlightData(), error,
+					conditions.getProfile());
+		}
+	}
+}
@@ -1,10 +1,8 @@
 package info.openrocket.core.simulation;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
 import info.openrocket.core.rocketcomponent.AxialStage;
 import info.openrocket.core.rocketcomponent.Rocket;
@@ -24,7 +22,14 @@ import info.openrocket.core.util.Mutable;
  * not defined in the constructor can be added using {@link #setValue(FlightDataType, double)}, they
  * will be created and all previous values will be set to NaN.
  * <p>
+ * The values are stored in primitive columns, one per variable type, which grow together as points
+ * are added.  A complete row can be added at once using {@link #addPoint(double[])}.
+ * <p>
  * After populating a FlightDataBranch object it can be made immutable by calling {@link #immute()}.
+ * <p>
+ * The data points of a branch can also be loaded on first access by setting a {@link DataLoader},
+ * for example when reading stored simulation data that may never be used.  The types and events
+ * of such a branch are available without loading the data.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
@@ -33,10 +38,18 @@ public class FlightDataBranch implements Monitorable {
 	/** The name of this flight data branch. */
 	private final String name;
 	
-	private final Map<FlightDataType, ArrayList<Double>> values = new LinkedHashMap<>();
-
-	private final Map<FlightDataType, Double> maxValues = new HashMap<>();
-	private final Map<FlightDataType, Double> minValues = new HashMap<>();
+	/** Initial number of points allocated for each column. */
+	private static final int INITIAL_CAPACITY = 64;
+	
+	/** The columns in the order their types were added. */
+	private Column[] columns = new Column[0];
+	/** The columns indexed by {@link FlightDataType#getIndex()}, or null if the type has not been added. */
+	private Column[] columnsByIndex = new Column[0];
+	
+	/** Number of data points in each column. */
+	private int length = 0;
+	/** Number of data points allocated in each column. */
+	private int capacity = 0;
 	
 	/**
 	 * time for the rocket to reach apogee if the flight had been no recovery deployment
@@ -53,6 +66,9 @@ public class FlightDataBranch implements Monitorable {
 	
 	private int modID = 0;
 	
+	/** The loader of the data points not yet loaded, or null if the data is loaded. */
+	private volatile DataLoader dataLoader = null;
+	
 	/**
 	 * Sole constructor.  Defines the name of the FlightDataBranch and at least one variable type.
 	 * 
@@ -67,14 +83,12 @@ public class FlightDataBranch implements Monitorable {
 		this.name = name;
 		
 		for (FlightDataType t : types) {
-			if (values.containsKey(t)) {
+			if (getColumn(t) != null) {
 				throw new IllegalArgumentException("Value type " + t + " specified multiple " +
 						"times in constructor.");
 			}
 			
-			values.put(t, new ArrayList<Double>());
-			minValues.put(t, Double.NaN);
-			maxValues.put(t, Double.NaN);
+			addColumn(t, Double.NaN);
 		}
 	}
 
@@ -113,25 +127,91 @@ public class FlightDataBranch implements Monitorable {
 	public void addPoint() {
 		mutable.check();
 		
-		for (FlightDataType type : values.keySet()) {
-			sanityCheckValues(type, Double.NaN);
-			values.get(type).add(Double.NaN);
+		loadData();
+		ensureCapacity(length + 1);
+		for (Column column : columns) {
+			column.data[length] = Double.NaN;
+		}
+		length++;
+		modID++;
+	}
+
+	/**
+	 * Adds a new point into the data branch with the values of all types given at once.  The
+	 * values must be in the order in which the types were added to this branch, that is, the
+	 * order given to the constructor followed by any types added later.
+	 * 
+	 * @param row	the values of the new point, one for each type in the branch.
+	 * @throws IllegalArgumentException	if the row length does not match the number of types.
+	 * @throws IllegalStateException	if this object has been made immutable.
+	 */
+	public void addPoint(double[] row) {
+		mutable.check();
+		
+		if (row.length != columns.length) {
+			throw new IllegalArgumentException("Row has " + row.length + " values, branch has " +
+					columns.length + " types.");
 		}
+		
+		loadData();
+		appendRow(row);
 		modID++;
 	}
 
-	private void sanityCheckValues(FlightDataType type, Double value) {
-		ArrayList<Double> list = values.get(type);
+	private void appendRow(double[] row) {
+		ensureCapacity(length + 1);
+		for (int i = 0; i < columns.length; i++) {
+			columns[i].data[length] = row[i];
+			columns[i].updateLimits(row[i]);
+		}
+		length++;
+	}
+
+	/**
+	 * Set the loader that provides the data points of this branch on first access.  The
+	 * loader is given the values of each point in the order of the types given to the
+	 * constructor.
+	 * 
+	 * @param loader	the loader of the data points.
+	 * @throws IllegalStateException	if this branch has been made immutable or already
+	 * 									contains data points.
+	 */
+	public void setDataLoader(DataLoader loader) {
+		mutable.check();
+		if (length > 0) {
+			throw new IllegalStateException("Branch already contains data points");
+		}
+		this.dataLoader = loader;
+	}
+
+	/**
+	 * Return whether the data points of this branch have been loaded.
+	 */
+	public boolean isDataLoaded() {
+		return dataLoader == null;
+	}
 
-		if (list == null) {
-			list = new ArrayList<>();
-			int n = getLength();
-			for (int i = 0; i < n; i++) {
-				list.add(Double.NaN);
+	/**
+	 * Load the data points from the data loader if they have not been loaded yet.
+	 */
+	private void loadData() {
+		if (dataLoader == null) {
+			return;
+		}
+		synchronized (this) {
+			DataLoader loader = dataLoader;
+			if (loader == null) {
+				return;
 			}
-			values.put(type, list);
-			minValues.put(type, value);
-			maxValues.put(type, value);
+			final int count = columns.length;
+			loader.load(row -> {
+				if (row.length != count) {
+					throw new IllegalArgumentException("Row has " + row.length + " values, branch has " +
+							count + " types.");
+				}
+				appendRow(row);
+			});
+			dataLoader = null;
 		}
 	}
 
@@ -145,24 +225,69 @@ public class FlightDataBranch implements Monitorable {
 	 */
 	public void setValue(FlightDataType type, double value) {
 		mutable.check();
+		loadData();
 
-		sanityCheckValues(type, value);
-		ArrayList<Double> list = values.get(type);
+		Column column = getColumn(type);
+		if (column == null) {
+			column = addColumn(type, value);
+		}
 
-		if (list.size() > 0) {
-			list.set(list.size() - 1, value);
+		if (length > 0) {
+			column.data[length - 1] = value;
 		}
 		
-		double min = minValues.get(type);
-		double max = maxValues.get(type);
+		column.updateLimits(value);
+		modID++;
+	}
+
+	/**
+	 * Return the column of the given type, or null if the type has not been added.
+	 */
+	private Column getColumn(FlightDataType type) {
+		int index = type.getIndex();
+		if (index >= columnsByIndex.length) {
+			return null;
+		}
+		return columnsByIndex[index];
+	}
+
+	/**
+	 * Add a new column for the given type, with all existing points set to NaN.
+	 * 
+	 * @param type		the type of the new column.
+	 * @param limit		the initial minimum and maximum value of the column.
+	 * @return			the new column.
+	 */
+	private Column addColumn(FlightDataType type, double limit) {
+		Column column = new Column(type, Math.max(capacity, INITIAL_CAPACITY));
+		Arrays.fill(column.data, 0, length, Double.NaN);
+		column.min = limit;
+		column.max = limit;
+		
+		int index = type.getIndex();
+		if (index >= columnsByIndex.length) {
+			columnsByIndex = Arrays.copyOf(columnsByIndex, Math.max(index + 1, 2 * columnsByIndex.length));
+		}
+		columnsByIndex[index] = column;
 		
-		if (Double.isNaN(min) || (value < min)) {
-			minValues.put(type, value);
+		columns = Arrays.copyOf(columns, columns.length + 1);
+		columns[columns.length - 1] = column;
+		capacity = Math.max(capacity, column.data.length);
+		return column;
+	}
+
+	/**
+	 * Make sure all columns can hold at least the given number of points.  The capacity is
+	 * doubled when exceeded, so adding points takes amortized constant time.
+	 */
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity <= capacity) {
+			return;
 		}
-		if (Double.isNaN(max) || (value > max)) {
-			maxValues.put(type, value);
+		capacity = Math.max(minCapacity, Math.max(2 * capacity, INITIAL_CAPACITY));
+		for (Column column : columns) {
+			column.data = Arrays.copyOf(column.data, capacity);
 		}
-		modID++;
 	}
 
 	/**
@@ -171,24 +296,33 @@ public class FlightDataBranch implements Monitorable {
 	 * @param srcComponent 	the component that is the source of this branch (used for copying events)
 	 */
 	private void copyValuesFromBranch(FlightDataBranch srcBranch, RocketComponent srcComponent) {
-		this.values.clear();
+		this.columns = new Column[0];
+		this.columnsByIndex = new Column[0];
+		this.length = 0;
+		this.capacity = 0;
 
 		// Need to have at least one type to set up values
-		values.put(FlightDataType.TYPE_TIME, new ArrayList<>());
-		minValues.put(FlightDataType.TYPE_TIME, Double.NaN);
-		maxValues.put(FlightDataType.TYPE_TIME, Double.NaN);
+		addColumn(FlightDataType.TYPE_TIME, Double.NaN);
 
 		if (srcBranch == null) {
 			return;
 		}
 
 		// Copy flight data
-		for (int i = 0; i < srcBranch.getLength(); i++) {
-			this.addPoint();
-			for (FlightDataType type : srcBranch.getTypes()) {
-				this.setValue(type, srcBranch.getByIndex(type, i));
+		srcBranch.loadData();
+		ensureCapacity(srcBranch.length);
+		for (FlightDataType type : srcBranch.getTypes()) {
+			Column src = srcBranch.getColumn(type);
+			Column column = getColumn(type);
+			if (column == null) {
+				column = addColumn(type, Double.NaN);
 			}
+			System.arraycopy(src.data, 0, column.data, 0, srcBranch.length);
+			column.min = src.min;
+			column.max = src.max;
 		}
+		this.length = srcBranch.length;
+		modID++;
 
 		// Copy flight events belonging to this branch
 		List<FlightEvent> sustainerEvents = srcBranch.getEvents();
@@ -239,19 +373,27 @@ public class FlightDataBranch implements Monitorable {
 	 * natural order.
 	 */
 	public FlightDataType[] getTypes() {
-		FlightDataType[] array = values.keySet().toArray(new FlightDataType[0]);
+		FlightDataType[] array = new FlightDataType[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			array[i] = columns[i].type;
+		}
 		Arrays.sort(array);
 		return array;
 	}
+
+	/**
+	 * Return the number of variable types included in this branch.
+	 */
+	public int getTypeCount() {
+		return columns.length;
+	}
 	
 	/**
 	 * Return the number of data points in this branch.
 	 */
 	public int getLength() {
-		for (FlightDataType t : values.keySet()) {
-			return values.get(t).size();
-		}
-		return 0;
+		loadData();
+		return length;
 	}
 	
 	/**
@@ -262,10 +404,31 @@ public class FlightDataBranch implements Monitorable {
 	 * 				the variable type hasn't been added to this branch.
 	 */
 	public List<Double> get(FlightDataType type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null)
+		loadData();
+		Column column = getColumn(type);
+		if (column == null)
+			return null;
+		ArrayList<Double> list = new ArrayList<Double>(length);
+		for (int i = 0; i < length; i++) {
+			list.add(column.data[i]);
+		}
+		return list;
+	}
+
+	/**
+	 * Return a primitive array of the values for the specified variable type.  This avoids
+	 * the boxing done by {@link #get(FlightDataType)}.
+	 * 
+	 * @param type	the variable type.
+	 * @return		a copy of the variable values, or <code>null</code> if
+	 * 				the variable type hasn't been added to this branch.
+	 */
+	public double[] getArray(FlightDataType type) {
+		loadData();
+		Column column = getColumn(type);
+		if (column == null)
 			return null;
-		return list.clone();
+		return Arrays.copyOf(column.data, length);
 	}
 
 	/**
@@ -278,11 +441,11 @@ public class FlightDataBranch implements Monitorable {
 		if (index < 0 || index >= getLength()) {
 			throw new IllegalArgumentException("Index out of bounds");
 		}
-		ArrayList<Double> list = values.get(type);
-		if (list == null) {
+		Column column = getColumn(type);
+		if (column == null) {
 			return null;
 		}
-		return list.get(index);
+		return column.data[index];
 	}
 
 	/**
@@ -293,10 +456,11 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the last value in this branch, or NaN.
 	 */
 	public double getLast(FlightDataType type) {
-		ArrayList<Double> list = values.get(type);
-		if (list == null || list.isEmpty())
+		loadData();
+		Column column = getColumn(type);
+		if (column == null || length == 0)
 			return Double.NaN;
-		return list.get(list.size() - 1);
+		return column.data[length - 1];
 	}
 	
 	/**
@@ -307,10 +471,11 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the minimum value in this branch, or NaN.
 	 */
 	public double getMinimum(FlightDataType type) {
-		Double v = minValues.get(type);
-		if (v == null)
+		loadData();
+		Column column = getColumn(type);
+		if (column == null)
 			return Double.NaN;
-		return v;
+		return column.min;
 	}
 	
 	/**
@@ -321,10 +486,11 @@ public class FlightDataBranch implements Monitorable {
 	 * @return		the maximum value in this branch, or NaN.
 	 */
 	public double getMaximum(FlightDataType type) {
-		Double v = maxValues.get(type);
-		if (v == null)
+		loadData();
+		Column column = getColumn(type);
+		if (column == null)
 			return Double.NaN;
-		return v;
+		return column.max;
 	}
 	
 	
@@ -446,18 +612,65 @@ public class FlightDataBranch implements Monitorable {
 	}
 
 	public FlightDataBranch clone() {
-		FlightDataType[] types = getTypes();
+		loadData();
+		FlightDataType[] types = new FlightDataType[columns.length];
+		for (int i = 0; i < columns.length; i++) {
+			types[i] = columns[i].type;
+		}
 		FlightDataBranch clone = new FlightDataBranch(name, types);
-		for (FlightDataType type : values.keySet()) {
-			clone.values.put(type, values.get(type).clone());
+		clone.ensureCapacity(length);
+		for (int i = 0; i < columns.length; i++) {
+			System.arraycopy(columns[i].data, 0, clone.columns[i].data, 0, length);
+			clone.columns[i].min = columns[i].min;
+			clone.columns[i].max = columns[i].max;
 		}
-		clone.minValues.putAll(minValues);
-		clone.maxValues.putAll(maxValues);
+		clone.length = length;
 		clone.events.addAll(events);
 		clone.timeToOptimumAltitude = timeToOptimumAltitude;
 		clone.optimumAltitude = optimumAltitude;
 		clone.modID = modID;
 		return clone;
 	}
+
+	/**
+	 * Loads the data points of a branch on first access.
+	 */
+	public interface DataLoader {
+
+		/**
+		 * Load the data points of the branch.  This is called at most once, from the first
+		 * thread accessing the data.  Errors in individual points should be handled by skipping
+		 * the point.
+		 * 
+		 * @param rows	receives the values of each data point in turn.  The array may be
+		 * 				reused for the next point.
+		 */
+		public void load(Consumer<double[]> rows);
+
+	}
+
+	/**
+	 * A growable primitive column of values of a single type.
+	 */
+	private static final class Column {
+		private final FlightDataType type;
+		private double[] data;
+		private double min = Double.NaN;
+		private double max = Double.NaN;
+		
+		private Column(FlightDataType type, int capacity) {
+			this.type = type;
+			this.data = new double[capacity];
+		}
+		
+		private void updateLimits(double value) {
+			if (Double.isNaN(min) || (value < min)) {
+				min = value;
+			}
+			if (Double.isNaN(max) || (value > max)) {
+				max = value;
+			}
+		}
+	}
 	
 }
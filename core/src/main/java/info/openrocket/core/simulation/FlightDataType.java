@@ -43,6 +43,9 @@ public class FlightDataType implements Comparable<FlightDataType> {
 	/** NOTE: The String key here is now the symbol */
 	private static final Map<String, FlightDataType> EXISTING_TYPES = new HashMap<String, FlightDataType>();
 
+	/** Dense indices of the type names. MUST BE DEFINED BEFORE ANY TYPES!! */
+	private static final Map<String, Integer> INDICES = new HashMap<String, Integer>();
+
 	//// Time
 	public static final FlightDataType TYPE_TIME = newType(trans.get("FlightDataType.TYPE_TIME"), "t",
 			UnitGroup.UNITS_FLIGHT_TIME,
@@ -466,6 +469,7 @@ public class FlightDataType implements Comparable<FlightDataType> {
 	private final FlightDataTypeGroup group;
 	private final int priority;
 	private final int hashCode;
+	private final int index;
 
 	private FlightDataType(String typeName, String symbol, UnitGroup units, FlightDataTypeGroup group, int priority) {
 		if (typeName == null)
@@ -478,6 +482,15 @@ public class FlightDataType implements Comparable<FlightDataType> {
 		this.group = group;
 		this.priority = priority;
 		this.hashCode = this.name.toLowerCase(Locale.ENGLISH).hashCode();
+		this.index = getIndex(this.name);
+	}
+
+	/**
+	 * Return the dense index of the type name, assigning a new one if the name has not been seen before.
+	 * Types that are equal share the same index.
+	 */
+	private static synchronized int getIndex(String name) {
+		return INDICES.computeIfAbsent(name.toLowerCase(Locale.ENGLISH), k -> INDICES.size());
 	}
 
 	public String getName() {
@@ -500,6 +513,15 @@ public class FlightDataType implements Comparable<FlightDataType> {
 		return group.getPriority();
 	}
 
+	/**
+	 * Return a small non-negative integer identifying this type.  The indices are assigned
+	 * densely in order of creation, and types that are equal have the same index, so the
+	 * index can be used for array-based lookups instead of hashing.
+	 */
+	int getIndex() {
+		return index;
+	}
+
 	@Override
 	public String toString() {
 		return name; // +" ("+symbol+") "+units.getDefaultUnit().toString();
@@ -13,6 +13,7 @@ import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.l10n.Translator;
 import info.openrocket.core.masscalc.RigidBody;
 import info.openrocket.core.models.atmosphere.AtmosphericConditions;
+import info.openrocket.core.simulation.SimulationProfile.Phase;
 import info.openrocket.core.simulation.exception.SimulationCalculationException;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.listeners.SimulationListenerHelper;
@@ -61,6 +62,21 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 	
 	private Random random;
 	DataStore store = new DataStore();
+
+	/*
+	 * Scratch state reused between steps so that the RK4 integration does not
+	 * allocate intermediate vectors for the k1..k4 evaluations.  Immutable
+	 * Coordinates are only created when handing state to the SimulationStatus.
+	 */
+	private final RK4Parameters k1 = new RK4Parameters();
+	private final RK4Parameters k2 = new RK4Parameters();
+	private final RK4Parameters k3 = new RK4Parameters();
+	private final RK4Parameters k4 = new RK4Parameters();
+	private final double[] dt = new double[8];
+
+	// Intermediate status for the k2..k4 evaluations, reset from its original for each of them
+	private SimulationStatus intermediate;
+	private SimulationStatus intermediateOrigin;
 	
 	@Override
 	public SimulationStatus initialize(SimulationStatus original) {
@@ -92,7 +108,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		////////  Perform RK4 integration:  ////////
 		
 		SimulationStatus status2;
-		RK4Parameters k1, k2, k3, k4;
 
 		/*
 		 * Get the current atmospheric conditions
@@ -106,7 +121,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// First position, k1 = f(t, y)
 		
-		k1 = computeParameters(status, store);
+		computeParameters(status, store, k1);
 		store.storeData(status);
 		
 		/*
@@ -125,7 +140,6 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		 * 
 		 * The step is still at least 1/20th of the user-selected time step.
 		 */
-		double[] dt = new double[8];
 		Arrays.fill(dt, Double.MAX_VALUE);
 
 		// If the user selected a really small timestep, use MIN_TIME_STEP instead.
@@ -139,7 +153,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 									  Math.abs(store.accelerationData.getRotationalAccelerationRC().y)));
 		if (!status.isLaunchRodCleared()) {
 			dt[0] /= 5.0;
-			dt[6] = status.getSimulationConditions().getLaunchRodLength() / k1.v.length() / 10;
+			dt[6] = status.getSimulationConditions().getLaunchRodLength() / k1.speed() / 10;
 		}
 		dt[7] = 1.5 * store.timeStep;
 		
@@ -185,52 +199,50 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 		//// Second position, k2 = f(t + h/2, y + k1*h/2)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timeStep / 2);
-		status2.setRocketPosition(status.getRocketPosition().add(k1.v.multiply(store.timeStep / 2)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k1.a.multiply(store.timeStep / 2)));
-		status2.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k1.rv.multiply(store.timeStep / 2))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k1.ra.multiply(store.timeStep / 2)));
-		
-		k2 = computeParameters(status2, store);
+		status2 = resetIntermediateStatus(status);
+		setIntermediateState(status, status2, k1, store.timeStep / 2);
+		computeParameters(status2, store, k2);
 		
 
 		//// Third position, k3 = f(t + h/2, y + k2*h/2)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timeStep / 2);
-		status2.setRocketPosition(status.getRocketPosition().add(k2.v.multiply(store.timeStep / 2)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k2.a.multiply(store.timeStep / 2)));
-		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k2.rv.multiply(store.timeStep / 2))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k2.ra.multiply(store.timeStep / 2)));
-		
-		k3 = computeParameters(status2, store);
+		status2 = resetIntermediateStatus(status);
+		setIntermediateState(status, status2, k2, store.timeStep / 2);
+		computeParameters(status2, store, k3);
 		
 
 		//// Fourth position, k4 = f(t + h, y + k3*h)
 		
-		status2 = status.clone();
-		status2.setSimulationTime(status.getSimulationTime() + store.timeStep);
-		status2.setRocketPosition(status.getRocketPosition().add(k3.v.multiply(store.timeStep)));
-		status2.setRocketVelocity(status.getRocketVelocity().add(k3.a.multiply(store.timeStep)));
-		status2.setRocketOrientationQuaternion(status2.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(k3.rv.multiply(store.timeStep))));
-		status2.setRocketRotationVelocity(status.getRocketRotationVelocity().add(k3.ra.multiply(store.timeStep)));
-		
-		k4 = computeParameters(status2, store);
+		status2 = resetIntermediateStatus(status);
+		setIntermediateState(status, status2, k3, store.timeStep);
+		computeParameters(status2, store, k4);
 		
 
 		//// Sum all together,  y(n+1) = y(n) + h*(k1 + 2*k2 + 2*k3 + k4)/6
-		Coordinate deltaV, deltaP, deltaR, deltaO;
-		deltaV = k2.a.add(k3.a).multiply(2).add(k1.a).add(k4.a).multiply(store.timeStep / 6);
-		deltaP = k2.v.add(k3.v).multiply(2).add(k1.v).add(k4.v).multiply(store.timeStep / 6);
-		deltaR = k2.ra.add(k3.ra).multiply(2).add(k1.ra).add(k4.ra).multiply(store.timeStep / 6);
-		deltaO = k2.rv.add(k3.rv).multiply(2).add(k1.rv).add(k4.rv).multiply(store.timeStep / 6);
-		
-
-		status.setRocketVelocity(status.getRocketVelocity().add(deltaV));
-		status.setRocketPosition(status.getRocketPosition().add(deltaP));
-		status.setRocketRotationVelocity(status.getRocketRotationVelocity().add(deltaR));
-		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(Quaternion.rotation(deltaO)).normalizeIfNecessary());
+		final double h6 = store.timeStep / 6;
+		Coordinate v = status.getRocketVelocity();
+		Coordinate p = status.getRocketPosition();
+		Coordinate rv = status.getRocketRotationVelocity();
+		status.setRocketVelocity(new Coordinate(
+				v.x + rk4Sum(k1.ax, k2.ax, k3.ax, k4.ax, h6),
+				v.y + rk4Sum(k1.ay, k2.ay, k3.ay, k4.ay, h6),
+				v.z + rk4Sum(k1.az, k2.az, k3.az, k4.az, h6),
+				v.weight));
+		status.setRocketPosition(new Coordinate(
+				p.x + rk4Sum(k1.vx, k2.vx, k3.vx, k4.vx, h6),
+				p.y + rk4Sum(k1.vy, k2.vy, k3.vy, k4.vy, h6),
+				p.z + rk4Sum(k1.vz, k2.vz, k3.vz, k4.vz, h6),
+				p.weight));
+		status.setRocketRotationVelocity(new Coordinate(
+				rv.x + rk4Sum(k1.rax, k2.rax, k3.rax, k4.rax, h6),
+				rv.y + rk4Sum(k1.ray, k2.ray, k3.ray, k4.ray, h6),
+				rv.z + rk4Sum(k1.raz, k2.raz, k3.raz, k4.raz, h6),
+				rv.weight));
+		status.setRocketOrientationQuaternion(status.getRocketOrientationQuaternion().multiplyLeft(
+				Quaternion.rotation(
+						rk4Sum(k1.rvx, k2.rvx, k3.rvx, k4.rvx, h6),
+						rk4Sum(k1.rvy, k2.rvy, k3.rvy, k4.rvy, h6),
+						rk4Sum(k1.rvz, k2.rvz, k3.rvz, k4.rvz, h6))).normalizeIfNecessary());
 		
 		WorldCoordinate w = status.getSimulationConditions().getLaunchSite();
 		w = status.getSimulationConditions().getGeodeticComputation().addCoordinate(w, status.getRocketPosition());
@@ -260,9 +272,53 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 
 
 
-	private RK4Parameters computeParameters(SimulationStatus status, DataStore dataStore)
+	/**
+	 * Return the intermediate status reset to a clone of the status, so that changes made
+	 * during one evaluation do not carry over to the next.  The same object is reused while
+	 * the status stays the same.
+	 */
+	private SimulationStatus resetIntermediateStatus(SimulationStatus status) {
+		if (intermediateOrigin != status) {
+			intermediate = status.clone();
+			intermediateOrigin = status;
+		} else {
+			intermediate.resetTo(status);
+		}
+		return intermediate;
+	}
+	
+	/**
+	 * Set the integrated state of the intermediate status to y + k*h, where y is the
+	 * state of the base status.
+	 * 
+	 * @param base		the status at the beginning of the step.
+	 * @param target	the intermediate status to modify.
+	 * @param k			the derivatives to advance the state with.
+	 * @param h			the time to advance.
+	 */
+	private static void setIntermediateState(SimulationStatus base, SimulationStatus target,
+											 RK4Parameters k, double h) {
+		Coordinate p = base.getRocketPosition();
+		Coordinate v = base.getRocketVelocity();
+		Coordinate rv = base.getRocketRotationVelocity();
+		
+		target.setSimulationTime(base.getSimulationTime() + h);
+		target.setRocketPosition(new Coordinate(p.x + k.vx * h, p.y + k.vy * h, p.z + k.vz * h, p.weight));
+		target.setRocketVelocity(new Coordinate(v.x + k.ax * h, v.y + k.ay * h, v.z + k.az * h, v.weight));
+		target.setRocketOrientationQuaternion(base.getRocketOrientationQuaternion().multiplyLeft(
+				Quaternion.rotation(k.rvx * h, k.rvy * h, k.rvz * h)));
+		target.setRocketRotationVelocity(new Coordinate(rv.x + k.rax * h, rv.y + k.ray * h, rv.z + k.raz * h, rv.weight));
+	}
+	
+	/**
+	 * Compute the weighted RK4 sum h/6 * (k1 + 2*k2 + 2*k3 + k4) of a single component.
+	 */
+	private static double rk4Sum(double k1, double k2, double k3, double k4, double h6) {
+		return ((k2 + k3) * 2 + k1 + k4) * h6;
+	}
+	
+	private void computeParameters(SimulationStatus status, DataStore dataStore, RK4Parameters params)
 			throws SimulationException {
-		RK4Parameters params = new RK4Parameters();
 		
 		// Call pre-listeners
 		store.accelerationData = SimulationListenerHelper.firePreAccelerationCalculation(status);
@@ -275,17 +331,17 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		// Call post-listeners
 		store.accelerationData = SimulationListenerHelper.firePostAccelerationCalculation(status, store.accelerationData);
 
-		params.a = dataStore.accelerationData.getLinearAccelerationWC();
-		params.ra = dataStore.accelerationData.getRotationalAccelerationWC();
-		params.v = status.getRocketVelocity();
-		params.rv = status.getRocketRotationVelocity();
+		Coordinate a = dataStore.accelerationData.getLinearAccelerationWC();
+		Coordinate ra = dataStore.accelerationData.getRotationalAccelerationWC();
+		Coordinate v = status.getRocketVelocity();
+		Coordinate rv = status.getRocketRotationVelocity();
 		
-		checkNaN(params.a);
-		checkNaN(params.ra);
-		checkNaN(params.v);
-		checkNaN(params.rv);
+		checkNaN(a);
+		checkNaN(ra);
+		checkNaN(v);
+		checkNaN(rv);
 		
-		return params;
+		params.set(a, v, ra, rv);
 	}
 	
 	
@@ -421,6 +477,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 			warnings = null;
 
 		// Calculate aerodynamic forces
+		SimulationProfile.enter(status, Phase.AERODYNAMICS);
 		store.forces = status.getSimulationConditions().getAerodynamicCalculator()
 				.getAerodynamicForces(status.getConfiguration(), store.flightConditions, warnings);
 		
@@ -429,6 +486,7 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		// TODO: HIGH: This should rather be performed as a listener
 		store.forces.setCm(store.forces.getCm() + (PITCH_YAW_RANDOM * 2 * (random.nextDouble() - 0.5)));
 		store.forces.setCyaw(store.forces.getCyaw() + (PITCH_YAW_RANDOM * 2 * (random.nextDouble() - 0.5)));
+		SimulationProfile.exit(status, Phase.AERODYNAMICS);
 		
 
 		// Call post-listeners
@@ -459,6 +517,8 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 
 
+		SimulationProfile.enter(status, Phase.FLIGHT_CONDITIONS);
+
 		//// Atmospheric conditions
 		AtmosphericConditions atmosphere = modelAtmosphericConditions(status);
 		store.flightConditions = new FlightConditions(status.getConfiguration());
@@ -509,6 +569,8 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		}
 		
 
+		SimulationProfile.exit(status, Phase.FLIGHT_CONDITIONS);
+
 		// Call post listeners
 		FlightConditions c = SimulationListenerHelper.firePostFlightConditions(
 				status, store.flightConditions);
@@ -521,14 +583,38 @@ public class RK4SimulationStepper extends AbstractSimulationStepper {
 		
 	}
 
+	/**
+	 * Mutable holder of the derivatives of one RK4 evaluation.  Instances are
+	 * reused between steps.
+	 */
 	private static class RK4Parameters {
 		/** Linear acceleration */
-		public Coordinate a;
+		public double ax, ay, az;
 		/** Linear velocity */
-		public Coordinate v;
+		public double vx, vy, vz;
 		/** Rotational acceleration */
-		public Coordinate ra;
+		public double rax, ray, raz;
 		/** Rotational velocity */
-		public Coordinate rv;
+		public double rvx, rvy, rvz;
+		
+		void set(Coordinate a, Coordinate v, Coordinate ra, Coordinate rv) {
+			ax = a.x;
+			ay = a.y;
+			az = a.z;
+			vx = v.x;
+			vy = v.y;
+			vz = v.z;
+			rax = ra.x;
+			ray = ra.y;
+			raz = ra.z;
+			rvx = rv.x;
+			rvy = rv.y;
+			rvz = rv.z;
+		}
+		
+		/** Return the length of the linear velocity. */
+		double speed() {
+			return MathUtil.safeSqrt(vx * vx + vy * vy + vz * vz);
+		}
 	}
 }
@@ -12,6 +12,7 @@ import info.openrocket.core.models.wind.WindModel;
 import info.openrocket.core.rocketcomponent.FlightConfigurationId;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.simulation.listeners.SimulationListenerDispatch;
 import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Coordinate;
 import info.openrocket.core.util.GeodeticComputationStrategy;
@@ -58,10 +59,15 @@ public class SimulationConditions implements Monitorable, Cloneable {
 	private double maximumAngleStep = RK4SimulationStepper.RECOMMENDED_ANGLE_STEP;
 
 
-	private List<SimulationListener> simulationListeners = new ArrayList<SimulationListener>();
+	private ListenerList simulationListeners = new ListenerList();
+	private SimulationListenerDispatch listenerDispatch = null;
 
 	private int randomSeed = 0;
 
+	private SimulationProfile profile = null;
+
+	private boolean copyRocket = true;
+
 	private int modID = 0;
 	private int modIDadd = 0;
 
@@ -246,6 +252,66 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		return simulationListeners;
 	}
 
+	/**
+	 * Return the table of the listeners to call for each listener method.  The table is
+	 * built on first use, normally when the simulation starts, and rebuilt if the listener
+	 * list has been modified since.
+	 */
+	public SimulationListenerDispatch getListenerDispatch() {
+		if (listenerDispatch == null || listenerDispatch.getVersion() != simulationListeners.getModCount()) {
+			listenerDispatch = new SimulationListenerDispatch(simulationListeners, simulationListeners.getModCount());
+		}
+		return listenerDispatch;
+	}
+
+	/**
+	 * Discard the table of the listeners to call, so that it is rebuilt on next use.  Called
+	 * after the listeners have been started, since a {@link
+	 * info.openrocket.core.simulation.listeners.SelectiveSimulationListener} may handle other
+	 * methods once started.
+	 */
+	public void resetListenerDispatch() {
+		listenerDispatch = null;
+	}
+
+	/**
+	 * Return the profile recording the time spent in the phases of the simulation,
+	 * or <code>null</code> if the simulation is not profiled.
+	 */
+	public SimulationProfile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Set the profile recording the time spent in the phases of the simulation.  The profile
+	 * is shared with clones of these conditions, so all branches of a simulation are recorded
+	 * in the same profile.  Profiling does not affect the simulation results.
+	 *
+	 * @param profile	the profile to record to, or <code>null</code> to disable profiling.
+	 */
+	public void setProfile(SimulationProfile profile) {
+		this.profile = profile;
+	}
+
+	/**
+	 * Return whether the simulation engine simulates a copy of the rocket.
+	 */
+	public boolean isCopyRocket() {
+		return copyRocket;
+	}
+
+	/**
+	 * Set whether the simulation engine simulates a copy of the rocket.  The copy protects
+	 * the rocket from changes made during the simulation and allows modifying the rocket
+	 * while the simulation is running.  It can be omitted if the rocket is a private copy
+	 * that is not used elsewhere during the simulation.
+	 *
+	 * @param copyRocket	whether to simulate a copy of the rocket.
+	 */
+	public void setCopyRocket(boolean copyRocket) {
+		this.copyRocket = copyRocket;
+	}
+
 	@Override
 	public int getModID() {
 		//return (modID + modIDadd + rocket.getModID() + windModel.getModID() + atmosphericModel.getModID() +
@@ -259,10 +325,11 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		try {
 			// TODO: HIGH: Deep clone models
 			SimulationConditions clone = (SimulationConditions) super.clone();
-			clone.simulationListeners = new ArrayList<SimulationListener>(this.simulationListeners.size());
+			clone.simulationListeners = new ListenerList();
 			for (SimulationListener listener : this.simulationListeners) {
 				clone.simulationListeners.add(listener.clone());
 			}
+			clone.listenerDispatch = null;
 
 			return clone;
 		} catch (CloneNotSupportedException e) {
@@ -270,4 +337,22 @@ public class SimulationConditions implements Monitorable, Cloneable {
 		}
 	}
 
+	/**
+	 * A listener list that exposes its modification count, so that the listener dispatch
+	 * table can be rebuilt when the list changes.
+	 */
+	private static class ListenerList extends ArrayList<SimulationListener> {
+		private static final long serialVersionUID = 1L;
+
+		int getModCount() {
+			return modCount;
+		}
+
+		@Override
+		public SimulationListener set(int index, SimulationListener element) {
+			modCount++;
+			return super.set(index, element);
+		}
+	}
+
 }
@@ -197,8 +197,8 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 
 		// Update the launch temperature and pressure if using ISA
 		if (useISA) {
-			setLaunchTemperature(ISA_ATMOSPHERIC_MODEL.getConditions(getLaunchAltitude()).getTemperature());
-			setLaunchPressure(ISA_ATMOSPHERIC_MODEL.getConditions(getLaunchAltitude()).getPressure());
+			setLaunchTemperature(ISA_ATMOSPHERIC_MODEL.getTemperature(getLaunchAltitude()));
+			setLaunchPressure(ISA_ATMOSPHERIC_MODEL.getPressure(getLaunchAltitude()));
 		}
 
 		fireChangeEvent();
@@ -253,8 +253,8 @@ public class SimulationOptions implements ChangeSource, Cloneable, SimulationOpt
 
 		// Update the launch temperature and pressure
 		if (isa) {
-			setLaunchTemperature(ISA_ATMOSPHERIC_MODEL.getConditions(getLaunchAltitude()).getTemperature());
-			setLaunchPressure(ISA_ATMOSPHERIC_MODEL.getConditions(getLaunchAltitude()).getPressure());
+			setLaunchTemperature(ISA_ATMOSPHERIC_MODEL.getTemperature(getLaunchAltitude()));
+			setLaunchPressure(ISA_ATMOSPHERIC_MODEL.getPressure(getLaunchAltitude()));
 		}
 
 		fireChangeEvent();
@@ -0,0 +1,357 @@
+package info.openrocket.core.simulation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.simulation.listeners.SimulationListenerHook;
+
+/**
+ * Cumulative wall time and call counts of the phases of one or more simulations.
+ * <p>
+ * Profiling is enabled by setting a profile to {@link SimulationConditions#setProfile(SimulationProfile)},
+ * usually by adding a {@link info.openrocket.core.simulation.listeners.system.SimulationProfiler} to
+ * the simulation.  The steppers and {@link info.openrocket.core.simulation.listeners.SimulationListenerHelper}
+ * then bracket the model computations and listener calls of each step.  Phases may be nested, for example
+ * the atmospheric model is evaluated while computing the flight conditions; the time of a phase excludes
+ * the time of the phases nested within it, so that the phase times add up to at most the total time.
+ * The remainder is spent in the integration itself, event handling and data storage.
+ * <p>
+ * The time of each listener call is also recorded by the class name of the listener, in order to
+ * identify slow simulation extensions, and by the listener method called.
+ * <p>
+ * A profile is not thread-safe.  Each concurrently running simulation must use its own profile, and
+ * the profiles can be combined with {@link #add(SimulationProfile)} afterwards.
+ */
+public class SimulationProfile {
+
+	/**
+	 * The phases of a simulation step that are timed.
+	 */
+	public enum Phase {
+		ATMOSPHERE("Atmospheric model"),
+		WIND("Wind model"),
+		GRAVITY("Gravity model"),
+		FLIGHT_CONDITIONS("Flight conditions"),
+		AERODYNAMICS("Aerodynamic forces"),
+		MASS("Mass calculation"),
+		THRUST("Thrust calculation"),
+		LISTENERS("Listener dispatch");
+
+		private final String description;
+
+		Phase(String description) {
+			this.description = description;
+		}
+
+		@Override
+		public String toString() {
+			return description;
+		}
+	}
+
+	private static final Phase[] PHASES = Phase.values();
+	private static final SimulationListenerHook[] HOOKS = SimulationListenerHook.values();
+
+	private final long[] times = new long[PHASES.length];
+	private final long[] counts = new long[PHASES.length];
+	private final Map<String, long[]> listenerTimes = new LinkedHashMap<String, long[]>();
+	private final long[] hookTimes = new long[HOOKS.length];
+	private final long[] hookCounts = new long[HOOKS.length];
+	private long totalTime = 0;
+	private int simulationCount = 0;
+
+	// Phases entered but not yet exited, and the time spent in each outside nested phases
+	private Phase[] stack = new Phase[8];
+	private long[] stackTimes = new long[8];
+	private int depth = 0;
+	private long startTime;
+	private long lastTime;
+	private boolean running = false;
+
+
+	/**
+	 * Enter a phase of the current simulation, if profiling is enabled for the simulation.
+	 */
+	public static void enter(SimulationStatus status, Phase phase) {
+		SimulationProfile profile = status.getSimulationConditions().getProfile();
+		if (profile != null) {
+			profile.enter(phase);
+		}
+	}
+
+	/**
+	 * Exit a phase of the current simulation, if profiling is enabled for the simulation.
+	 */
+	public static void exit(SimulationStatus status, Phase phase) {
+		SimulationProfile profile = status.getSimulationConditions().getProfile();
+		if (profile != null) {
+			profile.exit(phase);
+		}
+	}
+
+	/**
+	 * Exit the listener dispatch phase after calling a listener method of the current
+	 * simulation, if profiling is enabled for the simulation.
+	 */
+	public static void exitListener(SimulationStatus status, SimulationListener listener,
+			SimulationListenerHook hook) {
+		SimulationProfile profile = status.getSimulationConditions().getProfile();
+		if (profile != null) {
+			profile.exitListener(listener, hook);
+		}
+	}
+
+
+	/**
+	 * Start timing a simulation.  Called by the simulation engine once the simulation has started.
+	 */
+	public void simulationStarted() {
+		depth = 0;
+		startTime = System.nanoTime();
+		lastTime = startTime;
+		running = true;
+	}
+
+	/**
+	 * Stop timing a simulation.  Phases that were not exited, for example because a listener
+	 * threw an exception, are closed.
+	 */
+	public void simulationFinished() {
+		if (!running) {
+			return;
+		}
+		long now = System.nanoTime();
+		charge(now);
+		while (depth > 0) {
+			depth--;
+			counts[stack[depth].ordinal()]++;
+		}
+		totalTime += now - startTime;
+		simulationCount++;
+		running = false;
+	}
+
+	/**
+	 * Enter a phase.  The time until the phase is exited is charged to it, excluding the
+	 * time of phases nested within it.
+	 */
+	public void enter(Phase phase) {
+		if (!running) {
+			return;
+		}
+		charge(System.nanoTime());
+		if (depth == stack.length) {
+			Phase[] newStack = new Phase[depth * 2];
+			System.arraycopy(stack, 0, newStack, 0, depth);
+			stack = newStack;
+			long[] newTimes = new long[depth * 2];
+			System.arraycopy(stackTimes, 0, newTimes, 0, depth);
+			stackTimes = newTimes;
+		}
+		stack[depth] = phase;
+		stackTimes[depth] = 0;
+		depth++;
+	}
+
+	/**
+	 * Exit a phase.  Phases entered within it that were not exited are closed as well.
+	 * Does nothing if the phase has not been entered.
+	 */
+	public void exit(Phase phase) {
+		pop(phase);
+	}
+
+	/**
+	 * Exit the listener dispatch phase after calling a listener method, and record the time
+	 * of the call for the listener class and the method.
+	 */
+	public void exitListener(SimulationListener listener, SimulationListenerHook hook) {
+		long time = pop(Phase.LISTENERS);
+		if (time < 0) {
+			return;
+		}
+		hookTimes[hook.ordinal()] += time;
+		hookCounts[hook.ordinal()]++;
+		String name = listener.getClass().getName();
+		long[] value = listenerTimes.get(name);
+		if (value == null) {
+			value = new long[2];
+			listenerTimes.put(name, value);
+		}
+		value[0] += time;
+		value[1]++;
+	}
+
+	/**
+	 * Pop frames until the given phase has been exited, and return the time spent in it
+	 * outside nested phases, or -1 if the phase had not been entered.
+	 */
+	private long pop(Phase phase) {
+		if (!running) {
+			return -1;
+		}
+		int index = depth - 1;
+		while (index >= 0 && stack[index] != phase) {
+			index--;
+		}
+		if (index < 0) {
+			return -1;
+		}
+		charge(System.nanoTime());
+		while (depth > index) {
+			depth--;
+			counts[stack[depth].ordinal()]++;
+		}
+		return stackTimes[index];
+	}
+
+	/**
+	 * Charge the time since the last transition to the innermost open phase.
+	 */
+	private void charge(long now) {
+		if (depth > 0) {
+			long elapsed = now - lastTime;
+			times[stack[depth - 1].ordinal()] += elapsed;
+			stackTimes[depth - 1] += elapsed;
+		}
+		lastTime = now;
+	}
+
+
+	/**
+	 * Add the times and counts of another profile to this profile.
+	 */
+	public void add(SimulationProfile other) {
+		for (int i = 0; i < PHASES.length; i++) {
+			times[i] += other.times[i];
+			counts[i] += other.counts[i];
+		}
+		for (int i = 0; i < HOOKS.length; i++) {
+			hookTimes[i] += other.hookTimes[i];
+			hookCounts[i] += other.hookCounts[i];
+		}
+		for (Map.Entry<String, long[]> e : other.listenerTimes.entrySet()) {
+			long[] value = listenerTimes.get(e.getKey());
+			if (value == null) {
+				value = new long[2];
+				listenerTimes.put(e.getKey(), value);
+			}
+			value[0] += e.getValue()[0];
+			value[1] += e.getValue()[1];
+		}
+		totalTime += other.totalTime;
+		simulationCount += other.simulationCount;
+	}
+
+	/**
+	 * Return the number of simulations that have been timed.
+	 */
+	public int getSimulationCount() {
+		return simulationCount;
+	}
+
+	/**
+	 * Return the total wall time of the timed simulations, in nanoseconds.
+	 */
+	public long getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Return the time spent in a phase, excluding nested phases, in nanoseconds.
+	 */
+	public long getTime(Phase phase) {
+		return times[phase.ordinal()];
+	}
+
+	/**
+	 * Return the number of times a phase was entered.
+	 */
+	public long getCount(Phase phase) {
+		return counts[phase.ordinal()];
+	}
+
+	/**
+	 * Return the time not spent in any of the timed phases, in nanoseconds.
+	 */
+	public long getOtherTime() {
+		long other = totalTime;
+		for (long t : times) {
+			other -= t;
+		}
+		return other;
+	}
+
+	/**
+	 * Return the time spent in the calls of each listener class, in nanoseconds.
+	 */
+	public Map<String, Long> getListenerTimes() {
+		Map<String, Long> map = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, long[]> e : listenerTimes.entrySet()) {
+			map.put(e.getKey(), e.getValue()[0]);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Return the number of calls to each listener class.
+	 */
+	public Map<String, Long> getListenerCounts() {
+		Map<String, Long> map = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, long[]> e : listenerTimes.entrySet()) {
+			map.put(e.getKey(), e.getValue()[1]);
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Return the time spent in the calls of a listener method, in nanoseconds.  Only the
+	 * listeners that implement the method are called and timed.
+	 */
+	public long getHookTime(SimulationListenerHook hook) {
+		return hookTimes[hook.ordinal()];
+	}
+
+	/**
+	 * Return the number of listener calls of a listener method.
+	 */
+	public long getHookCount(SimulationListenerHook hook) {
+		return hookCounts[hook.ordinal()];
+	}
+
+	/**
+	 * Return a human-readable report of the profile.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Simulation profile of %d simulation(s), total %.1f ms%n",
+				simulationCount, totalTime / 1e6));
+		for (Phase phase : PHASES) {
+			appendLine(sb, phase.toString(), times[phase.ordinal()], counts[phase.ordinal()]);
+		}
+		appendLine(sb, "Other", getOtherTime(), -1);
+		for (Map.Entry<String, long[]> e : listenerTimes.entrySet()) {
+			appendLine(sb, "  " + e.getKey(), e.getValue()[0], e.getValue()[1]);
+		}
+		for (SimulationListenerHook hook : HOOKS) {
+			if (hookCounts[hook.ordinal()] > 0) {
+				appendLine(sb, "  " + hook + "()", hookTimes[hook.ordinal()], hookCounts[hook.ordinal()]);
+			}
+		}
+		return sb.toString();
+	}
+
+	private void appendLine(StringBuilder sb, String name, long time, long count) {
+		double percent = (totalTime > 0) ? 100.0 * time / totalTime : 0;
+		if (count >= 0) {
+			double mean = (count > 0) ? time / 1e3 / count : 0;
+			sb.append(String.format("%-40s %10.2f ms %5.1f%% %10d calls %10.3f us/call%n",
+					name, time / 1e6, percent, count, mean));
+		} else {
+			sb.append(String.format("%-40s %10.2f ms %5.1f%%%n", name, time / 1e6, percent));
+		}
+	}
+}
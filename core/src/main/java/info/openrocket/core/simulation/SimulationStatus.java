@@ -479,6 +479,46 @@ public class SimulationStatus implements Cloneable, Monitorable {
 		}
 	}
 
+	/**
+	 * Reset this status to the state of the status it was cloned from, as if it had been
+	 * cloned again.  This allows reusing an intermediate copy of a status for several
+	 * computations without allocating a new copy for each.
+	 * <p>
+	 * The collections that a clone shares with its original, such as the event queue and
+	 * the motor states, are not copied, so <code>orig</code> must be the status this status
+	 * was cloned from.
+	 * 
+	 * @param orig	the status this status was cloned from.
+	 * @throws IllegalArgumentException	if this status is not a clone of <code>orig</code>.
+	 */
+	public void resetTo(SimulationStatus orig) {
+		if (orig.getClass() != this.getClass() || orig.motorStateList != this.motorStateList ||
+				orig.eventQueue != this.eventQueue) {
+			throw new IllegalArgumentException("Status is not a clone of " + orig);
+		}
+		this.simulationConditions = orig.simulationConditions;
+		this.configuration = orig.configuration;
+		this.flightDataBranch = orig.flightDataBranch;
+		this.time = orig.time;
+		this.position = orig.position;
+		this.worldPosition = orig.worldPosition;
+		this.velocity = orig.velocity;
+		this.acceleration = orig.acceleration;
+		this.orientation = orig.orientation;
+		this.rotationVelocity = orig.rotationVelocity;
+		this.effectiveLaunchRodLength = orig.effectiveLaunchRodLength;
+		this.simulationStartWallTime = orig.simulationStartWallTime;
+		this.motorIgnited = orig.motorIgnited;
+		this.liftoff = orig.liftoff;
+		this.launchRodCleared = orig.launchRodCleared;
+		this.apogeeReached = orig.apogeeReached;
+		this.tumbling = orig.tumbling;
+		this.landed = orig.landed;
+		this.warnings = orig.warnings;
+		this.modID = orig.modID;
+		this.modIDadd = orig.modIDadd;
+	}
+
 	@Override
 	public int getModID() {
 		return (modID + modIDadd + simulationConditions.getModID() + configuration.getModID() +
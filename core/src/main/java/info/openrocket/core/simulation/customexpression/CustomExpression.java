@@ -18,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import de.congrace.exp4j.Calculable;
+import de.congrace.exp4j.CompiledExpression;
 import de.congrace.exp4j.ExpressionBuilder;
 import de.congrace.exp4j.UnknownFunctionException;
 import de.congrace.exp4j.UnparsableExpressionException;
@@ -40,6 +41,10 @@ public class CustomExpression implements Cloneable {
 	private ExpressionBuilder builder;
 	private final List<CustomExpression> subExpressions = new ArrayList<CustomExpression>();
 
+	// The compiled expression, built on first use
+	private CompiledExpression compiled;
+	private boolean compileAttempted;
+
 	public CustomExpression(OpenRocketDocument doc) {
 		this.doc = doc;
 
@@ -107,6 +112,11 @@ public class CustomExpression implements Cloneable {
 
 		builder.withCustomFunctions(Functions.getInstance().getAllFunction());
 		log.info("Built expression " + expression);
+
+		synchronized (this) {
+			compiled = null;
+			compileAttempted = false;
+		}
 	}
 
 	/*
@@ -412,6 +422,37 @@ public class CustomExpression implements Cloneable {
 		return calc;
 	}
 
+	/*
+	 * Returns the expression compiled for repeated evaluation with primitive values, or
+	 * null if it cannot be compiled. Expressions with range sub-expressions are not
+	 * compiled, as their values are arrays. The compiled expression is built once and
+	 * cached until the expression string is changed.
+	 */
+	synchronized CompiledExpression getCompiledExpression() {
+		if (!compileAttempted) {
+			compileAttempted = true;
+			for (CustomExpression exp : subExpressions) {
+				if (exp instanceof RangeExpression) {
+					return null;
+				}
+			}
+			try {
+				compiled = builder.compile();
+			} catch (UnknownFunctionException | UnparsableExpressionException | RuntimeException e) {
+				log.debug("Could not compile custom expression " + this.toString() + " : " + e.toString());
+			}
+		}
+		return compiled;
+	}
+
+	/*
+	 * Returns the index and range expressions substituted in this expression, whose
+	 * values are referenced by their hash.
+	 */
+	List<CustomExpression> getSubExpressions() {
+		return subExpressions;
+	}
+
 	/*
 	 * Evaluate the expression using the last variable values from the simulation
 	 * status.
@@ -0,0 +1,133 @@
+package info.openrocket.core.simulation.customexpression;
+
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationStatus;
+
+import de.congrace.exp4j.CompiledExpression;
+import de.congrace.exp4j.Variable;
+
+/*
+ * Evaluates a custom expression at each step of a single simulation.
+ *
+ * The compiled expression of the custom expression is evaluated on primitive values. The
+ * referenced flight data types are looked up again only when the data branch or its types
+ * change. Expressions that cannot be compiled, and steps where a referenced variable has
+ * no value, are evaluated through CustomExpression.evaluateDouble(), so the results are
+ * the same as evaluating the expression directly.
+ *
+ * Instances are not thread-safe.
+ */
+class CustomExpressionEvaluator {
+
+	private final CustomExpression expression;
+	private final FlightDataType type;
+	private final CompiledExpression program;
+
+	// For each variable slot, the sub-expression providing its value, or null for flight data
+	private final CustomExpression[] subExpressions;
+	private final String[] symbols;
+	private final FlightDataType[] types;
+	private final double[] values;
+	private final double[] stack;
+
+	private FlightDataBranch boundBranch = null;
+	private int boundTypeCount = -1;
+	private boolean bound = false;
+
+	CustomExpressionEvaluator(CustomExpression expression) {
+		this.expression = expression;
+		this.type = expression.getType();
+		this.program = expression.getCompiledExpression();
+
+		if (program == null) {
+			subExpressions = null;
+			symbols = null;
+			types = null;
+			values = null;
+			stack = null;
+			return;
+		}
+
+		symbols = program.getVariableNames();
+		subExpressions = new CustomExpression[symbols.length];
+		for (int i = 0; i < symbols.length; i++) {
+			for (CustomExpression sub : expression.getSubExpressions()) {
+				if (sub.hash().equals(symbols[i])) {
+					subExpressions[i] = sub;
+				}
+			}
+		}
+		types = new FlightDataType[symbols.length];
+		values = new double[symbols.length];
+		stack = new double[program.getStackSize()];
+	}
+
+	/*
+	 * Returns the flight data type of the expression values.
+	 */
+	FlightDataType getType() {
+		return type;
+	}
+
+	/*
+	 * Evaluates the expression using the last values of the current data branch. Returns
+	 * NaN instead of infinite values, as CustomExpression.evaluateDouble() does.
+	 */
+	double evaluate(SimulationStatus status) {
+		if (program == null) {
+			return expression.evaluateDouble(status);
+		}
+
+		FlightDataBranch branch = status.getFlightDataBranch();
+		if (branch != boundBranch || branch.getTypeCount() != boundTypeCount) {
+			bind(branch);
+		}
+		if (!bound) {
+			return expression.evaluateDouble(status);
+		}
+
+		for (int i = 0; i < values.length; i++) {
+			if (subExpressions[i] != null) {
+				Variable value = subExpressions[i].evaluate(status);
+				if (value.getPrimary() != Variable.Primary.DOUBLE) {
+					return expression.evaluateDouble(status);
+				}
+				values[i] = value.getDoubleValue();
+			} else {
+				values[i] = branch.getLast(types[i]);
+			}
+		}
+
+		double result = program.evaluate(values, stack);
+		if (result == Double.NEGATIVE_INFINITY || result == Double.POSITIVE_INFINITY) {
+			result = Double.NaN;
+		}
+		return result;
+	}
+
+	/*
+	 * Looks up the flight data types of the variables in a data branch. If a symbol
+	 * matches several types, the last one is used.
+	 */
+	private void bind(FlightDataBranch branch) {
+		FlightDataType[] branchTypes = branch.getTypes();
+		bound = true;
+		for (int i = 0; i < symbols.length; i++) {
+			if (subExpressions[i] != null) {
+				continue;
+			}
+			types[i] = null;
+			for (FlightDataType t : branchTypes) {
+				if (t.getSymbol().equals(symbols[i])) {
+					types[i] = t;
+				}
+			}
+			if (types[i] == null) {
+				bound = false;
+			}
+		}
+		boundBranch = branch;
+		boundTypeCount = branchTypes.length;
+	}
+}
@@ -14,27 +14,48 @@ public class CustomExpressionSimulationListener extends AbstractSimulationListen
 
 	private static final Logger log = LoggerFactory.getLogger(CustomExpressionSimulationListener.class);
 	private final List<CustomExpression> expressions;
+	private CustomExpressionEvaluator[] evaluators;
 
 	public CustomExpressionSimulationListener(List<CustomExpression> expressions) {
 		super();
 		this.expressions = expressions;
 	}
 
+	@Override
+	public void startSimulation(SimulationStatus status) throws SimulationException {
+		// The expressions may have changed since the last run
+		evaluators = null;
+	}
+
 	@Override
 	public void postStep(SimulationStatus status) throws SimulationException {
 		if (expressions == null || expressions.size() == 0) {
 			return;
 		}
+		if (evaluators == null || evaluators.length != expressions.size()) {
+			evaluators = new CustomExpressionEvaluator[expressions.size()];
+			for (int i = 0; i < evaluators.length; i++) {
+				evaluators[i] = new CustomExpressionEvaluator(expressions.get(i));
+			}
+		}
+
 		// Calculate values for custom expressions
 		FlightDataBranch dataBranch = status.getFlightDataBranch();
-		for (CustomExpression expression : expressions) {
-			double value = expression.evaluateDouble(status);
+		for (CustomExpressionEvaluator evaluator : evaluators) {
+			double value = evaluator.evaluate(status);
 			// log.debug("Setting value of custom expression "+expression.toString()+" =
 			// "+value);
-			dataBranch.setValue(expression.getType(), value);
+			dataBranch.setValue(evaluator.getType(), value);
 		}
 	}
 
+	@Override
+	public CustomExpressionSimulationListener clone() {
+		CustomExpressionSimulationListener clone = (CustomExpressionSimulationListener) super.clone();
+		clone.evaluators = null;
+		return clone;
+	}
+
 	@Override
 	public boolean isSystemListener() {
 		return true;
@@ -4,6 +4,8 @@ import javax.script.Invocable;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
+import org.graalvm.polyglot.PolyglotException;
+
 import info.openrocket.core.logging.Warning;
 import info.openrocket.core.logging.WarningSet;
 import info.openrocket.core.document.OpenRocketDocument;
@@ -15,6 +17,7 @@ import info.openrocket.core.simulation.extension.AbstractSimulationExtension;
 import info.openrocket.core.simulation.listeners.SimulationListener;
 
 import com.google.inject.Inject;
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
 
 public class ScriptingExtension extends AbstractSimulationExtension {
 
@@ -93,8 +96,13 @@ public class ScriptingExtension extends AbstractSimulationExtension {
 		}
 
 		try {
-			engine.eval(getScript());
-		} catch (ScriptException e) {
+			if (engine instanceof GraalJSScriptEngine) {
+				// Evaluate a shared source so that the script is compiled only once
+				((GraalJSScriptEngine) engine).getPolyglotContext().eval(util.getJavaScriptSource(getScript()));
+			} else {
+				engine.eval(getScript());
+			}
+		} catch (ScriptException | PolyglotException e) {
 			throw new SimulationException("Invalid script: " + e.getMessage());
 		}
 
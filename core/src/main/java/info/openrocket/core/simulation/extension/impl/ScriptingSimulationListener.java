@@ -1,11 +1,13 @@
 package info.openrocket.core.simulation.extension.impl;
 
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Set;
 
 import javax.script.Invocable;
 import javax.script.ScriptException;
 
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,14 +24,18 @@ import info.openrocket.core.simulation.MotorClusterState;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.simulation.exception.SimulationListenerException;
+import info.openrocket.core.simulation.listeners.SelectiveSimulationListener;
 import info.openrocket.core.simulation.listeners.SimulationComputationListener;
 import info.openrocket.core.simulation.listeners.SimulationEventListener;
 import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.simulation.listeners.SimulationListenerHook;
 import info.openrocket.core.util.BugException;
 import info.openrocket.core.util.Coordinate;
 
-public class ScriptingSimulationListener
-		implements SimulationListener, SimulationComputationListener, SimulationEventListener, Cloneable {
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
+
+public class ScriptingSimulationListener implements SelectiveSimulationListener, SimulationComputationListener,
+		SimulationEventListener, Cloneable {
 
 	private final static Logger logger = LoggerFactory.getLogger(ScriptingSimulationListener.class);
 
@@ -38,11 +44,50 @@ public class ScriptingSimulationListener
 	 * so that unimplemented script methods are not called unnecessarily.
 	 */
 
+	/**
+	 * The script functions called by the listener, named after the listener methods.
+	 */
+	private enum Hook {
+		startSimulation, endSimulation, preStep, postStep,
+		addFlightEvent, handleFlightEvent, motorIgnition, recoveryDeviceDeployment,
+		preAccelerationCalculation, preAerodynamicCalculation, preAtmosphericModel, preFlightConditions,
+		preGravityModel, preMassCalculation, preSimpleThrustCalculation, preWindModel,
+		postAccelerationCalculation, postAerodynamicCalculation, postAtmosphericModel, postFlightConditions,
+		postGravityModel, postMassCalculation, postSimpleThrustCalculation, postWindModel
+	}
+
 	private final Invocable invocable;
-	private Set<String> missing = new HashSet<String>();
+
+	/*
+	 * For GraalJS scripts, the executable script functions, resolved when the listener is
+	 * created and again after startSimulation, so that the script may define its hooks
+	 * there; other hooks are not defined.  Null for other scripting engines, whose
+	 * functions are called by name.
+	 */
+	private Value[] functions;
+	private Set<Hook> missing = EnumSet.noneOf(Hook.class);
 
 	public ScriptingSimulationListener(Invocable invocable) {
 		this.invocable = invocable;
+		this.functions = resolveFunctions();
+	}
+
+	/*
+	 * Return the functions currently defined by a GraalJS script, or null for other engines.
+	 */
+	private Value[] resolveFunctions() {
+		if (!(invocable instanceof GraalJSScriptEngine)) {
+			return null;
+		}
+		Value bindings = ((GraalJSScriptEngine) invocable).getPolyglotContext().getBindings("js");
+		Value[] resolved = new Value[Hook.values().length];
+		for (Hook hook : Hook.values()) {
+			Value function = bindings.getMember(hook.name());
+			if (function != null && function.canExecute()) {
+				resolved[hook.ordinal()] = function;
+			}
+		}
+		return resolved;
 	}
 
 	@Override
@@ -50,11 +95,23 @@ public class ScriptingSimulationListener
 		return false;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * For GraalJS scripts, only the hooks defined as functions by the script are handled.
+	 * Functions defined by the script's <code>startSimulation</code> function are handled
+	 * after it returns; functions defined later in the simulation are not called.
+	 */
+	@Override
+	public boolean handlesHook(SimulationListenerHook hook) {
+		return functions == null || functions[Hook.valueOf(hook.getMethodName()).ordinal()] != null;
+	}
+
 	@Override
 	public SimulationListener clone() {
 		try {
 			ScriptingSimulationListener clone = (ScriptingSimulationListener) super.clone();
-			clone.missing = new HashSet<String>(missing);
+			clone.missing = EnumSet.copyOf(missing);
 			return clone;
 		} catch (CloneNotSupportedException e) {
 			throw new BugException(e);
@@ -65,141 +122,153 @@ public class ScriptingSimulationListener
 
 	@Override
 	public void startSimulation(SimulationStatus status) throws SimulationException {
-		invoke(Void.class, null, "startSimulation", status);
+		invoke(Void.class, null, Hook.startSimulation, status);
+		if (functions != null) {
+			functions = resolveFunctions();
+		}
 	}
 
 	@Override
 	public void endSimulation(SimulationStatus status, SimulationException exception) {
 		try {
-			invoke(Void.class, null, "endSimulation", status, exception);
+			invoke(Void.class, null, Hook.endSimulation, status, exception);
 		} catch (SimulationException e) {
 		}
 	}
 
 	@Override
 	public boolean preStep(SimulationStatus status) throws SimulationException {
-		return invoke(Boolean.class, true, "preStep", status);
+		return invoke(Boolean.class, true, Hook.preStep, status);
 	}
 
 	@Override
 	public void postStep(SimulationStatus status) throws SimulationException {
-		invoke(Void.class, null, "postStep", status);
+		invoke(Void.class, null, Hook.postStep, status);
 	}
 
 	//// SimulationEventListener ////
 
 	@Override
 	public boolean addFlightEvent(SimulationStatus status, FlightEvent event) throws SimulationException {
-		return invoke(Boolean.class, true, "addFlightEvent", status, event);
+		return invoke(Boolean.class, true, Hook.addFlightEvent, status, event);
 	}
 
 	@Override
 	public boolean handleFlightEvent(SimulationStatus status, FlightEvent event) throws SimulationException {
-		return invoke(Boolean.class, true, "handleFlightEvent", status, event);
+		return invoke(Boolean.class, true, Hook.handleFlightEvent, status, event);
 	}
 
 	@Override
 	public boolean motorIgnition(SimulationStatus status, MotorConfigurationId motorId, MotorMount mount,
 			MotorClusterState instance) throws SimulationException {
-		return invoke(Boolean.class, true, "motorIgnition", status, motorId, mount, instance);
+		return invoke(Boolean.class, true, Hook.motorIgnition, status, motorId, mount, instance);
 	}
 
 	@Override
 	public boolean recoveryDeviceDeployment(SimulationStatus status, RecoveryDevice recoveryDevice)
 			throws SimulationException {
-		return invoke(Boolean.class, true, "recoveryDeviceDeployment", status, recoveryDevice);
+		return invoke(Boolean.class, true, Hook.recoveryDeviceDeployment, status, recoveryDevice);
 	}
 
 	//// SimulationComputationListener ////
 
 	@Override
 	public AccelerationData preAccelerationCalculation(SimulationStatus status) throws SimulationException {
-		return invoke(AccelerationData.class, null, "preAccelerationCalculation", status);
+		return invoke(AccelerationData.class, null, Hook.preAccelerationCalculation, status);
 	}
 
 	@Override
 	public AerodynamicForces preAerodynamicCalculation(SimulationStatus status) throws SimulationException {
-		return invoke(AerodynamicForces.class, null, "preAerodynamicCalculation", status);
+		return invoke(AerodynamicForces.class, null, Hook.preAerodynamicCalculation, status);
 	}
 
 	@Override
 	public AtmosphericConditions preAtmosphericModel(SimulationStatus status) throws SimulationException {
-		return invoke(AtmosphericConditions.class, null, "preAtmosphericModel", status);
+		return invoke(AtmosphericConditions.class, null, Hook.preAtmosphericModel, status);
 	}
 
 	@Override
 	public FlightConditions preFlightConditions(SimulationStatus status) throws SimulationException {
-		return invoke(FlightConditions.class, null, "preFlightConditions", status);
+		return invoke(FlightConditions.class, null, Hook.preFlightConditions, status);
 	}
 
 	@Override
 	public double preGravityModel(SimulationStatus status) throws SimulationException {
-		return invoke(Double.class, Double.NaN, "preGravityModel", status);
+		return invoke(Double.class, Double.NaN, Hook.preGravityModel, status);
 	}
 
 	@Override
 	public RigidBody preMassCalculation(SimulationStatus status) throws SimulationException {
-		return invoke(RigidBody.class, null, "preMassCalculation", status);
+		return invoke(RigidBody.class, null, Hook.preMassCalculation, status);
 	}
 
 	@Override
 	public double preSimpleThrustCalculation(SimulationStatus status) throws SimulationException {
-		return invoke(Double.class, Double.NaN, "preSimpleThrustCalculation", status);
+		return invoke(Double.class, Double.NaN, Hook.preSimpleThrustCalculation, status);
 	}
 
 	@Override
 	public Coordinate preWindModel(SimulationStatus status) throws SimulationException {
-		return invoke(Coordinate.class, null, "preWindModel", status);
+		return invoke(Coordinate.class, null, Hook.preWindModel, status);
 	}
 
 	@Override
 	public AccelerationData postAccelerationCalculation(SimulationStatus status, AccelerationData acceleration)
 			throws SimulationException {
-		return invoke(AccelerationData.class, null, "postAccelerationCalculation", status, acceleration);
+		return invoke(AccelerationData.class, null, Hook.postAccelerationCalculation, status, acceleration);
 	}
 
 	@Override
 	public AerodynamicForces postAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces)
 			throws SimulationException {
-		return invoke(AerodynamicForces.class, null, "postAerodynamicCalculation", status, forces);
+		return invoke(AerodynamicForces.class, null, Hook.postAerodynamicCalculation, status, forces);
 	}
 
 	@Override
 	public AtmosphericConditions postAtmosphericModel(SimulationStatus status,
 			AtmosphericConditions atmosphericConditions) throws SimulationException {
-		return invoke(AtmosphericConditions.class, null, "postAtmosphericModel", status, atmosphericConditions);
+		return invoke(AtmosphericConditions.class, null, Hook.postAtmosphericModel, status, atmosphericConditions);
 	}
 
 	@Override
 	public FlightConditions postFlightConditions(SimulationStatus status, FlightConditions flightConditions)
 			throws SimulationException {
-		return invoke(FlightConditions.class, null, "postFlightConditions", status, flightConditions);
+		return invoke(FlightConditions.class, null, Hook.postFlightConditions, status, flightConditions);
 	}
 
 	@Override
 	public double postGravityModel(SimulationStatus status, double gravity) throws SimulationException {
-		return invoke(Double.class, Double.NaN, "postGravityModel", status, gravity);
+		return invoke(Double.class, Double.NaN, Hook.postGravityModel, status, gravity);
 	}
 
 	@Override
 	public RigidBody postMassCalculation(SimulationStatus status, RigidBody RigidBody) throws SimulationException {
-		return invoke(RigidBody.class, null, "postMassCalculation", status, RigidBody);
+		return invoke(RigidBody.class, null, Hook.postMassCalculation, status, RigidBody);
 	}
 
 	@Override
 	public double postSimpleThrustCalculation(SimulationStatus status, double thrust) throws SimulationException {
-		return invoke(Double.class, Double.NaN, "postSimpleThrustCalculation", status, thrust);
+		return invoke(Double.class, Double.NaN, Hook.postSimpleThrustCalculation, status, thrust);
 	}
 
 	@Override
 	public Coordinate postWindModel(SimulationStatus status, Coordinate wind) throws SimulationException {
-		return invoke(Coordinate.class, null, "postWindModel", status, wind);
+		return invoke(Coordinate.class, null, Hook.postWindModel, status, wind);
 	}
 
 	@SuppressWarnings("unchecked")
-	private <T> T invoke(Class<T> retType, T def, String method, Object... args) throws SimulationException {
+	private <T> T invoke(Class<T> retType, T def, Hook hook, Object... args) throws SimulationException {
+		if (functions != null) {
+			Value function = functions[hook.ordinal()];
+			if (function == null) {
+				return def;
+			}
+			return execute(function, retType, def, hook, args);
+		}
+
+		String method = hook.name();
 		try {
-			if (!missing.contains(method)) {
+			if (!missing.contains(hook)) {
 				Object o = invocable.invokeFunction(method, args);
 				if (o == null) {
 					// Use default/null if function returns nothing
@@ -212,7 +281,7 @@ public class ScriptingSimulationListener
 				}
 			}
 		} catch (NoSuchMethodException e) {
-			missing.add(method);
+			missing.add(hook);
 			// fall-through
 		} catch (ScriptException e) {
 			logger.warn("Script exception in " + method + ": " + e, e);
@@ -221,4 +290,35 @@ public class ScriptingSimulationListener
 		return def;
 	}
 
+	/*
+	 * Execute a resolved GraalJS function and convert its result to the return type.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T execute(Value function, Class<T> retType, T def, Hook hook, Object[] args)
+			throws SimulationException {
+		Value result;
+		try {
+			result = function.execute(args);
+		} catch (PolyglotException e) {
+			logger.warn("Script exception in " + hook + ": " + e, e);
+			throw new SimulationException("Script failed: " + e.getMessage());
+		}
+
+		if (result.isNull()) {
+			// Use default/null if function returns nothing
+			return def;
+		} else if (retType == Boolean.class && result.isBoolean()) {
+			return (T) Boolean.valueOf(result.asBoolean());
+		} else if (retType == Double.class && result.isNumber() && result.fitsInDouble()) {
+			return (T) Double.valueOf(result.asDouble());
+		} else if (result.isHostObject() && result.asHostObject().getClass().equals(retType)) {
+			return (T) result.asHostObject();
+		}
+
+		String type = result.isHostObject() ? result.asHostObject().getClass().getSimpleName()
+				: String.valueOf(result.getMetaObject());
+		throw new SimulationListenerException("Custom script function " + hook + " returned type " +
+				type + ", expected " + retType.getSimpleName());
+	}
+
 }
@@ -4,12 +4,16 @@ import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.prefs.BackingStoreException;
 
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
 
+import org.graalvm.polyglot.Source;
+
 import info.openrocket.core.scripting.ScriptEngineManagerRedux;
 import info.openrocket.core.scripting.GraalJSScriptEngineFactory;
 import info.openrocket.core.startup.Preferences;
@@ -34,8 +38,22 @@ public class ScriptingUtil {
 	 */
 	private static final List<String> PREFERRED_LANGUAGE_NAMES = List.of("JavaScript");
 
+	/** Number of compiled JavaScript sources kept for reuse */
+	private static final int SOURCE_CACHE_SIZE = 16;
+
 	private static ScriptEngineManagerRedux manager;
 
+	/*
+	 * JavaScript sources by script text, least recently used first.  Evaluating the same
+	 * Source object in contexts of the shared polyglot engine reuses its compiled code.
+	 */
+	private static final Map<String, Source> sources = new LinkedHashMap<String, Source>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Source> eldest) {
+			return size() > SOURCE_CACHE_SIZE;
+		}
+	};
+
 	@Inject
 	Preferences prefs;
 
@@ -55,6 +73,22 @@ public class ScriptingUtil {
 		return manager.getEngineByName(shortName);
 	}
 
+	/**
+	 * Return the polyglot source of a JavaScript script.  The same script text always
+	 * returns the same source, so that its compiled code is shared between the script
+	 * engines of several simulations.
+	 */
+	public Source getJavaScriptSource(String script) {
+		synchronized (sources) {
+			Source source = sources.get(script);
+			if (source == null) {
+				source = Source.newBuilder("js", script, "script.js").cached(true).buildLiteral();
+				sources.put(script, source);
+			}
+			return source;
+		}
+	}
+
 	/**
 	 * Return the preferred internal language name based on a script language name.
 	 * 
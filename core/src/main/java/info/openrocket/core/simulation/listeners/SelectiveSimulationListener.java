@@ -0,0 +1,24 @@
+package info.openrocket.core.simulation.listeners;
+
+/**
+ * A simulation listener that declares which of its methods have an effect.
+ * <p>
+ * Listeners extending {@link AbstractSimulationListener} are only called for the methods they
+ * override.  Listeners that implement all methods but act on only some of them, for example
+ * depending on a script, can implement this interface so that the other methods are not
+ * called at all.
+ */
+public interface SelectiveSimulationListener extends SimulationListener {
+
+	/**
+	 * Return whether the listener method of a hook has an effect.  If this returns
+	 * <code>false</code>, the method is not called during the simulation.  The result may
+	 * change in {@link #startSimulation}, after which it is queried again, but must not change
+	 * later while the listener is used in a simulation.
+	 *
+	 * @param hook	the listener method.
+	 * @return		whether the method needs to be called.
+	 */
+	public boolean handlesHook(SimulationListenerHook hook);
+
+}
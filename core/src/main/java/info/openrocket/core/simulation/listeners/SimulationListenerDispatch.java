@@ -0,0 +1,109 @@
+package info.openrocket.core.simulation.listeners;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The listeners of a simulation that are called for each listener method.
+ * <p>
+ * A listener is omitted for a method if it does not implement the interface declaring the
+ * method, if it inherits the no-op implementation of {@link AbstractSimulationListener}, or if it
+ * is a {@link SelectiveSimulationListener} that does not handle the method.  The listeners of
+ * each method are kept in the order of the listener list.
+ * <p>
+ * The dispatch table is built when the simulation starts, rebuilt after the listeners have been
+ * started, and rebuilt by
+ * {@link info.openrocket.core.simulation.SimulationConditions#getListenerDispatch()} if the
+ * listener list is modified.
+ */
+public final class SimulationListenerDispatch {
+
+	private static final SimulationListenerHook[] HOOKS = SimulationListenerHook.values();
+
+	/*
+	 * The hooks overridden by each listener class, as a bit mask of hook ordinals
+	 */
+	private static final ClassValue<Integer> OVERRIDDEN_HOOKS = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			int mask = 0;
+			for (SimulationListenerHook hook : HOOKS) {
+				if (overrides(type, hook)) {
+					mask |= 1 << hook.ordinal();
+				}
+			}
+			return mask;
+		}
+	};
+
+	private final SimulationListener[][] listeners = new SimulationListener[HOOKS.length][];
+	private final int version;
+
+	/**
+	 * Build the dispatch table of a listener list.
+	 *
+	 * @param list		the listeners of the simulation.
+	 * @param version	the modification count of the list, returned by {@link #getVersion()}.
+	 */
+	public SimulationListenerDispatch(List<SimulationListener> list, int version) {
+		this.version = version;
+		for (SimulationListenerHook hook : HOOKS) {
+			List<SimulationListener> called = new ArrayList<SimulationListener>();
+			for (SimulationListener l : list) {
+				if (isCalled(l, hook)) {
+					called.add(l);
+				}
+			}
+			listeners[hook.ordinal()] = called.toArray(new SimulationListener[0]);
+		}
+	}
+
+	/**
+	 * Return the listeners to call for a listener method, in the order of the listener list.
+	 * The returned array must not be modified.
+	 */
+	public SimulationListener[] getListeners(SimulationListenerHook hook) {
+		return listeners[hook.ordinal()];
+	}
+
+	/**
+	 * Return the modification count of the listener list this table was built from.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Return whether a listener needs to be called for a listener method.
+	 */
+	public static boolean isCalled(SimulationListener listener, SimulationListenerHook hook) {
+		if (!hook.getListenerInterface().isInstance(listener)) {
+			return false;
+		}
+		if ((OVERRIDDEN_HOOKS.get(listener.getClass()) & (1 << hook.ordinal())) == 0) {
+			return false;
+		}
+		if (listener instanceof SelectiveSimulationListener) {
+			return ((SelectiveSimulationListener) listener).handlesHook(hook);
+		}
+		return true;
+	}
+
+	/*
+	 * Return whether a listener class has an implementation of the hook method other than
+	 * the no-op of AbstractSimulationListener.
+	 */
+	private static boolean overrides(Class<?> type, SimulationListenerHook hook) {
+		if (!hook.getListenerInterface().isAssignableFrom(type)) {
+			return false;
+		}
+		try {
+			Method method = type.getMethod(hook.getMethodName(), hook.getParameterTypes());
+			return method.getDeclaringClass() != AbstractSimulationListener.class;
+		} catch (NoSuchMethodException | SecurityException e) {
+			// Call the listener if the method cannot be inspected
+			return true;
+		}
+	}
+}
@@ -14,6 +14,8 @@ import info.openrocket.core.rocketcomponent.RecoveryDevice;
 import info.openrocket.core.simulation.AccelerationData;
 import info.openrocket.core.simulation.FlightEvent;
 import info.openrocket.core.simulation.MotorClusterState;
+import info.openrocket.core.simulation.SimulationProfile;
+import info.openrocket.core.simulation.SimulationProfile.Phase;
 import info.openrocket.core.simulation.SimulationStatus;
 import info.openrocket.core.simulation.exception.SimulationException;
 import info.openrocket.core.util.Coordinate;
@@ -21,6 +23,13 @@ import info.openrocket.core.util.MathUtil;
 
 /**
  * Helper methods for firing events to simulation listeners.
+ * <p>
+ * Each event is fired only to the listeners that implement it, as listed by the
+ * {@link SimulationListenerDispatch} of the simulation conditions.  Listeners that
+ * inherit the no-op methods of {@link AbstractSimulationListener} are not called.
+ * <p>
+ * When the simulation is profiled, the time of each listener call is recorded
+ * in the {@link SimulationProfile.Phase#LISTENERS} phase, and by listener method.
  * 
  * @author Sampo Niskanen <sampo.niskanen@iki.fi>
  */
@@ -35,25 +44,32 @@ public class SimulationListenerHelper {
 	 */
 	public static void fireStartSimulation(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.START_SIMULATION);
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
 			l.startSimulation(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.START_SIMULATION);
 			if (modID != status.getModID()) {
 				warn(status, l);
 				modID = status.getModID();
 			}
 		}
+		status.getSimulationConditions().resetListenerDispatch();
 	}
 
 	/**
 	 * Fire endSimulation event.
 	 */
 	public static void fireEndSimulation(SimulationStatus status, SimulationException exception) {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.END_SIMULATION);
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
 			l.endSimulation(status, exception);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.END_SIMULATION);
 			if (modID != status.getModID()) {
 				warn(status, l);
 				modID = status.getModID();
@@ -69,11 +85,14 @@ public class SimulationListenerHelper {
 	 */
 	public static boolean firePreStep(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_STEP);
 		boolean b;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
 			b = l.preStep(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_STEP);
 			if (modID != status.getModID()) {
 				warn(status, l);
 				modID = status.getModID();
@@ -91,10 +110,13 @@ public class SimulationListenerHelper {
 	 */
 	public static void firePostStep(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_STEP);
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
 			l.postStep(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_STEP);
 			if (modID != status.getModID()) {
 				warn(status, l);
 				modID = status.getModID();
@@ -111,20 +133,21 @@ public class SimulationListenerHelper {
 	 *         skip adding the event.
 	 */
 	public static boolean fireAddFlightEvent(SimulationStatus status, FlightEvent event) throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.ADD_FLIGHT_EVENT);
 		boolean b;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				b = ((SimulationEventListener) l).addFlightEvent(status, event);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (b == false) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			b = ((SimulationEventListener) l).addFlightEvent(status, event);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.ADD_FLIGHT_EVENT);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (b == false) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -137,20 +160,21 @@ public class SimulationListenerHelper {
 	 *         skip event.
 	 */
 	public static boolean fireHandleFlightEvent(SimulationStatus status, FlightEvent event) throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.HANDLE_FLIGHT_EVENT);
 		boolean b;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				b = ((SimulationEventListener) l).handleFlightEvent(status, event);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (b == false) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			b = ((SimulationEventListener) l).handleFlightEvent(status, event);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.HANDLE_FLIGHT_EVENT);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (b == false) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -164,20 +188,21 @@ public class SimulationListenerHelper {
 	 */
 	public static boolean fireMotorIgnition(SimulationStatus status, MotorConfigurationId motorId, MotorMount mount,
 			MotorClusterState instance) throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.MOTOR_IGNITION);
 		boolean result;
 		int modID = status.getModID(); // Contains also motor instance
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				result = ((SimulationEventListener) l).motorIgnition(status, motorId, mount, instance);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (false == result) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			result = ((SimulationEventListener) l).motorIgnition(status, motorId, mount, instance);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.MOTOR_IGNITION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (false == result) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -191,20 +216,21 @@ public class SimulationListenerHelper {
 	 */
 	public static boolean fireRecoveryDeviceDeployment(SimulationStatus status, RecoveryDevice device)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.RECOVERY_DEVICE_DEPLOYMENT);
 		boolean result;
 		int modID = status.getModID(); // Contains also motor instance
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationEventListener) {
-				result = ((SimulationEventListener) l).recoveryDeviceDeployment(status, device);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (false == result) {
-					warn(status, l);
-					return false;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			result = ((SimulationEventListener) l).recoveryDeviceDeployment(status, device);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.RECOVERY_DEVICE_DEPLOYMENT);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (false == result) {
+				warn(status, l);
+				return false;
 			}
 		}
 		return true;
@@ -219,20 +245,21 @@ public class SimulationListenerHelper {
 	 */
 	public static AtmosphericConditions firePreAtmosphericModel(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_ATMOSPHERIC_MODEL);
 		AtmosphericConditions conditions;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				conditions = ((SimulationComputationListener) l).preAtmosphericModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (conditions != null) {
-					warn(status, l);
-					return conditions;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			conditions = ((SimulationComputationListener) l).preAtmosphericModel(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_ATMOSPHERIC_MODEL);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (conditions != null) {
+				warn(status, l);
+				return conditions;
 			}
 		}
 		return null;
@@ -246,22 +273,26 @@ public class SimulationListenerHelper {
 	public static AtmosphericConditions firePostAtmosphericModel(SimulationStatus status,
 			AtmosphericConditions conditions)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_ATMOSPHERIC_MODEL);
+		if (listeners.length == 0) {
+			return conditions;
+		}
 		AtmosphericConditions c;
 		AtmosphericConditions clone = conditions.clone();
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				c = ((SimulationComputationListener) l).postAtmosphericModel(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (c != null && !c.equals(conditions)) {
-					warn(status, l);
-					conditions = c;
-					clone = conditions.clone();
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			c = ((SimulationComputationListener) l).postAtmosphericModel(status, clone);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_ATMOSPHERIC_MODEL);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (c != null && !c.equals(conditions)) {
+				warn(status, l);
+				conditions = c;
+				clone = conditions.clone();
 			}
 		}
 		return conditions;
@@ -274,20 +305,21 @@ public class SimulationListenerHelper {
 	 */
 	public static Coordinate firePreWindModel(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_WIND_MODEL);
 		Coordinate wind;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				wind = ((SimulationComputationListener) l).preWindModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (wind != null) {
-					warn(status, l);
-					return wind;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			wind = ((SimulationComputationListener) l).preWindModel(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_WIND_MODEL);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (wind != null) {
+				warn(status, l);
+				return wind;
 			}
 		}
 		return null;
@@ -299,20 +331,21 @@ public class SimulationListenerHelper {
 	 * @return the wind to use.
 	 */
 	public static Coordinate firePostWindModel(SimulationStatus status, Coordinate wind) throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_WIND_MODEL);
 		Coordinate w;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				w = ((SimulationComputationListener) l).postWindModel(status, wind);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (w != null && !w.equals(wind)) {
-					warn(status, l);
-					wind = w;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			w = ((SimulationComputationListener) l).postWindModel(status, wind);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_WIND_MODEL);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (w != null && !w.equals(wind)) {
+				warn(status, l);
+				wind = w;
 			}
 		}
 		return wind;
@@ -325,20 +358,21 @@ public class SimulationListenerHelper {
 	 */
 	public static double firePreGravityModel(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_GRAVITY_MODEL);
 		double gravity;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				gravity = ((SimulationComputationListener) l).preGravityModel(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(gravity)) {
-					warn(status, l);
-					return gravity;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			gravity = ((SimulationComputationListener) l).preGravityModel(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_GRAVITY_MODEL);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(gravity)) {
+				warn(status, l);
+				return gravity;
 			}
 		}
 		return Double.NaN;
@@ -350,20 +384,21 @@ public class SimulationListenerHelper {
 	 * @return the gravity to use.
 	 */
 	public static double firePostGravityModel(SimulationStatus status, double gravity) throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_GRAVITY_MODEL);
 		double g;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				g = ((SimulationComputationListener) l).postGravityModel(status, gravity);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(g) && !MathUtil.equals(g, gravity)) {
-					warn(status, l);
-					gravity = g;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			g = ((SimulationComputationListener) l).postGravityModel(status, gravity);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_GRAVITY_MODEL);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(g) && !MathUtil.equals(g, gravity)) {
+				warn(status, l);
+				gravity = g;
 			}
 		}
 		return gravity;
@@ -376,20 +411,21 @@ public class SimulationListenerHelper {
 	 */
 	public static FlightConditions firePreFlightConditions(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_FLIGHT_CONDITIONS);
 		FlightConditions conditions;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				conditions = ((SimulationComputationListener) l).preFlightConditions(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (conditions != null) {
-					warn(status, l);
-					return conditions;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			conditions = ((SimulationComputationListener) l).preFlightConditions(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_FLIGHT_CONDITIONS);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (conditions != null) {
+				warn(status, l);
+				return conditions;
 			}
 		}
 		return null;
@@ -404,22 +440,26 @@ public class SimulationListenerHelper {
 	 */
 	public static FlightConditions firePostFlightConditions(SimulationStatus status, FlightConditions conditions)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_FLIGHT_CONDITIONS);
+		if (listeners.length == 0) {
+			return conditions;
+		}
 		FlightConditions c;
 		FlightConditions clone = conditions.clone();
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				c = ((SimulationComputationListener) l).postFlightConditions(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (c != null && !c.equals(conditions)) {
-					warn(status, l);
-					conditions = c;
-					clone = conditions.clone();
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			c = ((SimulationComputationListener) l).postFlightConditions(status, clone);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_FLIGHT_CONDITIONS);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (c != null && !c.equals(conditions)) {
+				warn(status, l);
+				conditions = c;
+				clone = conditions.clone();
 			}
 		}
 		return conditions;
@@ -432,20 +472,21 @@ public class SimulationListenerHelper {
 	 */
 	public static AerodynamicForces firePreAerodynamicCalculation(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_AERODYNAMIC_CALCULATION);
 		AerodynamicForces forces;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				forces = ((SimulationComputationListener) l).preAerodynamicCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (forces != null) {
-					warn(status, l);
-					return forces;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			forces = ((SimulationComputationListener) l).preAerodynamicCalculation(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_AERODYNAMIC_CALCULATION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (forces != null) {
+				warn(status, l);
+				return forces;
 			}
 		}
 		return null;
@@ -458,22 +499,26 @@ public class SimulationListenerHelper {
 	 */
 	public static AerodynamicForces firePostAerodynamicCalculation(SimulationStatus status, AerodynamicForces forces)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_AERODYNAMIC_CALCULATION);
+		if (listeners.length == 0) {
+			return forces;
+		}
 		AerodynamicForces f;
 		AerodynamicForces clone = forces.clone();
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				f = ((SimulationComputationListener) l).postAerodynamicCalculation(status, clone);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (f != null && !f.equals(forces)) {
-					warn(status, l);
-					forces = f;
-					clone = forces.clone();
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			f = ((SimulationComputationListener) l).postAerodynamicCalculation(status, clone);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_AERODYNAMIC_CALCULATION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (f != null && !f.equals(forces)) {
+				warn(status, l);
+				forces = f;
+				clone = forces.clone();
 			}
 		}
 		return forces;
@@ -486,20 +531,21 @@ public class SimulationListenerHelper {
 	 */
 	public static RigidBody firePreMassCalculation(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_MASS_CALCULATION);
 		RigidBody mass;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				mass = ((SimulationComputationListener) l).preMassCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (mass != null) {
-					warn(status, l);
-					return mass;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			mass = ((SimulationComputationListener) l).preMassCalculation(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_MASS_CALCULATION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (mass != null) {
+				warn(status, l);
+				return mass;
 			}
 		}
 		return null;
@@ -512,20 +558,21 @@ public class SimulationListenerHelper {
 	 */
 	public static RigidBody firePostMassCalculation(SimulationStatus status, RigidBody mass)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_MASS_CALCULATION);
 		RigidBody m;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				m = ((SimulationComputationListener) l).postMassCalculation(status, mass);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (m != null && !m.equals(mass)) {
-					warn(status, l);
-					mass = m;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			m = ((SimulationComputationListener) l).postMassCalculation(status, mass);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_MASS_CALCULATION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (m != null && !m.equals(mass)) {
+				warn(status, l);
+				mass = m;
 			}
 		}
 		return mass;
@@ -538,20 +585,21 @@ public class SimulationListenerHelper {
 	 */
 	public static double firePreThrustCalculation(SimulationStatus status)
 			throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_SIMPLE_THRUST_CALCULATION);
 		double thrust;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				thrust = ((SimulationComputationListener) l).preSimpleThrustCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(thrust)) {
-					warn(status, l);
-					return thrust;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			thrust = ((SimulationComputationListener) l).preSimpleThrustCalculation(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_SIMPLE_THRUST_CALCULATION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(thrust)) {
+				warn(status, l);
+				return thrust;
 			}
 		}
 		return Double.NaN;
@@ -563,20 +611,21 @@ public class SimulationListenerHelper {
 	 * @return the thrust value to use.
 	 */
 	public static double firePostThrustCalculation(SimulationStatus status, double thrust) throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_SIMPLE_THRUST_CALCULATION);
 		double t;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				t = ((SimulationComputationListener) l).postSimpleThrustCalculation(status, thrust);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (!Double.isNaN(t) && !MathUtil.equals(t, thrust)) {
-					warn(status, l);
-					thrust = t;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			t = ((SimulationComputationListener) l).postSimpleThrustCalculation(status, thrust);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_SIMPLE_THRUST_CALCULATION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (!Double.isNaN(t) && !MathUtil.equals(t, thrust)) {
+				warn(status, l);
+				thrust = t;
 			}
 		}
 		return thrust;
@@ -588,20 +637,21 @@ public class SimulationListenerHelper {
 	 * @return <code>null</code> normally, or overriding mass data.
 	 */
 	public static AccelerationData firePreAccelerationCalculation(SimulationStatus status) throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.PRE_ACCELERATION_CALCULATION);
 		AccelerationData acceleration;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				acceleration = ((SimulationComputationListener) l).preAccelerationCalculation(status);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (acceleration != null) {
-					warn(status, l);
-					return acceleration;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			acceleration = ((SimulationComputationListener) l).preAccelerationCalculation(status);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.PRE_ACCELERATION_CALCULATION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (acceleration != null) {
+				warn(status, l);
+				return acceleration;
 			}
 		}
 		return null;
@@ -614,25 +664,33 @@ public class SimulationListenerHelper {
 	 */
 	public static AccelerationData firePostAccelerationCalculation(SimulationStatus status,
 			AccelerationData acceleration) throws SimulationException {
+		SimulationListener[] listeners = listeners(status, SimulationListenerHook.POST_ACCELERATION_CALCULATION);
 		AccelerationData a;
 		int modID = status.getModID();
 
-		for (SimulationListener l : status.getSimulationConditions().getSimulationListenerList()) {
-			if (l instanceof SimulationComputationListener) {
-				a = ((SimulationComputationListener) l).postAccelerationCalculation(status, acceleration);
-				if (modID != status.getModID()) {
-					warn(status, l);
-					modID = status.getModID();
-				}
-				if (a != null && !a.equals(acceleration)) {
-					warn(status, l);
-					acceleration = a;
-				}
+		for (SimulationListener l : listeners) {
+			SimulationProfile.enter(status, Phase.LISTENERS);
+			a = ((SimulationComputationListener) l).postAccelerationCalculation(status, acceleration);
+			SimulationProfile.exitListener(status, l, SimulationListenerHook.POST_ACCELERATION_CALCULATION);
+			if (modID != status.getModID()) {
+				warn(status, l);
+				modID = status.getModID();
+			}
+			if (a != null && !a.equals(acceleration)) {
+				warn(status, l);
+				acceleration = a;
 			}
 		}
 		return acceleration;
 	}
 
+	/*
+	 * Return the listeners of the current simulation to call for a listener method.
+	 */
+	private static SimulationListener[] listeners(SimulationStatus status, SimulationListenerHook hook) {
+		return status.getSimulationConditions().getListenerDispatch().getListeners(hook);
+	}
+
 	private static void warn(SimulationStatus status, SimulationListener listener) {
 		if (!listener.isSystemListener()) {
 			log.info("Non-system listener " + listener + " affected the simulation");
@@ -0,0 +1,97 @@
+package info.openrocket.core.simulation.listeners;
+
+import info.openrocket.core.aerodynamics.AerodynamicForces;
+import info.openrocket.core.aerodynamics.FlightConditions;
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.models.atmosphere.AtmosphericConditions;
+import info.openrocket.core.motor.MotorConfigurationId;
+import info.openrocket.core.rocketcomponent.MotorMount;
+import info.openrocket.core.rocketcomponent.RecoveryDevice;
+import info.openrocket.core.simulation.AccelerationData;
+import info.openrocket.core.simulation.FlightEvent;
+import info.openrocket.core.simulation.MotorClusterState;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.util.Coordinate;
+
+/**
+ * The methods of the simulation listener interfaces that are called by
+ * {@link SimulationListenerHelper}.
+ */
+public enum SimulationListenerHook {
+	START_SIMULATION(SimulationListener.class, "startSimulation", SimulationStatus.class),
+	END_SIMULATION(SimulationListener.class, "endSimulation", SimulationStatus.class, SimulationException.class),
+	PRE_STEP(SimulationListener.class, "preStep", SimulationStatus.class),
+	POST_STEP(SimulationListener.class, "postStep", SimulationStatus.class),
+
+	ADD_FLIGHT_EVENT(SimulationEventListener.class, "addFlightEvent", SimulationStatus.class, FlightEvent.class),
+	HANDLE_FLIGHT_EVENT(SimulationEventListener.class, "handleFlightEvent", SimulationStatus.class,
+			FlightEvent.class),
+	MOTOR_IGNITION(SimulationEventListener.class, "motorIgnition", SimulationStatus.class,
+			MotorConfigurationId.class, MotorMount.class, MotorClusterState.class),
+	RECOVERY_DEVICE_DEPLOYMENT(SimulationEventListener.class, "recoveryDeviceDeployment", SimulationStatus.class,
+			RecoveryDevice.class),
+
+	PRE_ATMOSPHERIC_MODEL(SimulationComputationListener.class, "preAtmosphericModel", SimulationStatus.class),
+	POST_ATMOSPHERIC_MODEL(SimulationComputationListener.class, "postAtmosphericModel", SimulationStatus.class,
+			AtmosphericConditions.class),
+	PRE_WIND_MODEL(SimulationComputationListener.class, "preWindModel", SimulationStatus.class),
+	POST_WIND_MODEL(SimulationComputationListener.class, "postWindModel", SimulationStatus.class, Coordinate.class),
+	PRE_GRAVITY_MODEL(SimulationComputationListener.class, "preGravityModel", SimulationStatus.class),
+	POST_GRAVITY_MODEL(SimulationComputationListener.class, "postGravityModel", SimulationStatus.class,
+			double.class),
+	PRE_FLIGHT_CONDITIONS(SimulationComputationListener.class, "preFlightConditions", SimulationStatus.class),
+	POST_FLIGHT_CONDITIONS(SimulationComputationListener.class, "postFlightConditions", SimulationStatus.class,
+			FlightConditions.class),
+	PRE_AERODYNAMIC_CALCULATION(SimulationComputationListener.class, "preAerodynamicCalculation",
+			SimulationStatus.class),
+	POST_AERODYNAMIC_CALCULATION(SimulationComputationListener.class, "postAerodynamicCalculation",
+			SimulationStatus.class, AerodynamicForces.class),
+	PRE_MASS_CALCULATION(SimulationComputationListener.class, "preMassCalculation", SimulationStatus.class),
+	POST_MASS_CALCULATION(SimulationComputationListener.class, "postMassCalculation", SimulationStatus.class,
+			RigidBody.class),
+	PRE_SIMPLE_THRUST_CALCULATION(SimulationComputationListener.class, "preSimpleThrustCalculation",
+			SimulationStatus.class),
+	POST_SIMPLE_THRUST_CALCULATION(SimulationComputationListener.class, "postSimpleThrustCalculation",
+			SimulationStatus.class, double.class),
+	PRE_ACCELERATION_CALCULATION(SimulationComputationListener.class, "preAccelerationCalculation",
+			SimulationStatus.class),
+	POST_ACCELERATION_CALCULATION(SimulationComputationListener.class, "postAccelerationCalculation",
+			SimulationStatus.class, AccelerationData.class);
+
+	private final Class<?> listenerInterface;
+	private final String methodName;
+	private final Class<?>[] parameterTypes;
+
+	SimulationListenerHook(Class<?> listenerInterface, String methodName, Class<?>... parameterTypes) {
+		this.listenerInterface = listenerInterface;
+		this.methodName = methodName;
+		this.parameterTypes = parameterTypes;
+	}
+
+	/**
+	 * Return the listener interface declaring the method.
+	 */
+	public Class<?> getListenerInterface() {
+		return listenerInterface;
+	}
+
+	/**
+	 * Return the name of the listener method.
+	 */
+	public String getMethodName() {
+		return methodName;
+	}
+
+	/**
+	 * Return the parameter types of the listener method.
+	 */
+	public Class<?>[] getParameterTypes() {
+		return parameterTypes.clone();
+	}
+
+	@Override
+	public String toString() {
+		return methodName;
+	}
+}
@@ -0,0 +1,46 @@
+package info.openrocket.core.simulation.listeners.system;
+
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.SimulationProfile;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+
+/**
+ * A simulation listener that enables profiling of the simulation it is added to.
+ * The time spent in the phases of the simulation is recorded to the profile returned
+ * by {@link #getProfile()}.  The listener may be added to several simulations in turn
+ * to accumulate their times, but not to simulations running concurrently.
+ */
+public class SimulationProfiler extends AbstractSimulationListener {
+
+	private final SimulationProfile profile;
+
+	public SimulationProfiler() {
+		this(new SimulationProfile());
+	}
+
+	public SimulationProfiler(SimulationProfile profile) {
+		this.profile = profile;
+	}
+
+	/**
+	 * Return the profile the simulations are recorded to.
+	 */
+	public SimulationProfile getProfile() {
+		return profile;
+	}
+
+	@Override
+	public void startSimulation(SimulationStatus status) {
+		SimulationConditions conditions = status.getSimulationConditions();
+		if (conditions.getProfile() != profile) {
+			conditions.setProfile(profile);
+			profile.simulationStarted();
+		}
+	}
+
+	@Override
+	public boolean isSystemListener() {
+		return true;
+	}
+}
@@ -0,0 +1,51 @@
+package info.openrocket.core.simulation.montecarlo;
+
+import info.openrocket.core.masscalc.RigidBody;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+
+/**
+ * A simulation listener that scales the thrust and mass of a single Monte Carlo run.
+ * <p>
+ * The mass hooks are called for both the structure and the motors, so the scaling applies
+ * to the total mass of the rocket.  The center of mass is left in place and the moments of
+ * inertia are scaled with the mass.
+ */
+public class DispersionListener extends AbstractSimulationListener {
+
+	private final double thrustScale;
+	private final double massScale;
+
+	public DispersionListener(double thrustScale, double massScale) {
+		this.thrustScale = thrustScale;
+		this.massScale = massScale;
+	}
+
+	public double getThrustScale() {
+		return thrustScale;
+	}
+
+	public double getMassScale() {
+		return massScale;
+	}
+
+	@Override
+	public double postSimpleThrustCalculation(SimulationStatus status, double thrust) throws SimulationException {
+		return thrust * thrustScale;
+	}
+
+	@Override
+	public RigidBody postMassCalculation(SimulationStatus status, RigidBody body) throws SimulationException {
+		if (massScale == 1) {
+			return null;
+		}
+		return new RigidBody(body.cm.setWeight(body.cm.weight * massScale),
+				body.Ixx * massScale, body.Iyy * massScale, body.Izz * massScale);
+	}
+
+	@Override
+	public boolean isSystemListener() {
+		return true;
+	}
+}
@@ -0,0 +1,123 @@
+package info.openrocket.core.simulation.montecarlo;
+
+import java.util.Random;
+
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.util.MathUtil;
+
+/**
+ * The random dispersions applied to each run of a Monte Carlo analysis.  Each dispersion
+ * is given as the standard deviation of a normal distribution centered on the nominal
+ * value of the base simulation.  All values default to zero, i.e. no dispersion.
+ * <p>
+ * Values are in SI units, angles in radians, and the thrust and mass dispersions are
+ * relative, e.g. 0.02 for a 2% standard deviation.
+ */
+public class MonteCarloDispersions implements Cloneable {
+
+	private double windSpeedDeviation = 0;
+	private double windDirectionDeviation = 0;
+	private double launchRodAngleDeviation = 0;
+	private double launchRodDirectionDeviation = 0;
+	private double thrustDeviation = 0;
+	private double massDeviation = 0;
+
+	public double getWindSpeedDeviation() {
+		return windSpeedDeviation;
+	}
+
+	public void setWindSpeedDeviation(double windSpeedDeviation) {
+		this.windSpeedDeviation = checkDeviation(windSpeedDeviation);
+	}
+
+	public double getWindDirectionDeviation() {
+		return windDirectionDeviation;
+	}
+
+	public void setWindDirectionDeviation(double windDirectionDeviation) {
+		this.windDirectionDeviation = checkDeviation(windDirectionDeviation);
+	}
+
+	public double getLaunchRodAngleDeviation() {
+		return launchRodAngleDeviation;
+	}
+
+	public void setLaunchRodAngleDeviation(double launchRodAngleDeviation) {
+		this.launchRodAngleDeviation = checkDeviation(launchRodAngleDeviation);
+	}
+
+	public double getLaunchRodDirectionDeviation() {
+		return launchRodDirectionDeviation;
+	}
+
+	public void setLaunchRodDirectionDeviation(double launchRodDirectionDeviation) {
+		this.launchRodDirectionDeviation = checkDeviation(launchRodDirectionDeviation);
+	}
+
+	public double getThrustDeviation() {
+		return thrustDeviation;
+	}
+
+	public void setThrustDeviation(double thrustDeviation) {
+		this.thrustDeviation = checkDeviation(thrustDeviation);
+	}
+
+	public double getMassDeviation() {
+		return massDeviation;
+	}
+
+	public void setMassDeviation(double massDeviation) {
+		this.massDeviation = checkDeviation(massDeviation);
+	}
+
+	/**
+	 * Apply random dispersions to simulation options.  The random values are always drawn
+	 * in the same order, so the same random sequence gives the same dispersed options.
+	 *
+	 * @param options	the options to modify.
+	 * @param random	the random source of this run.
+	 */
+	void applyTo(SimulationOptions options, Random random) {
+		double windSpeed = options.getWindSpeedAverage() + random.nextGaussian() * windSpeedDeviation;
+		double windDirection = options.getWindDirection() + random.nextGaussian() * windDirectionDeviation;
+		double rodAngle = options.getLaunchRodAngle() + random.nextGaussian() * launchRodAngleDeviation;
+		double rodDirection = options.getLaunchRodDirection() + random.nextGaussian() * launchRodDirectionDeviation;
+
+		options.setWindSpeedAverage(Math.max(0, windSpeed));
+		options.setWindDirection(MathUtil.reduce2Pi(windDirection));
+		options.setLaunchRodAngle(rodAngle);
+		if (!options.getLaunchIntoWind()) {
+			options.setLaunchRodDirection(MathUtil.reduce2Pi(rodDirection));
+		}
+	}
+
+	/**
+	 * Draw the thrust scaling factor of a run.
+	 */
+	double nextThrustScale(Random random) {
+		return Math.max(0, 1 + random.nextGaussian() * thrustDeviation);
+	}
+
+	/**
+	 * Draw the mass scaling factor of a run.
+	 */
+	double nextMassScale(Random random) {
+		return Math.max(MathUtil.EPSILON, 1 + random.nextGaussian() * massDeviation);
+	}
+
+	private static double checkDeviation(double deviation) {
+		if (!(deviation >= 0)) {
+			throw new IllegalArgumentException("Standard deviation must be non-negative, was " + deviation);
+		}
+		return deviation;
+	}
+
+	@Override
+	public MonteCarloDispersions clone() {
+		try {
+			return (MonteCarloDispersions) super.clone();
+		} catch (CloneNotSupportedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
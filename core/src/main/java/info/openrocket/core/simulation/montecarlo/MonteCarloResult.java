@@ -0,0 +1,128 @@
+package info.openrocket.core.simulation.montecarlo;
+
+import java.util.Arrays;
+
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
+
+/**
+ * The results of a Monte Carlo analysis.  Only a few summary values are kept of each run,
+ * so that the memory used does not depend on the length of the simulated flights.
+ * <p>
+ * The values of run <code>i</code> are stored at index <code>i</code> of the arrays,
+ * independent of the order in which the runs finished.  Runs that failed have NaN values
+ * and are not included in the statistics.  The statistics are computed in run order, so
+ * the same master seed gives identical results regardless of the number of threads used.
+ */
+public class MonteCarloResult {
+
+	private final double[] apogee;
+	private final double[] landingX;
+	private final double[] landingY;
+	private final double[] flightTime;
+	private int failureCount = 0;
+
+	MonteCarloResult(int runCount) {
+		apogee = nanArray(runCount);
+		landingX = nanArray(runCount);
+		landingY = nanArray(runCount);
+		flightTime = nanArray(runCount);
+	}
+
+	/**
+	 * Store the summary values of a single run.
+	 *
+	 * @param index	the run index.
+	 * @param data	the flight data of the run, or <code>null</code> if the run failed.
+	 */
+	void setRun(int index, FlightData data) {
+		if (data == null || data.getBranchCount() == 0) {
+			failureCount++;
+			return;
+		}
+		FlightDataBranch branch = data.getBranch(0);
+		apogee[index] = data.getMaxAltitude();
+		landingX[index] = branch.getLast(FlightDataType.TYPE_POSITION_X);
+		landingY[index] = branch.getLast(FlightDataType.TYPE_POSITION_Y);
+		flightTime[index] = data.getFlightTime();
+	}
+
+	/**
+	 * Return the number of runs in the analysis.
+	 */
+	public int getRunCount() {
+		return apogee.length;
+	}
+
+	/**
+	 * Return the number of runs that failed.
+	 */
+	public int getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * Return the apogee altitude of each run.
+	 */
+	public double[] getApogees() {
+		return apogee.clone();
+	}
+
+	/**
+	 * Return the landing position of each run along the x-axis (east).
+	 */
+	public double[] getLandingX() {
+		return landingX.clone();
+	}
+
+	/**
+	 * Return the landing position of each run along the y-axis (north).
+	 */
+	public double[] getLandingY() {
+		return landingY.clone();
+	}
+
+	/**
+	 * Return the flight time of each run.
+	 */
+	public double[] getFlightTimes() {
+		return flightTime.clone();
+	}
+
+	public RunningStatistics getApogeeStatistics() {
+		return statistics(apogee);
+	}
+
+	public RunningStatistics getLandingXStatistics() {
+		return statistics(landingX);
+	}
+
+	public RunningStatistics getLandingYStatistics() {
+		return statistics(landingY);
+	}
+
+	public RunningStatistics getFlightTimeStatistics() {
+		return statistics(flightTime);
+	}
+
+	private static RunningStatistics statistics(double[] values) {
+		RunningStatistics stats = new RunningStatistics();
+		for (double v : values) {
+			stats.add(v);
+		}
+		return stats;
+	}
+
+	private static double[] nanArray(int length) {
+		double[] array = new double[length];
+		Arrays.fill(array, Double.NaN);
+		return array;
+	}
+
+	@Override
+	public String toString() {
+		return "MonteCarloResult[runs=" + getRunCount() + ", failures=" + failureCount
+				+ ", apogee=" + getApogeeStatistics() + "]";
+	}
+}
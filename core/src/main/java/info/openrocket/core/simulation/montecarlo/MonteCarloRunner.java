@@ -0,0 +1,92 @@
+package info.openrocket.core.simulation.montecarlo;
+
+import java.util.List;
+import java.util.Random;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.BatchSimulationFactory;
+import info.openrocket.core.simulation.BatchSimulationListener;
+import info.openrocket.core.simulation.BatchSimulationResult;
+import info.openrocket.core.simulation.BatchSimulationRunner;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+
+/**
+ * Runs a Monte Carlo analysis of a simulation.  Each run simulates a copy of the base
+ * simulation with randomly dispersed launch conditions, thrust and mass.
+ * <p>
+ * Each run has its own random stream, seeded from the master seed and the run index.
+ * The dispersions of a run therefore depend only on the master seed and the run index,
+ * not on the number of threads or the order in which the runs are executed, and an
+ * analysis can be reproduced exactly by using the same master seed.
+ */
+public class MonteCarloRunner {
+
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private final BatchSimulationRunner runner;
+
+	/**
+	 * Construct a Monte Carlo runner that runs the simulations with the given batch runner.
+	 */
+	public MonteCarloRunner(BatchSimulationRunner runner) {
+		this.runner = runner;
+	}
+
+	/**
+	 * Run a Monte Carlo analysis.  The base simulation is not modified.
+	 *
+	 * @param base			the simulation to disperse.
+	 * @param dispersions	the dispersions to apply.
+	 * @param runCount		the number of runs.
+	 * @param masterSeed	the seed from which the random streams of the runs are derived.
+	 * @return				the results of the analysis.
+	 * @throws InterruptedException	if the calling thread is interrupted while waiting for results.
+	 */
+	public MonteCarloResult run(final Simulation base, MonteCarloDispersions dispersions,
+			int runCount, final long masterSeed) throws InterruptedException {
+		if (runCount < 0) {
+			throw new IllegalArgumentException("runCount must be non-negative, was " + runCount);
+		}
+		final MonteCarloDispersions d = dispersions.clone();
+		final MonteCarloResult result = new MonteCarloResult(runCount);
+
+		runner.runSimulations(runCount, new BatchSimulationFactory() {
+			@Override
+			public Simulation createSimulation(int index, List<SimulationListener> listeners) {
+				Random random = new Random(getRunSeed(masterSeed, index));
+				Simulation simulation = BatchSimulationRunner.copySimulation(base);
+				SimulationOptions options = simulation.getOptions();
+				d.applyTo(options, random);
+				double thrustScale = d.nextThrustScale(random);
+				double massScale = d.nextMassScale(random);
+				options.setRandomSeed(random.nextInt());
+				listeners.add(new DispersionListener(thrustScale, massScale));
+				return simulation;
+			}
+		}, new BatchSimulationListener() {
+			@Override
+			public void simulationFinished(BatchSimulationResult r) {
+				result.setRun(r.getIndex(), r.isSuccessful() ? r.getFlightData() : null);
+			}
+		});
+
+		return result;
+	}
+
+	/**
+	 * Return the seed of the random stream of a single run.  The seeds are derived with
+	 * the SplitMix64 mixing function, which gives well-distributed seeds for consecutive
+	 * run indices.
+	 *
+	 * @param masterSeed	the master seed of the analysis.
+	 * @param index			the run index.
+	 * @return				the seed of the run.
+	 */
+	public static long getRunSeed(long masterSeed, int index) {
+		long z = masterSeed + (index + 1L) * GOLDEN_GAMMA;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
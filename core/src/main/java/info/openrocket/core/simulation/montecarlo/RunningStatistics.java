@@ -0,0 +1,90 @@
+package info.openrocket.core.simulation.montecarlo;
+
+/**
+ * Incrementally computed statistics of a sequence of values.  The mean and variance are
+ * computed with Welford's algorithm, so the values themselves are not stored.  NaN values
+ * are ignored.
+ */
+public class RunningStatistics {
+
+	private long count = 0;
+	private double mean = 0;
+	private double m2 = 0;
+	private double min = Double.NaN;
+	private double max = Double.NaN;
+
+	/**
+	 * Add a value to the statistics.
+	 *
+	 * @param value	the value to add; NaN values are ignored.
+	 */
+	public void add(double value) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		count++;
+		double delta = value - mean;
+		mean += delta / count;
+		m2 += delta * (value - mean);
+		if (count == 1 || value < min) {
+			min = value;
+		}
+		if (count == 1 || value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * Return the number of values added.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Return the mean of the values, or NaN if no values have been added.
+	 */
+	public double getMean() {
+		if (count == 0) {
+			return Double.NaN;
+		}
+		return mean;
+	}
+
+	/**
+	 * Return the sample variance of the values, or NaN if fewer than two values have been added.
+	 */
+	public double getVariance() {
+		if (count < 2) {
+			return Double.NaN;
+		}
+		return m2 / (count - 1);
+	}
+
+	/**
+	 * Return the sample standard deviation of the values, or NaN if fewer than two values have been added.
+	 */
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	/**
+	 * Return the smallest value added, or NaN if no values have been added.
+	 */
+	public double getMin() {
+		return min;
+	}
+
+	/**
+	 * Return the largest value added, or NaN if no values have been added.
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("n=%d mean=%.4f stddev=%.4f min=%.4f max=%.4f",
+				count, getMean(), getStandardDeviation(), min, max);
+	}
+}
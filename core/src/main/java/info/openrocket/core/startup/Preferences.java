@@ -438,8 +438,8 @@ public abstract class Preferences implements ChangeSource {
 
 		// Update the launch temperature and pressure if using ISA
 		if (isISAAtmosphere()) {
-			setLaunchTemperature(ISA_ATMOSPHERIC_MODEL.getConditions(getLaunchAltitude()).getTemperature());
-			setLaunchPressure(ISA_ATMOSPHERIC_MODEL.getConditions(getLaunchAltitude()).getPressure());
+			setLaunchTemperature(ISA_ATMOSPHERIC_MODEL.getTemperature(getLaunchAltitude()));
+			setLaunchPressure(ISA_ATMOSPHERIC_MODEL.getPressure(getLaunchAltitude()));
 		}
 
 		fireChangeEvent();
@@ -539,8 +539,8 @@ public abstract class Preferences implements ChangeSource {
 
 		// Update the launch temperature and pressure
 		if (isa) {
-			setLaunchTemperature(ISA_ATMOSPHERIC_MODEL.getConditions(getLaunchAltitude()).getTemperature());
-			setLaunchPressure(ISA_ATMOSPHERIC_MODEL.getConditions(getLaunchAltitude()).getPressure());
+			setLaunchTemperature(ISA_ATMOSPHERIC_MODEL.getTemperature(getLaunchAltitude()));
+			setLaunchPressure(ISA_ATMOSPHERIC_MODEL.getPressure(getLaunchAltitude()));
 		}
 
 		fireChangeEvent();
@@ -15,6 +15,7 @@ import info.openrocket.core.file.iterator.DirectoryIterator;
 import info.openrocket.core.file.iterator.FileIterator;
 import info.openrocket.core.file.motor.GeneralMotorLoader;
 import info.openrocket.core.gui.util.SimpleFileFilter;
+import info.openrocket.core.motor.BinaryMotorFile;
 import info.openrocket.core.motor.Motor;
 import info.openrocket.core.motor.ThrustCurveMotor;
 import info.openrocket.core.util.Pair;
@@ -51,13 +52,15 @@ public class SerializeThrustcurveMotors {
 		if (args.length != 2) {
 			System.out.println("Usage:  java " + SerializeThrustcurveMotors.class.getCanonicalName()
 					+ " <input-dir> <output-file>");
+			System.out.println("Motors are written in the binary motor format if the output file name ends with ."
+					+ BinaryMotorFile.EXTENSION + ", otherwise they are Java-serialized.");
 			System.exit(1);
 		}
 
 		String inputDir = args[0];
 		String outputFile = args[1];
 
-		final List<Motor> allMotors = new ArrayList<Motor>();
+		final List<ThrustCurveMotor> allMotors = new ArrayList<ThrustCurveMotor>();
 
 		loadFromLocalMotorFiles(allMotors, inputDir);
 
@@ -66,17 +69,21 @@ public class SerializeThrustcurveMotors {
 		File outFile = new File(outputFile);
 
 		FileOutputStream ofs = new FileOutputStream(outFile);
-		final ObjectOutputStream oos = new ObjectOutputStream(ofs);
+		if (outputFile.endsWith("." + BinaryMotorFile.EXTENSION)) {
+			BinaryMotorFile.write(allMotors, ofs);
+		} else {
+			final ObjectOutputStream oos = new ObjectOutputStream(ofs);
 
-		oos.writeObject(allMotors);
+			oos.writeObject(allMotors);
 
-		oos.flush();
+			oos.flush();
+		}
 		ofs.flush();
 		ofs.close();
 
 	}
 
-	public static void loadFromThrustCurve(List<Motor> allMotors) throws SAXException, IOException {
+	public static void loadFromThrustCurve(List<ThrustCurveMotor> allMotors) throws SAXException, IOException {
 
 		SearchRequest searchRequest = new SearchRequest();
 		for (String m : manufacturers) {
@@ -180,7 +187,7 @@ public class SerializeThrustcurveMotors {
 		return b;
 	}
 
-	private static void loadFromLocalMotorFiles(List<Motor> allMotors, String inputDir) throws IOException {
+	private static void loadFromLocalMotorFiles(List<ThrustCurveMotor> allMotors, String inputDir) throws IOException {
 		GeneralMotorLoader loader = new GeneralMotorLoader();
 		FileIterator iterator = DirectoryIterator.findDirectory(inputDir,
 				new SimpleFileFilter("", false, loader.getSupportedExtensions()));
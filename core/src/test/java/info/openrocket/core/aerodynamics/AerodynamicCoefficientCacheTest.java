@@ -0,0 +1,88 @@
+package info.openrocket.core.aerodynamics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.rocketcomponent.BodyTube;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class AerodynamicCoefficientCacheTest extends BaseTestCase {
+
+	@Test
+	public void testHitsWithinBucket() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator calc = new BarrowmanCalculator();
+		AerodynamicCoefficientCache cache = new AerodynamicCoefficientCache();
+		calc.setCoefficientCache(cache);
+
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(0.3);
+		conditions.setAOA(Math.toRadians(2));
+		AerodynamicForces first = calc.getAerodynamicForces(config, conditions, null);
+		assertEquals(1, cache.getMisses());
+
+		conditions.setAOA(Math.toRadians(2.01));
+		AerodynamicForces second = calc.getAerodynamicForces(config, conditions, null);
+		assertEquals(1, cache.getHits());
+		assertNotSame(first, second);
+		assertEquals(first.getCD(), second.getCD(), 0);
+		assertEquals(first.getCN(), second.getCN(), 0);
+
+		// The exact value differs from the cached one by less than the variation within a bucket
+		AerodynamicForces exact = new BarrowmanCalculator().getAerodynamicForces(config, conditions, null);
+		assertEquals(exact.getCN(), second.getCN(), 1e-3);
+
+		conditions.setMach(0.5);
+		calc.getAerodynamicForces(config, conditions, null);
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testClearedOnRocketChange() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator calc = new BarrowmanCalculator();
+		calc.setCoefficientCache(new AerodynamicCoefficientCache());
+
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(0.3);
+		double before = calc.getAerodynamicForces(config, conditions, null).getCD();
+
+		BodyTube body = (BodyTube) rocket.getChild(0).getChild(1);
+		body.setLength(body.getLength() * 2);
+		double after = calc.getAerodynamicForces(config, conditions, null).getCD();
+
+		assertEquals(2, calc.getCoefficientCache().getMisses());
+		assertTrue(after != before);
+	}
+
+	@Test
+	public void testValidation() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		BarrowmanCalculator calc = new BarrowmanCalculator();
+		AerodynamicCoefficientCache cache = new AerodynamicCoefficientCache(0.1, Math.toRadians(5), 1, 1, 0.01,
+				100, 1);
+		calc.setCoefficientCache(cache);
+
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(0.3);
+		calc.getAerodynamicForces(config, conditions, null);
+		conditions.setMach(0.34);
+		AerodynamicForces validated = calc.getAerodynamicForces(config, conditions, null);
+		AerodynamicForces exact = new BarrowmanCalculator().getAerodynamicForces(config, conditions, null);
+
+		assertEquals(1, cache.getValidations());
+		assertEquals(exact.getCD(), validated.getCD(), 0);
+		assertTrue(cache.getMaxAxialError() > 0);
+	}
+
+}
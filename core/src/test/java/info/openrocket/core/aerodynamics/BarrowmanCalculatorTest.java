@@ -664,4 +664,69 @@ public class BarrowmanCalculatorTest {
 		final double zeroCD = zeroForces.getCD();
 		assertEquals(epsCD, zeroCD, EPSILON, "drag at mach 0 should equal drag at mach MathUtil.EPSILON");
 	}
+
+	/**
+	 * Tests that reusing a calculator after the active stages change gives the same
+	 * result as a fresh calculator.
+	 */
+	@Test
+	public void testStageChangeWithSameCalculator() {
+		Rocket rocket = TestRockets.makeSimple2Stage();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(0.3);
+		conditions.setAOA(Math.toRadians(3));
+		BarrowmanCalculator calc = new BarrowmanCalculator();
+
+		AerodynamicForces full = calc.getAerodynamicForces(config, conditions, null);
+
+		config.setOnlyStage(0);
+		AerodynamicForces sustainer = calc.getAerodynamicForces(config, conditions, null);
+		AerodynamicForces fresh = new BarrowmanCalculator().getAerodynamicForces(config, conditions, null);
+
+		assertEquals(fresh.getCD(), sustainer.getCD(), 0);
+		assertEquals(fresh.getCN(), sustainer.getCN(), 0);
+		assertTrue(Math.abs(full.getCD() - sustainer.getCD()) > EPSILON);
+	}
+
+	/**
+	 * Tests that toggling the stages of a configuration in place invalidates the cached
+	 * aerodynamic plan.
+	 */
+	@Test
+	public void testToggleAllStagesWithSameCalculator() {
+		Rocket rocket = TestRockets.makeSimple2Stage();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		FlightConditions conditions = new FlightConditions(config);
+		conditions.setMach(0.3);
+		conditions.setAOA(Math.toRadians(3));
+		BarrowmanCalculator calc = new BarrowmanCalculator();
+		WarningSet warnings = new WarningSet();
+
+		AerodynamicForces full = calc.getAerodynamicForces(config, conditions, null);
+		Coordinate fullCP = calc.getCP(config, conditions, warnings);
+
+		// Only the booster active
+		config.clearAllStages();
+		config._setStageActive(1, true, false);
+		AerodynamicForces booster = calc.getAerodynamicForces(config, conditions, null);
+		Coordinate boosterCP = calc.getCP(config, conditions, warnings);
+		assertTrue(Math.abs(full.getCD() - booster.getCD()) > EPSILON);
+		assertTrue(Math.abs(fullCP.x - boosterCP.x) > EPSILON);
+
+		config.setAllStages();
+		AerodynamicForces restored = calc.getAerodynamicForces(config, conditions, null);
+		Coordinate restoredCP = calc.getCP(config, conditions, warnings);
+		assertEquals(full.getCD(), restored.getCD(), 0);
+		assertEquals(fullCP.x, restoredCP.x, 0);
+
+		// Copying the stage activeness of another configuration
+		FlightConfiguration sustainerOnly = config.clone();
+		sustainerOnly.setOnlyStage(0);
+		config.copyStageActiveness(sustainerOnly);
+		AerodynamicForces sustainer = calc.getAerodynamicForces(config, conditions, null);
+		AerodynamicForces fresh = new BarrowmanCalculator().getAerodynamicForces(config, conditions, null);
+		assertEquals(fresh.getCD(), sustainer.getCD(), 0);
+		assertTrue(Math.abs(full.getCD() - sustainer.getCD()) > EPSILON);
+	}
 }
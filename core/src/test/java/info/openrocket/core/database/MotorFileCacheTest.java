@@ -0,0 +1,113 @@
+package info.openrocket.core.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.Coordinate;
+
+public class MotorFileCacheTest {
+
+	private final ThrustCurveMotor motor = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("Estes"))
+			.setDesignation("C6-5")
+			.setDescription("Desc")
+			.setMotorType(Motor.Type.SINGLE)
+			.setStandardDelays(new double[] { 5 })
+			.setDiameter(0.018)
+			.setLength(0.07)
+			.setTimePoints(new double[] { 0, 1, 2 })
+			.setThrustPoints(new double[] { 0, 10, 0 })
+			.setCGPoints(new Coordinate[] { Coordinate.NUL, Coordinate.NUL, Coordinate.NUL })
+			.setDigest("digestC6")
+			.build();
+
+	private Path dir;
+	private File cacheFile;
+	private File motorFile;
+	private File otherFile;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		dir = Files.createTempDirectory("motorcache");
+		cacheFile = dir.resolve("cache.dat").toFile();
+		motorFile = Files.writeString(dir.resolve("c6.eng"), "C6 18 70 5 0.01 0.02 Estes\n").toFile();
+		otherFile = Files.writeString(dir.resolve("other.eng"), "other").toFile();
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		for (File f : dir.toFile().listFiles()) {
+			f.delete();
+		}
+		Files.delete(dir);
+	}
+
+	@Test
+	public void testSaveAndLoad() {
+		MotorFileCache cache = new MotorFileCache(cacheFile);
+		cache.load();
+		assertNull(cache.get(motorFile));
+		cache.put(motorFile, List.of(motor));
+		cache.put(otherFile, List.of());
+		cache.save();
+
+		cache = new MotorFileCache(cacheFile);
+		cache.load();
+		List<ThrustCurveMotor> motors = cache.get(motorFile);
+		assertEquals(1, motors.size());
+		assertEquals(motor.getDesignation(), motors.get(0).getDesignation());
+		assertEquals(motor.getDigest(), motors.get(0).getDigest());
+		assertEquals(motor.getThrust(0.5), motors.get(0).getThrust(0.5), 0);
+		assertEquals(0, cache.get(otherFile).size());
+	}
+
+	@Test
+	public void testChangedFile() throws IOException {
+		MotorFileCache cache = new MotorFileCache(cacheFile);
+		cache.load();
+		cache.put(motorFile, List.of(motor));
+		cache.save();
+
+		Files.writeString(motorFile.toPath(), "changed content");
+		cache.load();
+		assertNull(cache.get(motorFile));
+	}
+
+	@Test
+	public void testUnusedEntriesDropped() {
+		MotorFileCache cache = new MotorFileCache(cacheFile);
+		cache.load();
+		cache.put(motorFile, List.of(motor));
+		cache.put(otherFile, List.of(motor));
+		cache.save();
+
+		// Only the entries used since loading are saved
+		cache.load();
+		cache.get(motorFile);
+		cache.save();
+		cache.load();
+		assertEquals(1, cache.get(motorFile).size());
+		assertNull(cache.get(otherFile));
+	}
+
+	@Test
+	public void testCorruptCache() throws IOException {
+		Files.writeString(cacheFile.toPath(), "not a cache file");
+		MotorFileCache cache = new MotorFileCache(cacheFile);
+		cache.load();
+		assertNull(cache.get(motorFile));
+	}
+}
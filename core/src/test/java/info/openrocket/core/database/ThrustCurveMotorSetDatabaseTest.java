@@ -0,0 +1,94 @@
+package info.openrocket.core.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.database.motor.ThrustCurveMotorSetDatabase;
+import info.openrocket.core.motor.Manufacturer;
+import info.openrocket.core.motor.Motor;
+import info.openrocket.core.motor.ThrustCurveMotor;
+import info.openrocket.core.util.Coordinate;
+
+public class ThrustCurveMotorSetDatabaseTest {
+
+	private static ThrustCurveMotor motor(String manufacturer, String designation, double diameter, double length,
+			String digest) {
+		return new ThrustCurveMotor.Builder()
+				.setManufacturer(Manufacturer.getManufacturer(manufacturer))
+				.setDesignation(designation)
+				.setDescription("Desc " + designation + " " + digest)
+				.setMotorType(Motor.Type.SINGLE)
+				.setStandardDelays(new double[] { 5 })
+				.setDiameter(diameter)
+				.setLength(length)
+				.setTimePoints(new double[] { 0, 1, 2 })
+				.setThrustPoints(new double[] { 0, 1, 0 })
+				.setCGPoints(new Coordinate[] { Coordinate.NUL, Coordinate.NUL, Coordinate.NUL })
+				.setDigest(digest)
+				.build();
+	}
+
+	private final ThrustCurveMotor estesA8 = motor("Estes", "A8-3", 0.018, 0.070, "digestA8");
+	private final ThrustCurveMotor estesC6 = motor("Estes", "C6-5", 0.018, 0.070, "digestC6");
+	private final ThrustCurveMotor estesD12 = motor("Estes", "D12-5", 0.024, 0.070, "digestD12");
+	private final ThrustCurveMotor aerotechF12 = motor("AeroTech", "F12J", 0.024, 0.070, "digestF12");
+	private final ThrustCurveMotor aerotechF12b = motor("AeroTech", "f12j", 0.024, 0.070, "digestF12b");
+
+	private ThrustCurveMotorSetDatabase createDatabase() {
+		ThrustCurveMotorSetDatabase db = new ThrustCurveMotorSetDatabase();
+		for (ThrustCurveMotor m : Arrays.asList(estesA8, estesC6, estesD12, aerotechF12, aerotechF12b)) {
+			db.addMotor(m);
+		}
+		return db;
+	}
+
+	@Test
+	public void testAddMotor() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+
+		// Designations differing only by case share a set
+		assertEquals(4, db.getMotorSets().size());
+		assertEquals(2, db.getMotorSets().get(3).getMotors().size());
+	}
+
+	@Test
+	public void testFindByDigest() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+
+		// The digest is compared by value, not by identity
+		String digest = new String("digestC6");
+		assertEquals(List.of(estesC6), db.findMotors(digest, null, null, null, Double.NaN, Double.NaN));
+
+		// A digest match is returned even if the description does not match
+		assertEquals(List.of(estesC6), db.findMotors(digest, null, "AeroTech", null, Double.NaN, Double.NaN));
+	}
+
+	@Test
+	public void testFindByDescription() {
+		ThrustCurveMotorSetDatabase db = createDatabase();
+
+		assertEquals(List.of(estesA8, estesC6, estesD12),
+				db.findMotors(null, null, "Estes", null, Double.NaN, Double.NaN));
+		assertEquals(List.of(estesA8, estesC6),
+				db.findMotors(null, null, null, null, 0.018, Double.NaN));
+		List<ThrustCurveMotor> motors = db.findMotors(null, null, null, null, 0.0285, Double.NaN);
+		assertEquals(3, motors.size());
+		assertSame(estesD12, motors.get(0));
+		assertEquals(List.of(estesD12),
+				db.findMotors(null, Motor.Type.SINGLE, "Estes", "D12", 0.024, 0.07));
+		assertEquals(List.of(estesC6),
+				db.findMotors("unknown", null, null, "c6", Double.NaN, Double.NaN));
+		assertTrue(db.findMotors(null, null, "Cesaroni", null, Double.NaN, Double.NaN).isEmpty());
+		assertTrue(db.findMotors(null, null, null, null, 0.038, Double.NaN).isEmpty());
+
+		List<ThrustCurveMotor> all = db.findMotors(null, null, null, null, Double.NaN, Double.NaN);
+		assertEquals(5, all.size());
+		assertSame(estesA8, all.get(0));
+	}
+}
@@ -0,0 +1,116 @@
+package info.openrocket.core.document.attachments;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.openrocket.core.util.DecalNotFoundException;
+import info.openrocket.core.util.FileUtils;
+
+public class ZipArchiveTest {
+
+	@TempDir
+	File tempDir;
+
+	private static void writeZip(File file, String... namesAndContents) throws IOException {
+		try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+			for (int i = 0; i < namesAndContents.length; i += 2) {
+				zos.putNextEntry(new ZipEntry(namesAndContents[i]));
+				zos.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+				zos.closeEntry();
+			}
+		}
+	}
+
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testReadEntries() throws Exception {
+		File file = new File(tempDir, "rocket.ork");
+		writeZip(file, "rocket.ork", "<openrocket/>", "decals/a.png", "first", "decals/b.png", "second");
+
+		ZipArchive archive = new ZipArchive(file.toURI().toURL());
+		assertArrayEquals(bytes("second"), archive.read("decals/b.png"));
+		assertArrayEquals(bytes("first"), archive.read("decals/a.png"));
+		// Entries are cached
+		assertSame(archive.read("decals/a.png"), archive.read("decals/a.png"));
+		assertThrows(DecalNotFoundException.class, () -> archive.read("decals/c.png"));
+
+		ZipFileAttachment attachment = new ZipFileAttachment("decals/b.png", archive);
+		assertArrayEquals(bytes("second"), FileUtils.readBytes(attachment.getBytes()));
+
+		// The file is not held open between reads
+		assertTrue(file.delete());
+	}
+
+	@Test
+	public void testReplacedFile() throws Exception {
+		File file = new File(tempDir, "rocket.ork");
+		writeZip(file, "decals/a.png", "old");
+
+		ZipArchive archive = new ZipArchive(file.toURI().toURL());
+		assertArrayEquals(bytes("old"), archive.read("decals/a.png"));
+
+		// The file can be replaced, and the new contents are read
+		File replacement = new File(tempDir, "replacement.ork");
+		writeZip(replacement, "decals/a.png", "new contents", "decals/b.png", "added");
+		assertTrue(replacement.renameTo(file));
+
+		assertArrayEquals(bytes("added"), archive.read("decals/b.png"));
+		assertArrayEquals(bytes("new contents"), archive.read("decals/a.png"));
+	}
+
+	@Test
+	public void testSharedCache() throws Exception {
+		File first = new File(tempDir, "first.ork");
+		writeZip(first, "decals/a.png", "first");
+		File second = new File(tempDir, "second.ork");
+		writeZip(second, "decals/a.png", "second");
+
+		// The archives share the cache, but their entries are kept apart
+		ZipArchive a = new ZipArchive(first.toURI().toURL());
+		ZipArchive b = new ZipArchive(second.toURI().toURL());
+		byte[] fromA = a.read("decals/a.png");
+		byte[] fromB = b.read("decals/a.png");
+		assertArrayEquals(bytes("first"), fromA);
+		assertArrayEquals(bytes("second"), fromB);
+
+		// Clearing the cache of one archive keeps the entries of the other
+		a.clearCache();
+		assertNotSame(fromA, a.read("decals/a.png"));
+		assertSame(fromB, b.read("decals/a.png"));
+	}
+
+	@Test
+	public void testContainerInJar() throws Exception {
+		File inner = new File(tempDir, "inner.ork");
+		writeZip(inner, "decals/a.png", "first");
+		File outer = new File(tempDir, "examples.jar");
+		try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(outer))) {
+			zos.putNextEntry(new ZipEntry("examples/inner.ork"));
+			zos.write(Files.readAllBytes(inner.toPath()));
+			zos.closeEntry();
+		}
+
+		// Containers that are not local files are scanned sequentially
+		ZipArchive archive = new ZipArchive(new URL("jar:" + outer.toURI().toURL() + "!/examples/inner.ork"));
+		assertArrayEquals(bytes("first"), archive.read("decals/a.png"));
+		assertThrows(DecalNotFoundException.class, () -> archive.read("decals/b.png"));
+	}
+}
@@ -38,6 +38,9 @@ import info.openrocket.core.plugin.PluginModule;
 import info.openrocket.core.rocketcomponent.BodyTube;
 import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataBranch;
+import info.openrocket.core.simulation.FlightDataType;
 import info.openrocket.core.simulation.extension.impl.ScriptingExtension;
 import info.openrocket.core.simulation.extension.impl.ScriptingUtil;
 import info.openrocket.core.startup.Application;
@@ -327,6 +330,46 @@ public class OpenRocketSaverTest {
 		assertEquals(Simulation.Status.OUTDATED, rocketDocLoaded.getSimulations().get(3).getStatus());
 	}
 	
+	/**
+	 * Test that lazily loaded simulation data equals the immediately loaded data.
+	 */
+	@Test
+	public void testLazyFlightData() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		OpenRocketDocument rocketDoc = OpenRocketDocumentFactory.createDocumentFromRocket(rocket);
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		try {
+			sim.simulate();
+		} catch (Exception e) {
+			fail(e.toString());
+		}
+		rocketDoc.addSimulation(sim);
+
+		StorageOptions options = new StorageOptions();
+		options.setSaveSimulationData(true);
+		File file = saveRocket(rocketDoc, options);
+
+		FlightData expected = loadRocket(file.getPath(), false).getSimulations().get(0).getSimulatedData();
+		FlightData actual = loadRocket(file.getPath(), true).getSimulations().get(0).getSimulatedData();
+
+		assertEquals(expected.getMaxAltitude(), actual.getMaxAltitude(), 1e-3);
+		assertEquals(expected.getBranchCount(), actual.getBranchCount());
+		for (int i = 0; i < expected.getBranchCount(); i++) {
+			FlightDataBranch expectedBranch = expected.getBranch(i);
+			FlightDataBranch actualBranch = actual.getBranch(i);
+			assertFalse(actualBranch.isDataLoaded());
+			assertEquals(expectedBranch.getLength(), actualBranch.getLength());
+			assertTrue(actualBranch.isDataLoaded());
+			for (FlightDataType type : expectedBranch.getTypes()) {
+				assertEquals(expectedBranch.get(type), actualBranch.get(type));
+			}
+			assertEquals(expectedBranch.getEvents().size(), actualBranch.getEvents().size());
+		}
+	}
+	
 	////////////////////////////////
 	// Tests for File Version 1.10 //
 	////////////////////////////////
@@ -349,7 +392,12 @@ public class OpenRocketSaverTest {
 	}
 	
 	private OpenRocketDocument loadRocket(String fileName) {
+		return loadRocket(fileName, false);
+	}
+	
+	private OpenRocketDocument loadRocket(String fileName, boolean lazyFlightData) {
 		GeneralRocketLoader loader = new GeneralRocketLoader(new File(fileName));
+		loader.setLazyFlightData(lazyFlightData);
 		OpenRocketDocument rocketDoc = null;
 		try {
 			rocketDoc = loader.load();
@@ -0,0 +1,37 @@
+package info.openrocket.core.file.openrocket.importt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class FlightDataSpoolTest {
+
+	@Test
+	public void testAppendChecksPoints() throws Exception {
+		FlightDataSpool spool = FlightDataSpool.create();
+		long start = spool.getPosition();
+
+		assertTrue(spool.append("1.5,-2e3", 2));
+		assertFalse(spool.append("1.5,x", 2));
+		assertFalse(spool.append("1.5", 2));
+		assertFalse(spool.append("1.5,2,3", 2));
+		assertFalse(spool.append("1.5,\u00b2", 2));
+		// Trailing empty values are ignored
+		assertTrue(spool.append("NaN,Inf,,", 2));
+		spool.flush();
+
+		List<double[]> rows = new ArrayList<double[]>();
+		spool.createLoader(start, spool.getPosition(), 2).load(row -> rows.add(row.clone()));
+		spool.finish();
+
+		assertEquals(2, rows.size());
+		assertArrayEquals(new double[] { 1.5, -2000 }, rows.get(0));
+		assertArrayEquals(new double[] { Double.NaN, Double.POSITIVE_INFINITY }, rows.get(1));
+	}
+}
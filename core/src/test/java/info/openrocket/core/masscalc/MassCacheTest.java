@@ -1,9 +1,14 @@
 package info.openrocket.core.masscalc;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import info.openrocket.core.rocketcomponent.BodyTube;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
 import info.openrocket.core.rocketcomponent.Rocket;
 import info.openrocket.core.util.TestRockets;
 import info.openrocket.core.util.BaseTestCase;
@@ -19,6 +24,31 @@ public class MassCacheTest extends BaseTestCase {
 		// .... soooo we have this waste of space. -DMW
 		assertTrue(true);
 	}
+
+	@Test
+	public void testStructureCache() {
+		Rocket rocket = TestRockets.makeSimple2Stage();
+		FlightConfiguration config = rocket.getSelectedConfiguration();
+		MassCalculator calculator = new MassCalculator();
+
+		RigidBody full = calculator.getCachedStructure(config);
+		assertSame(full, calculator.getCachedStructure(config));
+		assertEquals(MassCalculator.calculateStructure(config).getMass(), full.getMass(), 0);
+
+		// Separating a stage uses the data of the remaining stages
+		config.setOnlyStage(0);
+		RigidBody sustainer = calculator.getCachedStructure(config);
+		assertEquals(MassCalculator.calculateStructure(config).getMass(), sustainer.getMass(), 0);
+		assertTrue(sustainer.getMass() < full.getMass());
+
+		// Modifying the rocket discards the cached data
+		BodyTube body = (BodyTube) rocket.getChild(0).getChild(0);
+		body.setLength(body.getLength() * 2);
+		RigidBody modified = calculator.getCachedStructure(config);
+		assertNotSame(sustainer, modified);
+		assertEquals(MassCalculator.calculateStructure(config).getMass(), modified.getMass(), 0);
+		assertTrue(modified.getMass() > sustainer.getMass());
+	}
 	//
 	// FlightConfiguration config = rocket.getEmptyConfiguration();
 	// MassCalculator mc = new MassCalculator();
@@ -0,0 +1,53 @@
+package info.openrocket.core.models.atmosphere;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+public class ExtendedISAModelTest {
+
+	@Test
+	public void testStandardValues() {
+		ExtendedISAModel model = new ExtendedISAModel();
+		assertEquals(288.15, model.getTemperature(0), 1e-6);
+		assertEquals(101325, model.getPressure(0), 1e-6);
+		assertEquals(1.225, model.getDensity(0), 1e-3);
+		assertEquals(216.65, model.getTemperature(11000), 1e-6);
+		assertEquals(22632, model.getPressure(11000), 5);
+
+		// Below and above the table the boundary values are returned
+		assertEquals(model.getTemperature(0), model.getTemperature(-100), 0);
+		assertEquals(model.getPressure(84852), model.getPressure(200000), 0);
+	}
+
+	@Test
+	public void testPrimitiveLookupMatchesConditions() {
+		ExtendedISAModel model = new ExtendedISAModel(278.15, 100000);
+		for (double alt = -50; alt < 90000; alt += 123.4) {
+			AtmosphericConditions c = model.getConditions(alt);
+			assertEquals(c.getTemperature(), model.getTemperature(alt), 0);
+			assertEquals(c.getPressure(), model.getPressure(alt), 0);
+			assertEquals(c.getDensity(), model.getDensity(alt), 0);
+		}
+	}
+
+	@Test
+	public void testTableSharing() {
+		ExtendedISAModel a = new ExtendedISAModel(0, 280, 99000);
+		ExtendedISAModel b = new ExtendedISAModel(0, 280, 99000);
+		ExtendedISAModel c = new ExtendedISAModel(0, 281, 99000);
+		assertSame(a.getTable(), b.getTable());
+		assertNotSame(a.getTable(), c.getTable());
+	}
+
+	@Test
+	public void testConditionsAreNotShared() {
+		ExtendedISAModel model = new ExtendedISAModel();
+		AtmosphericConditions c = model.getConditions(0);
+		c.setTemperature(0);
+		assertEquals(288.15, model.getConditions(0).getTemperature(), 1e-6);
+	}
+
+}
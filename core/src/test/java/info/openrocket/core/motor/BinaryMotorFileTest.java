@@ -0,0 +1,133 @@
+package info.openrocket.core.motor;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.util.Coordinate;
+
+public class BinaryMotorFileTest {
+
+	private final ThrustCurveMotor motorX6 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("foo"))
+			.setDesignation("X6")
+			.setDescription("Description of X6")
+			.setMotorType(Motor.Type.RELOAD)
+			.setStandardDelays(new double[] { 0, 2, Motor.PLUGGED_DELAY })
+			.setDiameter(0.05)
+			.setLength(0.10)
+			.setTimePoints(new double[] { 0, 1, 3, 4 })
+			.setThrustPoints(new double[] { 0, 2, 3, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.02, 0, 0, 0.05),
+					new Coordinate(0.03, 0, 0, 0.03) })
+			.setDigest("digestA")
+			.build();
+
+	private final ThrustCurveMotor motorA8 = new ThrustCurveMotor.Builder()
+			.setManufacturer(Manufacturer.getManufacturer("Estes"))
+			.setDesignation("A8-3")
+			.setCaseInfo("SU 18.0x70")
+			.setPropellantInfo("Black powder")
+			.setMotorType(Motor.Type.SINGLE)
+			.setStandardDelays(new double[] { 3 })
+			.setDiameter(0.018)
+			.setLength(0.07)
+			.setTimePoints(new double[] { 0, 0.1, 0.5, 0.73 })
+			.setThrustPoints(new double[] { 0, 9.7, 2.4, 0 })
+			.setCGPoints(new Coordinate[] {
+					new Coordinate(0.035, 0, 0, 0.0162),
+					new Coordinate(0.035, 0, 0, 0.0158),
+					new Coordinate(0.036, 0, 0, 0.0146),
+					new Coordinate(0.037, 0, 0, 0.0139) })
+			.setDigest("digestB")
+			.setAvailability(false)
+			.build();
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<ThrustCurveMotor> motors = read(write(motorX6, motorA8));
+		assertEquals(2, motors.size());
+		assertMotorEquals(motorX6, motors.get(0));
+		assertMotorEquals(motorA8, motors.get(1));
+	}
+
+	@Test
+	public void testLazyMotorSerialization() throws Exception {
+		ThrustCurveMotor lazy = read(write(motorX6)).get(0);
+
+		// Java serialization decodes the curve of a lazy motor before writing it
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(lazy);
+		}
+		ThrustCurveMotor copy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = (ThrustCurveMotor) in.readObject();
+		}
+		assertMotorEquals(motorX6, copy);
+	}
+
+	@Test
+	public void testInvalidData() {
+		byte[] data = write(motorX6);
+		data[0] = 'X';
+		assertThrows(IOException.class, () -> read(data));
+
+		byte[] truncated = Arrays.copyOf(write(motorX6), 100);
+		assertThrows(IOException.class, () -> read(truncated));
+	}
+
+	private static void assertMotorEquals(ThrustCurveMotor expected, ThrustCurveMotor actual) {
+		assertSame(expected.getManufacturer(), actual.getManufacturer());
+		assertEquals(expected.getDesignation(), actual.getDesignation());
+		assertEquals(expected.getCommonName(), actual.getCommonName());
+		assertEquals(expected.getDescription(), actual.getDescription());
+		assertEquals(expected.getDigest(), actual.getDigest());
+		assertEquals(expected.getCaseInfo(), actual.getCaseInfo());
+		assertEquals(expected.getPropellantInfo(), actual.getPropellantInfo());
+		assertEquals(expected.getMotorType(), actual.getMotorType());
+		assertEquals(expected.isAvailable(), actual.isAvailable());
+		assertEquals(expected.getDiameter(), actual.getDiameter(), 0);
+		assertEquals(expected.getLength(), actual.getLength(), 0);
+		assertEquals(expected.getUnitRotationalInertia(), actual.getUnitRotationalInertia(), 0);
+		assertEquals(expected.getTotalImpulseEstimate(), actual.getTotalImpulseEstimate(), 0);
+		assertEquals(expected.getBurnTimeEstimate(), actual.getBurnTimeEstimate(), 0);
+		assertArrayEquals(expected.getStandardDelays(), actual.getStandardDelays(), 0);
+		assertArrayEquals(expected.getTimePoints(), actual.getTimePoints(), 0);
+		assertArrayEquals(expected.getThrustPoints(), actual.getThrustPoints(), 0);
+		assertArrayEquals(expected.getCGPoints(), actual.getCGPoints());
+		for (double t = 0; t < 5; t += 0.05) {
+			assertEquals(expected.getThrust(t), actual.getThrust(t), 0);
+			assertEquals(expected.getTotalMass(t), actual.getTotalMass(t), 0);
+		}
+		assertEquals(0, expected.compareTo(actual));
+	}
+
+	private static byte[] write(ThrustCurveMotor... motors) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			BinaryMotorFile.write(Arrays.asList(motors), out);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static List<ThrustCurveMotor> read(byte[] data) throws IOException {
+		return BinaryMotorFile.read(new ByteArrayInputStream(data));
+	}
+}
@@ -3,6 +3,8 @@ package info.openrocket.core.motor;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import info.openrocket.core.util.Coordinate;
@@ -200,4 +202,46 @@ public class ThrustCurveMotorTest {
 		assertEquals(ThrustCurveMotor.Builder.simplifyDesignation("Micro Maxx II"), "MicroMaxxII");
 	}
 
+	@Test
+	public void testIndexLookup() {
+		final ThrustCurveMotor mtr = motorEstesA8_3;
+		final double[] time = mtr.getTimePoints();
+
+		// Sample points, advancing and random times must give the same result as a scan
+		for (double t : time) {
+			assertLookup(mtr, time, t);
+		}
+		for (double t = -0.1; t < 1; t += 0.0007) {
+			assertLookup(mtr, time, t);
+		}
+		Random rnd = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			assertLookup(mtr, time, rnd.nextDouble() * 0.8 - 0.05);
+		}
+		assertTrue(Double.isNaN(mtr.getThrust(Double.NaN)));
+	}
+
+	private static void assertLookup(ThrustCurveMotor mtr, double[] time, double t) {
+		int index = 0;
+		while (index + 1 < time.length && t >= time[index + 1]) {
+			index++;
+		}
+		double pseudoIndex = mtr.getPseudoIndex(t);
+		if (t < 0) {
+			assertTrue(Double.isNaN(pseudoIndex));
+			return;
+		}
+		double fraction = 0;
+		if (index + 1 < time.length) {
+			fraction = (t - time[index]) / (time[index + 1] - time[index]);
+			fraction = (fraction < 0.0001) ? 0 : (fraction > 0.9999) ? 1 : fraction;
+		}
+		assertEquals(index + fraction, pseudoIndex, 0, "pseudo index at t=" + t);
+
+		// The CG and mass are interpolated without intermediate coordinates, with identical results
+		Coordinate cg = mtr.interpolateCenterOfMassAtIndex(pseudoIndex);
+		assertEquals(cg.x, mtr.getCMx(t), 0);
+		assertEquals(cg.weight, mtr.getTotalMass(t), 0);
+	}
+
 }
@@ -0,0 +1,69 @@
+package info.openrocket.core.optimization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.OptimizationResultCache;
+
+import org.junit.jupiter.api.Test;
+
+public class TestOptimizationResultCache {
+
+	@Test
+	public void testGetAndPut() {
+		OptimizationResultCache cache = new OptimizationResultCache(null, 10);
+		cache.put("f", new Point(0.25, 0.5), 12.5);
+
+		assertEquals(12.5, cache.get("f", new Point(0.25, 0.5)), 0);
+		// Points are quantized
+		assertEquals(12.5, cache.get("f", new Point(0.25 + 1e-12, 0.5)), 0);
+		assertNull(cache.get("f", new Point(0.25, 0.75)));
+		assertNull(cache.get("g", new Point(0.25, 0.5)));
+	}
+
+	@Test
+	public void testEviction() {
+		OptimizationResultCache cache = new OptimizationResultCache(null, 2);
+		cache.put("f", new Point(0.1), 1);
+		cache.put("f", new Point(0.2), 2);
+		cache.get("f", new Point(0.1));
+		cache.put("f", new Point(0.3), 3);
+
+		// The least recently used value is evicted
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.get("f", new Point(0.1)), 0);
+		assertNull(cache.get("f", new Point(0.2)));
+		assertEquals(3, cache.get("f", new Point(0.3)), 0);
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		File file = Files.createTempFile("optimizationcache", ".dat").toFile();
+		try {
+			OptimizationResultCache cache = new OptimizationResultCache(file, 2);
+			cache.put("f", new Point(0.1), Double.NaN);
+			cache.put("f", new Point(0.2), 2);
+			cache.get("f", new Point(0.1));
+			cache.save();
+
+			cache = new OptimizationResultCache(file, 2);
+			cache.load();
+			assertEquals(2, cache.size());
+
+			// The usage order is preserved
+			cache.put("f", new Point(0.3), 3);
+			assertTrue(Double.isNaN(cache.get("f", new Point(0.1))));
+			assertNull(cache.get("f", new Point(0.2)));
+
+			Files.writeString(file.toPath(), "invalid");
+			cache.load();
+			assertEquals(0, cache.size());
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package info.openrocket.core.optimization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import info.openrocket.core.optimization.general.ParallelExecutorCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.general.multidim.MultidirectionalSearchOptimizer;
+
+import org.junit.jupiter.api.Test;
+
+public class TestParallelExecutorCache {
+
+	@Test
+	public void testWaitForAny() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final Point slow = new Point(0.1, 0.1);
+		final Point fast = new Point(0.2, 0.2);
+
+		ParallelExecutorCache cache = new ParallelExecutorCache(2);
+		cache.setFunction(point -> {
+			if (point.equals(slow)) {
+				release.await();
+			}
+			return point.get(0);
+		});
+
+		List<Point> points = Arrays.asList(slow, fast);
+		cache.compute(points);
+		assertEquals(fast, cache.waitForAny(points));
+		assertEquals(0.2, cache.getValue(fast), 0);
+
+		release.countDown();
+		cache.waitFor(slow);
+		assertEquals(0.1, cache.getValue(slow), 0);
+
+		// Points outside the range are available immediately
+		Point outside = new Point(-1.0, 0.5);
+		assertEquals(outside, cache.waitForAny(Arrays.asList(outside)));
+		cache.getExecutor().shutdownNow();
+	}
+
+	@Test
+	public void testAbortAndClear() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		ParallelExecutorCache cache = new ParallelExecutorCache(1);
+		cache.setFunction(point -> {
+			release.await();
+			return 1.0;
+		});
+
+		Point p = new Point(0.5);
+		cache.compute(p);
+		assertFalse(cache.abort(p));
+
+		// Evaluations can be aborted by clearing the cache and computed again
+		cache.compute(p);
+		cache.clearCache();
+		release.countDown();
+		cache.compute(p);
+		cache.waitFor(p);
+		assertEquals(1.0, cache.getValue(p), 0);
+		cache.getExecutor().shutdownNow();
+	}
+
+	@Test
+	public void testMultidirectionalSearch() throws Exception {
+		ParallelExecutorCache cache = new ParallelExecutorCache(4);
+		cache.setFunction(point -> {
+			double x = point.get(0) - 0.3;
+			double y = point.get(1) - 0.6;
+			return x * x + y * y;
+		});
+
+		MultidirectionalSearchOptimizer optimizer = new MultidirectionalSearchOptimizer(cache);
+		optimizer.optimize(new Point(0.5, 0.5), (initial, initialValue, newPoint, newValue, stepSize) -> stepSize > 1e-6);
+		assertEquals(0.3, optimizer.getOptimumPoint().get(0), 1e-4);
+		assertEquals(0.6, optimizer.getOptimumPoint().get(1), 1e-4);
+		cache.getExecutor().shutdownNow();
+	}
+}
@@ -0,0 +1,142 @@
+package info.openrocket.core.optimization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import info.openrocket.core.optimization.general.Function;
+import info.openrocket.core.optimization.general.FunctionOptimizer;
+import info.openrocket.core.optimization.general.ParallelExecutorCache;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.general.multidim.CMAESOptimizer;
+import info.openrocket.core.optimization.general.multidim.NelderMeadOptimizer;
+
+import org.junit.jupiter.api.Test;
+
+public class TestPopulationOptimizers {
+
+	private static final double[] TARGET = { 0.3, 0.6, 0.45, 0.8, 0.1 };
+
+	/** Ill-conditioned quadratic with its minimum inside the unit hypercube */
+	private static final Function QUADRATIC = point -> {
+		double value = 0;
+		for (int i = 0; i < point.dim(); i++) {
+			double d = point.get(i) - TARGET[i];
+			value += (i + 1) * (i + 1) * d * d;
+		}
+		return value;
+	};
+
+	@Test
+	public void testCMAES() throws Exception {
+		ParallelExecutorCache cache = new ParallelExecutorCache(4);
+		cache.setFunction(QUADRATIC);
+		CMAESOptimizer optimizer = new CMAESOptimizer(cache);
+		optimizer.setRandom(new Random(42));
+		optimizer.setPopulationSize(8);
+
+		assertConverged(optimizer, new Point(0.5, 0.5, 0.5, 0.5, 0.5));
+		cache.getExecutor().shutdownNow();
+	}
+
+	@Test
+	public void testCMAESBoundary() throws Exception {
+		// Minimum outside of the domain is found on its boundary
+		ParallelExecutorCache cache = new ParallelExecutorCache(4);
+		cache.setFunction(point -> {
+			double x = point.get(0) - 1.5;
+			double y = point.get(1) - 0.4;
+			return x * x + y * y;
+		});
+		CMAESOptimizer optimizer = new CMAESOptimizer(cache);
+		optimizer.setRandom(new Random(1));
+
+		optimizer.optimize(new Point(0.9, 0.9), (oldPoint, oldValue, newPoint, newValue, stepSize) -> stepSize > 1e-6);
+		assertEquals(1.0, optimizer.getOptimumPoint().get(0), 0);
+		assertEquals(0.4, optimizer.getOptimumPoint().get(1), 1e-4);
+		cache.getExecutor().shutdownNow();
+	}
+
+	@Test
+	public void testNelderMead() throws Exception {
+		for (int parallelism = 1; parallelism <= 5; parallelism += 2) {
+			ParallelExecutorCache cache = new ParallelExecutorCache(parallelism);
+			cache.setFunction(QUADRATIC);
+			NelderMeadOptimizer optimizer = new NelderMeadOptimizer(cache);
+			optimizer.setParallelism(parallelism);
+
+			// Initial point close to the boundary
+			assertConverged(optimizer, new Point(0.9, 0.5, 1.0, 0.5, 0.0));
+			cache.getExecutor().shutdownNow();
+		}
+	}
+
+	@Test
+	public void testEarlyStopping() throws Exception {
+		ParallelExecutorCache cache = new ParallelExecutorCache(2);
+		cache.setFunction(QUADRATIC);
+		FunctionOptimizer[] optimizers = { new CMAESOptimizer(cache), new NelderMeadOptimizer(cache) };
+
+		for (FunctionOptimizer optimizer : optimizers) {
+			final AtomicInteger steps = new AtomicInteger();
+			optimizer.optimize(new Point(0.5, 0.5, 0.5), (oldPoint, oldValue, newPoint, newValue, stepSize) -> {
+				assertTrue(newValue <= oldValue);
+				return steps.incrementAndGet() < 3;
+			});
+			assertEquals(3, steps.get());
+			assertEquals(QUADRATIC.evaluate(optimizer.getOptimumPoint()), optimizer.getOptimumValue(), 0);
+		}
+		cache.getExecutor().shutdownNow();
+	}
+
+	@Test
+	public void testInterruptWithDuplicatePoints() throws Exception {
+		// Evaluations other than the initial point block until they are cancelled
+		final CountDownLatch started = new CountDownLatch(1);
+		ParallelExecutorCache cache = new ParallelExecutorCache(2);
+		cache.setFunction(point -> {
+			if (point.get(0) == 0.5) {
+				return 0;
+			}
+			started.countDown();
+			Thread.sleep(60000);
+			return 1;
+		});
+
+		// A large step size clamps most of the sampled points to the same bounds
+		CMAESOptimizer optimizer = new CMAESOptimizer(cache);
+		optimizer.setRandom(new Random(3));
+		optimizer.setInitialStepSize(100);
+		optimizer.setPopulationSize(6);
+
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread thread = new Thread(() -> {
+			try {
+				optimizer.optimize(new Point(0.5), (oldPoint, oldValue, newPoint, newValue, stepSize) -> true);
+			} catch (Throwable t) {
+				failure.set(t);
+			}
+		});
+		thread.start();
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		thread.interrupt();
+		thread.join(10000);
+
+		assertFalse(thread.isAlive());
+		assertNull(failure.get());
+		assertEquals(0.5, optimizer.getOptimumPoint().get(0), 0);
+		cache.getExecutor().shutdownNow();
+	}
+
+	private static void assertConverged(FunctionOptimizer optimizer, Point initial) throws Exception {
+		optimizer.optimize(initial, (oldPoint, oldValue, newPoint, newValue, stepSize) -> stepSize > 1e-7);
+		Point optimum = optimizer.getOptimumPoint();
+		for (int i = 0; i < optimum.dim(); i++) {
+			assertEquals(TARGET[i], optimum.get(i), 1e-4, "dimension " + i + " of " + optimum);
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package info.openrocket.core.optimization.rocketoptimization;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.modifiers.GenericModifier;
+import info.openrocket.core.optimization.rocketoptimization.parameters.SimulationBasedParameter;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.FlightData;
+import info.openrocket.core.simulation.FlightDataType;
+import info.openrocket.core.simulation.SimulationOptions;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.listeners.AbstractSimulationListener;
+import info.openrocket.core.simulation.listeners.SimulationListener;
+import info.openrocket.core.unit.UnitGroup;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class TestDesignSweep extends BaseTestCase {
+
+	@TempDir
+	File tempDir;
+
+	private Simulation simulation;
+	private GenericModifier<SimulationOptions> rodLength;
+	private GenericModifier<SimulationOptions> rodAngle;
+	private OptimizableParameter sum;
+
+	@BeforeEach
+	public void setup() {
+		simulation = new Simulation(new Rocket());
+
+		rodLength = new GenericModifier<SimulationOptions>("Rod length", "", null, UnitGroup.UNITS_LENGTH, 1.0,
+				SimulationOptions.class, "LaunchRodLength") {
+			@Override
+			protected SimulationOptions getModifiedObject(Simulation sim) {
+				return sim.getOptions();
+			}
+		};
+		rodLength.setMinValue(1);
+		rodLength.setMaxValue(2);
+
+		rodAngle = new GenericModifier<SimulationOptions>("Rod angle", "", null, UnitGroup.UNITS_ANGLE, 1.0,
+				SimulationOptions.class, "LaunchRodAngle") {
+			@Override
+			protected SimulationOptions getModifiedObject(Simulation sim) {
+				return sim.getOptions();
+			}
+		};
+		rodAngle.setMinValue(0);
+		rodAngle.setMaxValue(0.1);
+
+		sum = new OptimizableParameter() {
+			@Override
+			public String getName() {
+				return "Sum, of values";
+			}
+
+			@Override
+			public double computeValue(Simulation sim) {
+				return sim.getOptions().getLaunchRodLength() + sim.getOptions().getLaunchRodAngle();
+			}
+
+			@Override
+			public UnitGroup getUnitGroup() {
+				return UnitGroup.UNITS_LENGTH;
+			}
+		};
+	}
+
+	@Test
+	public void testFullFactorial() {
+		List<Point> points = DesignSweep.fullFactorial(3, 1, 2);
+		assertEquals(6, points.size());
+		assertEquals(new Point(0, 0.5, 0), points.get(0));
+		assertEquals(new Point(0, 0.5, 1), points.get(1));
+		assertEquals(new Point(0.5, 0.5, 0), points.get(2));
+		assertEquals(new Point(1, 0.5, 1), points.get(5));
+	}
+
+	@Test
+	public void testLatinHypercube() {
+		List<Point> points = DesignSweep.latinHypercube(10, 3, new Random(5));
+		assertEquals(10, points.size());
+		for (int i = 0; i < 3; i++) {
+			BitSet intervals = new BitSet();
+			for (Point p : points) {
+				intervals.set((int) (p.get(i) * 10));
+			}
+			assertEquals(10, intervals.cardinality());
+		}
+	}
+
+	@Test
+	public void testSweep() throws Exception {
+		File file = new File(tempDir, "sweep.csv");
+		List<Point> points = DesignSweep.fullFactorial(5, 4);
+		final List<Integer> delivered = Collections.synchronizedList(new ArrayList<Integer>());
+
+		DesignSweep sweep = new DesignSweep(simulation, Arrays.asList(sum), rodLength, rodAngle);
+		sweep.setThreadCount(3);
+		sweep.addDesignSweepListener((index, point, modifierValues, parameterValues) -> {
+			delivered.add(index);
+			assertEquals(modifierValues[0] + modifierValues[1], parameterValues[0], 1e-12);
+		});
+		assertEquals(20, sweep.run(points, file, false));
+		assertEquals(20, delivered.size());
+
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals("# index,Rod length (m),Rod angle (rad),\"Sum, of values (m)\",Rod length (scaled),Rod angle (scaled)",
+				lines.get(0));
+		assertEquals(21, lines.size());
+		for (String line : lines.subList(1, lines.size())) {
+			String[] fields = line.split(",");
+			Point p = points.get(Integer.parseInt(fields[0]));
+			assertEquals(1 + p.get(0), Double.parseDouble(fields[1]), 1e-12);
+			assertEquals(0.1 * p.get(1), Double.parseDouble(fields[2]), 1e-12);
+			assertEquals(p.get(0), Double.parseDouble(fields[4]), 0);
+			assertEquals(p.get(1), Double.parseDouble(fields[5]), 0);
+		}
+
+		// The base simulation is not modified
+		assertEquals(new SimulationOptions().getLaunchRodLength(), simulation.getOptions().getLaunchRodLength(), 0);
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		File file = new File(tempDir, "sweep.csv");
+		List<Point> points = DesignSweep.latinHypercube(12, 2, new Random(3));
+		DesignSweep sweep = new DesignSweep(simulation, Arrays.asList(sum), rodLength, rodAngle);
+		sweep.setThreadCount(2);
+
+		// Keep the first 5 results and a partially written line
+		sweep.run(points, file, false);
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		String content = String.join("\n", lines.subList(0, 6)) + "\n" + lines.get(6).substring(0, 4);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+		assertEquals(7, sweep.run(points, file, true));
+		lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		assertEquals(13, lines.size());
+		BitSet indices = new BitSet();
+		for (String line : lines.subList(1, lines.size())) {
+			indices.set(Integer.parseInt(line.split(",")[0]));
+		}
+		assertEquals(12, indices.cardinality());
+
+		// Nothing remains to be evaluated
+		assertEquals(0, sweep.run(points, file, true));
+
+		// Results of a different sweep are not resumed
+		DesignSweep other = new DesignSweep(simulation, Arrays.asList(sum), rodAngle, rodLength);
+		assertThrows(IOException.class, () -> other.run(points, file, true));
+		assertTrue(file.length() > 0);
+	}
+
+	private static final AtomicInteger simulationRuns = new AtomicInteger();
+
+	public static class CountingListener extends AbstractSimulationListener {
+		@Override
+		public void startSimulation(SimulationStatus status) {
+			simulationRuns.incrementAndGet();
+		}
+	}
+
+	private static class CountingParameter extends SimulationBasedParameter {
+		private final FlightDataType type;
+		private final boolean counting;
+
+		private CountingParameter(FlightDataType type, boolean counting) {
+			this.type = type;
+			this.counting = counting;
+		}
+
+		@Override
+		public String getName() {
+			return type.getName();
+		}
+
+		@Override
+		public UnitGroup getUnitGroup() {
+			return type.getUnitGroup();
+		}
+
+		@Override
+		protected SimulationListener[] getSimulationListeners() {
+			return counting ? new SimulationListener[] { new CountingListener() } : new SimulationListener[0];
+		}
+
+		@Override
+		protected double getResultValue(FlightData simulatedData) {
+			return simulatedData.getBranch(0).getMaximum(type);
+		}
+	}
+
+	@Test
+	public void testSharedSimulation() throws Exception {
+		Simulation alpha = new Simulation(TestRockets.makeEstesAlphaIII());
+		alpha.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		alpha.getOptions().setISAAtmosphere(true);
+		alpha.getOptions().setTimeStep(0.05);
+
+		// The two counting parameters share a simulation, the third needs its own
+		CountingParameter altitude = new CountingParameter(FlightDataType.TYPE_ALTITUDE, true);
+		CountingParameter velocity = new CountingParameter(FlightDataType.TYPE_VELOCITY_TOTAL, true);
+		CountingParameter time = new CountingParameter(FlightDataType.TYPE_TIME, false);
+		assertTrue(altitude.sharesSimulation(velocity));
+		assertFalse(altitude.sharesSimulation(time));
+
+		final List<double[]> values = Collections.synchronizedList(new ArrayList<double[]>());
+		DesignSweep sweep = new DesignSweep(alpha, Arrays.asList(altitude, velocity, time), rodLength);
+		sweep.setThreadCount(2);
+		sweep.addDesignSweepListener((index, point, modifierValues, parameterValues) -> values.add(parameterValues));
+		simulationRuns.set(0);
+		assertEquals(2, sweep.run(DesignSweep.fullFactorial(2), new File(tempDir, "sweep.csv"), false));
+
+		assertEquals(2, simulationRuns.get());
+		for (double[] v : values) {
+			assertTrue(v[0] > 0);
+			assertTrue(v[1] > 0);
+			assertTrue(v[2] > 0);
+		}
+	}
+
+	@Test
+	public void testResumeClampedModifier() throws Exception {
+		File file = new File(tempDir, "sweep.csv");
+		// The launch rod angle is limited by the simulation options
+		rodAngle.setMaxValue(2);
+		List<Point> points = DesignSweep.fullFactorial(2, 3);
+		DesignSweep sweep = new DesignSweep(simulation, Arrays.asList(sum), rodLength, rodAngle);
+		sweep.setThreadCount(2);
+
+		sweep.run(points, file, false);
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		boolean clamped = false;
+		for (String line : lines.subList(1, lines.size())) {
+			String[] fields = line.split(",");
+			clamped |= Double.parseDouble(fields[2]) < 2 * Double.parseDouble(fields[5]) - 1e-9;
+		}
+		assertTrue(clamped);
+
+		// Keep the first 3 results
+		Files.write(file.toPath(), (String.join("\n", lines.subList(0, 4)) + "\n").getBytes(StandardCharsets.UTF_8));
+		assertEquals(3, sweep.run(points, file, true));
+		assertEquals(7, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+	}
+
+	@Test
+	public void testResumeMismatch() throws Exception {
+		File file = new File(tempDir, "sweep.csv");
+		List<Point> points = DesignSweep.latinHypercube(6, 2, new Random(3));
+		DesignSweep sweep = new DesignSweep(simulation, Arrays.asList(sum), rodLength, rodAngle);
+		sweep.run(points, file, false);
+
+		// Results of other points are not resumed, even with a partially written line
+		Files.write(file.toPath(), "3,1.".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		byte[] content = Files.readAllBytes(file.toPath());
+		List<Point> otherPoints = DesignSweep.latinHypercube(6, 2, new Random(4));
+		assertThrows(IOException.class, () -> sweep.run(otherPoints, file, true));
+		assertArrayEquals(content, Files.readAllBytes(file.toPath()));
+
+		// Other files are not modified
+		File other = new File(tempDir, "other.txt");
+		content = "no line end".getBytes(StandardCharsets.UTF_8);
+		Files.write(other.toPath(), content);
+		assertThrows(IOException.class, () -> sweep.run(points, other, true));
+		assertArrayEquals(content, Files.readAllBytes(other.toPath()));
+	}
+}
@@ -2,6 +2,7 @@ package info.openrocket.core.optimization.rocketoptimization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
@@ -16,12 +17,21 @@ import org.junit.runner.RunWith;
 import info.openrocket.core.document.Simulation;
 import info.openrocket.core.optimization.general.OptimizationException;
 import info.openrocket.core.optimization.general.Point;
+import info.openrocket.core.optimization.rocketoptimization.goals.MaximizationGoal;
+import info.openrocket.core.optimization.rocketoptimization.goals.MinimizationGoal;
+import info.openrocket.core.optimization.rocketoptimization.goals.ValueSeekGoal;
+import info.openrocket.core.optimization.rocketoptimization.modifiers.GenericModifier;
+import info.openrocket.core.optimization.rocketoptimization.parameters.MaximumAltitudeParameter;
+import info.openrocket.core.optimization.rocketoptimization.parameters.MaximumVelocityParameter;
+import info.openrocket.core.rocketcomponent.NoseCone;
 import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.SimulationOptions;
 import info.openrocket.core.unit.Unit;
 import info.openrocket.core.unit.UnitGroup;
 import info.openrocket.core.unit.Value;
 import info.openrocket.core.util.Pair;
 import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -233,6 +243,66 @@ public class TestRocketOptimizationFunction extends BaseTestCase {
 		assertEquals(sim.getName(), "MySim");
 		assertFalse(rocket == sim.getRocket());
 		assertEquals(sim.getRocket().getName(), "Foobar");
+
+		// The private rocket copy is simulated directly
+		assertTrue(simulation.isSimulateRocketCopy());
+		assertFalse(sim.isSimulateRocketCopy());
+	}
+
+	@Test
+	public void testCacheKey() {
+		final Rocket rocket = TestRockets.makeEstesAlphaIII();
+		final Simulation simulation = new Simulation(rocket);
+		final GenericModifier<SimulationOptions> rodLength = new GenericModifier<SimulationOptions>("Rod length", "",
+				null, UnitGroup.UNITS_LENGTH, 1.0, SimulationOptions.class, "LaunchRodLength") {
+			@Override
+			protected SimulationOptions getModifiedObject(Simulation sim) {
+				return sim.getOptions();
+			}
+		};
+		rodLength.setMinValue(1);
+		rodLength.setMaxValue(2);
+
+		String key = new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), domain, rodLength).getCacheKey();
+
+		// An unchanged design has the same key
+		assertEquals(key, new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), domain, rodLength).getCacheKey());
+		Simulation copy = simulation.duplicateSimulation(rocket.copyWithOriginalID());
+		assertEquals(key, new RocketOptimizationFunction(copy, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), domain, rodLength).getCacheKey());
+
+		// The parameter and goal
+		assertNotEquals(key, new RocketOptimizationFunction(simulation, new MaximumVelocityParameter(),
+				new MaximizationGoal(), domain, rodLength).getCacheKey());
+		assertNotEquals(key, new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MinimizationGoal(), domain, rodLength).getCacheKey());
+		assertNotEquals(new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new ValueSeekGoal(100), domain, rodLength).getCacheKey(),
+				new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+						new ValueSeekGoal(200), domain, rodLength).getCacheKey());
+
+		// The modifier range
+		rodLength.setMaxValue(3);
+		String changed = new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), domain, rodLength).getCacheKey();
+		assertNotEquals(key, changed);
+		rodLength.setMaxValue(2);
+
+		// The simulation options
+		simulation.getOptions().setLaunchRodLength(simulation.getOptions().getLaunchRodLength() + 0.1);
+		changed = new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), domain, rodLength).getCacheKey();
+		assertNotEquals(key, changed);
+
+		// The rocket
+		key = changed;
+		NoseCone nose = (NoseCone) rocket.getChild(0).getChild(0);
+		nose.setLength(nose.getLength() * 2);
+		changed = new RocketOptimizationFunction(simulation, new MaximumAltitudeParameter(),
+				new MaximizationGoal(), domain, rodLength).getCacheKey();
+		assertNotEquals(key, changed);
 	}
 
 }
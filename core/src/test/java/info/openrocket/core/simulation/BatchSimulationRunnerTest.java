@@ -0,0 +1,124 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.simulation.listeners.SimulationListenerHook;
+import info.openrocket.core.simulation.listeners.system.InterruptListener;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class BatchSimulationRunnerTest extends BaseTestCase {
+
+	@Test
+	public void testRunSimulations() throws Exception {
+		final Rocket rocket = TestRockets.makeEstesAlphaIII();
+		final Simulation reference = createSimulation(rocket);
+		reference.simulate();
+		final double referenceAltitude = reference.getSimulatedData().getMaxAltitude();
+
+		List<Simulation> simulations = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			simulations.add(createSimulation(rocket));
+		}
+
+		final List<BatchSimulationResult> results = new ArrayList<>();
+		BatchSimulationRunner runner = new BatchSimulationRunner(2);
+		try {
+			runner.runSimulations(simulations, new BatchSimulationListener() {
+				@Override
+				public void simulationFinished(BatchSimulationResult result) {
+					results.add(result);
+				}
+			});
+		} finally {
+			runner.shutdown();
+		}
+
+		assertEquals(simulations.size(), results.size());
+		boolean[] seen = new boolean[simulations.size()];
+		for (BatchSimulationResult result : results) {
+			assertTrue(result.isSuccessful(), "Simulation failed: " + result.getError());
+			assertNotSame(simulations.get(result.getIndex()), result.getSimulation());
+			assertEquals(referenceAltitude, result.getFlightData().getMaxAltitude(), 1e-6);
+			seen[result.getIndex()] = true;
+		}
+		for (boolean b : seen) {
+			assertTrue(b);
+		}
+
+		// The original simulations are left untouched
+		for (Simulation simulation : simulations) {
+			assertNull(simulation.getSimulatedData());
+		}
+	}
+
+	@Test
+	public void testProfiling() throws Exception {
+		final Rocket rocket = TestRockets.makeEstesAlphaIII();
+		final Simulation reference = createSimulation(rocket);
+		reference.simulate();
+		final double referenceAltitude = reference.getSimulatedData().getMaxAltitude();
+
+		List<Simulation> simulations = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			simulations.add(createSimulation(rocket));
+		}
+
+		final List<BatchSimulationResult> results = new ArrayList<>();
+		BatchSimulationRunner runner = new BatchSimulationRunner(2);
+		runner.setProfiling(true);
+		try {
+			runner.runSimulations(simulations, new BatchSimulationListener() {
+				@Override
+				public void simulationFinished(BatchSimulationResult result) {
+					results.add(result);
+				}
+			});
+		} finally {
+			runner.shutdown();
+		}
+
+		for (BatchSimulationResult result : results) {
+			assertTrue(result.isSuccessful(), "Simulation failed: " + result.getError());
+			// Profiling does not change the results
+			assertEquals(referenceAltitude, result.getFlightData().getMaxAltitude(), 0);
+			assertNotNull(result.getProfile());
+			assertEquals(1, result.getProfile().getSimulationCount());
+		}
+
+		SimulationProfile profile = runner.getProfile();
+		assertNotNull(profile);
+		assertEquals(simulations.size(), profile.getSimulationCount());
+		long phaseTime = 0;
+		for (SimulationProfile.Phase phase : SimulationProfile.Phase.values()) {
+			assertTrue(profile.getCount(phase) > 0, "No calls recorded for " + phase);
+			phaseTime += profile.getTime(phase);
+		}
+		assertTrue(phaseTime <= profile.getTotalTime());
+		assertEquals(profile.getTotalTime() - phaseTime, profile.getOtherTime());
+		assertTrue(profile.getListenerTimes().containsKey(InterruptListener.class.getName()));
+		// InterruptListener only implements postStep
+		assertTrue(profile.getHookCount(SimulationListenerHook.POST_STEP) > 0);
+	}
+
+	private static Simulation createSimulation(Rocket rocket) {
+		Simulation sim = new Simulation(rocket);
+		sim.getOptions().setISAAtmosphere(true);
+		sim.getOptions().setTimeStep(0.05);
+		sim.getOptions().setRandomSeed(42);
+		sim.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+		return sim;
+	}
+
+}
@@ -0,0 +1,81 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class FlightDataBranchTest {
+
+	@Test
+	public void testSetValueAndLimits() {
+		FlightDataBranch branch = new FlightDataBranch("Test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		for (int i = 0; i < 200; i++) {
+			branch.addPoint();
+			branch.setValue(FlightDataType.TYPE_TIME, i * 0.1);
+			branch.setValue(FlightDataType.TYPE_ALTITUDE, 100 - i);
+		}
+
+		assertEquals(200, branch.getLength());
+		assertEquals(19.9, branch.getLast(FlightDataType.TYPE_TIME), 1e-10);
+		assertEquals(-99, branch.getMinimum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(100, branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(50.0, branch.getByIndex(FlightDataType.TYPE_ALTITUDE, 50), 0);
+
+		List<Double> altitudes = branch.get(FlightDataType.TYPE_ALTITUDE);
+		assertEquals(200, altitudes.size());
+		assertEquals(100.0, altitudes.get(0), 0);
+
+		double[] times = branch.getArray(FlightDataType.TYPE_TIME);
+		assertEquals(200, times.length);
+		assertEquals(0.5, times[5], 1e-10);
+
+		assertNull(branch.get(FlightDataType.TYPE_MACH_NUMBER));
+		assertEquals(Double.NaN, branch.getLast(FlightDataType.TYPE_MACH_NUMBER), 0);
+	}
+
+	@Test
+	public void testNewTypeIsBackfilledWithNaN() {
+		FlightDataBranch branch = new FlightDataBranch("Test", FlightDataType.TYPE_TIME);
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 0);
+		branch.addPoint();
+		branch.setValue(FlightDataType.TYPE_TIME, 1);
+		branch.setValue(FlightDataType.TYPE_MACH_NUMBER, 0.5);
+
+		assertArrayEquals(new double[] { Double.NaN, 0.5 }, branch.getArray(FlightDataType.TYPE_MACH_NUMBER), 0);
+		assertEquals(0.5, branch.getMinimum(FlightDataType.TYPE_MACH_NUMBER), 0);
+	}
+
+	@Test
+	public void testAddRow() {
+		FlightDataBranch branch = new FlightDataBranch("Test", FlightDataType.TYPE_TIME, FlightDataType.TYPE_ALTITUDE);
+		branch.addPoint(new double[] { 0, 10 });
+		branch.addPoint(new double[] { 1, 30 });
+		branch.addPoint(new double[] { 2, 20 });
+
+		assertEquals(3, branch.getLength());
+		assertArrayEquals(new double[] { 10, 30, 20 }, branch.getArray(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(30, branch.getMaximum(FlightDataType.TYPE_ALTITUDE), 0);
+		assertEquals(0, branch.getMinimum(FlightDataType.TYPE_TIME), 0);
+
+		assertThrows(IllegalArgumentException.class, () -> branch.addPoint(new double[] { 3 }));
+	}
+
+	@Test
+	public void testClone() {
+		FlightDataBranch branch = new FlightDataBranch("Test", FlightDataType.TYPE_TIME);
+		branch.addPoint(new double[] { 1 });
+		FlightDataBranch clone = branch.clone();
+		branch.addPoint(new double[] { 2 });
+
+		assertEquals(1, clone.getLength());
+		assertEquals(2, branch.getLength());
+		assertEquals(1, clone.getLast(FlightDataType.TYPE_TIME), 0);
+	}
+
+}
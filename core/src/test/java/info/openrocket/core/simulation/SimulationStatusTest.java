@@ -0,0 +1,42 @@
+package info.openrocket.core.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.logging.WarningSet;
+import info.openrocket.core.rocketcomponent.FlightConfiguration;
+import info.openrocket.core.rocketcomponent.Rocket;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.Coordinate;
+import info.openrocket.core.util.TestRockets;
+
+public class SimulationStatusTest extends BaseTestCase {
+
+	@Test
+	public void testResetTo() {
+		Rocket rocket = TestRockets.makeEstesAlphaIII();
+		FlightConfiguration config = rocket.getFlightConfiguration(TestRockets.TEST_FCID_0);
+		SimulationStatus status = new SimulationStatus(config, new SimulationConditions());
+		Coordinate position = status.getRocketPosition();
+
+		SimulationStatus intermediate = status.clone();
+		intermediate.setSimulationTime(1.5);
+		intermediate.setRocketPosition(new Coordinate(1, 2, 3));
+		intermediate.setLiftoff(true);
+		intermediate.setWarnings(new WarningSet());
+
+		intermediate.resetTo(status);
+		assertEquals(status.getSimulationTime(), intermediate.getSimulationTime(), 0);
+		assertEquals(position, intermediate.getRocketPosition());
+		assertFalse(intermediate.isLiftoff());
+		assertSame(status.getWarnings(), intermediate.getWarnings());
+
+		// Only a clone of the status can be reset to it
+		SimulationStatus other = new SimulationStatus(config, new SimulationConditions());
+		assertThrows(IllegalArgumentException.class, () -> intermediate.resetTo(other));
+	}
+}
@@ -1,11 +1,20 @@
 package info.openrocket.core.simulation.customexpression;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import info.openrocket.core.document.OpenRocketDocument;
 import info.openrocket.core.document.OpenRocketDocumentFactory;
 import info.openrocket.core.util.BaseTestCase;
 
 import org.junit.jupiter.api.Test;
 
+import de.congrace.exp4j.CompiledExpression;
+
 public class TestExpressions extends BaseTestCase {
 
 	@Test
@@ -21,4 +30,47 @@ public class TestExpressions extends BaseTestCase {
 		// System.out.println(exp.getExpressionString());
 
 	}
+
+	@Test
+	public void testCompiledExpression() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+		CustomExpression exp = new CustomExpression(doc, "Kinetic energy", "Ek", "J", ".5*m*Vt^2 - lclip(t, 1)");
+
+		CompiledExpression compiled = exp.getCompiledExpression();
+		assertNotNull(compiled);
+		assertSame(compiled, exp.getCompiledExpression());
+
+		// Only the referenced variables have slots
+		assertArrayEquals(new String[] { "m", "Vt", "t" }, compiled.getVariableNames());
+		double[] stack = new double[compiled.getStackSize()];
+		assertEquals(0.5 * 2 * 9 - 1, compiled.evaluate(new double[] { 2, 3, 0.5 }, stack), 1e-12);
+		assertEquals(0.5 * 2 * 9 - 4, compiled.evaluate(new double[] { 2, -3, 4 }, stack), 1e-12);
+
+		// Changing the expression discards the compiled expression
+		exp.setExpression("-m");
+		assertEquals(-2, exp.getCompiledExpression().evaluate(new double[] { 2 }, stack), 0);
+
+		// Range expressions have array values and are not compiled
+		assertNull(new CustomExpression(doc, "Average mass", "Mavg", "kg", "mean(m[0:t])").getCompiledExpression());
+		assertNull(new CustomExpression(doc, "Invalid", "Inv", "", "m+").getCompiledExpression());
+	}
+
+	@Test
+	public void testLinkedExpression() {
+		OpenRocketDocument doc = OpenRocketDocumentFactory.createNewRocket();
+		CustomExpression exp = new CustomExpression(doc, "Test", "Tst", "", "-(m % 3) / sqrt(Vt) + lclip(t, 1)^2");
+		CompiledExpression compiled = exp.getCompiledExpression();
+		assertTrue(compiled.isLinked());
+
+		// The linked program gives the same results as the interpreter
+		double[] stack = new double[compiled.getStackSize()];
+		double[][] values = { { 2, 3, 0.5 }, { -7.5, 0.25, 4 }, { 1, 0, 2 }, { 1, -1, Double.NaN } };
+		for (double[] v : values) {
+			assertEquals(compiled.interpret(v, stack), compiled.evaluate(v, stack), 0);
+		}
+
+		// Compiled expressions are shared by their text
+		CustomExpression copy = new CustomExpression(doc, "Copy", "Cpy", "", "-(m % 3) / sqrt(Vt) + lclip(t, 1)^2");
+		assertSame(compiled, copy.getCompiledExpression());
+	}
 }
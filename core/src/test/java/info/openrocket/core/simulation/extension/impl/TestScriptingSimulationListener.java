@@ -0,0 +1,93 @@
+package info.openrocket.core.simulation.extension.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.script.Invocable;
+
+import com.oracle.truffle.js.scriptengine.GraalJSScriptEngine;
+
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.SimulationListenerHook;
+import info.openrocket.core.util.Coordinate;
+
+import org.junit.jupiter.api.Test;
+
+public class TestScriptingSimulationListener {
+
+	private static final String SCRIPT = "function preStep(status) { return false; }\n" +
+			"function preGravityModel(status) { return 9; }\n" +
+			"function postGravityModel(status, gravity) { return gravity * 2; }\n" +
+			"function preWindModel(status) { return 'wind'; }\n" +
+			"function postWindModel(status, wind) { return wind; }\n" +
+			"function postStep(status) { throw new Error('failed'); }\n";
+
+	private ScriptingSimulationListener createListener(String script) throws Exception {
+		ScriptingUtil util = new ScriptingUtil();
+		GraalJSScriptEngine engine = (GraalJSScriptEngine) util.getEngineByName("JavaScript");
+		engine.getPolyglotContext().eval(util.getJavaScriptSource(script));
+		return new ScriptingSimulationListener((Invocable) engine);
+	}
+
+	@Test
+	public void testDefinedFunctions() throws Exception {
+		ScriptingSimulationListener listener = createListener(SCRIPT);
+
+		assertFalse(listener.preStep(null));
+		assertEquals(9.0, listener.preGravityModel(null), 0);
+		assertEquals(3.0, listener.postGravityModel(null, 1.5), 0);
+		Coordinate wind = new Coordinate(1, 2, 3);
+		assertEquals(wind, listener.postWindModel(null, wind));
+	}
+
+	@Test
+	public void testUndefinedFunctions() throws Exception {
+		ScriptingSimulationListener listener = createListener(SCRIPT);
+
+		assertFalse(listener.handlesHook(SimulationListenerHook.HANDLE_FLIGHT_EVENT));
+		assertTrue(listener.handlesHook(SimulationListenerHook.PRE_STEP));
+
+		assertTrue(listener.handleFlightEvent(null, null));
+		assertTrue(Double.isNaN(listener.preSimpleThrustCalculation(null)));
+		assertNull(listener.preAccelerationCalculation(null));
+	}
+
+	@Test
+	public void testFunctionsDefinedAtStart() throws Exception {
+		ScriptingSimulationListener listener = createListener("function startSimulation(status) {\n" +
+				"  globalThis.preGravityModel = function(status) { return 7; };\n" +
+				"}\n");
+
+		assertFalse(listener.handlesHook(SimulationListenerHook.PRE_GRAVITY_MODEL));
+		listener.startSimulation(null);
+		assertTrue(listener.handlesHook(SimulationListenerHook.PRE_GRAVITY_MODEL));
+		assertEquals(7.0, listener.preGravityModel(null), 0);
+	}
+
+	@Test
+	public void testScriptErrors() throws Exception {
+		ScriptingSimulationListener listener = createListener(SCRIPT);
+
+		// Wrong return type
+		assertThrows(SimulationException.class, () -> listener.preWindModel(null));
+		// Exception thrown by the script
+		assertThrows(SimulationException.class, () -> listener.postStep(null));
+	}
+
+	@Test
+	public void testSharedSource() throws Exception {
+		ScriptingUtil util = new ScriptingUtil();
+		assertSame(util.getJavaScriptSource(SCRIPT), util.getJavaScriptSource(SCRIPT));
+
+		// Listeners of the same script have independent contexts
+		ScriptingSimulationListener first = createListener("var n = 0; function preGravityModel(status) { n++; return n; }");
+		ScriptingSimulationListener second = createListener("var n = 0; function preGravityModel(status) { n++; return n; }");
+		assertEquals(1.0, first.preGravityModel(null), 0);
+		assertEquals(2.0, first.preGravityModel(null), 0);
+		assertEquals(1.0, second.preGravityModel(null), 0);
+	}
+}
@@ -0,0 +1,87 @@
+package info.openrocket.core.simulation.listeners;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.simulation.SimulationConditions;
+import info.openrocket.core.simulation.SimulationStatus;
+import info.openrocket.core.simulation.exception.SimulationException;
+import info.openrocket.core.simulation.listeners.system.InterruptListener;
+import info.openrocket.core.util.BaseTestCase;
+
+public class SimulationListenerDispatchTest extends BaseTestCase {
+
+	private static class PreStepListener extends AbstractSimulationListener {
+		@Override
+		public boolean preStep(SimulationStatus status) throws SimulationException {
+			return true;
+		}
+	}
+
+	private static class SubclassListener extends PreStepListener {
+		@Override
+		public double preGravityModel(SimulationStatus status) throws SimulationException {
+			return Double.NaN;
+		}
+	}
+
+	private static class SelectiveListener extends AbstractSimulationListener implements SelectiveSimulationListener {
+		@Override
+		public boolean preStep(SimulationStatus status) throws SimulationException {
+			return true;
+		}
+
+		@Override
+		public void postStep(SimulationStatus status) throws SimulationException {
+		}
+
+		@Override
+		public boolean handlesHook(SimulationListenerHook hook) {
+			return hook == SimulationListenerHook.POST_STEP;
+		}
+	}
+
+	@Test
+	public void testOverriddenHooks() {
+		SimulationListener preStep = new PreStepListener();
+		SimulationListener subclass = new SubclassListener();
+		SimulationListener selective = new SelectiveListener();
+		SimulationListener noop = new AbstractSimulationListener();
+		SimulationListenerDispatch dispatch = new SimulationListenerDispatch(
+				List.of(noop, preStep, subclass, selective, InterruptListener.INSTANCE), 0);
+
+		assertArrayEquals(new SimulationListener[] { preStep, subclass },
+				dispatch.getListeners(SimulationListenerHook.PRE_STEP));
+		assertArrayEquals(new SimulationListener[] { selective, InterruptListener.INSTANCE },
+				dispatch.getListeners(SimulationListenerHook.POST_STEP));
+		assertArrayEquals(new SimulationListener[] { subclass },
+				dispatch.getListeners(SimulationListenerHook.PRE_GRAVITY_MODEL));
+		assertEquals(0, dispatch.getListeners(SimulationListenerHook.START_SIMULATION).length);
+		assertEquals(0, dispatch.getListeners(SimulationListenerHook.POST_AERODYNAMIC_CALCULATION).length);
+	}
+
+	@Test
+	public void testRebuildOnChange() {
+		SimulationConditions conditions = new SimulationConditions();
+		SimulationListenerDispatch dispatch = conditions.getListenerDispatch();
+		assertSame(dispatch, conditions.getListenerDispatch());
+		assertEquals(0, dispatch.getListeners(SimulationListenerHook.POST_STEP).length);
+
+		conditions.getSimulationListenerList().add(InterruptListener.INSTANCE);
+		dispatch = conditions.getListenerDispatch();
+		assertArrayEquals(new SimulationListener[] { InterruptListener.INSTANCE },
+				dispatch.getListeners(SimulationListenerHook.POST_STEP));
+
+		PreStepListener replacement = new PreStepListener();
+		conditions.getSimulationListenerList().set(0, replacement);
+		assertNotSame(dispatch, conditions.getListenerDispatch());
+		assertArrayEquals(new SimulationListener[] { replacement },
+				conditions.getListenerDispatch().getListeners(SimulationListenerHook.PRE_STEP));
+	}
+}
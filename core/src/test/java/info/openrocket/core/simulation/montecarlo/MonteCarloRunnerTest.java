@@ -0,0 +1,76 @@
+package info.openrocket.core.simulation.montecarlo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import info.openrocket.core.document.Simulation;
+import info.openrocket.core.simulation.BatchSimulationRunner;
+import info.openrocket.core.util.BaseTestCase;
+import info.openrocket.core.util.TestRockets;
+
+public class MonteCarloRunnerTest extends BaseTestCase {
+
+	@Test
+	public void testReproducible() throws Exception {
+		Simulation base = new Simulation(TestRockets.makeEstesAlphaIII());
+		base.getOptions().setISAAtmosphere(true);
+		base.getOptions().setTimeStep(0.05);
+		base.setFlightConfigurationId(TestRockets.TEST_FCID_0);
+
+		MonteCarloDispersions dispersions = new MonteCarloDispersions();
+		dispersions.setWindSpeedDeviation(1.0);
+		dispersions.setLaunchRodAngleDeviation(Math.toRadians(2));
+		dispersions.setThrustDeviation(0.03);
+		dispersions.setMassDeviation(0.02);
+
+		MonteCarloResult first = run(base, dispersions, 1, 1234);
+		MonteCarloResult second = run(base, dispersions, 3, 1234);
+
+		assertEquals(0, first.getFailureCount());
+		assertArrayEquals(first.getApogees(), second.getApogees(), 0);
+		assertArrayEquals(first.getLandingX(), second.getLandingX(), 0);
+		assertEquals(first.getApogeeStatistics().getMean(), second.getApogeeStatistics().getMean(), 0);
+		assertEquals(6, first.getApogeeStatistics().getCount());
+		assertTrue(first.getApogeeStatistics().getStandardDeviation() > 0);
+		assertNotEquals(first.getApogees()[0], first.getApogees()[1]);
+
+		// The base simulation is left untouched
+		assertNull(base.getSimulatedData());
+	}
+
+	@Test
+	public void testRunSeeds() {
+		assertEquals(MonteCarloRunner.getRunSeed(1, 5), MonteCarloRunner.getRunSeed(1, 5));
+		assertNotEquals(MonteCarloRunner.getRunSeed(1, 5), MonteCarloRunner.getRunSeed(1, 6));
+		assertNotEquals(MonteCarloRunner.getRunSeed(1, 5), MonteCarloRunner.getRunSeed(2, 5));
+	}
+
+	@Test
+	public void testRunningStatistics() {
+		RunningStatistics stats = new RunningStatistics();
+		for (double v : new double[] { 2, 4, 4, 4, 5, 5, 7, 9, Double.NaN }) {
+			stats.add(v);
+		}
+		assertEquals(8, stats.getCount());
+		assertEquals(5, stats.getMean(), 1e-12);
+		assertEquals(32.0 / 7, stats.getVariance(), 1e-12);
+		assertEquals(2, stats.getMin(), 0);
+		assertEquals(9, stats.getMax(), 0);
+	}
+
+	private static MonteCarloResult run(Simulation base, MonteCarloDispersions dispersions, int threads, long seed)
+			throws InterruptedException {
+		BatchSimulationRunner runner = new BatchSimulationRunner(threads);
+		try {
+			return new MonteCarloRunner(runner).run(base, dispersions, 6, seed);
+		} finally {
+			runner.shutdown();
+		}
+	}
+
+}
@@ -43,4 +43,19 @@ public class QuaternionTest {
 
 	}
 
+	@Test
+	public void testRotationComponents() {
+		Coordinate rot = new Coordinate(0.3, -1.2, 0.05);
+		Quaternion q1 = Quaternion.rotation(rot);
+		Quaternion q2 = Quaternion.rotation(rot.x, rot.y, rot.z);
+		assertEquals(q1.getW(), q2.getW(), 0);
+		assertEquals(q1.getX(), q2.getX(), 0);
+		assertEquals(q1.getY(), q2.getY(), 0);
+		assertEquals(q1.getZ(), q2.getZ(), 0);
+
+		Quaternion zero = Quaternion.rotation(0, 0, 0);
+		assertEquals(1.0, zero.getW(), 0);
+		assertEquals(0.0, zero.getX(), 0);
+	}
+
 }
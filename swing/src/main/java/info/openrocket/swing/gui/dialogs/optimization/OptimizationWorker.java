@@ -20,6 +20,7 @@ import info.openrocket.core.optimization.general.multidim.MultidirectionalSearch
 import info.openrocket.core.optimization.general.onedim.GoldenSectionSearchOptimizer;
 import info.openrocket.core.optimization.rocketoptimization.OptimizableParameter;
 import info.openrocket.core.optimization.rocketoptimization.OptimizationGoal;
+import info.openrocket.core.optimization.rocketoptimization.OptimizationResultCache;
 import info.openrocket.core.optimization.rocketoptimization.RocketOptimizationFunction;
 import info.openrocket.core.optimization.rocketoptimization.RocketOptimizationListener;
 import info.openrocket.core.optimization.rocketoptimization.SimulationDomain;
@@ -101,6 +102,13 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 	public void run() {
 		try {
 			
+			// Loading the cache and computing the cache key store the design, so do it off the EDT
+			try {
+				function.setResultCache(OptimizationResultCache.getDefault());
+			} catch (RuntimeException e) {
+				log.warn("Unable to use the optimization result cache", e);
+			}
+			
 			double[] current = new double[modifiers.length];
 			for (int i = 0; i < modifiers.length; i++) {
 				current[i] = modifiers[i].getCurrentScaledValue(simulation);
@@ -112,6 +120,10 @@ public abstract class OptimizationWorker extends Thread implements OptimizationC
 		} catch (OptimizationException e) {
 			this.optimizationException = e;
 		} finally {
+			OptimizationResultCache resultCache = function.getResultCache();
+			if (resultCache != null) {
+				resultCache.save();
+			}
 			SwingUtilities.invokeLater(() -> {
 				lastPurge = System.currentTimeMillis() + 24L * 3600L * 1000L;
 				processQueue();